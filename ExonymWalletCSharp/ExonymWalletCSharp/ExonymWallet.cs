@@ -206,6 +206,82 @@ namespace ExonymWalletBridge
             return result;
         }
 
+        // Returns 0 if the wallet could not be opened
+        public long OpenSession(string username, string passwordAsSha256Hex, string path)
+        {
+            return NativeMethods.open_session(_thread, username, passwordAsSha256Hex, path);
+        }
+
+        public bool CloseSession(long handle)
+        {
+            int result = NativeMethods.close_session(_thread, handle);
+            return result != 0;
+        }
+
+        public string SessionWalletReport(long handle)
+        {
+            IntPtr resultPtr = NativeMethods.session_wallet_report(_thread, handle);
+            string result = Marshal.PtrToStringAnsi(resultPtr);
+            NativeMethods.free_cstring(_thread, resultPtr);
+            return result;
+        }
+
+        public string SessionAuthenticationReport(long handle, string request)
+        {
+            IntPtr resultPtr = NativeMethods.session_authentication_report(_thread, handle, request);
+            string result = Marshal.PtrToStringAnsi(resultPtr);
+            NativeMethods.free_cstring(_thread, resultPtr);
+            return result;
+        }
+
+        public string SessionProofForRulebookSSO(long handle, string uLinkChallenge)
+        {
+            IntPtr resultPtr = NativeMethods.session_proof_for_rulebook_sso(_thread, handle, uLinkChallenge);
+            string result = Marshal.PtrToStringAnsi(resultPtr);
+            NativeMethods.free_cstring(_thread, resultPtr);
+            return result;
+        }
+
+        public string SessionProofForRulebookSSOAnon(long handle, string uLinkChallenge)
+        {
+            IntPtr resultPtr = NativeMethods.session_proof_for_rulebook_sso_anon(_thread, handle, uLinkChallenge);
+            string result = Marshal.PtrToStringAnsi(resultPtr);
+            NativeMethods.free_cstring(_thread, resultPtr);
+            return result;
+        }
+
+        public string SessionGenerateDelegationRequestForThirdParty(long handle, string uLinkChallenge, string name)
+        {
+            IntPtr resultPtr = NativeMethods.session_generate_delegation_request_for_third_party(_thread, handle, uLinkChallenge, name);
+            string result = Marshal.PtrToStringAnsi(resultPtr);
+            NativeMethods.free_cstring(_thread, resultPtr);
+            return result;
+        }
+
+        public string SessionFillDelegationRequest(long handle, string uLinkChallenge)
+        {
+            IntPtr resultPtr = NativeMethods.session_fill_delegation_request(_thread, handle, uLinkChallenge);
+            string result = Marshal.PtrToStringAnsi(resultPtr);
+            NativeMethods.free_cstring(_thread, resultPtr);
+            return result;
+        }
+
+        public string SessionVerifyDelegationRequest(long handle, string requestLink, string proofLink)
+        {
+            IntPtr resultPtr = NativeMethods.session_verify_delegation_request(_thread, handle, requestLink, proofLink);
+            string result = Marshal.PtrToStringAnsi(resultPtr);
+            NativeMethods.free_cstring(_thread, resultPtr);
+            return result;
+        }
+
+        public string SessionNonInteractiveProof(long handle, string nonInteractiveProofRequest)
+        {
+            IntPtr resultPtr = NativeMethods.session_non_interactive_proof(_thread, handle, nonInteractiveProofRequest);
+            string result = Marshal.PtrToStringAnsi(resultPtr);
+            NativeMethods.free_cstring(_thread, resultPtr);
+            return result;
+        }
+
         public string SftpPut(string username, string passwordAsSha256Hex, string sftpCredentialUid, string fileName, string token, string remotePath, string path)
         {
             IntPtr resultPtr = NativeMethods.sftp_put(_thread, username, passwordAsSha256Hex, sftpCredentialUid, fileName, token, remotePath, path);
@@ -98,6 +98,36 @@ namespace ExonymWalletBridge
         [DllImport(DllName, EntryPoint = "non_interactive_proof", CallingConvention = CallingConvention.Cdecl)]
         public static extern IntPtr non_interactive_proof(IntPtr thread, string username, string passwordAsSha256Hex, string nonInteractiveProofRequest, string path);
 
+        [DllImport(DllName, EntryPoint = "open_session", CallingConvention = CallingConvention.Cdecl)]
+        public static extern long open_session(IntPtr thread, string username, string passwordAsSha256Hex, string path);
+
+        [DllImport(DllName, EntryPoint = "close_session", CallingConvention = CallingConvention.Cdecl)]
+        public static extern int close_session(IntPtr thread, long handle);
+
+        [DllImport(DllName, EntryPoint = "session_wallet_report", CallingConvention = CallingConvention.Cdecl)]
+        public static extern IntPtr session_wallet_report(IntPtr thread, long handle);
+
+        [DllImport(DllName, EntryPoint = "session_authentication_report", CallingConvention = CallingConvention.Cdecl)]
+        public static extern IntPtr session_authentication_report(IntPtr thread, long handle, string request);
+
+        [DllImport(DllName, EntryPoint = "session_proof_for_rulebook_sso", CallingConvention = CallingConvention.Cdecl)]
+        public static extern IntPtr session_proof_for_rulebook_sso(IntPtr thread, long handle, string uLinkChallenge);
+
+        [DllImport(DllName, EntryPoint = "session_proof_for_rulebook_sso_anon", CallingConvention = CallingConvention.Cdecl)]
+        public static extern IntPtr session_proof_for_rulebook_sso_anon(IntPtr thread, long handle, string uLinkChallenge);
+
+        [DllImport(DllName, EntryPoint = "session_generate_delegation_request_for_third_party", CallingConvention = CallingConvention.Cdecl)]
+        public static extern IntPtr session_generate_delegation_request_for_third_party(IntPtr thread, long handle, string uLinkChallenge, string name);
+
+        [DllImport(DllName, EntryPoint = "session_fill_delegation_request", CallingConvention = CallingConvention.Cdecl)]
+        public static extern IntPtr session_fill_delegation_request(IntPtr thread, long handle, string uLinkChallenge);
+
+        [DllImport(DllName, EntryPoint = "session_verify_delegation_request", CallingConvention = CallingConvention.Cdecl)]
+        public static extern IntPtr session_verify_delegation_request(IntPtr thread, long handle, string requestLink, string proofLink);
+
+        [DllImport(DllName, EntryPoint = "session_non_interactive_proof", CallingConvention = CallingConvention.Cdecl)]
+        public static extern IntPtr session_non_interactive_proof(IntPtr thread, long handle, string nonInteractiveProofRequest);
+
         [DllImport(DllName, EntryPoint = "sftp_put", CallingConvention = CallingConvention.Cdecl)]
         public static extern IntPtr sftp_put(IntPtr thread, string username, string passwordAsSha256Hex, string sftpCredentialUid, string fileName, string token, string remotePath, string path);
 
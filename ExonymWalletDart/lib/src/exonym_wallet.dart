@@ -529,6 +529,157 @@ class ExonymWallet extends AbstractResource {
     );
   }
 
+  /**
+   * Opens the wallet once, so that the session functions below do not open it on every call.
+   *
+   * @param username The username associated with the user's wallet.
+   * @param passwordAsSha256Hex The password for the wallet, represented as a SHA-256 hashed hexadecimal string.
+   * @param path The path to the working directory
+   * @return A Future that resolves to the session handle, or 0 if the wallet could not be opened.
+   */
+  Future<int> openSession(String username, String passwordAsSha256Hex, String path) async {
+    return _lib!.open_session(_getThread(),
+        global.toCString(username),
+        global.toCString(passwordAsSha256Hex),
+        global.toCString(path)
+    );
+  }
+
+  /**
+   * Closes a session opened with openSession.
+   *
+   * @param handle The session handle
+   * @return A Future that resolves to true if the session was open.
+   */
+  Future<bool> closeSession(int handle) async {
+    return _lib!.close_session(_getThread(), handle) != 0;
+  }
+
+  /**
+   * walletReport for an open session.
+   *
+   * @param handle The session handle returned by openSession
+   */
+  Future<String> sessionWalletReport(int handle) async {
+    return global.fromCString(
+        _lib!.session_wallet_report(_getThread(),
+            handle
+        )
+    );
+  }
+
+  /**
+   * authenticationReport for an open session.
+   *
+   * @param handle The session handle returned by openSession
+   * @param request The authentication request that needs to be evaluated.
+   */
+  Future<String> sessionAuthenticationReport(int handle, String request) async {
+    return global.fromCString(
+        _lib!.session_authentication_report(_getThread(),
+            handle,
+            global.toCString(request)
+        )
+    );
+  }
+
+  /**
+   * proofForRulebookSSO for an open session.
+   *
+   * @param handle The session handle returned by openSession
+   * @param uLinkChallenge The universal link challenge
+   */
+  Future<String> sessionProofForRulebookSSO(int handle, String uLinkChallenge) async {
+    return global.fromCString(
+        _lib!.session_proof_for_rulebook_sso(_getThread(),
+            handle,
+            global.toCString(uLinkChallenge)
+        )
+    );
+  }
+
+  /**
+   * proofForRulebookSSOAnon for an open session.
+   *
+   * @param handle The session handle returned by openSession
+   * @param uLinkChallenge The universal link challenge
+   */
+  Future<String> sessionProofForRulebookSSOAnon(int handle, String uLinkChallenge) async {
+    return global.fromCString(
+        _lib!.session_proof_for_rulebook_sso_anon(_getThread(),
+            handle,
+            global.toCString(uLinkChallenge)
+        )
+    );
+  }
+
+  /**
+   * generateDelegationRequestForThirdParty for an open session.
+   *
+   * @param handle The session handle returned by openSession
+   * @param uLinkChallenge The universal link challenge
+   * @param name The name of the third party
+   */
+  Future<String> sessionGenerateDelegationRequestForThirdParty(int handle,
+      String uLinkChallenge, String name) async {
+    return global.fromCString(
+        _lib!.session_generate_delegation_request_for_third_party(_getThread(),
+            handle,
+            global.toCString(uLinkChallenge),
+            global.toCString(name)
+        )
+    );
+  }
+
+  /**
+   * fillDelegationRequest for an open session.
+   *
+   * @param handle The session handle returned by openSession
+   * @param ulink The universal link corresponding to the delegation request.
+   */
+  Future<String> sessionFillDelegationRequest(int handle, String ulink) async {
+    return global.fromCString(
+        _lib!.session_fill_delegation_request(_getThread(),
+            handle,
+            global.toCString(ulink)
+        )
+    );
+  }
+
+  /**
+   * verifyDelegationRequest for an open session.
+   *
+   * @param handle The session handle returned by openSession
+   * @param requestLink The link to the delegation request
+   * @param proofLink The link to the proof
+   */
+  Future<String> sessionVerifyDelegationRequest(int handle,
+      String requestLink, String proofLink) async {
+    return global.fromCString(
+        _lib!.session_verify_delegation_request(_getThread(),
+            handle,
+            global.toCString(requestLink),
+            global.toCString(proofLink)
+        )
+    );
+  }
+
+  /**
+   * nonInteractiveProofRequest for an open session.
+   *
+   * @param handle The session handle returned by openSession
+   * @param nonInteractiveProofRequest a json document that defines the request.
+   */
+  Future<String> sessionNonInteractiveProofRequest(int handle,
+      String nonInteractiveProofRequest) async {
+    return global.fromCString(
+        _lib!.session_non_interactive_proof(_getThread(),
+            handle,
+            global.toCString(nonInteractiveProofRequest)
+        )
+    );
+  }
+
   /**
    * Executes test net onboarding for Sybil.
    *
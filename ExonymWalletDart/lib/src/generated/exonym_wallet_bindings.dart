@@ -576,6 +576,250 @@ class ExonymWalletLibrary {
           ffi.Pointer<ffi.Char>,
           ffi.Pointer<ffi.Char>)>();
 
+  int open_session(
+    ffi.Pointer<graal_isolatethread_t> arg0,
+    ffi.Pointer<ffi.Char> arg1,
+    ffi.Pointer<ffi.Char> arg2,
+    ffi.Pointer<ffi.Char> arg3,
+  ) {
+    return _open_session(
+      arg0,
+      arg1,
+      arg2,
+      arg3,
+    );
+  }
+
+  late final _open_sessionPtr = _lookup<
+      ffi.NativeFunction<
+          ffi.LongLong Function(
+              ffi.Pointer<graal_isolatethread_t>,
+              ffi.Pointer<ffi.Char>,
+              ffi.Pointer<ffi.Char>,
+              ffi.Pointer<ffi.Char>)>>('open_session');
+  late final _open_session = _open_sessionPtr.asFunction<
+      int Function(
+          ffi.Pointer<graal_isolatethread_t>,
+          ffi.Pointer<ffi.Char>,
+          ffi.Pointer<ffi.Char>,
+          ffi.Pointer<ffi.Char>)>();
+
+  int close_session(
+    ffi.Pointer<graal_isolatethread_t> arg0,
+    int arg1,
+  ) {
+    return _close_session(
+      arg0,
+      arg1,
+    );
+  }
+
+  late final _close_sessionPtr = _lookup<
+      ffi.NativeFunction<
+          ffi.Int Function(
+              ffi.Pointer<graal_isolatethread_t>,
+              ffi.LongLong)>>('close_session');
+  late final _close_session = _close_sessionPtr.asFunction<
+      int Function(
+          ffi.Pointer<graal_isolatethread_t>,
+          int)>();
+
+  ffi.Pointer<ffi.Char> session_wallet_report(
+    ffi.Pointer<graal_isolatethread_t> arg0,
+    int arg1,
+  ) {
+    return _session_wallet_report(
+      arg0,
+      arg1,
+    );
+  }
+
+  late final _session_wallet_reportPtr = _lookup<
+      ffi.NativeFunction<
+          ffi.Pointer<ffi.Char> Function(
+              ffi.Pointer<graal_isolatethread_t>,
+              ffi.LongLong)>>('session_wallet_report');
+  late final _session_wallet_report = _session_wallet_reportPtr.asFunction<
+      ffi.Pointer<ffi.Char> Function(
+          ffi.Pointer<graal_isolatethread_t>,
+          int)>();
+
+  ffi.Pointer<ffi.Char> session_authentication_report(
+    ffi.Pointer<graal_isolatethread_t> arg0,
+    int arg1,
+    ffi.Pointer<ffi.Char> arg2,
+  ) {
+    return _session_authentication_report(
+      arg0,
+      arg1,
+      arg2,
+    );
+  }
+
+  late final _session_authentication_reportPtr = _lookup<
+      ffi.NativeFunction<
+          ffi.Pointer<ffi.Char> Function(
+              ffi.Pointer<graal_isolatethread_t>,
+              ffi.LongLong,
+              ffi.Pointer<ffi.Char>)>>('session_authentication_report');
+  late final _session_authentication_report = _session_authentication_reportPtr.asFunction<
+      ffi.Pointer<ffi.Char> Function(
+          ffi.Pointer<graal_isolatethread_t>,
+          int,
+          ffi.Pointer<ffi.Char>)>();
+
+  ffi.Pointer<ffi.Char> session_proof_for_rulebook_sso(
+    ffi.Pointer<graal_isolatethread_t> arg0,
+    int arg1,
+    ffi.Pointer<ffi.Char> arg2,
+  ) {
+    return _session_proof_for_rulebook_sso(
+      arg0,
+      arg1,
+      arg2,
+    );
+  }
+
+  late final _session_proof_for_rulebook_ssoPtr = _lookup<
+      ffi.NativeFunction<
+          ffi.Pointer<ffi.Char> Function(
+              ffi.Pointer<graal_isolatethread_t>,
+              ffi.LongLong,
+              ffi.Pointer<ffi.Char>)>>('session_proof_for_rulebook_sso');
+  late final _session_proof_for_rulebook_sso = _session_proof_for_rulebook_ssoPtr.asFunction<
+      ffi.Pointer<ffi.Char> Function(
+          ffi.Pointer<graal_isolatethread_t>,
+          int,
+          ffi.Pointer<ffi.Char>)>();
+
+  ffi.Pointer<ffi.Char> session_proof_for_rulebook_sso_anon(
+    ffi.Pointer<graal_isolatethread_t> arg0,
+    int arg1,
+    ffi.Pointer<ffi.Char> arg2,
+  ) {
+    return _session_proof_for_rulebook_sso_anon(
+      arg0,
+      arg1,
+      arg2,
+    );
+  }
+
+  late final _session_proof_for_rulebook_sso_anonPtr = _lookup<
+      ffi.NativeFunction<
+          ffi.Pointer<ffi.Char> Function(
+              ffi.Pointer<graal_isolatethread_t>,
+              ffi.LongLong,
+              ffi.Pointer<ffi.Char>)>>('session_proof_for_rulebook_sso_anon');
+  late final _session_proof_for_rulebook_sso_anon = _session_proof_for_rulebook_sso_anonPtr.asFunction<
+      ffi.Pointer<ffi.Char> Function(
+          ffi.Pointer<graal_isolatethread_t>,
+          int,
+          ffi.Pointer<ffi.Char>)>();
+
+  ffi.Pointer<ffi.Char> session_generate_delegation_request_for_third_party(
+    ffi.Pointer<graal_isolatethread_t> arg0,
+    int arg1,
+    ffi.Pointer<ffi.Char> arg2,
+    ffi.Pointer<ffi.Char> arg3,
+  ) {
+    return _session_generate_delegation_request_for_third_party(
+      arg0,
+      arg1,
+      arg2,
+      arg3,
+    );
+  }
+
+  late final _session_generate_delegation_request_for_third_partyPtr = _lookup<
+      ffi.NativeFunction<
+          ffi.Pointer<ffi.Char> Function(
+              ffi.Pointer<graal_isolatethread_t>,
+              ffi.LongLong,
+              ffi.Pointer<ffi.Char>,
+              ffi.Pointer<ffi.Char>)>>('session_generate_delegation_request_for_third_party');
+  late final _session_generate_delegation_request_for_third_party = _session_generate_delegation_request_for_third_partyPtr.asFunction<
+      ffi.Pointer<ffi.Char> Function(
+          ffi.Pointer<graal_isolatethread_t>,
+          int,
+          ffi.Pointer<ffi.Char>,
+          ffi.Pointer<ffi.Char>)>();
+
+  ffi.Pointer<ffi.Char> session_fill_delegation_request(
+    ffi.Pointer<graal_isolatethread_t> arg0,
+    int arg1,
+    ffi.Pointer<ffi.Char> arg2,
+  ) {
+    return _session_fill_delegation_request(
+      arg0,
+      arg1,
+      arg2,
+    );
+  }
+
+  late final _session_fill_delegation_requestPtr = _lookup<
+      ffi.NativeFunction<
+          ffi.Pointer<ffi.Char> Function(
+              ffi.Pointer<graal_isolatethread_t>,
+              ffi.LongLong,
+              ffi.Pointer<ffi.Char>)>>('session_fill_delegation_request');
+  late final _session_fill_delegation_request = _session_fill_delegation_requestPtr.asFunction<
+      ffi.Pointer<ffi.Char> Function(
+          ffi.Pointer<graal_isolatethread_t>,
+          int,
+          ffi.Pointer<ffi.Char>)>();
+
+  ffi.Pointer<ffi.Char> session_verify_delegation_request(
+    ffi.Pointer<graal_isolatethread_t> arg0,
+    int arg1,
+    ffi.Pointer<ffi.Char> arg2,
+    ffi.Pointer<ffi.Char> arg3,
+  ) {
+    return _session_verify_delegation_request(
+      arg0,
+      arg1,
+      arg2,
+      arg3,
+    );
+  }
+
+  late final _session_verify_delegation_requestPtr = _lookup<
+      ffi.NativeFunction<
+          ffi.Pointer<ffi.Char> Function(
+              ffi.Pointer<graal_isolatethread_t>,
+              ffi.LongLong,
+              ffi.Pointer<ffi.Char>,
+              ffi.Pointer<ffi.Char>)>>('session_verify_delegation_request');
+  late final _session_verify_delegation_request = _session_verify_delegation_requestPtr.asFunction<
+      ffi.Pointer<ffi.Char> Function(
+          ffi.Pointer<graal_isolatethread_t>,
+          int,
+          ffi.Pointer<ffi.Char>,
+          ffi.Pointer<ffi.Char>)>();
+
+  ffi.Pointer<ffi.Char> session_non_interactive_proof(
+    ffi.Pointer<graal_isolatethread_t> arg0,
+    int arg1,
+    ffi.Pointer<ffi.Char> arg2,
+  ) {
+    return _session_non_interactive_proof(
+      arg0,
+      arg1,
+      arg2,
+    );
+  }
+
+  late final _session_non_interactive_proofPtr = _lookup<
+      ffi.NativeFunction<
+          ffi.Pointer<ffi.Char> Function(
+              ffi.Pointer<graal_isolatethread_t>,
+              ffi.LongLong,
+              ffi.Pointer<ffi.Char>)>>('session_non_interactive_proof');
+  late final _session_non_interactive_proof = _session_non_interactive_proofPtr.asFunction<
+      ffi.Pointer<ffi.Char> Function(
+          ffi.Pointer<graal_isolatethread_t>,
+          int,
+          ffi.Pointer<ffi.Char>)>();
+
   ffi.Pointer<ffi.Char> sftp_put(
     ffi.Pointer<graal_isolatethread_t> arg0,
     ffi.Pointer<ffi.Char> arg1,
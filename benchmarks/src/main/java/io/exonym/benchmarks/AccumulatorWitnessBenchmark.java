@@ -0,0 +1,97 @@
+package io.exonym.benchmarks;
+
+import com.ibm.zurich.idmx.buildingBlock.revocation.cl.AccumulatorWitness;
+import com.ibm.zurich.idmx.exception.RevocationException;
+import com.ibm.zurich.idmx.interfaces.util.BigInt;
+import com.ibm.zurich.idmx.interfaces.util.BigIntFactory;
+import com.ibm.zurich.idmx.interfaces.util.group.HiddenOrderGroup;
+import com.ibm.zurich.idmx.interfaces.util.group.HiddenOrderGroupElement;
+import com.ibm.zurich.idmx.util.Arithmetic;
+import com.ibm.zurich.idmx.util.bigInt.BigIntFactoryImpl;
+import com.ibm.zurich.idmx.util.group.GroupFactoryImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A holder that missed <tt>events</tt> revocations brings its witness up to
+ * the latest accumulator value, either one event at a time or in one batch.
+ *
+ * The accumulator runs on a 2048-bit signed quadratic residues group with
+ * 256-bit revocation handles, as the CL revocation authority does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class AccumulatorWitnessBenchmark {
+
+    private static final int MODULUS_BITS = 2048;
+    private static final int HANDLE_BITS = 256;
+
+    @Param({"1", "10", "100", "1000"})
+    public int events;
+
+    private BigIntFactory bigIntFactory;
+    private BigInt value;
+    private HiddenOrderGroupElement witness;
+    private BigInt[] removedPrimes;
+    private HiddenOrderGroupElement[] accumulatorValues;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(events);
+        bigIntFactory = new BigIntFactoryImpl();
+        BigInteger p = BigInteger.probablePrime(MODULUS_BITS / 2, random);
+        BigInteger q = BigInteger.probablePrime(MODULUS_BITS / 2, random);
+        BigInteger order = p.subtract(BigInteger.ONE).multiply(q.subtract(BigInteger.ONE));
+        HiddenOrderGroup group = new GroupFactoryImpl()
+                .createSignedQuadraticResiduesGroup(bigIntFactory.valueOf(p.multiply(q)));
+
+        HiddenOrderGroupElement accumulator = group.valueOfNoCheck(bigIntFactory.valueOf(
+                new BigInteger(MODULUS_BITS - 1, random))).multOp(bigIntFactory.two());
+        value = bigIntFactory.valueOf(handle(random, order));
+        witness = accumulator.multOp(value.modInverse(bigIntFactory.valueOf(order)));
+
+        removedPrimes = new BigInt[events];
+        accumulatorValues = new HiddenOrderGroupElement[events];
+        for (int i = 0; i < events; i++) {
+            BigInteger prime = handle(random, order);
+            removedPrimes[i] = bigIntFactory.valueOf(prime);
+            accumulator = accumulator.multOp(bigIntFactory.valueOf(prime.modInverse(order)));
+            accumulatorValues[i] = accumulator;
+        }
+    }
+
+    private static BigInteger handle(Random random, BigInteger order) {
+        BigInteger prime;
+        do {
+            prime = BigInteger.probablePrime(HANDLE_BITS, random);
+        } while (!prime.gcd(order).equals(BigInteger.ONE));
+        return prime;
+    }
+
+    @Benchmark
+    public HiddenOrderGroupElement perEvent() throws RevocationException {
+        HiddenOrderGroupElement w = witness;
+        for (int i = 0; i < events; i++) {
+            w = AccumulatorWitness.updateWitnessValue(w, value, removedPrimes[i], accumulatorValues[i]);
+        }
+        return w;
+    }
+
+    @Benchmark
+    public HiddenOrderGroupElement batched() throws RevocationException {
+        List<BigInt> primes = new ArrayList<>(Arrays.asList(removedPrimes));
+        return AccumulatorWitness.updateWitnessValue(witness, value,
+                Arithmetic.product(primes, bigIntFactory), accumulatorValues[events - 1]);
+    }
+
+}
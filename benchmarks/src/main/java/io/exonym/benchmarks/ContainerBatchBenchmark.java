@@ -0,0 +1,97 @@
+package io.exonym.benchmarks;
+
+import io.exonym.lib.api.AbstractIdContainer;
+import io.exonym.lib.api.IdContainerJSON;
+import io.exonym.lib.api.IdContainerJsonLog;
+import io.exonym.lib.lite.SFTPLogonData;
+import io.exonym.lib.standard.PassStore;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Cipher;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The container writes made while a wallet is opened.  Every revocable
+ * credential is saved again with fresh non-revocation evidence, so a wallet
+ * with n credentials makes n encrypted overwrites in the owner store.
+ *
+ * Each write commits the whole container, against one begin()/commit()
+ * batch around the open, for the single-file and the log container.  The
+ * cryptography of the open is not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContainerBatchBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int credentials;
+
+    @Param({"json", "log"})
+    public String container;
+
+    private Path root;
+    private AbstractIdContainer x;
+    private Cipher enc;
+    private final ArrayList<SFTPLogonData> owned = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        root = Files.createTempDirectory("container-batch");
+        x = "log".equals(container)
+                ? new IdContainerJsonLog(root, "benchmarks", true)
+                : new IdContainerJSON(root, "benchmarks", true);
+        enc = new PassStore("password", false).getEncrypt();
+
+        // roughly the size of a credential with its evidence
+        String evidence = "0".repeat(6000);
+        for (int i = 0; i < credentials; i++) {
+            SFTPLogonData credential = new SFTPLogonData();
+            credential.setSftpUID(URI.create("urn:benchmarks:credential:" + i));
+            credential.setHost("sftp.example.com");
+            credential.setPort(22);
+            credential.setUsernameAndPassword("benchmarks", evidence);
+            credential.setKnownHosts(evidence, "", "");
+            owned.add(credential);
+            x.saveLocalResource(credential, true, enc);
+
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public AbstractIdContainer commitPerWrite() throws Exception {
+        for (SFTPLogonData credential : owned) {
+            x.saveLocalResource(credential, true, enc);
+        }
+        return x;
+    }
+
+    @Benchmark
+    public AbstractIdContainer batched() throws Exception {
+        x.begin();
+        try {
+            for (SFTPLogonData credential : owned) {
+                x.saveLocalResource(credential, true, enc);
+            }
+        } finally {
+            x.commit();
+        }
+        return x;
+    }
+}
@@ -0,0 +1,65 @@
+package io.exonym.benchmarks;
+
+import com.ibm.zurich.idmx.interfaces.util.BigInt;
+import com.ibm.zurich.idmx.interfaces.util.BigIntFactory;
+import com.ibm.zurich.idmx.interfaces.util.group.HiddenOrderGroup;
+import com.ibm.zurich.idmx.interfaces.util.group.HiddenOrderGroupElement;
+import com.ibm.zurich.idmx.util.bigInt.BigIntFactoryImpl;
+import com.ibm.zurich.idmx.util.group.FixedBaseCache;
+import com.ibm.zurich.idmx.util.group.GroupFactoryImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exponentiation of a CL public-key sized base with an exponent the length of
+ * a CL randomiser, with and without the base registered in FixedBaseCache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FixedBaseBenchmark {
+
+    private static final int MODULUS_BITS = 2048;
+    private static final int EXPONENT_BITS = MODULUS_BITS + 512;
+
+    @Param({"false", "true"})
+    public boolean registered;
+
+    private HiddenOrderGroupElement base;
+    private BigInt exponent;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(MODULUS_BITS);
+        BigIntFactory bigIntFactory = new BigIntFactoryImpl();
+        BigInteger n = BigInteger.probablePrime(MODULUS_BITS / 2, random)
+                .multiply(BigInteger.probablePrime(MODULUS_BITS / 2, random));
+        HiddenOrderGroup group = new GroupFactoryImpl().createSRSAGroup(bigIntFactory.valueOf(n));
+        BigInteger b = new BigInteger(MODULUS_BITS - 1, random).modPow(BigInteger.TWO, n);
+        base = group.valueOfNoCheck(bigIntFactory.valueOf(b));
+        exponent = bigIntFactory.valueOf(new BigInteger(EXPONENT_BITS, random));
+
+        FixedBaseCache.clear();
+        if (registered) {
+            FixedBaseCache.register(bigIntFactory.valueOf(n), base.toBigInt());
+            base.multOp(exponent);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        FixedBaseCache.clear();
+    }
+
+    @Benchmark
+    public HiddenOrderGroupElement multOp() {
+        return base.multOp(exponent);
+    }
+
+}
@@ -0,0 +1,45 @@
+package io.exonym.benchmarks;
+
+import io.exonym.lib.wallet.WalletFixture;
+import io.exonym.lib.wallet.ExonymOwner;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CL issuance round trip of a revocable credential, issueInit, the
+ * owner's first step, issueStep and the owner's last step, into an owner that
+ * holds nothing yet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IssuanceBenchmark {
+
+    private WalletFixture fixture;
+    private ExonymOwner receiver;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        fixture = new WalletFixture(Files.createTempDirectory("issuance"), 1);
+    }
+
+    @Setup(Level.Invocation)
+    public void newReceiver() throws Exception {
+        receiver = fixture.newOwner();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.delete();
+    }
+
+    @Benchmark
+    public void issue() throws Exception {
+        fixture.issueTo(receiver);
+    }
+}
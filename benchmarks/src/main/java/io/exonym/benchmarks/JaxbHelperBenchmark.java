@@ -0,0 +1,135 @@
+package io.exonym.benchmarks;
+
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.jaxb.JaxbAnnotationIntrospector;
+import eu.abc4trust.xml.Message;
+import eu.abc4trust.xml.ObjectFactory;
+import eu.abc4trust.xml.PresentationToken;
+import eu.abc4trust.xml.PresentationTokenDescription;
+import eu.abc4trust.xml.PseudonymInToken;
+import io.exonym.lib.abc.util.JaxbHelper;
+import io.exonym.lib.pojo.IdContainerSchema;
+import io.exonym.lib.pojo.NetworkMapItemModerator;
+import org.openjdk.jmh.annotations.*;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.stream.XMLInputFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.net.URI;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of a serialize and parse round trip through JaxbHelper, with a
+ * context and mapper created on every call (as JaxbHelper used to) against the
+ * cached contexts, pooled marshallers and shared Jackson reader and writer.
+ *
+ * PresentationToken goes through XML; IdContainerSchema and
+ * NetworkMapItemModerator go through JSON, as they do in the wallet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JaxbHelperBenchmark {
+
+    private PresentationToken token;
+    private IdContainerSchema schema;
+    private NetworkMapItemModerator moderator;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(1);
+        ObjectFactory of = new ObjectFactory();
+        byte[] nonce = new byte[20];
+        random.nextBytes(nonce);
+        Message message = of.createMessage();
+        message.setNonce(nonce);
+        PseudonymInToken nym = of.createPseudonymInToken();
+        nym.setExclusive(true);
+        nym.setScope("urn:benchmarks:scope");
+        PresentationTokenDescription ptd = of.createPresentationTokenDescription();
+        ptd.setPolicyUID(URI.create("urn:benchmarks:policy"));
+        ptd.setTokenUID(URI.create("urn:benchmarks:token"));
+        ptd.setMessage(message);
+        ptd.getPseudonym().add(nym);
+        token = of.createPresentationToken();
+        token.setVersion("1.0");
+        token.setPresentationTokenDescription(ptd);
+
+        schema = new IdContainerSchema();
+        schema.setUsername("benchmarks");
+        for (int i = 0; i < 20; i++) {
+            schema.getLocalLedger().put("urn:benchmarks:ledger:" + i, Long.toHexString(random.nextLong()));
+            schema.getOwnerSecretStore().put("urn:benchmarks:secret:" + i, Long.toHexString(random.nextLong()));
+        }
+
+        moderator = new NetworkMapItemModerator();
+        moderator.setNodeUID(URI.create("urn:rulebook:benchmarks:lead:moderator"));
+        moderator.setLeadUID(URI.create("urn:rulebook:benchmarks:lead"));
+        moderator.setBroadcastAddress(URI.create("https://moderator.example.com/broadcast"));
+        moderator.setRegion("CH");
+        moderator.setLastUpdated("2024-01-01T00:00:00Z");
+        byte[] key = new byte[294];
+        random.nextBytes(key);
+        moderator.setPublicKeyB64(key);
+        moderator.setRevocationInformationHash(Long.toHexString(random.nextLong()));
+    }
+
+    @Benchmark
+    public Object presentationTokenPerCallContext() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(PresentationToken.class);
+        Marshaller m = context.createMarshaller();
+        m.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+        m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        m.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        m.marshal(token, bos);
+        JAXBContext parse = JAXBContext.newInstance(PresentationToken.class);
+        return parse.createUnmarshaller().unmarshal(XMLInputFactory.newInstance()
+                .createXMLStreamReader(new StringReader(bos.toString())));
+    }
+
+    @Benchmark
+    public Object presentationTokenCached() throws Exception {
+        return JaxbHelper.xmlToClass(JaxbHelper.serializeToXml(token, PresentationToken.class),
+                PresentationToken.class);
+    }
+
+    @Benchmark
+    public Object idContainerSchemaPerCallMapper() throws Exception {
+        return perCallMapperRoundTrip(schema, IdContainerSchema.class);
+    }
+
+    @Benchmark
+    public Object idContainerSchemaCached() throws Exception {
+        return JaxbHelper.jsonToClass(JaxbHelper.serializeToJson(schema, IdContainerSchema.class),
+                IdContainerSchema.class);
+    }
+
+    @Benchmark
+    public Object networkMapItemModeratorPerCallMapper() throws Exception {
+        return perCallMapperRoundTrip(moderator, NetworkMapItemModerator.class);
+    }
+
+    @Benchmark
+    public Object networkMapItemModeratorCached() throws Exception {
+        return JaxbHelper.jsonToClass(JaxbHelper.serializeToJson(moderator, NetworkMapItemModerator.class),
+                NetworkMapItemModerator.class);
+    }
+
+    private static <T> T perCallMapperRoundTrip(Object o, Class<T> clazz) throws Exception {
+        ObjectMapper writer = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        AnnotationIntrospector introspection = new JaxbAnnotationIntrospector(writer.getTypeFactory());
+        writer.setAnnotationIntrospector(introspection);
+        String json = writer.writeValueAsString(o);
+        return new ObjectMapper().readValue(json, clazz);
+    }
+
+}
@@ -0,0 +1,38 @@
+package io.exonym.benchmarks;
+
+import io.exonym.lib.wallet.WalletFixture;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Setting up an issuer: the revocation authority's keys and the issuer's CL
+ * keys on the system parameters in the wallet's resources, and the public
+ * parameters written to the issuer's container.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class KeyGenerationBenchmark {
+
+    private WalletFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        fixture = new WalletFixture(Files.createTempDirectory("key-generation"), 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.delete();
+    }
+
+    @Benchmark
+    public void issuerKeys() throws Exception {
+        fixture.generateIssuerKeys();
+    }
+}
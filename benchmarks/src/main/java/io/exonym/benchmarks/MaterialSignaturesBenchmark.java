@@ -0,0 +1,114 @@
+package io.exonym.benchmarks;
+
+import io.exonym.lib.actor.MaterialSignatures;
+import io.exonym.lib.pojo.XKey;
+import io.exonym.lib.standard.AsymStoreKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checking the signatures over the materials of a moderator: issuer
+ * parameters, revocation authority parameters, revocation information,
+ * inspector public key, presentation policy, credential specification and
+ * trust network.
+ *
+ * The regex strip against the single byte pass, and the sequential check with
+ * a Signature per item against the parallel check, cold and remembered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MaterialSignaturesBenchmark {
+
+    private static final int MATERIALS = 7;
+
+    // bytes per material; issuer parameters are the largest at tens of KB
+    @Param({"4096", "32768"})
+    public int size;
+
+    private AsymStoreKey key;
+    private final ArrayList<byte[]> files = new ArrayList<>();
+    private final LinkedHashMap<XKey, byte[]> signatures = new LinkedHashMap<>();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair pair = generator.generateKeyPair();
+        key = AsymStoreKey.blank();
+        key.assembleKey(pair.getPublic());
+        key.assembleKey(pair.getPrivate());
+
+        for (int i = 0; i < MATERIALS; i++) {
+            StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<abc:Material n=\"" + i + "\">\n");
+            while (xml.length() < size) {
+                xml.append("\t\t<abc:Element Name=\"x\">\n\t\t\t<abc:Value>123456789012345678901234567890</abc:Value>\n\t\t</abc:Element>\n");
+            }
+            xml.append("</abc:Material>\n");
+            byte[] file = xml.toString().getBytes(StandardCharsets.UTF_8);
+            files.add(file);
+
+            byte[] signed = MaterialSignatures.stripToSign(file);
+            XKey sig = new XKey();
+            sig.setKeyUid(URI.create("urn:rulebook:benchmarks:moderator:material-" + i));
+            sig.setSignature(key.sign(signed));
+            signatures.put(sig, signed);
+        }
+    }
+
+    @Benchmark
+    public int stripRegex() {
+        int n = 0;
+        for (byte[] file : files) {
+            // as NodeVerifier.stripStringToSign was
+            String xml = new String(file, StandardCharsets.UTF_8);
+            n += xml.replaceAll("\t", "")
+                    .replaceAll("\n", "")
+                    .replaceAll(" ", "")
+                    .replaceAll("\"", "")
+                    .getBytes().length;
+        }
+        return n;
+    }
+
+    @Benchmark
+    public int stripBytes() {
+        int n = 0;
+        for (byte[] file : files) {
+            n += MaterialSignatures.stripToSign(file).length;
+        }
+        return n;
+    }
+
+    @Benchmark
+    public int verifySequential() throws Exception {
+        int n = 0;
+        for (XKey sig : signatures.keySet()) {
+            if (key.verifySignature(signatures.get(sig), sig.getSignature())) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Benchmark
+    public void verifyParallel() throws Exception {
+        MaterialSignatures.clearMemo();
+        MaterialSignatures.verifyAll(key, signatures);
+    }
+
+    @Benchmark
+    public void verifyRemembered() throws Exception {
+        MaterialSignatures.verifyAll(key, signatures);
+    }
+}
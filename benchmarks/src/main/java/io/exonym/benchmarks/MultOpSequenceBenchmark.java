@@ -0,0 +1,74 @@
+package io.exonym.benchmarks;
+
+import com.ibm.zurich.idmx.interfaces.util.BigInt;
+import com.ibm.zurich.idmx.interfaces.util.BigIntFactory;
+import com.ibm.zurich.idmx.interfaces.util.group.HiddenOrderGroup;
+import com.ibm.zurich.idmx.interfaces.util.group.HiddenOrderGroupElement;
+import com.ibm.zurich.idmx.interfaces.util.group.HiddenOrderGroupMultOpSequence;
+import com.ibm.zurich.idmx.util.bigInt.BigIntFactoryImpl;
+import com.ibm.zurich.idmx.util.group.GroupFactoryImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-base modPow loop that SRSAGroupMOS used to run with the
+ * multi-exponentiation engine behind MultOpSequenceImpl.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultOpSequenceBenchmark {
+
+    private static final int MODULUS_BITS = 2048;
+    private static final int STATISTICAL_INDISTINGUISHABILITY = 80;
+
+    @Param({"2", "4", "8", "12", "16", "20", "30"})
+    public int bases;
+
+    private HiddenOrderGroup group;
+    private HiddenOrderGroupElement[] elements;
+    private BigInt[] exponents;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(bases);
+        BigIntFactory bigIntFactory = new BigIntFactoryImpl();
+        BigInteger n = BigInteger.probablePrime(MODULUS_BITS / 2, random)
+                .multiply(BigInteger.probablePrime(MODULUS_BITS / 2, random));
+        group = new GroupFactoryImpl().createSRSAGroup(bigIntFactory.valueOf(n));
+
+        elements = new HiddenOrderGroupElement[bases];
+        exponents = new BigInt[bases];
+        for (int i = 0; i < bases; i++) {
+            BigInteger b = new BigInteger(MODULUS_BITS - 1, random).modPow(BigInteger.TWO, n);
+            elements[i] = group.valueOfNoCheck(bigIntFactory.valueOf(b));
+            exponents[i] = bigIntFactory.valueOf(
+                    new BigInteger(MODULUS_BITS + STATISTICAL_INDISTINGUISHABILITY, random));
+        }
+    }
+
+    @Benchmark
+    public HiddenOrderGroupElement perBaseModPow() {
+        HiddenOrderGroupElement result = group.neutralElement();
+        for (int i = 0; i < bases; i++) {
+            result = result.op(elements[i].multOp(exponents[i]));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public HiddenOrderGroupElement multiExponentiation() {
+        HiddenOrderGroupMultOpSequence sequence = group.initializeSequence();
+        for (int i = 0; i < bases; i++) {
+            sequence.putMultOp(elements[i], exponents[i]);
+        }
+        return sequence.finalizeSequence();
+    }
+
+}
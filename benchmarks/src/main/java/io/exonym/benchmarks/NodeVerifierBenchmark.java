@@ -0,0 +1,53 @@
+package io.exonym.benchmarks;
+
+import io.exonym.lib.actor.MaterialSignatures;
+import io.exonym.lib.actor.NodeVerifier;
+import io.exonym.lib.wallet.WalletFixture;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opening and verifying a moderator's materials from a local folder: reading
+ * the credential specification, issuer parameters, revocation authority
+ * parameters, revocation information and trust network, and checking the
+ * root key, the signature over each material and the checksum.
+ *
+ * Cold, with no signature remembered, and remembered, where only reading and
+ * parsing the materials is left.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NodeVerifierBenchmark {
+
+    private WalletFixture fixture;
+    private WalletFixture.Node node;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        fixture = new WalletFixture(Files.createTempDirectory("node-verifier"), 1);
+        node = fixture.publishNode();
+        NodeVerifier.openLocal(node.getUrl(), node.getKeys(), false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.delete();
+    }
+
+    @Benchmark
+    public NodeVerifier openCold() throws Exception {
+        MaterialSignatures.clearMemo();
+        return NodeVerifier.openLocal(node.getUrl(), node.getKeys(), false);
+    }
+
+    @Benchmark
+    public NodeVerifier openRemembered() throws Exception {
+        return NodeVerifier.openLocal(node.getUrl(), node.getKeys(), false);
+    }
+}
@@ -0,0 +1,57 @@
+package io.exonym.benchmarks;
+
+import eu.abc4trust.xml.PresentationPolicyAlternatives;
+import eu.abc4trust.xml.PresentationToken;
+import io.exonym.lib.wallet.WalletFixture;
+import io.exonym.lib.wallet.TokenVerifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Proving a revocable credential and verifying the token, for a policy with
+ * the root pseudonym only and for the SSO policy that also asks for the
+ * pseudonym exclusive to the relying party's domain.  Both include the proof
+ * of non-revocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PresentationBenchmark {
+
+    @Param({"root", "sso"})
+    public String policy;
+
+    private WalletFixture fixture;
+    private PresentationPolicyAlternatives ppa;
+    private PresentationToken token;
+    private TokenVerifier verifier;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        fixture = new WalletFixture(Files.createTempDirectory("presentation"), 1);
+        ppa = fixture.policy("sso".equals(policy));
+        token = fixture.prove(fixture.getHolder(), ppa);
+        verifier = fixture.newVerifier();
+        verifier.verifyToken(ppa, token);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.delete();
+    }
+
+    @Benchmark
+    public PresentationToken prove() throws Exception {
+        return fixture.prove(fixture.getHolder(), ppa);
+    }
+
+    @Benchmark
+    public byte[] verify() throws Exception {
+        return verifier.verifyToken(ppa, token);
+    }
+}
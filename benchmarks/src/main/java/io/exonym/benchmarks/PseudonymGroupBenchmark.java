@@ -0,0 +1,89 @@
+package io.exonym.benchmarks;
+
+import com.ibm.zurich.idmx.buildingBlock.pseudonym.PseudonymGroupRegistry;
+import com.ibm.zurich.idmx.buildingBlock.systemParameters.EcryptSystemParametersWrapper;
+import com.ibm.zurich.idmx.interfaces.util.BigIntFactory;
+import com.ibm.zurich.idmx.interfaces.util.group.KnownOrderGroup;
+import com.ibm.zurich.idmx.interfaces.util.group.KnownOrderGroupElement;
+import com.ibm.zurich.idmx.util.bigInt.BigIntFactoryImpl;
+import com.ibm.zurich.idmx.util.group.FixedBaseCache;
+import com.ibm.zurich.idmx.util.group.GroupFactoryImpl;
+import eu.abc4trust.xml.SystemParameters;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a pseudonym prover or verifier module spends on its group before any
+ * proof work, on 2048-bit DH parameters with a 256-bit subgroup: reading the
+ * parameters, building the prime-order group and checking both generators,
+ * against looking the group up in the PseudonymGroupRegistry.
+ *
+ * Run with -prof gc for the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PseudonymGroupBenchmark {
+
+    private static final int MODULUS_BITS = 2048;
+    private static final int SUBGROUP_BITS = 256;
+
+    private SystemParameters systemParameters;
+    private PseudonymGroupRegistry registry;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Random random = new Random(MODULUS_BITS);
+        BigIntFactory bigIntFactory = new BigIntFactoryImpl();
+        BigInteger q = BigInteger.probablePrime(SUBGROUP_BITS, random);
+        BigInteger p;
+        do {
+            BigInteger k = new BigInteger(MODULUS_BITS - SUBGROUP_BITS, random)
+                    .setBit(MODULUS_BITS - SUBGROUP_BITS - 1).clearBit(0);
+            p = k.multiply(q).add(BigInteger.ONE);
+        } while (!p.isProbablePrime(40));
+        BigInteger cofactor = p.subtract(BigInteger.ONE).divide(q);
+
+        EcryptSystemParametersWrapper spw = new EcryptSystemParametersWrapper();
+        spw.setSystemParametersId(URI.create("urn:benchmarks:pseudonym-group"));
+        spw.setDHModulus(bigIntFactory.valueOf(p));
+        spw.setDHSubgroupOrder(bigIntFactory.valueOf(q));
+        spw.setDHGenerator1(bigIntFactory.valueOf(new BigInteger(MODULUS_BITS - 1, random).modPow(cofactor, p)));
+        spw.setDHGenerator2(bigIntFactory.valueOf(new BigInteger(MODULUS_BITS - 1, random).modPow(cofactor, p)));
+        systemParameters = spw.getSystemParameters();
+
+        registry = new PseudonymGroupRegistry(new GroupFactoryImpl());
+        registry.get(systemParameters);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        FixedBaseCache.clear();
+    }
+
+    @Benchmark
+    public void rebuiltPerModule(Blackhole bh) throws Exception {
+        EcryptSystemParametersWrapper syspar = new EcryptSystemParametersWrapper(systemParameters);
+        KnownOrderGroup group = new GroupFactoryImpl().createPrimeOrderGroup(syspar.getDHModulus(),
+                syspar.getDHSubgroupOrder());
+        KnownOrderGroupElement base1 = group.valueOf(syspar.getDHGenerator1());
+        KnownOrderGroupElement base2 = group.valueOf(syspar.getDHGenerator2());
+        bh.consume(base1);
+        bh.consume(base2);
+    }
+
+    @Benchmark
+    public void registry(Blackhole bh) throws Exception {
+        PseudonymGroupRegistry.PseudonymGroup pseudonymGroup = registry.get(systemParameters);
+        bh.consume(pseudonymGroup.getGenerator1());
+        bh.consume(pseudonymGroup.getGenerator2());
+    }
+}
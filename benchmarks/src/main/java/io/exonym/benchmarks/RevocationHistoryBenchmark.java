@@ -0,0 +1,74 @@
+package io.exonym.benchmarks;
+
+import com.ibm.zurich.idmix.abc4trust.facades.RevocationHandleIndex;
+import com.ibm.zurich.idmix.abc4trust.facades.RevocationHistoryFacade;
+import com.ibm.zurich.idmx.buildingBlock.revocation.cl.ClRevocationEventWrapper;
+import com.ibm.zurich.idmx.exception.ConfigurationException;
+import com.ibm.zurich.idmx.interfaces.util.BigInt;
+import com.ibm.zurich.idmx.interfaces.util.BigIntFactory;
+import com.ibm.zurich.idmx.util.bigInt.BigIntFactoryImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.Calendar;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks a revocation handle against a revocation history of
+ * <tt>revocations</tt> log entries, the way the revocation authority does
+ * before revoking and the holder does in hasBeenRevoked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RevocationHistoryBenchmark {
+
+    private static final URI RA_PARAMETERS_UID = URI.create("urn:benchmarks:revocation:parameters");
+    private static final int HANDLE_BITS = 256;
+
+    @Param({"1000", "10000", "100000"})
+    public int revocations;
+
+    private RevocationHistoryFacade history;
+    private BigInt revoked;
+    private BigInt notRevoked;
+
+    @Setup(Level.Trial)
+    public void setup() throws ConfigurationException {
+        Random random = new Random(revocations);
+        BigIntFactory bigIntFactory = new BigIntFactoryImpl();
+        history = new RevocationHistoryFacade(RA_PARAMETERS_UID);
+        for (int epoch = 1; epoch <= revocations; epoch++) {
+            BigInt handle = bigIntFactory.valueOf(new BigInteger(HANDLE_BITS, random));
+            history.addRevocationEvent(new ClRevocationEventWrapper(RA_PARAMETERS_UID, epoch,
+                    handle, Calendar.getInstance(), bigIntFactory.one()).getDelegateeValue());
+            if (epoch == revocations / 2) {
+                revoked = handle;
+            }
+        }
+        notRevoked = bigIntFactory.valueOf(new BigInteger(HANDLE_BITS, random));
+        // the first query builds the index
+        history.revocationHandleHasBeenRevoked(notRevoked);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RevocationHandleIndex.clear();
+    }
+
+    @Benchmark
+    public boolean revokedHandle() throws ConfigurationException {
+        return history.revocationHandleHasBeenRevoked(revoked);
+    }
+
+    @Benchmark
+    public boolean validHandle() throws ConfigurationException {
+        return history.revocationHandleHasBeenRevoked(notRevoked);
+    }
+
+}
@@ -0,0 +1,128 @@
+package io.exonym.benchmarks;
+
+import eu.abc4trust.xml.PresentationPolicyAlternatives;
+import eu.abc4trust.xml.PresentationToken;
+import io.exonym.lib.actor.ClaimVerification;
+import io.exonym.lib.wallet.ExonymOwner;
+import io.exonym.lib.wallet.VerifierPool;
+import io.exonym.lib.wallet.WalletFixture;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens verified per second by a relying party as the number of threads
+ * verifying grows: the single verifier used one token at a time (as
+ * ExonymAuthenticate did), against the pool of verifiers.  And a burst of
+ * BATCH tokens, each for its own challenge, verified one by one against
+ * verifyClaims() on the pool.
+ *
+ * The token is proved for the SSO policy by the fixture's holder, and every
+ * verifier has the issuer's materials in its container, so no network is
+ * needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VerifierPoolBenchmark {
+
+    private static final int BATCH = 64;
+
+    private WalletFixture fixture;
+    private PresentationPolicyAlternatives ppa;
+    private PresentationToken token;
+    private ExonymOwner shared;
+    private VerifierPool pool;
+    private final ArrayList<ClaimVerification> burst = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        fixture = new WalletFixture(Files.createTempDirectory("verifier-pool"), 1);
+        ppa = fixture.policy(true);
+        token = fixture.prove(fixture.getHolder(), ppa);
+        shared = fixture.openVerifier();
+        pool = fixture.newVerifierPool(8);
+
+        // load the token's materials on every verifier before measuring
+        shared.verifyClaim(ppa, token);
+        for (int i = 0; i < pool.size(); i++) {
+            pool.verifyClaim(ppa, token);
+        }
+        // each token answers its own challenge, as in a burst of logins
+        for (int i = 0; i < BATCH; i++) {
+            PresentationPolicyAlternatives challenge = fixture.policy(true);
+            burst.add(new ClaimVerification(challenge, fixture.prove(fixture.getHolder(), challenge)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.delete();
+    }
+
+    private boolean verifyShared() throws Exception {
+        synchronized (shared) {
+            return shared.verifyClaim(ppa, token);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean shared1() throws Exception {
+        return verifyShared();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean shared8() throws Exception {
+        return verifyShared();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean pooled1() throws Exception {
+        return pool.verifyClaim(ppa, token);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean pooled2() throws Exception {
+        return pool.verifyClaim(ppa, token);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean pooled4() throws Exception {
+        return pool.verifyClaim(ppa, token);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean pooled8() throws Exception {
+        return pool.verifyClaim(ppa, token);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int burstOneByOne() throws Exception {
+        int verified = 0;
+        for (ClaimVerification claim : burst) {
+            if (shared.verifyClaim(claim.getPolicy(), claim.getToken())) {
+                verified++;
+            }
+        }
+        return verified;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<ClaimVerification> burstVerifyClaims() throws Exception {
+        return pool.verifyClaims(burst);
+    }
+}
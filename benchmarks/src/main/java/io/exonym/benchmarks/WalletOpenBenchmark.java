@@ -0,0 +1,51 @@
+package io.exonym.benchmarks;
+
+import eu.abc4trust.xml.PresentationPolicyAlternatives;
+import eu.abc4trust.xml.PresentationToken;
+import io.exonym.lib.wallet.WalletFixture;
+import io.exonym.lib.wallet.ExonymOwner;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a wallet call costs before its own work: opening a container holding
+ * 1 or 5 revocable credentials, and opening it and proving the first claim,
+ * which brings the credential's non-revocation evidence up to date.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 20)
+@Fork(1)
+public class WalletOpenBenchmark {
+
+    @Param({"1", "5"})
+    public int credentials;
+
+    private WalletFixture fixture;
+    private PresentationPolicyAlternatives ppa;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        fixture = new WalletFixture(Files.createTempDirectory("wallet-open"), credentials);
+        ppa = fixture.policy(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.delete();
+    }
+
+    @Benchmark
+    public ExonymOwner coldOpen() throws Exception {
+        return fixture.openHolder();
+    }
+
+    @Benchmark
+    public PresentationToken openAndProve() throws Exception {
+        return fixture.prove(fixture.openHolder(), ppa);
+    }
+}
@@ -0,0 +1,224 @@
+//* Licensed Materials - Property of IBM                                     *
+//* com.ibm.zurich.idmx.3_x_x                                                *
+//* (C) Copyright IBM Corp. 2015. All Rights Reserved.                       *
+//* US Government Users Restricted Rights - Use, duplication or              *
+//* disclosure restricted by GSA ADP Schedule Contract with IBM Corp.        *
+//*                                                                          *
+//* The contents of this file are subject to the terms of either the         *
+//* International License Agreement for Identity Mixer Version 1.2 or the    *
+//* Apache License Version 2.0.                                              *
+//*                                                                          *
+//* The license terms can be found in the file LICENSE.txt that is provided  *
+//* together with this software.                                             *
+//*/**/***********************************************************************
+
+package com.ibm.zurich.idmix.abc4trust.facades;
+
+import java.lang.ref.WeakReference;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ibm.zurich.idmx.buildingBlock.revocation.cl.ClRevocationEventWrapper;
+import com.ibm.zurich.idmx.buildingBlock.revocation.cl.RevocationAuthorityConfiguration;
+import com.ibm.zurich.idmx.exception.ConfigurationException;
+
+import eu.abc4trust.xml.AttributeInLogEntry;
+import eu.abc4trust.xml.RevocationEvent;
+import eu.abc4trust.xml.RevocationHistory;
+import eu.abc4trust.xml.RevocationLogEntry;
+
+/**
+ * Hash index over the revocation handles listed in a revocation history, so that checking a handle
+ * does not have to unwrap every log entry.
+ *
+ * One index is kept per revocation log, found through the UID of its history. It is built lazily
+ * from the log the first time the history is queried and brought forward incrementally afterwards:
+ * log entries are only ever prepended, so the entries that are new since the last query are the
+ * ones in front of the newest entry seen so far. If the log was changed in any other way, the
+ * index is rebuilt from scratch. Histories with the same UID but a different log (e.g. the
+ * revocation information was reloaded, or two copies of it are live) each get their own index, so
+ * they never reset each other's.
+ *
+ * {@link #isRevoked} and {@link #latestEpoch} bring the index up to date and query it under one
+ * lock; an index returned by {@link #of} may already be ahead of the log it was obtained for if
+ * the log is appended to concurrently.
+ */
+public final class RevocationHandleIndex {
+
+  public static final URI REVOCATION_HANDLE_TYPE =
+      URI.create("http://abc4trust.eu/wp2/abcschemav1.0/revocationhandle");
+
+  // live logs indexed per history UID; the oldest is dropped beyond this
+  static final int MAX_LOGS_PER_HISTORY = 4;
+
+  private static final Map<URI, List<RevocationHandleIndex>> indexes =
+      new ConcurrentHashMap<URI, List<RevocationHandleIndex>>();
+
+  private final Set<BigInteger> revokedHandles = new HashSet<BigInteger>();
+
+  // the log that is indexed; weak so that a replaced history can be collected
+  private final WeakReference<List<RevocationLogEntry>> indexedLog;
+  private RevocationLogEntry newestIndexedEntry;
+  private int indexedEntries;
+  private int latestEpoch = RevocationAuthorityConfiguration.initialEpoch();
+
+  private RevocationHandleIndex(final List<RevocationLogEntry> log) {
+    this.indexedLog = new WeakReference<List<RevocationLogEntry>>(log);
+  }
+
+  /**
+   * Returns the index of the log of the given history, brought up to date with it.
+   */
+  public static RevocationHandleIndex of(final RevocationHistory revocationHistory)
+      throws ConfigurationException {
+    final List<RevocationLogEntry> log = revocationHistory.getRevocationLogEntry();
+    final RevocationHandleIndex index =
+        indexFor(revocationHistory.getRevocationHistoryUID(), log);
+    index.update(log);
+    return index;
+  }
+
+  /**
+   * Returns true if the handle is listed in the log of the given history.
+   */
+  public static boolean isRevoked(final RevocationHistory revocationHistory,
+      final BigInteger revocationHandleValue) throws ConfigurationException {
+    final List<RevocationLogEntry> log = revocationHistory.getRevocationLogEntry();
+    final RevocationHandleIndex index =
+        indexFor(revocationHistory.getRevocationHistoryUID(), log);
+    synchronized (index) {
+      index.update(log);
+      return index.revokedHandles.contains(revocationHandleValue);
+    }
+  }
+
+  /**
+   * Returns the highest epoch in the log of the given history.
+   */
+  public static int latestEpoch(final RevocationHistory revocationHistory)
+      throws ConfigurationException {
+    final List<RevocationLogEntry> log = revocationHistory.getRevocationLogEntry();
+    final RevocationHandleIndex index =
+        indexFor(revocationHistory.getRevocationHistoryUID(), log);
+    synchronized (index) {
+      index.update(log);
+      return index.latestEpoch;
+    }
+  }
+
+  private static RevocationHandleIndex indexFor(final URI revocationHistoryUID,
+      final List<RevocationLogEntry> log) {
+    if (revocationHistoryUID == null) {
+      // anonymous histories cannot be shared, index them once
+      return new RevocationHandleIndex(log);
+    }
+    List<RevocationHandleIndex> logs = indexes.get(revocationHistoryUID);
+    if (logs == null) {
+      final List<RevocationHandleIndex> created = new ArrayList<RevocationHandleIndex>();
+      logs = indexes.putIfAbsent(revocationHistoryUID, created);
+      if (logs == null) {
+        logs = created;
+      }
+    }
+    synchronized (logs) {
+      final Iterator<RevocationHandleIndex> it = logs.iterator();
+      while (it.hasNext()) {
+        final RevocationHandleIndex index = it.next();
+        final List<RevocationLogEntry> indexed = index.indexedLog.get();
+        if (indexed == null) {
+          it.remove();
+        } else if (indexed == log) {
+          return index;
+        }
+      }
+      final RevocationHandleIndex created = new RevocationHandleIndex(log);
+      if (logs.size() >= MAX_LOGS_PER_HISTORY) {
+        logs.remove(0);
+      }
+      logs.add(created);
+      return created;
+    }
+  }
+
+  /**
+   * Drops all indexes; they are rebuilt on the next query.
+   */
+  public static void clear() {
+    indexes.clear();
+  }
+
+  public synchronized boolean contains(final BigInteger revocationHandleValue) {
+    return revokedHandles.contains(revocationHandleValue);
+  }
+
+  /**
+   * Returns the highest epoch of all indexed log entries.
+   */
+  public synchronized int getLatestEpoch() {
+    return latestEpoch;
+  }
+
+  public synchronized int size() {
+    return revokedHandles.size();
+  }
+
+  private synchronized void update(final List<RevocationLogEntry> log)
+      throws ConfigurationException {
+    final int size = log.size();
+    final int newEntries = size - indexedEntries;
+    if (newEntries < 0
+        || (indexedEntries > 0 && log.get(newEntries) != newestIndexedEntry)) {
+      reset();
+      update(log);
+      return;
+    }
+    if (newEntries == 0) {
+      return;
+    }
+    // oldest new entry first
+    for (int i = newEntries - 1; i >= 0; i--) {
+      index(log.get(i));
+    }
+    newestIndexedEntry = log.get(0);
+    indexedEntries = size;
+  }
+
+  private void reset() {
+    revokedHandles.clear();
+    newestIndexedEntry = null;
+    indexedEntries = 0;
+    latestEpoch = RevocationAuthorityConfiguration.initialEpoch();
+  }
+
+  private void index(final RevocationLogEntry revocationLogEntry) throws ConfigurationException {
+    final RevocationLogEntryFacade revocationLogEntryFacade =
+        new RevocationLogEntryFacade(revocationLogEntry);
+    final RevocationEvent revocationEvent = revocationLogEntryFacade.getRevocationEvent();
+    final ClRevocationEventWrapper revocationEventWrapper =
+        (revocationEvent == null) ? null : new ClRevocationEventWrapper(revocationEvent);
+
+    // batch revocations list every revoked handle as an attribute of the entry
+    boolean indexed = false;
+    for (final AttributeInLogEntry attribute : revocationLogEntryFacade.getRevocableAttribute()) {
+      if (REVOCATION_HANDLE_TYPE.equals(attribute.getAttributeType())
+          && attribute.getAttributeValue() instanceof BigInteger) {
+        revokedHandles.add((BigInteger) attribute.getAttributeValue());
+        indexed = true;
+      }
+    }
+    if (revocationEventWrapper != null) {
+      if (!indexed) {
+        revokedHandles.add(revocationEventWrapper.getRevocationHandle().getValue());
+      }
+      latestEpoch = Math.max(latestEpoch, revocationEventWrapper.getNewEpoch());
+    }
+  }
+
+}
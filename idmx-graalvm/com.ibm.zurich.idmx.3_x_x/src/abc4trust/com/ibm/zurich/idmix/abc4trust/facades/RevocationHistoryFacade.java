@@ -15,12 +15,12 @@
 package com.ibm.zurich.idmix.abc4trust.facades;
 
 import java.net.URI;
+import java.util.Collection;
 import java.util.List;
 
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBIntrospector;
 
-import com.ibm.zurich.idmx.buildingBlock.revocation.cl.ClRevocationEventWrapper;
 import com.ibm.zurich.idmx.buildingBlock.revocation.cl.RevocationAuthorityConfiguration;
 import com.ibm.zurich.idmx.configuration.ErrorMessages;
 import com.ibm.zurich.idmx.exception.ConfigurationException;
@@ -178,6 +178,22 @@ public class RevocationHistoryFacade implements Constants {
     return revocationLogEntryFacade;
   }
 
+  /**
+   * Adds an event that removed several revocation handles at once. The event only carries the
+   * product of the handles, so each of them is listed as a revocable attribute of the log entry.
+   */
+  public RevocationLogEntryFacade addRevocationEvent(final RevocationEvent revocationEvent,
+      final Collection<BigInt> revocationHandleValues) throws ConfigurationException {
+
+    final RevocationLogEntryFacade revocationLogEntryFacade =
+        new RevocationLogEntryFacade(revocationEvent, true);
+    revocationLogEntryFacade.setRevocationHandles(revocationHandleValues);
+
+    addRevocationLogEntry(revocationLogEntryFacade.getDelegateeValue());
+
+    return revocationLogEntryFacade;
+  }
+
   public int getEpoch() throws ConfigurationException {
     // no revocation event has been applied so far
     if (getRevocationLogEntries().size() == 0) {
@@ -226,53 +242,19 @@ public class RevocationHistoryFacade implements Constants {
 
 
   public int getLatestEpoch() throws ConfigurationException {
-    final RevocationLogEntry newestRevocationLogEntry = getLatestRevocationLogEntry();
-    if (newestRevocationLogEntry != null) {
-      final RevocationLogEntryFacade revocationLogEntryFacade =
-          new RevocationLogEntryFacade(getLatestRevocationLogEntry());
-      return revocationLogEntryFacade.getNewEpoch();
-    }
-    // no revocation log entries have been saved to the log so far
-    return RevocationAuthorityConfiguration.initialEpoch();
-  }
-
-  /**
-   * @return
-   * @throws ConfigurationException
-   */
-  private RevocationLogEntry getLatestRevocationLogEntry() throws ConfigurationException {
-    int newestEpoch = RevocationAuthorityConfiguration.initialEpoch();
-    RevocationLogEntry newestRevocationLogEntry = null;
-
-    for (final RevocationLogEntry revocationLogEntry : getRevocationLogEntries()) {
-      final RevocationLogEntryFacade revocationLogEntryFacade =
-          new RevocationLogEntryFacade(revocationLogEntry);
-
-      final int revocationLogEntryEpoch = revocationLogEntryFacade.getNewEpoch();
-
-      if (revocationLogEntryEpoch > newestEpoch) {
-        newestEpoch = revocationLogEntryEpoch;
-        newestRevocationLogEntry = revocationLogEntry;
-      }
-    }
-
-    return newestRevocationLogEntry;
+    return RevocationHandleIndex.latestEpoch(getDelegateeElement());
   }
 
   /**
+   * Looks the handle up in the revocation handle index of this history instead of unwrapping every
+   * log entry.
+   *
    * @throws ConfigurationException
    */
   public boolean revocationHandleHasBeenRevoked(final BigInt revocationHandleValue)
       throws ConfigurationException {
-    for (final RevocationLogEntry revocationLogEntry : getRevocationLogEntries()) {
-      final ClRevocationEventWrapper revocationEventWrapper =
-          new ClRevocationEventWrapper(
-              new RevocationLogEntryFacade(revocationLogEntry).getRevocationEvent());
-      if (revocationEventWrapper.getRevocationHandle().equals(revocationHandleValue)) {
-        return true;
-      }
-    }
-    return false;
+    return RevocationHandleIndex.isRevoked(getDelegateeElement(),
+        revocationHandleValue.getValue());
   }
 
 }
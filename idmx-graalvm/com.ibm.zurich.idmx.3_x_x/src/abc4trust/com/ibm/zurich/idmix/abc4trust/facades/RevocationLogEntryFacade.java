@@ -16,6 +16,7 @@ package com.ibm.zurich.idmix.abc4trust.facades;
 
 import java.net.URI;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.List;
 
 import javax.xml.bind.JAXBIntrospector;
@@ -24,6 +25,7 @@ import com.ibm.zurich.idmix.abc4trust.XmlUtils;
 import com.ibm.zurich.idmx.buildingBlock.revocation.cl.ClRevocationEventWrapper;
 import com.ibm.zurich.idmx.exception.ConfigurationException;
 import com.ibm.zurich.idmx.interfaces.configuration.Constants;
+import com.ibm.zurich.idmx.interfaces.util.BigInt;
 
 import eu.abc4trust.xml.Attribute;
 import eu.abc4trust.xml.AttributeInLogEntry;
@@ -130,12 +132,27 @@ public class RevocationLogEntryFacade implements Constants {
       throws ConfigurationException {
     // Setup attribute to be used in revocation log entry
     final AttributeInLogEntry att = new ObjectFactory().createAttributeInLogEntry();
-    att.setAttributeType(URI.create("http://abc4trust.eu/wp2/abcschemav1.0/revocationhandle"));
+    att.setAttributeType(RevocationHandleIndex.REVOCATION_HANDLE_TYPE);
     att.setAttributeValue(revocationEventWrapper.getRevocationHandle().getValue());
 
     setRevocableAttribute(att);
   }
 
+  /**
+   * Replaces the revocable attributes of this entry by one revocation handle attribute per given
+   * value.
+   */
+  public void setRevocationHandles(final Collection<BigInt> revocationHandleValues) {
+    getRevocableAttribute().clear();
+    for (final BigInt revocationHandleValue : revocationHandleValues) {
+      final AttributeInLogEntry att = new ObjectFactory().createAttributeInLogEntry();
+      att.setAttributeType(RevocationHandleIndex.REVOCATION_HANDLE_TYPE);
+      att.setAttributeValue(revocationHandleValue.getValue());
+
+      setRevocableAttribute(att);
+    }
+  }
+
   private void setRevocableAttribute(final Attribute revocableAttribute) throws ConfigurationException {
     // Setup attribute to be used in revocation log entry
     final AttributeInLogEntry att = new ObjectFactory().createAttributeInLogEntry();
@@ -1,12 +1,17 @@
 package io.exonym.idmx.managers;
 
+import com.ibm.zurich.idmix.abc4trust.facades.RevocationHandleIndex;
+import com.ibm.zurich.idmix.abc4trust.facades.RevocationInformationFacade;
+import com.ibm.zurich.idmx.exception.ConfigurationException;
 import com.ibm.zurich.idmx.interfaces.util.RandomGeneration;
 import eu.abc4trust.abce.internal.user.credentialManager.CredentialManager;
 import eu.abc4trust.abce.internal.user.credentialManager.CredentialManagerException;
 import eu.abc4trust.keyManager.KeyManager;
+import eu.abc4trust.keyManager.KeyManagerException;
 import eu.abc4trust.xml.*;
 
 import javax.inject.Inject;
+import java.math.BigInteger;
 import java.net.URI;
 import java.util.List;
 import java.util.Map;
@@ -79,13 +84,56 @@ public class CredentialManagerUser implements CredentialManager {
 	@Override
 	public boolean hasBeenRevoked(String username, URI creduid, URI revparsuid, List<URI> revokedatts)
 			throws CredentialManagerException {
-		throw new RuntimeException("Not implemented");
+		try {
+			return hasBeenRevoked(creduid, km.getCurrentRevocationInformation(revparsuid));
+
+		} catch (KeyManagerException e) {
+			throw new CredentialManagerException(e);
+
+		}
 	}
 
 	@Override
 	public boolean hasBeenRevoked(String username, URI creduid, URI revparsuid, List<URI> revokedatts, URI revinfouid)
 			throws CredentialManagerException {
-		throw new RuntimeException("Not implemented");
+		try {
+			return hasBeenRevoked(creduid, km.getRevocationInformation(revparsuid, revinfouid));
+
+		} catch (KeyManagerException e) {
+			throw new CredentialManagerException(e);
+
+		}
+	}
+
+	/**
+	 * Looks the revocation handle of the credential up in the handle index of the
+	 * revocation history, which is built once per history and then kept up to date.
+	 */
+	private boolean hasBeenRevoked(URI creduid, RevocationInformation ri) throws CredentialManagerException {
+		final Credential c = credentialMap.get(creduid);
+		if (c==null || ri==null) {
+			return false;
+
+		}
+		final RevocationHistory history = new RevocationInformationFacade(ri).getRevocationHistory();
+		if (history==null) {
+			return false;
+
+		}
+		try {
+			for (Attribute a : c.getCredentialDescription().getAttribute()) {
+				if (RevocationHandleIndex.REVOCATION_HANDLE_TYPE.equals(a.getAttributeDescription().getType())
+						&& a.getAttributeValue() instanceof BigInteger) {
+					return RevocationHandleIndex.isRevoked(history, (BigInteger) a.getAttributeValue());
+
+				}
+			}
+			return false;
+
+		} catch (ConfigurationException e) {
+			throw new CredentialManagerException(e);
+
+		}
 	}
 
 	@Override
@@ -1,5 +1,12 @@
 package io.exonym.idmx.managers;
 
+import com.ibm.zurich.idmix.abc4trust.facades.IssuerParametersFacade;
+import com.ibm.zurich.idmix.abc4trust.facades.RevocationAuthorityParametersFacade;
+import com.ibm.zurich.idmx.buildingBlock.revocation.cl.ClRevocationAuthorityPublicKeyWrapper;
+import com.ibm.zurich.idmx.buildingBlock.signature.cl.ClPublicKeyWrapper;
+import com.ibm.zurich.idmx.buildingBlock.systemParameters.EcryptSystemParametersWrapper;
+import com.ibm.zurich.idmx.interfaces.util.BigInt;
+import com.ibm.zurich.idmx.util.group.FixedBaseCache;
 import eu.abc4trust.keyManager.KeyManager;
 import eu.abc4trust.keyManager.KeyManagerException;
 import eu.abc4trust.xml.*;
@@ -54,6 +61,7 @@ public class KeyManagerExonym implements KeyManager {
 
         }
         this.issuerParameterMap.put(issuid, issuerParameters);
+        registerIssuerBases(issuid, issuerParameters);
         return true;
 
     }
@@ -172,6 +180,7 @@ public class KeyManagerExonym implements KeyManager {
             throw new NullPointerException();
         }
         this.revocationParametersMap.put(issuid, rap);
+        registerRevocationAuthorityBases(issuid, rap);
         return true;
 
     }
@@ -198,6 +207,7 @@ public class KeyManagerExonym implements KeyManager {
     @Override
     public boolean storeSystemParameters(SystemParameters systemParameters) throws KeyManagerException {
         this.systemParametersMap.put(DEFAULT_SYSTEM_PARAMETERS_URI, systemParameters);
+        registerSystemParameterBases(systemParameters);
         return true;
 
     }
@@ -213,6 +223,62 @@ public class KeyManagerExonym implements KeyManager {
 
     }
 
+    /*
+     * The bases below are exponentiated on every issuance, presentation and
+     * witness update. Registering them lets FixedBaseCache build a precomputed
+     * table the first time each one is used.
+     */
+    private void registerIssuerBases(URI issuid, IssuerParameters ip) {
+        try {
+            ClPublicKeyWrapper pkw = new ClPublicKeyWrapper(new IssuerParametersFacade(ip).getPublicKey());
+            if (!pkw.hasParameter("rsaModulus")){
+                logger.log(Level.FINE, "No fixed bases registered for non-CL issuer " + issuid);
+                return;
+
+            }
+            BigInt n = pkw.getModulus();
+            FixedBaseCache.register(n, pkw.getZ());
+            FixedBaseCache.register(n, pkw.getS());
+            FixedBaseCache.register(n, pkw.getRt());
+            FixedBaseCache.register(n, pkw.getRd());
+            int bases = pkw.getMaximalNumberOfAttributes();
+            for (int i = 0; i < bases; i++) {
+                FixedBaseCache.register(n, pkw.getBase(i));
+
+            }
+        } catch (Exception e) {
+            logger.log(Level.FINE, "Could not register fixed bases for " + issuid, e);
+
+        }
+    }
+
+    private void registerRevocationAuthorityBases(URI raUid, RevocationAuthorityParameters rap) {
+        try {
+            ClRevocationAuthorityPublicKeyWrapper pkw = new ClRevocationAuthorityPublicKeyWrapper(
+                    new RevocationAuthorityParametersFacade(rap).getPublicKey());
+            BigInt n = pkw.getModulus();
+            FixedBaseCache.register(n, pkw.getBase(0));
+            FixedBaseCache.register(n, pkw.getBase(1));
+
+        } catch (Exception e) {
+            logger.log(Level.FINE, "Could not register fixed bases for " + raUid, e);
+
+        }
+    }
+
+    private void registerSystemParameterBases(SystemParameters systemParameters) {
+        try {
+            EcryptSystemParametersWrapper spw = new EcryptSystemParametersWrapper(systemParameters);
+            BigInt p = spw.getDHModulus();
+            FixedBaseCache.register(p, spw.getDHGenerator1());
+            FixedBaseCache.register(p, spw.getDHGenerator2());
+
+        } catch (Exception e) {
+            logger.log(Level.FINE, "Could not register system parameter bases", e);
+
+        }
+    }
+
     public void clearStale(){
         revocationInfoMap.clear();
         revocationParametersMap.clear();
@@ -27,6 +27,7 @@ import com.ibm.zurich.idmx.buildingBlock.helper.representation.modNSquare.ModNSq
 import com.ibm.zurich.idmx.buildingBlock.helper.representation.pedersen.PedersenRepresentationBuildingBlock;
 import com.ibm.zurich.idmx.buildingBlock.inspector.cs.CsInspectorBuildingBlock;
 import com.ibm.zurich.idmx.buildingBlock.notEqual.inv.InverseAttributeNotEqualBuildingBlock;
+import com.ibm.zurich.idmx.buildingBlock.pseudonym.PseudonymGroupRegistry;
 import com.ibm.zurich.idmx.buildingBlock.pseudonym.scopeExclusive.ScopeExclusivePseudonymBuildingBlock;
 import com.ibm.zurich.idmx.buildingBlock.pseudonym.standard.StandardPseudonymBuildingBlock;
 import com.ibm.zurich.idmx.buildingBlock.rangeProof.SafeRSAGroupInVerifierParameters;
@@ -704,6 +705,7 @@ class BuildingBlockDatabase {
   BigIntFactory getBigIntFactory(){return basis.provideBigIntFactory();}
   Timing getTiming(){return basis.provideTiming();}
   GroupFactory getGroupFactory(){return basis.provideGroupFactory();}
+  PseudonymGroupRegistry getPseudonymGroupRegistry(){return PseudonymGroupRegistry.shared();}
   KeyManager getKeyManager(){return this.keyManager;}
   CredentialManager getCredentialManagerUser(){return this.credentialManager;}
   TestVectorHelper getTestVectorHelper(){return basis.providesTestVectorHelper();}
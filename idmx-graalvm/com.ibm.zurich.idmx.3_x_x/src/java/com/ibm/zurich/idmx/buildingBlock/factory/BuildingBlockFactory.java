@@ -21,6 +21,7 @@ import java.util.logging.Logger;
 
 import com.ibm.zurich.idmx.buildingBlock.GeneralBuildingBlock;
 import com.ibm.zurich.idmx.buildingBlock.inspector.InspectorBuildingBlock;
+import com.ibm.zurich.idmx.buildingBlock.pseudonym.PseudonymGroupRegistry;
 import com.ibm.zurich.idmx.buildingBlock.rangeProof.SafeRSAGroupInVerifierParameters;
 import com.ibm.zurich.idmx.buildingBlock.revocation.RevocationBuildingBlock;
 import com.ibm.zurich.idmx.buildingBlock.signature.SignatureBuildingBlock;
@@ -270,6 +271,7 @@ public class BuildingBlockFactory {
   public BigIntFactory getBigIntFactory(){return database.getBigIntFactory();}
   public Timing getTiming(){return database.getTiming();}
   public GroupFactory getGroupFactory(){return database.getGroupFactory();}
+  public PseudonymGroupRegistry getPseudonymGroupRegistry(){return database.getPseudonymGroupRegistry();}
   public KeyManager getKeyManager(){return database.getKeyManager();}
   public CredentialManager getCredentialManagerUser(){return database.getCredentialManagerUser();}
   public TestVectorHelper getTestVectorHelper(){return database.getTestVectorHelper();}
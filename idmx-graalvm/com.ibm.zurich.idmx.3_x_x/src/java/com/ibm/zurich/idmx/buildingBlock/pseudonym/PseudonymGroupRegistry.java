@@ -0,0 +1,154 @@
+//* Licensed Materials - Property of IBM                                     *
+//* com.ibm.zurich.idmx.3_x_x                                                *
+//* (C) Copyright IBM Corp. 2015. All Rights Reserved.                       *
+//* US Government Users Restricted Rights - Use, duplication or              *
+//* disclosure restricted by GSA ADP Schedule Contract with IBM Corp.        *
+//*                                                                          *
+//* The contents of this file are subject to the terms of either the         *
+//* International License Agreement for Identity Mixer Version 1.2 or the    *
+//* Apache License Version 2.0.                                              *
+//*                                                                          *
+//* The license terms can be found in the file LICENSE.txt that is provided  *
+//* together with this software.                                             *
+//*/**/***********************************************************************
+package com.ibm.zurich.idmx.buildingBlock.pseudonym;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ibm.zurich.idmx.buildingBlock.systemParameters.EcryptSystemParametersWrapper;
+import com.ibm.zurich.idmx.exception.ConfigurationException;
+import com.ibm.zurich.idmx.interfaces.util.BigInt;
+import com.ibm.zurich.idmx.interfaces.util.group.GroupFactory;
+import com.ibm.zurich.idmx.interfaces.util.group.KnownOrderGroup;
+import com.ibm.zurich.idmx.interfaces.util.group.KnownOrderGroupElement;
+import com.ibm.zurich.idmx.util.group.FixedBaseCache;
+import com.ibm.zurich.idmx.util.group.GroupFactoryImpl;
+
+import eu.abc4trust.xml.SystemParameters;
+
+/**
+ * The prime-order group of the system parameters that pseudonyms live in, with its two
+ * generators, keyed by system parameters UID.
+ *
+ * Every pseudonym prover and verifier module used to read the DH parameters out of the system
+ * parameters, build the group and check both generators for membership (a modPow each). The
+ * registry does this once per system parameters; the groups and elements it hands out are
+ * immutable and shared by every module and thread. The generators are registered with
+ * FixedBaseCache, so their exponentiations use the precomputed tables.
+ *
+ * A lookup with system parameters other than the ones an entry was built from compares the DH
+ * parameters, and replaces the entry if they differ under the same UID. System parameters without
+ * a UID are never cached.
+ */
+public final class PseudonymGroupRegistry {
+
+  private static final int MAX_ENTRIES = 64;
+
+  private static final Logger logger = Logger.getLogger(PseudonymGroupRegistry.class.getName());
+
+  private static final PseudonymGroupRegistry SHARED = new PseudonymGroupRegistry(new GroupFactoryImpl());
+
+  private final GroupFactory groupFactory;
+  private final ConcurrentHashMap<URI, PseudonymGroup> groups =
+      new ConcurrentHashMap<URI, PseudonymGroup>();
+
+  public PseudonymGroupRegistry(final GroupFactory groupFactory) {
+    this.groupFactory = groupFactory;
+  }
+
+  /**
+   * The registry shared by every building block factory in the process.
+   */
+  public static PseudonymGroupRegistry shared() {
+    return SHARED;
+  }
+
+  public PseudonymGroup get(final SystemParameters systemParameters) throws ConfigurationException {
+    final URI uid = systemParameters.getSystemParametersUID();
+    final PseudonymGroup cached = (uid == null) ? null : groups.get(uid);
+    if (cached != null && cached.systemParameters == systemParameters) {
+      return cached;
+    }
+    final EcryptSystemParametersWrapper syspar = new EcryptSystemParametersWrapper(systemParameters);
+    if (cached != null && cached.describes(syspar)) {
+      return cached;
+    }
+    final PseudonymGroup built = new PseudonymGroup(systemParameters, syspar, groupFactory);
+    if (uid != null) {
+      if (cached != null) {
+        logger.log(Level.WARNING, "Pseudonym group replaced; the DH parameters of " + uid
+            + " changed.");
+        groups.put(uid, built);
+      } else if (groups.size() < MAX_ENTRIES) {
+        groups.putIfAbsent(uid, built);
+      }
+    }
+    return built;
+  }
+
+  public int size() {
+    return groups.size();
+  }
+
+  public void clear() {
+    groups.clear();
+  }
+
+  /**
+   * A prime-order group with the DH generators of the system parameters as checked elements.
+   */
+  public static final class PseudonymGroup {
+
+    private final SystemParameters systemParameters;
+    private final KnownOrderGroup group;
+    private final BigInt modulus;
+    private final BigInt subgroupOrder;
+    private final KnownOrderGroupElement generator1;
+    private final KnownOrderGroupElement generator2;
+
+    private PseudonymGroup(final SystemParameters systemParameters,
+        final EcryptSystemParametersWrapper syspar, final GroupFactory groupFactory)
+        throws ConfigurationException {
+      this.systemParameters = systemParameters;
+      this.modulus = syspar.getDHModulus();
+      this.subgroupOrder = syspar.getDHSubgroupOrder();
+      this.group = groupFactory.createPrimeOrderGroup(modulus, subgroupOrder);
+      this.generator1 = group.valueOf(syspar.getDHGenerator1());
+      this.generator2 = group.valueOf(syspar.getDHGenerator2());
+      FixedBaseCache.register(modulus, generator1.toBigInt());
+      FixedBaseCache.register(modulus, generator2.toBigInt());
+    }
+
+    private boolean describes(final EcryptSystemParametersWrapper syspar)
+        throws ConfigurationException {
+      return modulus.equals(syspar.getDHModulus())
+          && subgroupOrder.equals(syspar.getDHSubgroupOrder())
+          && generator1.toBigInt().equals(syspar.getDHGenerator1())
+          && generator2.toBigInt().equals(syspar.getDHGenerator2());
+    }
+
+    public KnownOrderGroup getGroup() {
+      return group;
+    }
+
+    public BigInt getModulus() {
+      return modulus;
+    }
+
+    public BigInt getSubgroupOrder() {
+      return subgroupOrder;
+    }
+
+    public KnownOrderGroupElement getGenerator1() {
+      return generator1;
+    }
+
+    public KnownOrderGroupElement getGenerator2() {
+      return generator2;
+    }
+  }
+
+}
@@ -23,7 +23,7 @@ import com.ibm.zurich.idmx.buildingBlock.factory.BuildingBlockFactory;
 import com.ibm.zurich.idmx.buildingBlock.helper.BaseForRepresentation;
 import com.ibm.zurich.idmx.buildingBlock.helper.representation.pedersen.PedersenRepresentationBuildingBlock;
 import com.ibm.zurich.idmx.buildingBlock.pseudonym.PseudonymBuildingBlock;
-import com.ibm.zurich.idmx.buildingBlock.systemParameters.EcryptSystemParametersWrapper;
+import com.ibm.zurich.idmx.buildingBlock.pseudonym.PseudonymGroupRegistry.PseudonymGroup;
 import com.ibm.zurich.idmx.exception.ConfigurationException;
 import com.ibm.zurich.idmx.exception.ProofException;
 import com.ibm.zurich.idmx.interfaces.device.ExternalSecretsManager;
@@ -36,7 +36,6 @@ import com.ibm.zurich.idmx.interfaces.zkModule.state.ZkProofStateCollect;
 import com.ibm.zurich.idmx.interfaces.zkModule.state.ZkProofStateFirstRound;
 import com.ibm.zurich.idmx.interfaces.zkModule.state.ZkProofStateInitialize;
 import com.ibm.zurich.idmx.interfaces.zkModule.state.ZkProofStateSecondRound;
-import com.ibm.zurich.idmx.util.group.GroupFactoryImpl;
 import com.ibm.zurich.idmx.zkModule.ZkModuleImpl;
 
 import eu.abc4trust.xml.AbstractPseudonym;
@@ -60,14 +59,13 @@ public class ProverModule extends ZkModuleImpl implements ZkModuleProver {
 
     final ScopeExclusivePseudonym scopeExclusivePseudonym = (ScopeExclusivePseudonym) pseudonym;
     this.identifierOfModule = identifierOfModule;
-    final EcryptSystemParametersWrapper syspar = new EcryptSystemParametersWrapper(systemParameters);
+    final PseudonymGroup pseudonymGroup =
+        bbFactory.getPseudonymGroupRegistry().get(systemParameters);
 
-    final KnownOrderGroup group =
-        new GroupFactoryImpl().createPrimeOrderGroup(syspar.getDHModulus(),
-            syspar.getDHSubgroupOrder());
+    final KnownOrderGroup group = pseudonymGroup.getGroup();
     final KnownOrderGroupElement base1 =
         group.valueOf(bigIntFactory.valueOf(esManager.getBaseForScopeExclusivePseudonym(username, scope,
-            syspar.getDHModulus().getValue(), syspar.getDHSubgroupOrder().getValue())));
+            pseudonymGroup.getModulus().getValue(), pseudonymGroup.getSubgroupOrder().getValue())));
     if (!pseudonym.getScope().equals(scope)) {
       throw new ConfigurationException(
           "Scope mismatch: Scopes of pseudonym and the prove building block do not match when generating prover protocol.");
@@ -23,7 +23,7 @@ import com.ibm.zurich.idmx.buildingBlock.factory.BuildingBlockFactory;
 import com.ibm.zurich.idmx.buildingBlock.helper.BaseForRepresentation;
 import com.ibm.zurich.idmx.buildingBlock.helper.representation.pedersen.PedersenRepresentationBuildingBlock;
 import com.ibm.zurich.idmx.buildingBlock.pseudonym.PseudonymBuildingBlock;
-import com.ibm.zurich.idmx.buildingBlock.systemParameters.EcryptSystemParametersWrapper;
+import com.ibm.zurich.idmx.buildingBlock.pseudonym.PseudonymGroupRegistry.PseudonymGroup;
 import com.ibm.zurich.idmx.exception.ConfigurationException;
 import com.ibm.zurich.idmx.exception.ProofException;
 import com.ibm.zurich.idmx.interfaces.device.ExternalSecretsManager;
@@ -37,7 +37,6 @@ import com.ibm.zurich.idmx.interfaces.zkModule.state.ZkProofStateCollect;
 import com.ibm.zurich.idmx.interfaces.zkModule.state.ZkProofStateFirstRound;
 import com.ibm.zurich.idmx.interfaces.zkModule.state.ZkProofStateInitialize;
 import com.ibm.zurich.idmx.interfaces.zkModule.state.ZkProofStateSecondRound;
-import com.ibm.zurich.idmx.util.group.GroupFactoryImpl;
 import com.ibm.zurich.idmx.zkModule.ZkModuleImpl;
 
 import eu.abc4trust.xml.AbstractPseudonym;
@@ -76,13 +75,12 @@ public class ProverModule extends ZkModuleImpl implements ZkModuleProver {
 
     final StandardPseudonym standardPseudonym = (StandardPseudonym) pseudonym;
     // this.identifierOfModule = identifierOfModule;
-    final EcryptSystemParametersWrapper syspar = new EcryptSystemParametersWrapper(systemParameters);
+    final PseudonymGroup pseudonymGroup =
+        bbFactory.getPseudonymGroupRegistry().get(systemParameters);
 
-    final KnownOrderGroup group =
-        new GroupFactoryImpl().createPrimeOrderGroup(syspar.getDHModulus(),
-            syspar.getDHSubgroupOrder());
-    final KnownOrderGroupElement base1 = group.valueOf(syspar.getDHGenerator1());
-    final KnownOrderGroupElement base2 = group.valueOf(syspar.getDHGenerator2());
+    final KnownOrderGroup group = pseudonymGroup.getGroup();
+    final KnownOrderGroupElement base1 = pseudonymGroup.getGenerator1();
+    final KnownOrderGroupElement base2 = pseudonymGroup.getGenerator2();
 
     if (!esManager.getPublicKeyBase(username, deviceUid).equals(base1.toBigInt().getValue())) {
       throw new ConfigurationException(
@@ -20,7 +20,7 @@ import java.util.logging.Logger;
 import com.ibm.zurich.idmx.annotations.Nullable;
 import com.ibm.zurich.idmx.buildingBlock.factory.BuildingBlockFactory;
 import com.ibm.zurich.idmx.buildingBlock.pseudonym.PseudonymBuildingBlock;
-import com.ibm.zurich.idmx.buildingBlock.systemParameters.EcryptSystemParametersWrapper;
+import com.ibm.zurich.idmx.buildingBlock.pseudonym.PseudonymGroupRegistry.PseudonymGroup;
 import com.ibm.zurich.idmx.exception.ConfigurationException;
 import com.ibm.zurich.idmx.exception.ProofException;
 import com.ibm.zurich.idmx.interfaces.device.ExternalSecretsHelper;
@@ -33,7 +33,6 @@ import com.ibm.zurich.idmx.interfaces.util.group.KnownOrderGroup;
 import com.ibm.zurich.idmx.interfaces.util.group.KnownOrderGroupElement;
 import com.ibm.zurich.idmx.interfaces.zkModule.ZkModuleProver;
 import com.ibm.zurich.idmx.interfaces.zkModule.ZkModuleVerifier;
-import com.ibm.zurich.idmx.util.group.GroupFactoryImpl;
 
 import eu.abc4trust.xml.AbstractPseudonym;
 import eu.abc4trust.xml.StandardPseudonym;
@@ -108,13 +107,11 @@ public ZkModuleVerifier getZkModuleVerifier(final SystemParameters systemParamet
 
     final StandardPseudonym pseudonym;
 
-    final EcryptSystemParametersWrapper syspar = new EcryptSystemParametersWrapper(systemParameters);
+    final PseudonymGroup pseudonymGroup =
+        bbFactory.getPseudonymGroupRegistry().get(systemParameters);
 
-    final KnownOrderGroup group =
-        new GroupFactoryImpl().createPrimeOrderGroup(syspar.getDHModulus(),
-            syspar.getDHSubgroupOrder());
-    //KnownOrderGroupElement base1 = group.valueOf(syspar.getDHGenerator1());
-    final KnownOrderGroupElement base2 = group.valueOf(syspar.getDHGenerator2());
+    final KnownOrderGroup group = pseudonymGroup.getGroup();
+    final KnownOrderGroupElement base2 = pseudonymGroup.getGenerator2();
 
     final BigInt devicePKasBigInt = bigIntFactory.valueOf(esManager.getDevicePublicKey(username, deviceUid));
     KnownOrderGroupElement devicePK = group.valueOf(devicePKasBigInt);
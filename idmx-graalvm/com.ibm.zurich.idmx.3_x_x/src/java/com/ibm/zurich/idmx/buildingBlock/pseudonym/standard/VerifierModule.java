@@ -22,7 +22,7 @@ import com.ibm.zurich.idmx.buildingBlock.factory.BuildingBlockFactory;
 import com.ibm.zurich.idmx.buildingBlock.helper.BaseForRepresentation;
 import com.ibm.zurich.idmx.buildingBlock.helper.representation.pedersen.PedersenRepresentationBuildingBlock;
 import com.ibm.zurich.idmx.buildingBlock.pseudonym.PseudonymBuildingBlock;
-import com.ibm.zurich.idmx.buildingBlock.systemParameters.EcryptSystemParametersWrapper;
+import com.ibm.zurich.idmx.buildingBlock.pseudonym.PseudonymGroupRegistry.PseudonymGroup;
 import com.ibm.zurich.idmx.exception.ConfigurationException;
 import com.ibm.zurich.idmx.exception.ProofException;
 import com.ibm.zurich.idmx.interfaces.util.BigIntFactory;
@@ -31,7 +31,6 @@ import com.ibm.zurich.idmx.interfaces.util.group.KnownOrderGroupElement;
 import com.ibm.zurich.idmx.interfaces.zkModule.ZkModuleVerifier;
 import com.ibm.zurich.idmx.interfaces.zkModule.state.ZkVerifierStateCollect;
 import com.ibm.zurich.idmx.interfaces.zkModule.state.ZkVerifierStateVerify;
-import com.ibm.zurich.idmx.util.group.GroupFactoryImpl;
 import com.ibm.zurich.idmx.zkModule.ZkModuleImpl;
 
 import eu.abc4trust.xml.SystemParameters;
@@ -50,13 +49,12 @@ public class VerifierModule extends ZkModuleImpl implements ZkModuleVerifier {
 
     super(parent, identifierOfModule);
 
-    final EcryptSystemParametersWrapper syspar = new EcryptSystemParametersWrapper(systemParameters);
+    final PseudonymGroup pseudonymGroup =
+        bbFactory.getPseudonymGroupRegistry().get(systemParameters);
 
-    final KnownOrderGroup group =
-        new GroupFactoryImpl().createPrimeOrderGroup(syspar.getDHModulus(),
-            syspar.getDHSubgroupOrder());
-    final KnownOrderGroupElement base1 = group.valueOf(syspar.getDHGenerator1());
-    final KnownOrderGroupElement base2 = group.valueOf(syspar.getDHGenerator2());
+    final KnownOrderGroup group = pseudonymGroup.getGroup();
+    final KnownOrderGroupElement base1 = pseudonymGroup.getGenerator1();
+    final KnownOrderGroupElement base2 = pseudonymGroup.getGenerator2();
 
     final List<BaseForRepresentation> basesForRep = new ArrayList<BaseForRepresentation>();
     final BaseForRepresentation baseForRep1 = BaseForRepresentation.deviceSecret(base1);
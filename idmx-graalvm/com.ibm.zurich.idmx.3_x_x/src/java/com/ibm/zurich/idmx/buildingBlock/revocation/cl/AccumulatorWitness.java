@@ -14,6 +14,8 @@
 package com.ibm.zurich.idmx.buildingBlock.revocation.cl;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.ibm.zurich.idmx.configuration.ErrorMessages;
 import com.ibm.zurich.idmx.exception.ConfigurationException;
@@ -81,24 +83,49 @@ public class AccumulatorWitness implements Serializable {
   public static AccumulatorWitness updateWitness(
       final AccumulatorWitness previous, final AccumulatorEvent event, final boolean check)
       throws RevocationException, ConfigurationException, KeyManagerException {
-    final BigInt n = previous.state.getPublicKeyWrapper().getModulus();
-
-    final BigIntFactory bigIntFactory = n.getFactory();
-
     final AccumulatorState newState = AccumulatorState.applyEvent(previous.state, event, check);
-    final HiddenOrderGroupElement newWitness;
-    {
-      if (!previous.value.gcd(event.getAccumulatedPrime()).equals(bigIntFactory.one())) {
-        throw new RevocationException(ErrorMessages.valueHasBeenRevoked());
+    final HiddenOrderGroupElement newWitness = updateWitnessValue(previous.witness, previous.value,
+        event.getAccumulatedPrime(), event.getFinalAccumulatorValue());
+
+    final AccumulatorWitness newAw = new AccumulatorWitness(newState, previous.value, newWitness);
+    if (check) {
+      if (!newAw.isConsistent()) {
+        throw new RuntimeException("Witness update failed in Accumulator");
       }
-      // find a, b st. a*value + b*prime = 1
-      final Pair<BigInt, BigInt> euclid =
-          Arithmetic.extendedEuclid(previous.value, event.getAccumulatedPrime());
-      // newWit = oldWit^b * newAcc^a (mod n)
-      final HiddenOrderGroupElement term1 = previous.witness.multOp(euclid.second);
-      final HiddenOrderGroupElement term2 = event.getFinalAccumulatorValue().multOp(euclid.first);
-      newWitness = term1.op(term2);
     }
+    return newAw;
+  }
+
+  /**
+   * Update witness based on a sequence of consecutive events, starting at the epoch following the
+   * one of <tt>previous</tt>.
+   * 
+   * Instead of one extended Euclid and two exponentiations per event, the removed primes are
+   * multiplied into <tt>P</tt> and the witness is moved to the final accumulator value in one
+   * step: with <tt>a*value + b*P = 1</tt>, <tt>newWit = oldWit^b * finalAcc^a</tt>.
+   * 
+   * @throws ConfigurationException
+   * @throws KeyManagerException
+   */
+  public static AccumulatorWitness updateWitness(final AccumulatorWitness previous,
+      final List<AccumulatorEvent> events, final boolean check) throws RevocationException,
+      ConfigurationException, KeyManagerException {
+    if (events.isEmpty()) {
+      return previous;
+    }
+    final BigIntFactory bigIntFactory = previous.value.getFactory();
+
+    // States are cheap to derive; the accumulator values are only verified if requested
+    AccumulatorState newState = previous.state;
+    final List<BigInt> removedPrimes = new ArrayList<BigInt>(events.size());
+    for (final AccumulatorEvent event : events) {
+      newState = AccumulatorState.applyEvent(newState, event, check);
+      removedPrimes.add(event.getAccumulatedPrime());
+    }
+    final AccumulatorEvent last = events.get(events.size() - 1);
+    final HiddenOrderGroupElement newWitness =
+        updateWitnessValue(previous.witness, previous.value,
+          Arithmetic.product(removedPrimes, bigIntFactory), last.getFinalAccumulatorValue());
 
     final AccumulatorWitness newAw = new AccumulatorWitness(newState, previous.value, newWitness);
     if (check) {
@@ -109,6 +136,27 @@ public class AccumulatorWitness implements Serializable {
     return newAw;
   }
 
+  /**
+   * Moves <tt>witness</tt> for <tt>value</tt> to the accumulator value reached after removing
+   * primes whose product is <tt>removedProduct</tt>.
+   * 
+   * @throws RevocationException if <tt>value</tt> is one of the removed primes.
+   */
+  public static HiddenOrderGroupElement updateWitnessValue(final HiddenOrderGroupElement witness,
+      final BigInt value, final BigInt removedProduct,
+      final HiddenOrderGroupElement finalAccumulatorValue) throws RevocationException {
+    final BigIntFactory bigIntFactory = value.getFactory();
+    if (!value.gcd(removedProduct).equals(bigIntFactory.one())) {
+      throw new RevocationException(ErrorMessages.valueHasBeenRevoked());
+    }
+    // find a, b st. a*value + b*product = 1
+    final Pair<BigInt, BigInt> euclid = Arithmetic.extendedEuclid(value, removedProduct);
+    // newWit = oldWit^b * newAcc^a (mod n)
+    final HiddenOrderGroupElement term1 = witness.multOp(euclid.second);
+    final HiddenOrderGroupElement term2 = finalAccumulatorValue.multOp(euclid.first);
+    return term1.op(term2);
+  }
+
   /**
    * Check if the witness/value pair is consistent with the current state.
    * 
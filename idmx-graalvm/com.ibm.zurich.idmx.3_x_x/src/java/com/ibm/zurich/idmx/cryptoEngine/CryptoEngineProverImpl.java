@@ -15,6 +15,7 @@
 package com.ibm.zurich.idmx.cryptoEngine;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
 
@@ -53,6 +54,7 @@ import eu.abc4trust.xml.PresentationTokenDescription;
 import eu.abc4trust.xml.Pseudonym;
 import eu.abc4trust.xml.PseudonymMetadata;
 import eu.abc4trust.xml.PseudonymWithMetadata;
+import eu.abc4trust.xml.RevocationEvent;
 import eu.abc4trust.xml.RevocationInformation;
 import eu.abc4trust.xml.RevocationLogEntry;
 import eu.abc4trust.xml.SystemParameters;
@@ -261,7 +263,6 @@ public class CryptoEngineProverImpl implements CryptoEngineProver {
       ConfigurationException {
 
     final int nreEpoch = nreFacade.getEpoch();
-    NonRevocationEvidenceFacade currentWitness = nreFacade;
 
     final RevocationInformationFacade revocationInformationFacade =
         new RevocationInformationFacade(revocationInformation);
@@ -269,6 +270,7 @@ public class CryptoEngineProverImpl implements CryptoEngineProver {
 
     final List<RevocationLogEntry> revocationLogEntries =
         revocationInformationFacade.getRevocationLogEntries();
+    final List<RevocationEvent> pendingEvents = new ArrayList<RevocationEvent>();
     final ListIterator<RevocationLogEntry> listIterator =
         revocationLogEntries.listIterator(revocationLogEntries.size());
     while (listIterator.hasPrevious()) {
@@ -280,9 +282,9 @@ public class CryptoEngineProverImpl implements CryptoEngineProver {
         // The witness has already been updated with this event
         continue;
       }
-      currentWitness =
-          currentWitness.updateWitness(revocationLogEntryFacade.getRevocationEvent(), groupFactory);
+      pendingEvents.add(revocationLogEntryFacade.getRevocationEvent());
     }
-    return currentWitness.getDelegateeElement();
+    // all events since the epoch of the witness are applied in a single update
+    return nreFacade.updateWitness(pendingEvents, groupFactory).getDelegateeElement();
   }
 }
@@ -15,7 +15,12 @@
 package com.ibm.zurich.idmx.cryptoEngine;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.inject.Inject;
 import javax.xml.datatype.XMLGregorianCalendar;
@@ -44,6 +49,7 @@ import com.ibm.zurich.idmx.interfaces.util.group.GroupFactory;
 import com.ibm.zurich.idmx.keypair.SecretKeyWrapper;
 import com.ibm.zurich.idmx.keypair.ra.RevocationAuthorityPublicKeyWrapper;
 import com.ibm.zurich.idmx.orchestration.issuance.IssuanceOrchestrationRevocationAuthorityImpl;
+import com.ibm.zurich.idmx.util.Arithmetic;
 
 import eu.abc4trust.abce.internal.revocation.credentialManager.CredentialManager;
 import eu.abc4trust.abce.internal.user.credentialManager.CredentialManagerException;
@@ -169,6 +175,12 @@ public class CryptoEngineRevocationAuthorityImpl implements CryptoEngineRevocati
   @Override
   public URI revoke(final URI revocationAuthorityId, final BigInt revocationHandleValue)
       throws CryptoEngineException {
+    return revokeBatch(revocationAuthorityId, Collections.singletonList(revocationHandleValue));
+  }
+
+  @Override
+  public URI revokeBatch(final URI revocationAuthorityId, final Collection<BigInt> revocationHandleValues)
+      throws CryptoEngineException {
 
     // Retrieve public and secret key
     final RevocationAuthorityPublicKeyWrapper rapkWrapper;
@@ -223,9 +235,18 @@ public class CryptoEngineRevocationAuthorityImpl implements CryptoEngineRevocati
     // .getRevocationHistoryUID(revocationAuthorityId)));
 
 
-    // check history whether this revocation handle has already been revoked
+    // check history whether the revocation handles have already been revoked
     try {
-      if (!publicRevocationHistoryFacade.revocationHandleHasBeenRevoked(revocationHandleValue)) {
+      final Set<BigInt> pending = new LinkedHashSet<BigInt>();
+      for (final BigInt revocationHandleValue : revocationHandleValues) {
+        if (!publicRevocationHistoryFacade.revocationHandleHasBeenRevoked(revocationHandleValue)) {
+          pending.add(revocationHandleValue);
+        }
+      }
+      if (!pending.isEmpty()) {
+        // all handles leave the accumulator in one event: acc^(1/(e_1*...*e_k))
+        final BigInt removedProduct =
+            Arithmetic.product(new ArrayList<BigInt>(pending), pending.iterator().next().getFactory());
 
         final URI revocationEventId =
             URI.create("urn:idmx:3.0:revocation:log:entry:" + randomGeneration.generateRandomUid());
@@ -236,7 +257,7 @@ public class CryptoEngineRevocationAuthorityImpl implements CryptoEngineRevocati
         try {
           revocationEventWrapper =
               ClRevocationEventWrapper.removePrime(revocationStateWrapper.getRevocationState(),
-                  revocationHandleValue, now, rapkWrapper.getPublicKey(), raskWrapper.getSecretKey(),
+                  removedProduct, now, rapkWrapper.getPublicKey(), raskWrapper.getSecretKey(),
                   groupFactory);
 
           revocationStateWrapper =
@@ -245,7 +266,8 @@ public class CryptoEngineRevocationAuthorityImpl implements CryptoEngineRevocati
 
           // update the revocation information
           revocationLogEntryFacade =
-              publicRevocationHistoryFacade.addRevocationEvent(revocationEventWrapper.getDelegateeValue());
+              publicRevocationHistoryFacade.addRevocationEvent(
+                  revocationEventWrapper.getDelegateeValue(), pending);
           revocationInformationFacade.setRevocationHistory(publicRevocationHistoryFacade
               .getDelegateeElement());
           revocationInformationFacade.setRevocationState(revocationStateWrapper.getRevocationState());
@@ -284,7 +306,7 @@ public class CryptoEngineRevocationAuthorityImpl implements CryptoEngineRevocati
       if (Configuration.printStackTraces()) e.printStackTrace();
       throw new CryptoEngineException(e);
     }
-    // the revocation handle has already been revoked
+    // all revocation handles have already been revoked
     return null;
   }
 
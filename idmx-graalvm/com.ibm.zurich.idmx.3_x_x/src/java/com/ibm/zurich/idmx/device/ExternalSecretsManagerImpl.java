@@ -179,9 +179,8 @@ public class ExternalSecretsManagerImpl implements ExternalSecretsManager {
         final BrandsPublicKeyWrapper pkw =
             new BrandsPublicKeyWrapper(new IssuerParametersFacade(ip).getPublicKey());
         final SystemParameters sp = keyManager.getSystemParameters();
-        final EcryptSystemParametersWrapper spw = new EcryptSystemParametersWrapper(sp);
 
-        return new IssuerParam(spw.getDHModulus(), pkw.getGD(), null);
+        return new IssuerParam(bbf.getPseudonymGroupRegistry().get(sp).getModulus(), pkw.getGD(), null);
       } else {
         throw new RuntimeException("Unknown issuer parameters algorithm: "
             + ipf.getBuildingBlockId());
@@ -14,6 +14,9 @@
 
 package com.ibm.zurich.idmx.util;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.ibm.zurich.idmx.configuration.ErrorMessages;
 import com.ibm.zurich.idmx.interfaces.util.BigInt;
 import com.ibm.zurich.idmx.interfaces.util.BigIntFactory;
@@ -112,5 +115,30 @@ public class Arithmetic {
     return result;
   }
 
+  /**
+   * Returns the product of all <tt>factors</tt>, or one if the list is empty. The factors are
+   * multiplied pairwise in a balanced tree so that the large multiplications happen on operands of
+   * similar size.
+   * 
+   * @param factors the values to multiply.
+   * @return <tt>factors[0] * ... * factors[k-1]</tt>.
+   */
+  public static BigInt product(final List<BigInt> factors, final BigIntFactory bigIntFactory) {
+    if (factors.isEmpty()) {
+      return bigIntFactory.one();
+    }
+    List<BigInt> level = factors;
+    while (level.size() > 1) {
+      final List<BigInt> next = new ArrayList<BigInt>((level.size() + 1) / 2);
+      for (int i = 0; i + 1 < level.size(); i += 2) {
+        next.add(level.get(i).multiply(level.get(i + 1)));
+      }
+      if (level.size() % 2 == 1) {
+        next.add(level.get(level.size() - 1));
+      }
+      level = next;
+    }
+    return level.get(0);
+  }
 
 }
@@ -0,0 +1,64 @@
+//* Licensed Materials - Property of IBM                                     *
+//* com.ibm.zurich.idmx.3_x_x                                                *
+//* (C) Copyright IBM Corp. 2015. All Rights Reserved.                       *
+//* US Government Users Restricted Rights - Use, duplication or              *
+//* disclosure restricted by GSA ADP Schedule Contract with IBM Corp.        *
+//*                                                                          *
+//* The contents of this file are subject to the terms of either the         *
+//* International License Agreement for Identity Mixer Version 1.2 or the    *
+//* Apache License Version 2.0.                                              *
+//*                                                                          *
+//* The license terms can be found in the file LICENSE.txt that is provided  *
+//* together with this software.                                             *
+//*/**/***********************************************************************
+package com.ibm.zurich.idmx.util.group;
+
+import java.math.BigInteger;
+
+/**
+ * Barrett reduction modulo a fixed modulus. BigInteger.mod runs a long division on every call;
+ * Barrett replaces it with two multiplications by precomputed values. Operands must lie in
+ * [0, modulus).
+ */
+// Package-private
+final class BarrettReduction {
+
+  private final BigInteger modulus;
+  private final BigInteger mu;
+  private final int k;
+
+  BarrettReduction(final BigInteger modulus) {
+    this.modulus = modulus;
+    this.k = modulus.bitLength();
+    this.mu = BigInteger.ONE.shiftLeft(2 * k).divide(modulus);
+  }
+
+  BigInteger getModulus() {
+    return modulus;
+  }
+
+  BigInteger one() {
+    return BigInteger.ONE.mod(modulus);
+  }
+
+  BigInteger multiply(final BigInteger a, final BigInteger b) {
+    return reduce(a.multiply(b));
+  }
+
+  BigInteger square(final BigInteger a) {
+    return reduce(a.multiply(a));
+  }
+
+  /**
+   * Reduces 0 <= x < modulus^2.
+   */
+  private BigInteger reduce(final BigInteger x) {
+    final BigInteger q = x.shiftRight(k - 1).multiply(mu).shiftRight(k + 1);
+    BigInteger r = x.subtract(q.multiply(modulus));
+    while (r.compareTo(modulus) >= 0) {
+      r = r.subtract(modulus);
+    }
+    return r;
+  }
+
+}
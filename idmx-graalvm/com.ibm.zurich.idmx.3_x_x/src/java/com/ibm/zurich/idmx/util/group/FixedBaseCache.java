@@ -0,0 +1,319 @@
+//* Licensed Materials - Property of IBM                                     *
+//* com.ibm.zurich.idmx.3_x_x                                                *
+//* (C) Copyright IBM Corp. 2015. All Rights Reserved.                       *
+//* US Government Users Restricted Rights - Use, duplication or              *
+//* disclosure restricted by GSA ADP Schedule Contract with IBM Corp.        *
+//*                                                                          *
+//* The contents of this file are subject to the terms of either the         *
+//* International License Agreement for Identity Mixer Version 1.2 or the    *
+//* Apache License Version 2.0.                                              *
+//*                                                                          *
+//* The license terms can be found in the file LICENSE.txt that is provided  *
+//* together with this software.                                             *
+//*/**/***********************************************************************
+package com.ibm.zurich.idmx.util.group;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.ibm.zurich.idmx.configuration.ErrorMessages;
+import com.ibm.zurich.idmx.interfaces.util.BigInt;
+
+/**
+ * Process-wide cache of fixed-base precomputation tables, keyed by (modulus, base).
+ *
+ * Bases that never change for a key (the CL public-key bases, the accumulator bases of a
+ * revocation authority and the pseudonym generators of the system parameters) are registered when
+ * the key is loaded. The table for a registered base is built the first time that base is
+ * exponentiated and holds b^(2^(w*j)) for every window j, so that an exponentiation needs no
+ * squarings at all: the powers are sorted into buckets by their exponent digit and the buckets are
+ * combined with a running product (Brickell-Gordon-McCurley-Wilson).
+ *
+ * Tables are kept in access order and evicted once their estimated size exceeds the memory budget.
+ * An evicted table is rebuilt on the next use; bases that were never registered always go straight
+ * to BigInteger.modPow.
+ *
+ * Which buckets a table walk touches depends on the digits of the exponent, so the time it takes
+ * is not independent of the exponent. Exponentiations with a long-term secret (such as the device
+ * secret held by the secrets manager) stay on BigInteger.modPow.
+ */
+public final class FixedBaseCache {
+
+  public static final long DEFAULT_MEMORY_BUDGET_BYTES = 16L * 1024 * 1024;
+
+  private static final int MAX_REGISTERED_BASES = 4096;
+  private static final int WINDOW = 6;
+  /**
+   * Exponents of the CL signature and proofs exceed the modulus length by the statistical
+   * zero-knowledge parameter and the challenge length; tables cover this headroom up front.
+   */
+  private static final int HEADROOM_BITS = 512;
+
+  private static final Logger logger = Logger.getLogger(FixedBaseCache.class.getName());
+
+  private static final Set<BaseKey> registered = ConcurrentHashMap.newKeySet();
+  /** Bases whose table alone would exceed the memory budget; they go to modPow. */
+  private static final Set<BaseKey> oversized = ConcurrentHashMap.newKeySet();
+  private static final LinkedHashMap<BaseKey, Table> tables =
+      new LinkedHashMap<BaseKey, Table>(16, 0.75f, true);
+
+  private static long memoryBudget = DEFAULT_MEMORY_BUDGET_BYTES;
+  private static long memoryInUse = 0;
+
+  // Non-instantiable Class
+  private FixedBaseCache() {
+    throw new AssertionError(ErrorMessages.nonInstantiationErrorMessage());
+  }
+
+  /**
+   * Marks <tt>base</tt> as a fixed base modulo <tt>modulus</tt>. The table is only built when the
+   * base is first exponentiated.
+   */
+  public static void register(final BigInt modulus, final BigInt base) {
+    if (modulus == null || base == null) {
+      return;
+    }
+    if (registered.size() >= MAX_REGISTERED_BASES) {
+      logger.log(Level.FINE, "Fixed base registry is full; base not registered.");
+      return;
+    }
+    registered.add(key(modulus, base));
+  }
+
+  public static boolean isRegistered(final BigInt modulus, final BigInt base) {
+    return !registered.isEmpty() && registered.contains(key(modulus, base));
+  }
+
+  /**
+   * Computes <tt>base^exponent mod modulus</tt>, using the precomputed table when the base has
+   * been registered and BigInteger.modPow otherwise.
+   */
+  public static BigInt modPow(final BigInt base, final BigInt exponent, final BigInt modulus) {
+    if (registered.isEmpty() || exponent.getValue().signum() <= 0) {
+      return base.modPow(exponent, modulus);
+    }
+    final BaseKey key = key(modulus, base);
+    if (!registered.contains(key) || oversized.contains(key)) {
+      return base.modPow(exponent, modulus);
+    }
+    final Table table = tableFor(key, exponent.getValue().bitLength());
+    if (table == null) {
+      return base.modPow(exponent, modulus);
+    }
+    return modulus.getFactory().valueOf(table.pow(exponent.getValue()));
+  }
+
+  /**
+   * Multiplies the powers of the registered bases among <tt>bases</tt> into one product. All of
+   * their tables share one set of buckets, so the buckets are combined only once whatever the
+   * number of bases. Every base that was taken from a table is marked in <tt>done</tt>; the others
+   * are left to the caller.
+   *
+   * @return the product of the powers taken from tables, or null if no base has a table
+   */
+  static BigInteger multiPow(final BigInteger[] bases, final BigInteger[] exponents,
+      final BigInteger modulus, final boolean[] done) {
+    if (registered.isEmpty()) {
+      return null;
+    }
+    final BigInteger[] buckets = new BigInteger[1 << WINDOW];
+    BarrettReduction red = null;
+    for (int i = 0; i < bases.length; i++) {
+      if (exponents[i].signum() <= 0) {
+        continue;
+      }
+      final BaseKey key = key(modulus, bases[i]);
+      if (!registered.contains(key) || oversized.contains(key)) {
+        continue;
+      }
+      final Table table = tableFor(key, exponents[i].bitLength());
+      if (table == null) {
+        continue;
+      }
+      table.accumulate(buckets, exponents[i]);
+      red = table.red;
+      done[i] = true;
+    }
+    return (red == null) ? null : combine(buckets, red);
+  }
+
+  /**
+   * Bases are kept reduced modulo the modulus, so that a negative base (as in the signed
+   * quadratic residues) finds the table registered for its residue.
+   */
+  private static BaseKey key(final BigInt modulus, final BigInt base) {
+    return key(modulus.getValue(), base.getValue());
+  }
+
+  private static BaseKey key(final BigInteger n, final BigInteger b) {
+    if (b.signum() < 0 || b.compareTo(n) >= 0) {
+      return new BaseKey(n, b.mod(n));
+    }
+    return new BaseKey(n, b);
+  }
+
+  public static synchronized void setMemoryBudget(final long bytes) {
+    memoryBudget = bytes;
+    oversized.clear();
+    evict();
+  }
+
+  public static synchronized long getMemoryBudget() {
+    return memoryBudget;
+  }
+
+  public static synchronized long getMemoryInUse() {
+    return memoryInUse;
+  }
+
+  public static synchronized int getNumberOfTables() {
+    return tables.size();
+  }
+
+  public static synchronized void clear() {
+    tables.clear();
+    registered.clear();
+    oversized.clear();
+    memoryInUse = 0;
+  }
+
+  private static Table tableFor(final BaseKey key, final int exponentBits) {
+    synchronized (FixedBaseCache.class) {
+      final Table table = tables.get(key);
+      if (table != null && table.covers(exponentBits)) {
+        return table;
+      }
+    }
+    // built outside the lock; a concurrent build of the same table only costs time
+    final int bits = Math.max(exponentBits, key.modulus.bitLength() + HEADROOM_BITS);
+    if (Table.sizeInBytes(key, bits) > getMemoryBudget()) {
+      // it would be evicted as soon as it was built; remember that instead
+      oversized.add(key);
+      logger.log(Level.FINE, "Fixed base table exceeds the memory budget; base not cached.");
+      return null;
+    }
+    final Table built = new Table(key, bits);
+    synchronized (FixedBaseCache.class) {
+      final Table previous = tables.put(key, built);
+      if (previous != null) {
+        memoryInUse -= previous.sizeInBytes;
+      }
+      memoryInUse += built.sizeInBytes;
+      evict();
+    }
+    return built;
+  }
+
+  /**
+   * Combines the buckets with a running product: bucket d ends up multiplied into the result d
+   * times.
+   */
+  private static BigInteger combine(final BigInteger[] buckets, final BarrettReduction red) {
+    BigInteger running = null;
+    BigInteger result = null;
+    for (int d = buckets.length - 1; d > 0; d--) {
+      if (buckets[d] != null) {
+        running = (running == null) ? buckets[d] : red.multiply(running, buckets[d]);
+      }
+      if (running != null) {
+        result = (result == null) ? running : red.multiply(result, running);
+      }
+    }
+    return (result == null) ? red.one() : result;
+  }
+
+  // Caller holds the class lock
+  private static void evict() {
+    final Iterator<Map.Entry<BaseKey, Table>> it = tables.entrySet().iterator();
+    while (memoryInUse > memoryBudget && it.hasNext()) {
+      memoryInUse -= it.next().getValue().sizeInBytes;
+      it.remove();
+    }
+  }
+
+  private static final class BaseKey {
+
+    private final BigInteger modulus;
+    private final BigInteger base;
+    private final int hash;
+
+    BaseKey(final BigInteger modulus, final BigInteger base) {
+      this.modulus = modulus;
+      this.base = base;
+      this.hash = 31 * modulus.hashCode() + base.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) return true;
+      if (!(obj instanceof BaseKey)) return false;
+      final BaseKey other = (BaseKey) obj;
+      return hash == other.hash && modulus.equals(other.modulus) && base.equals(other.base);
+    }
+  }
+
+  private static final class Table {
+
+    private final BarrettReduction red;
+    /** powers[j] = base^(2^(WINDOW*j)) mod modulus */
+    private final BigInteger[] powers;
+    private final int bits;
+    private final long sizeInBytes;
+
+    Table(final BaseKey key, final int exponentBits) {
+      this.red = new BarrettReduction(key.modulus);
+      final int windows = (exponentBits + WINDOW - 1) / WINDOW;
+      this.bits = windows * WINDOW;
+      this.powers = new BigInteger[windows];
+      powers[0] = key.base.mod(key.modulus);
+      for (int j = 1; j < windows; j++) {
+        BigInteger p = powers[j - 1];
+        for (int s = 0; s < WINDOW; s++) {
+          p = red.square(p);
+        }
+        powers[j] = p;
+      }
+      this.sizeInBytes = sizeInBytes(key, bits);
+    }
+
+    static long sizeInBytes(final BaseKey key, final int exponentBits) {
+      final int windows = (exponentBits + WINDOW - 1) / WINDOW;
+      // magnitude plus object and array overhead per entry
+      return (long) windows * (key.modulus.bitLength() / 8 + 64);
+    }
+
+    boolean covers(final int exponentBits) {
+      return exponentBits <= bits;
+    }
+
+    BigInteger pow(final BigInteger exponent) {
+      final BigInteger[] buckets = new BigInteger[1 << WINDOW];
+      accumulate(buckets, exponent);
+      return combine(buckets, red);
+    }
+
+    /** Sorts the powers of this base into the buckets by the digits of <tt>exponent</tt>. */
+    void accumulate(final BigInteger[] buckets, final BigInteger exponent) {
+      final int windows = (exponent.bitLength() + WINDOW - 1) / WINDOW;
+      for (int j = 0; j < windows; j++) {
+        final int digit = MultiExponentiation.digit(exponent, j * WINDOW, WINDOW);
+        if (digit != 0) {
+          buckets[digit] =
+              (buckets[digit] == null) ? powers[j] : red.multiply(buckets[digit], powers[j]);
+        }
+      }
+    }
+  }
+
+}
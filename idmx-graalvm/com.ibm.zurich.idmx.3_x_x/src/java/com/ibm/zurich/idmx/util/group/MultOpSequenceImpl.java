@@ -42,4 +42,22 @@ public void putMultOp(final GE ge, final BigInt iterations) {
   @Override
 public abstract GE finalizeSequence();
 
+  /**
+   * Computes the product of all queued powers modulo <tt>modulus</tt> as one multi-base
+   * exponentiation, on the integer representations of the group elements.
+   */
+  protected BigInt multiExponentiate(final BigInt modulus) {
+    return multiExponentiate(modulus, groupElements, iterationCounters);
+  }
+
+  protected BigInt multiExponentiate(final BigInt modulus, final List<GE> elements,
+      final List<BigInt> exponents) {
+    assert (elements.size() == exponents.size());
+    final List<BigInt> bases = new ArrayList<BigInt>(elements.size());
+    for (final GE ge : elements) {
+      bases.add(ge.toBigInt());
+    }
+    return MultiExponentiation.compute(bases, exponents, modulus);
+  }
+
 }
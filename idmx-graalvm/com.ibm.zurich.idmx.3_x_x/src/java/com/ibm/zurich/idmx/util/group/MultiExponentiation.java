@@ -0,0 +1,315 @@
+//* Licensed Materials - Property of IBM                                     *
+//* com.ibm.zurich.idmx.3_x_x                                                *
+//* (C) Copyright IBM Corp. 2015. All Rights Reserved.                       *
+//* US Government Users Restricted Rights - Use, duplication or              *
+//* disclosure restricted by GSA ADP Schedule Contract with IBM Corp.        *
+//*                                                                          *
+//* The contents of this file are subject to the terms of either the         *
+//* International License Agreement for Identity Mixer Version 1.2 or the    *
+//* Apache License Version 2.0.                                              *
+//*                                                                          *
+//* The license terms can be found in the file LICENSE.txt that is provided  *
+//* together with this software.                                             *
+//*/**/***********************************************************************
+package com.ibm.zurich.idmx.util.group;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import com.ibm.zurich.idmx.configuration.ErrorMessages;
+import com.ibm.zurich.idmx.interfaces.util.BigInt;
+import com.ibm.zurich.idmx.interfaces.util.BigIntFactory;
+
+/**
+ * Computes products of powers <tt>b_1^e_1 * ... * b_k^e_k mod m</tt> (multi-base
+ * exponentiations) for groups whose operation is modular multiplication.
+ *
+ * Three strategies are available and the cheapest one is picked per sequence:
+ * <ul>
+ * <li>NAIVE: one BigInteger.modPow per base. modPow runs on Montgomery multiplication, which
+ * makes it the fastest choice when there are only a few bases.</li>
+ * <li>STRAUS: interleaved fixed-window exponentiation. All bases share one chain of squarings and
+ * each base contributes at most one multiplication per window.</li>
+ * <li>PIPPENGER: bucket method. Per window every base costs one multiplication into a bucket and
+ * the buckets are combined with a running product, which only pays off for long sequences.</li>
+ * </ul>
+ * STRAUS and PIPPENGER reduce with Barrett reduction. Negative exponents are handled by inverting
+ * the corresponding base, as modPow does.
+ */
+public final class MultiExponentiation {
+
+  public enum Strategy {
+    NAIVE, STRAUS, PIPPENGER
+  }
+
+  /**
+   * Cost of one Barrett multiply-and-reduce relative to one Montgomery step inside
+   * BigInteger.modPow, in percent. Measured on 2048-bit moduli.
+   */
+  private static final int BARRETT_COST_PERCENT = 300;
+
+  /**
+   * Fixed overhead of a single modPow call (conversion into and out of Montgomery form and the
+   * window table), in Montgomery steps.
+   */
+  private static final int MODPOW_OVERHEAD = 24;
+
+  private static final int MIN_STRAUS_WINDOW = 1;
+  private static final int MAX_STRAUS_WINDOW = 6;
+  private static final int MIN_PIPPENGER_WINDOW = 2;
+  private static final int MAX_PIPPENGER_WINDOW = 12;
+
+  // Non-instantiable Class
+  private MultiExponentiation() {
+    throw new AssertionError(ErrorMessages.nonInstantiationErrorMessage());
+  }
+
+  /**
+   * Computes <tt>bases[0]^exponents[0] * ... * bases[k-1]^exponents[k-1] mod modulus</tt>. Bases
+   * registered with the FixedBaseCache are taken from their tables; the remaining bases go through
+   * the strategy that is expected to be cheapest for their number and exponent lengths.
+   */
+  public static BigInt compute(final List<BigInt> bases, final List<BigInt> exponents,
+      final BigInt modulus) {
+    final BigIntFactory bigIntFactory = modulus.getFactory();
+    final BigInteger[] b = new BigInteger[bases.size()];
+    final BigInteger[] e = new BigInteger[exponents.size()];
+    for (int i = 0; i < b.length; i++) {
+      b[i] = bases.get(i).getValue();
+    }
+    for (int i = 0; i < e.length; i++) {
+      e[i] = exponents.get(i).getValue();
+    }
+    return bigIntFactory.valueOf(computeWithFixedBases(b, e, modulus.getValue()));
+  }
+
+  static BigInteger computeWithFixedBases(final BigInteger[] bases, final BigInteger[] exponents,
+      final BigInteger modulus) {
+    if (bases.length != exponents.length) {
+      throw new IllegalArgumentException("Number of bases and exponents differs.");
+    }
+    final boolean[] done = new boolean[bases.length];
+    final BigInteger fixed = FixedBaseCache.multiPow(bases, exponents, modulus, done);
+    if (fixed == null) {
+      return compute(bases, exponents, modulus, null);
+    }
+    int k = 0;
+    for (int i = 0; i < done.length; i++) {
+      if (!done[i]) {
+        k++;
+      }
+    }
+    if (k == 0) {
+      return fixed;
+    }
+    final BigInteger[] b = new BigInteger[k];
+    final BigInteger[] e = new BigInteger[k];
+    k = 0;
+    for (int i = 0; i < done.length; i++) {
+      if (!done[i]) {
+        b[k] = bases[i];
+        e[k] = exponents[i];
+        k++;
+      }
+    }
+    return fixed.multiply(compute(b, e, modulus, null)).mod(modulus);
+  }
+
+  /**
+   * Computes the multi-base exponentiation with the given strategy, or with the cheapest one if
+   * <tt>strategy</tt> is null.
+   */
+  public static BigInteger compute(final BigInteger[] bases, final BigInteger[] exponents,
+      final BigInteger modulus, final Strategy strategy) {
+    if (bases.length != exponents.length) {
+      throw new IllegalArgumentException("Number of bases and exponents differs.");
+    }
+    // normalise: drop zero exponents and move the sign of negative exponents into the base
+    int k = 0;
+    final BigInteger[] b = new BigInteger[bases.length];
+    final BigInteger[] e = new BigInteger[exponents.length];
+    for (int i = 0; i < bases.length; i++) {
+      final int signum = exponents[i].signum();
+      if (signum == 0) {
+        continue;
+      } else if (signum < 0) {
+        b[k] = bases[i].modInverse(modulus);
+        e[k] = exponents[i].negate();
+      } else {
+        b[k] = bases[i].mod(modulus);
+        e[k] = exponents[i];
+      }
+      k++;
+    }
+    if (k == 0) {
+      return BigInteger.ONE.mod(modulus);
+    }
+    int maxBits = 0;
+    for (int i = 0; i < k; i++) {
+      maxBits = Math.max(maxBits, e[i].bitLength());
+    }
+
+    final Strategy chosen = (strategy != null) ? strategy : chooseStrategy(k, maxBits);
+    switch (chosen) {
+      case STRAUS:
+        return straus(b, e, k, maxBits, new BarrettReduction(modulus),
+            strausWindow(k, maxBits));
+      case PIPPENGER:
+        return pippenger(b, e, k, maxBits, new BarrettReduction(modulus),
+            pippengerWindow(k, maxBits));
+      default:
+        return naive(b, e, k, modulus);
+    }
+  }
+
+  /**
+   * Picks the strategy with the lowest estimated cost for <tt>count</tt> bases with exponents of
+   * at most <tt>bits</tt> bits.
+   */
+  public static Strategy chooseStrategy(final int count, final int bits) {
+    if (count <= 1) {
+      return Strategy.NAIVE;
+    }
+    // modPow: one squaring per bit and one multiplication per (about) six bits
+    final long naive = (long) count * (bits + bits / 6 + MODPOW_OVERHEAD) * 100;
+    final long straus = strausCost(count, bits, strausWindow(count, bits)) * BARRETT_COST_PERCENT;
+    final long pippenger =
+        pippengerCost(count, bits, pippengerWindow(count, bits)) * BARRETT_COST_PERCENT;
+    if (naive <= straus && naive <= pippenger) {
+      return Strategy.NAIVE;
+    } else if (straus <= pippenger) {
+      return Strategy.STRAUS;
+    } else {
+      return Strategy.PIPPENGER;
+    }
+  }
+
+  private static long strausCost(final int count, final int bits, final int w) {
+    final long windows = (bits + w - 1) / w;
+    // table, shared squarings, one multiplication per base and window
+    return count * ((1L << w) - 2) + windows * w + count * windows;
+  }
+
+  private static int strausWindow(final int count, final int bits) {
+    int best = MIN_STRAUS_WINDOW;
+    for (int w = MIN_STRAUS_WINDOW + 1; w <= MAX_STRAUS_WINDOW; w++) {
+      if (strausCost(count, bits, w) < strausCost(count, bits, best)) {
+        best = w;
+      }
+    }
+    return best;
+  }
+
+  private static long pippengerCost(final int count, final int bits, final int c) {
+    final long windows = (bits + c - 1) / c;
+    // bucket accumulation, running product over the buckets, shared squarings
+    return windows * (count + (2L << c)) + windows * c;
+  }
+
+  private static int pippengerWindow(final int count, final int bits) {
+    int best = MIN_PIPPENGER_WINDOW;
+    for (int c = MIN_PIPPENGER_WINDOW + 1; c <= MAX_PIPPENGER_WINDOW; c++) {
+      if (pippengerCost(count, bits, c) < pippengerCost(count, bits, best)) {
+        best = c;
+      }
+    }
+    return best;
+  }
+
+  private static BigInteger naive(final BigInteger[] b, final BigInteger[] e, final int k,
+      final BigInteger modulus) {
+    BigInteger result = b[0].modPow(e[0], modulus);
+    for (int i = 1; i < k; i++) {
+      result = result.multiply(b[i].modPow(e[i], modulus)).mod(modulus);
+    }
+    return result;
+  }
+
+  /**
+   * Interleaved fixed-window exponentiation: table[i][d] = b_i^d for 1 <= d < 2^w.
+   */
+  private static BigInteger straus(final BigInteger[] b, final BigInteger[] e, final int k,
+      final int maxBits, final BarrettReduction red, final int w) {
+    final int tableSize = 1 << w;
+    final BigInteger[][] table = new BigInteger[k][tableSize];
+    for (int i = 0; i < k; i++) {
+      table[i][1] = b[i];
+      for (int d = 2; d < tableSize; d++) {
+        table[i][d] = red.multiply(table[i][d - 1], b[i]);
+      }
+    }
+
+    final int windows = (maxBits + w - 1) / w;
+    BigInteger result = null;
+    for (int win = windows - 1; win >= 0; win--) {
+      if (result != null) {
+        for (int s = 0; s < w; s++) {
+          result = red.square(result);
+        }
+      }
+      final int offset = win * w;
+      for (int i = 0; i < k; i++) {
+        final int digit = digit(e[i], offset, w);
+        if (digit != 0) {
+          result = (result == null) ? table[i][digit] : red.multiply(result, table[i][digit]);
+        }
+      }
+    }
+    return (result == null) ? red.one() : result;
+  }
+
+  /**
+   * Bucket method: for every window the bases are sorted into buckets by their digit and the
+   * buckets are combined as prod_d bucket[d]^d by a running product from the top bucket down.
+   */
+  private static BigInteger pippenger(final BigInteger[] b, final BigInteger[] e, final int k,
+      final int maxBits, final BarrettReduction red, final int c) {
+    final int bucketCount = 1 << c;
+    final int windows = (maxBits + c - 1) / c;
+    final BigInteger[] buckets = new BigInteger[bucketCount];
+    BigInteger result = null;
+    for (int win = windows - 1; win >= 0; win--) {
+      if (result != null) {
+        for (int s = 0; s < c; s++) {
+          result = red.square(result);
+        }
+      }
+      final int offset = win * c;
+      for (int d = 0; d < bucketCount; d++) {
+        buckets[d] = null;
+      }
+      for (int i = 0; i < k; i++) {
+        final int digit = digit(e[i], offset, c);
+        if (digit != 0) {
+          buckets[digit] = (buckets[digit] == null) ? b[i] : red.multiply(buckets[digit], b[i]);
+        }
+      }
+      BigInteger running = null;
+      BigInteger windowResult = null;
+      for (int d = bucketCount - 1; d > 0; d--) {
+        if (buckets[d] != null) {
+          running = (running == null) ? buckets[d] : red.multiply(running, buckets[d]);
+        }
+        if (running != null) {
+          windowResult = (windowResult == null) ? running : red.multiply(windowResult, running);
+        }
+      }
+      if (windowResult != null) {
+        result = (result == null) ? windowResult : red.multiply(result, windowResult);
+      }
+    }
+    return (result == null) ? red.one() : result;
+  }
+
+  static int digit(final BigInteger e, final int offset, final int width) {
+    int digit = 0;
+    for (int j = width - 1; j >= 0; j--) {
+      digit <<= 1;
+      if (e.testBit(offset + j)) {
+        digit |= 1;
+      }
+    }
+    return digit;
+  }
+
+}
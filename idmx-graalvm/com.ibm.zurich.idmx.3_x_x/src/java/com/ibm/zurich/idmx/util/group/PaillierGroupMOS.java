@@ -23,26 +23,21 @@ public class PaillierGroupMOS
     implements
       PaillierGroupMultOpSequence {
 
-  private final PaillierGroup group;
+  private final PaillierGroupImpl group;
   @SuppressWarnings("unused")
   private final BigIntFactory bigIntFactory;
 
   public PaillierGroupMOS(final PaillierGroup group, final BigIntFactory bigIntFactory) {
-    this.group = group;
+    this.group = (PaillierGroupImpl) group;
     this.bigIntFactory = bigIntFactory;
   }
 
   @Override
   public PaillierGroupElement finalizeSequence() {
-    PaillierGroupElement result = group.neutralElement();
-    PaillierGroupElement temp;
-    assert (groupElements.size() == iterationCounters.size());
-    // naive implementation -- to be replaced by more elaborate one when there is time for this
-    for (int i = 0; i < groupElements.size(); i++) {
-      temp = groupElements.get(i).multOp(iterationCounters.get(i));
-      result = result.op(temp);
+    if (groupElements.isEmpty()) {
+      return group.neutralElement();
     }
-    return result;
+    return group.valueOfNoCheck(multiExponentiate(group.getModulus()));
   }
 
 }
@@ -57,7 +57,7 @@ class PrimeOrderGroupElementImpl implements KnownOrderGroupElement {
     else {
     	_exponent = exponent;
     }
-    BigInt result = val.modPow(_exponent, p);
+    BigInt result = FixedBaseCache.modPow(val, _exponent, p);
     return new PrimeOrderGroupElementImpl(group, result);
   }
 
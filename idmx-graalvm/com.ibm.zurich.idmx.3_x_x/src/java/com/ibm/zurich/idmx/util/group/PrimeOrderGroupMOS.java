@@ -13,6 +13,10 @@
 //*/**/***********************************************************************
 package com.ibm.zurich.idmx.util.group;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ibm.zurich.idmx.interfaces.util.BigInt;
 import com.ibm.zurich.idmx.interfaces.util.BigIntFactory;
 import com.ibm.zurich.idmx.interfaces.util.group.KnownOrderGroup;
 import com.ibm.zurich.idmx.interfaces.util.group.KnownOrderGroupElement;
@@ -24,26 +28,31 @@ public class PrimeOrderGroupMOS
     implements
       KnownOrderGroupMultOpSequence {
 
-  private final KnownOrderGroup group;
+  private final PrimeOrderGroupImpl group;
   @SuppressWarnings("unused")
   private final BigIntFactory bigIntFactory;
 
   public PrimeOrderGroupMOS(final KnownOrderGroup group, final BigIntFactory bigIntFactory) {
-    this.group = group;
+    this.group = (PrimeOrderGroupImpl) group;
     this.bigIntFactory = bigIntFactory;
   }
 
   @Override
   public KnownOrderGroupElement finalizeSequence() {
-    KnownOrderGroupElement result = group.neutralElement();
-    KnownOrderGroupElement temp;
-    assert (groupElements.size() == iterationCounters.size());
-    // naive implementation -- to be replaced by more elaborate one when there is time for this
-    for (int i = 0; i < groupElements.size(); i++) {
-      temp = groupElements.get(i).multOp(iterationCounters.get(i));
-      result = result.op(temp);
+    if (groupElements.isEmpty()) {
+      return group.neutralElement();
+    }
+    // as in PrimeOrderGroupElementImpl.multOp, exponents are only reduced when |e| >= q
+    final BigInt q = group.getOrder();
+    final List<BigInt> exponents = new ArrayList<BigInt>(iterationCounters.size());
+    for (final BigInt exponent : iterationCounters) {
+      if (exponent.compareTo(q) >= 0 || exponent.compareTo(q.negate()) <= 0) {
+        exponents.add(exponent.mod(q));
+      } else {
+        exponents.add(exponent);
+      }
     }
-    return result;
+    return group.valueOfNoCheck(multiExponentiate(group.getModulus(), groupElements, exponents));
   }
 
 }
@@ -59,7 +59,7 @@ public class SRSAGroupElementImpl implements HiddenOrderGroupElement {
 
   @Override
   public HiddenOrderGroupElement multOp(final BigInt exponent) {
-    final BigInt result = val.modPow(exponent, modulus);
+    final BigInt result = FixedBaseCache.modPow(val, exponent, modulus);
 
     // TODO proof/check that mapping back after k group operations yields proper result
 
@@ -35,15 +35,10 @@ public class SRSAGroupMOS
 
   @Override
   public HiddenOrderGroupElement finalizeSequence() {
-    HiddenOrderGroupElement result = group.neutralElement();
-    HiddenOrderGroupElement temp;
-    assert (groupElements.size() == iterationCounters.size());
-    // naive implementation -- to be replaced by more elaborate one when there is time for this
-    for (int i = 0; i < groupElements.size(); i++) {
-      temp = groupElements.get(i).multOp(iterationCounters.get(i));
-      result = result.op(temp);
+    if (groupElements.isEmpty()) {
+      return group.neutralElement();
     }
-    return result;
+    return group.valueOfNoCheck(multiExponentiate(group.getModulus()));
   }
 
 }
@@ -62,7 +62,7 @@ public class SignedQuadraticResiduesGroupElementImpl implements HiddenOrderGroup
   public HiddenOrderGroupElement multOp(final BigInt exponent) {
     BigInt result;
 
-    result = val.modPow(exponent, modulus);
+    result = FixedBaseCache.modPow(val, exponent, modulus);
     result = group.mapIntoGroup(result);
 
     // TODO proof/check that mapping back after k group operations yields proper result
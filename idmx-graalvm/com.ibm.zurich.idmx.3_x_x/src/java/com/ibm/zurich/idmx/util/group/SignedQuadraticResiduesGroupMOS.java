@@ -13,6 +13,10 @@
 //*/**/***********************************************************************
 package com.ibm.zurich.idmx.util.group;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ibm.zurich.idmx.interfaces.util.BigInt;
 import com.ibm.zurich.idmx.interfaces.util.BigIntFactory;
 import com.ibm.zurich.idmx.interfaces.util.group.HiddenOrderGroup;
 import com.ibm.zurich.idmx.interfaces.util.group.HiddenOrderGroupElement;
@@ -36,20 +40,20 @@ public class SignedQuadraticResiduesGroupMOS
 
   @Override
   public HiddenOrderGroupElement finalizeSequence() {
-	HiddenOrderGroupElement result = group.neutralElement();
-    HiddenOrderGroupElement temp;
-    assert (groupElements.size() == iterationCounters.size());
-    // naive implementation -- to be replaced by more elaborate one when there is time for this
+    // entries without an element or an exponent do not contribute to the product
+    final List<HiddenOrderGroupElement> elements = new ArrayList<HiddenOrderGroupElement>();
+    final List<BigInt> exponents = new ArrayList<BigInt>();
     for (int i = 0; i < groupElements.size(); i++) {
-      try {
-        temp = groupElements.get(i).multOp(iterationCounters.get(i));
-        result = result.op(temp);
-      }
-      catch(final NullPointerException e) {
-        e.printStackTrace();
+      if (groupElements.get(i) != null && iterationCounters.get(i) != null) {
+        elements.add(groupElements.get(i));
+        exponents.add(iterationCounters.get(i));
       }
     }
-    return result;
+    if (elements.isEmpty()) {
+      return group.neutralElement();
+    }
+    final BigInt result = multiExponentiate(group.getModulus(), elements, exponents);
+    return group.valueOfNoCheck(group.mapIntoGroup(result));
   }
 
 }
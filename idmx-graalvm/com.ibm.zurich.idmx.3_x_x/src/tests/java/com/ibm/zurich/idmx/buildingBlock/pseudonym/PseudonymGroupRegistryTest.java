@@ -0,0 +1,128 @@
+//* Licensed Materials - Property of IBM                                     *
+//* com.ibm.zurich.idmx.3_x_x                                                *
+//* (C) Copyright IBM Corp. 2015. All Rights Reserved.                       *
+//* US Government Users Restricted Rights - Use, duplication or              *
+//* disclosure restricted by GSA ADP Schedule Contract with IBM Corp.        *
+//*                                                                          *
+//* The contents of this file are subject to the terms of either the         *
+//* International License Agreement for Identity Mixer Version 1.2 or the    *
+//* Apache License Version 2.0.                                              *
+//*                                                                          *
+//* The license terms can be found in the file LICENSE.txt that is provided  *
+//* together with this software.                                             *
+//*/**/***********************************************************************
+package com.ibm.zurich.idmx.buildingBlock.pseudonym;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.ibm.zurich.idmx.buildingBlock.pseudonym.PseudonymGroupRegistry.PseudonymGroup;
+import com.ibm.zurich.idmx.buildingBlock.systemParameters.EcryptSystemParametersWrapper;
+import com.ibm.zurich.idmx.interfaces.util.BigInt;
+import com.ibm.zurich.idmx.interfaces.util.BigIntFactory;
+import com.ibm.zurich.idmx.util.bigInt.BigIntFactoryImpl;
+import com.ibm.zurich.idmx.util.group.FixedBaseCache;
+import com.ibm.zurich.idmx.util.group.GroupFactoryImpl;
+
+import eu.abc4trust.xml.SystemParameters;
+
+public class PseudonymGroupRegistryTest {
+
+  private static final URI UID = URI.create("urn:idmx:test:pseudonym-group");
+
+  private final Random random = new Random(11);
+  private final BigIntFactory bigIntFactory = new BigIntFactoryImpl();
+  private final PseudonymGroupRegistry registry = new PseudonymGroupRegistry(new GroupFactoryImpl());
+
+  @After
+  public void tearDown() {
+    FixedBaseCache.clear();
+  }
+
+  @Test
+  public void testGroupIsBuiltOncePerSystemParameters() throws Exception {
+    final BigInteger[] dh = dhParameters();
+    final SystemParameters sp = systemParameters(UID, dh);
+
+    final PseudonymGroup first = registry.get(sp);
+    assertSame(first, registry.get(sp));
+    // equal parameters read again, e.g. from the key manager
+    assertSame(first, registry.get(systemParameters(UID, dh)));
+    assertEquals(1, registry.size());
+
+    assertEquals(dh[0], first.getModulus().getValue());
+    assertEquals(dh[2], first.getGenerator1().toBigInt().getValue());
+    assertEquals(dh[3], first.getGenerator2().toBigInt().getValue());
+    assertSame(first.getGroup(), first.getGenerator1().getGroup());
+    assertTrue(FixedBaseCache.isRegistered(first.getModulus(), first.getGenerator1().toBigInt()));
+    assertTrue(FixedBaseCache.isRegistered(first.getModulus(), first.getGenerator2().toBigInt()));
+  }
+
+  @Test
+  public void testChangedParametersReplaceTheGroup() throws Exception {
+    final PseudonymGroup first = registry.get(systemParameters(UID, dhParameters()));
+    final BigInteger[] other = dhParameters();
+    final PseudonymGroup second = registry.get(systemParameters(UID, other));
+
+    assertNotSame(first, second);
+    assertEquals(other[0], second.getModulus().getValue());
+    assertSame(second, registry.get(systemParameters(UID, other)));
+    assertEquals(1, registry.size());
+  }
+
+  @Test
+  public void testParametersWithoutUidAreNotCached() throws Exception {
+    final BigInteger[] dh = dhParameters();
+    final SystemParameters sp = systemParameters(UID, dh);
+    sp.setSystemParametersUID(null);
+
+    assertNotSame(registry.get(sp), registry.get(sp));
+    assertEquals(0, registry.size());
+  }
+
+  /**
+   * p = kq + 1 and two generators of the subgroup of order q.
+   */
+  private BigInteger[] dhParameters() {
+    final BigInteger q = BigInteger.probablePrime(160, random);
+    BigInteger p;
+    do {
+      final BigInteger k = new BigInteger(352, random).setBit(351).clearBit(0);
+      p = k.multiply(q).add(BigInteger.ONE);
+    } while (!p.isProbablePrime(40));
+    final BigInteger cofactor = p.subtract(BigInteger.ONE).divide(q);
+    return new BigInteger[] {p, q, generator(p, cofactor), generator(p, cofactor)};
+  }
+
+  private BigInteger generator(final BigInteger p, final BigInteger cofactor) {
+    BigInteger g;
+    do {
+      g = new BigInteger(p.bitLength() - 1, random).modPow(cofactor, p);
+    } while (g.equals(BigInteger.ONE));
+    return g;
+  }
+
+  private SystemParameters systemParameters(final URI uid, final BigInteger[] dh) {
+    final EcryptSystemParametersWrapper sp = new EcryptSystemParametersWrapper();
+    sp.setSystemParametersId(uid);
+    sp.setDHModulus(value(dh[0]));
+    sp.setDHSubgroupOrder(value(dh[1]));
+    sp.setDHGenerator1(value(dh[2]));
+    sp.setDHGenerator2(value(dh[3]));
+    return sp.getSystemParameters();
+  }
+
+  private BigInt value(final BigInteger v) {
+    return bigIntFactory.valueOf(v);
+  }
+
+}
@@ -15,26 +15,39 @@
 package com.ibm.zurich.idmx.buildingBlock.revocation;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.math.BigInteger;
+import java.net.URI;
 import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.ibm.zurich.idmix.abc4trust.facades.RevocationHandleIndex;
+import com.ibm.zurich.idmix.abc4trust.facades.RevocationHistoryFacade;
 import com.ibm.zurich.idmx.buildingBlock.revocation.cl.AccumulatorEvent;
 import com.ibm.zurich.idmx.buildingBlock.revocation.cl.AccumulatorHistory;
 import com.ibm.zurich.idmx.buildingBlock.revocation.cl.AccumulatorState;
 import com.ibm.zurich.idmx.buildingBlock.revocation.cl.AccumulatorWitness;
+import com.ibm.zurich.idmx.buildingBlock.revocation.cl.ClRevocationEventWrapper;
 import com.ibm.zurich.idmx.exception.ConfigurationException;
+import com.ibm.zurich.idmx.exception.RevocationException;
 import com.ibm.zurich.idmx.exception.SerializationException;
 import com.ibm.zurich.idmx.interfaces.util.BigInt;
 import com.ibm.zurich.idmx.interfaces.util.BigIntFactory;
 import com.ibm.zurich.idmx.interfaces.util.group.GroupFactory;
 import com.ibm.zurich.idmx.tests.TestUtils;
+import com.ibm.zurich.idmx.util.Arithmetic;
 import com.ibm.zurich.idmx.util.bigInt.BigIntFactoryImpl;
 import com.ibm.zurich.idmx.util.group.GroupFactoryImpl;
 
@@ -42,10 +55,13 @@ import eu.abc4trust.keyManager.KeyManagerException;
 import eu.abc4trust.xml.KeyPair;
 import eu.abc4trust.xml.PrivateKey;
 import eu.abc4trust.xml.PublicKey;
+import eu.abc4trust.xml.RevocationEvent;
 import eu.abc4trust.xml.SystemParameters;
 
 public class TestRevocation {
 
+  private static final URI RA_PARAMETERS_UID = URI.create("urn:idmx:test:revocation:parameters");
+
   private SystemParameters systemParameters;
   private KeyPair keyPair;
   private PublicKey publicKey;
@@ -185,7 +201,182 @@ public class TestRevocation {
     for (AccumulatorWitness w : witnesses) {
       assertEquals(w.getState().getAccumulatorValue(), state.getAccumulatorValue());
     }
-    
-    
+  }
+
+  @Test
+  public void batchUpdateWitnesses() throws Exception {
+    AccumulatorState state = AccumulatorState.getEmptyAccumulator(systemParameters, publicKey, groupFactory);
+
+    List<BigInt> history = new ArrayList<BigInt>();
+    BigInt lastPrime = null;
+    final int initialSize = 5;
+    final int removedSize = 12;
+    for (int i = 0; i < initialSize + removedSize; ++i) {
+      lastPrime = state.getNextPrime(lastPrime);
+      history.add(lastPrime);
+    }
+
+    List<AccumulatorWitness> witnesses = new ArrayList<AccumulatorWitness>();
+    for (int i = 0; i < initialSize + 1; ++i) {
+      witnesses.add(AccumulatorWitness.calculateWitness(state, history.get(i), secretKey));
+    }
+
+    // Remove the primes one event at a time, as the revocation authority publishes them
+    List<AccumulatorEvent> events = new ArrayList<AccumulatorEvent>();
+    for (int i = initialSize; i < initialSize + removedSize; ++i) {
+      AccumulatorEvent e = AccumulatorEvent.removePrime(state, history.get(i), null, secretKey);
+      state = AccumulatorState.applyEvent(state, e, true);
+      events.add(e);
+    }
+
+    for (int j = 0; j < initialSize; ++j) {
+      AccumulatorWitness sequential = witnesses.get(j);
+      for (AccumulatorEvent e : events) {
+        sequential = AccumulatorWitness.updateWitness(sequential, e, false);
+      }
+      AccumulatorWitness batched = AccumulatorWitness.updateWitness(witnesses.get(j), events, true);
+      assertTrue(batched.isConsistent());
+      assertEquals(state, batched.getState());
+      assertEquals(sequential.getWitness(), batched.getWitness());
+    }
+
+    // The witness of a removed prime cannot be brought forward
+    try {
+      AccumulatorWitness.updateWitness(witnesses.get(initialSize), events, false);
+      fail("Witness of a revoked value was updated");
+    } catch (RevocationException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void batchRevocation() throws Exception {
+    AccumulatorState state = AccumulatorState.getEmptyAccumulator(systemParameters, publicKey, groupFactory);
+
+    List<BigInt> handles = new ArrayList<BigInt>();
+    for (int i = 0; i < 8; ++i) {
+      handles.add(state.getRandomPrime());
+    }
+    List<AccumulatorWitness> witnesses = new ArrayList<AccumulatorWitness>();
+    for (BigInt handle : handles) {
+      witnesses.add(AccumulatorWitness.calculateWitness(state, handle, secretKey));
+    }
+
+    // Revoke the first five handles in one epoch
+    List<BigInt> revoked = handles.subList(0, 5);
+    BigInt product = Arithmetic.product(revoked, bigIntFactory);
+    AccumulatorEvent e = AccumulatorEvent.removePrime(state, product, null, secretKey);
+    assertEquals(state.getEpoch() + 1, e.getNewEpoch());
+    state = AccumulatorState.applyEvent(state, e, true);
+
+    RevocationHistoryFacade history = new RevocationHistoryFacade(RA_PARAMETERS_UID);
+    history.addRevocationEvent(revocationEvent(e.getNewEpoch(), product), revoked);
+
+    for (int i = 0; i < handles.size(); ++i) {
+      boolean isRevoked = i < revoked.size();
+      assertEquals(isRevoked, history.revocationHandleHasBeenRevoked(handles.get(i)));
+      try {
+        AccumulatorWitness w = AccumulatorWitness.updateWitness(witnesses.get(i), e, true);
+        assertFalse("Witness of a revoked handle was updated", isRevoked);
+        assertEquals(state.getAccumulatorValue(), w.getState().getAccumulatorValue());
+      } catch (RevocationException ex) {
+        assertTrue(isRevoked);
+      }
+    }
+  }
+
+  @Test
+  public void revocationHandleIndex() throws Exception {
+    RevocationHandleIndex.clear();
+    Random random = new Random(7);
+    RevocationHistoryFacade history = new RevocationHistoryFacade(RA_PARAMETERS_UID);
+    List<BigInt> revoked = new ArrayList<BigInt>();
+    for (int epoch = 1; epoch <= 1000; ++epoch) {
+      BigInt handle = bigIntFactory.valueOf(new BigInteger(256, random));
+      revoked.add(handle);
+      history.addRevocationEvent(revocationEvent(epoch, handle));
+    }
+    BigInt notRevoked = bigIntFactory.valueOf(new BigInteger(256, random));
+
+    // built from the log on the first query
+    assertTrue(history.revocationHandleHasBeenRevoked(revoked.get(0)));
+    assertTrue(history.revocationHandleHasBeenRevoked(revoked.get(999)));
+    assertFalse(history.revocationHandleHasBeenRevoked(notRevoked));
+    assertEquals(1000, history.getLatestEpoch());
+
+    // brought forward as entries are added
+    history.addRevocationEvent(revocationEvent(1001, notRevoked));
+    assertTrue(history.revocationHandleHasBeenRevoked(notRevoked));
+    assertEquals(1001, history.getLatestEpoch());
+    assertEquals(1001, RevocationHandleIndex.of(history.getDelegateeElement()).size());
+
+    // a reloaded history with the same UID has an index of its own
+    RevocationHistoryFacade reloaded = new RevocationHistoryFacade(RA_PARAMETERS_UID);
+    reloaded.addRevocationEvent(revocationEvent(1, revoked.get(0)));
+    assertTrue(reloaded.revocationHandleHasBeenRevoked(revoked.get(0)));
+    assertFalse(reloaded.revocationHandleHasBeenRevoked(revoked.get(1)));
+    assertEquals(1, reloaded.getLatestEpoch());
+  }
+
+  @Test
+  public void revocationHandleIndexOfTwoLiveLogs() throws Exception {
+    RevocationHandleIndex.clear();
+    Random random = new Random(11);
+    final RevocationHistoryFacade first = new RevocationHistoryFacade(RA_PARAMETERS_UID);
+    final RevocationHistoryFacade second = new RevocationHistoryFacade(RA_PARAMETERS_UID);
+    final List<BigInt> firstRevoked = new ArrayList<BigInt>();
+    final List<BigInt> secondRevoked = new ArrayList<BigInt>();
+    for (int epoch = 1; epoch <= 100; ++epoch) {
+      BigInt handle = bigIntFactory.valueOf(new BigInteger(256, random));
+      firstRevoked.add(handle);
+      first.addRevocationEvent(revocationEvent(epoch, handle));
+    }
+    for (int epoch = 1; epoch <= 50; ++epoch) {
+      BigInt handle = bigIntFactory.valueOf(new BigInteger(256, random));
+      secondRevoked.add(handle);
+      second.addRevocationEvent(revocationEvent(epoch, handle));
+    }
+
+    // the histories share a UID, but querying one does not reset the index of the other
+    RevocationHandleIndex firstIndex = RevocationHandleIndex.of(first.getDelegateeElement());
+    RevocationHandleIndex.of(second.getDelegateeElement());
+    assertSame(firstIndex, RevocationHandleIndex.of(first.getDelegateeElement()));
+
+    final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; ++t) {
+      final boolean queryFirst = (t % 2 == 0);
+      threads[t] = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          RevocationHistoryFacade history = queryFirst ? first : second;
+          List<BigInt> revoked = queryFirst ? firstRevoked : secondRevoked;
+          List<BigInt> other = queryFirst ? secondRevoked : firstRevoked;
+          try {
+            for (int i = 0; i < 500; ++i) {
+              assertTrue(history.revocationHandleHasBeenRevoked(revoked.get(i % revoked.size())));
+              assertFalse(history.revocationHandleHasBeenRevoked(other.get(i % other.size())));
+              assertEquals(revoked.size(), history.getLatestEpoch());
+            }
+          } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+          }
+        }
+      });
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+  }
+
+  private RevocationEvent revocationEvent(int epoch, BigInt removed) {
+    return new ClRevocationEventWrapper(RA_PARAMETERS_UID, epoch, removed, Calendar.getInstance(),
+        bigIntFactory.one()).getDelegateeValue();
   }
 }
@@ -45,7 +45,9 @@ import com.ibm.zurich.idmx.tests.setup.TestSystemParameters;
 import com.ibm.zurich.idmx.tests.setup.TestSystemParametersDeserialization;
 //import com.ibm.zurich.idmx.uProveCompatibility._UProveCompatibilityTestSuite;
 import com.ibm.zurich.idmx.util.DisjointSetTest;
+import com.ibm.zurich.idmx.util.FixedBaseCacheTest;
 import com.ibm.zurich.idmx.util.ModuleSorterTest;
+import com.ibm.zurich.idmx.util.MultiExponentiationTest;
 
 @RunWith(Suite.class)
 @SuiteClasses({
@@ -54,7 +56,9 @@ import com.ibm.zurich.idmx.util.ModuleSorterTest;
 
     // Independent functionality
     DisjointSetTest.class, //
+    FixedBaseCacheTest.class, //
     ModuleSorterTest.class, //
+    MultiExponentiationTest.class, //
     _DecompositionTestSuite.class,
 
     // Parameter generation
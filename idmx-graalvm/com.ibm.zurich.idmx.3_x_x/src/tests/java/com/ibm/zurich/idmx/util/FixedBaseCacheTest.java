@@ -0,0 +1,179 @@
+//* Licensed Materials - Property of IBM                                     *
+//* com.ibm.zurich.idmx.3_x_x                                                *
+//* (C) Copyright IBM Corp. 2015. All Rights Reserved.                       *
+//* US Government Users Restricted Rights - Use, duplication or              *
+//* disclosure restricted by GSA ADP Schedule Contract with IBM Corp.        *
+//*                                                                          *
+//* The contents of this file are subject to the terms of either the         *
+//* International License Agreement for Identity Mixer Version 1.2 or the    *
+//* Apache License Version 2.0.                                              *
+//*                                                                          *
+//* The license terms can be found in the file LICENSE.txt that is provided  *
+//* together with this software.                                             *
+//*/**/***********************************************************************
+package com.ibm.zurich.idmx.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.ibm.zurich.idmx.interfaces.util.BigInt;
+import com.ibm.zurich.idmx.interfaces.util.BigIntFactory;
+import com.ibm.zurich.idmx.interfaces.util.group.HiddenOrderGroup;
+import com.ibm.zurich.idmx.interfaces.util.group.HiddenOrderGroupElement;
+import com.ibm.zurich.idmx.interfaces.util.group.HiddenOrderGroupMultOpSequence;
+import com.ibm.zurich.idmx.util.bigInt.BigIntFactoryImpl;
+import com.ibm.zurich.idmx.util.group.FixedBaseCache;
+import com.ibm.zurich.idmx.util.group.GroupFactoryImpl;
+
+public class FixedBaseCacheTest {
+
+  private static final int MODULUS_BITS = 512;
+  private final Random random = new Random(7);
+  private final BigIntFactory bigIntFactory = new BigIntFactoryImpl();
+  private final BigInt modulus = bigIntFactory.valueOf(
+      BigInteger.probablePrime(MODULUS_BITS / 2, random).multiply(
+          BigInteger.probablePrime(MODULUS_BITS / 2, random)));
+
+  @After
+  public void tearDown() {
+    FixedBaseCache.clear();
+    FixedBaseCache.setMemoryBudget(FixedBaseCache.DEFAULT_MEMORY_BUDGET_BYTES);
+  }
+
+  @Test
+  public void testRegisteredBaseAgreesWithModPow() {
+    final BigInt base = randomBase();
+    FixedBaseCache.register(modulus, base);
+    assertTrue(FixedBaseCache.isRegistered(modulus, base));
+
+    for (final int bits : new int[] {1, 5, 64, MODULUS_BITS, MODULUS_BITS + 600, 3 * MODULUS_BITS}) {
+      for (int i = 0; i < 10; i++) {
+        final BigInt exponent = bigIntFactory.valueOf(new BigInteger(bits, random));
+        assertEquals(base.modPow(exponent, modulus),
+            FixedBaseCache.modPow(base, exponent, modulus));
+      }
+    }
+    assertEquals(1, FixedBaseCache.getNumberOfTables());
+  }
+
+  @Test
+  public void testUnregisteredAndNonPositiveExponents() {
+    final BigInt base = randomBase();
+    final BigInt exponent = bigIntFactory.valueOf(new BigInteger(MODULUS_BITS, random));
+    assertEquals(base.modPow(exponent, modulus), FixedBaseCache.modPow(base, exponent, modulus));
+    assertEquals(0, FixedBaseCache.getNumberOfTables());
+
+    FixedBaseCache.register(modulus, base);
+    assertEquals(base.modPow(exponent.negate(), modulus),
+        FixedBaseCache.modPow(base, exponent.negate(), modulus));
+    assertEquals(bigIntFactory.one(),
+        FixedBaseCache.modPow(base, bigIntFactory.zero(), modulus));
+    assertEquals(0, FixedBaseCache.getNumberOfTables());
+  }
+
+  @Test
+  public void testEvictionKeepsRegistration() {
+    final BigInt first = randomBase();
+    final BigInt second = randomBase();
+    FixedBaseCache.register(modulus, first);
+    FixedBaseCache.register(modulus, second);
+    final BigInt exponent = bigIntFactory.valueOf(new BigInteger(MODULUS_BITS, random));
+
+    FixedBaseCache.modPow(first, exponent, modulus);
+    FixedBaseCache.setMemoryBudget(FixedBaseCache.getMemoryInUse());
+    FixedBaseCache.modPow(second, exponent, modulus);
+    assertEquals(1, FixedBaseCache.getNumberOfTables());
+    assertFalse(FixedBaseCache.getMemoryInUse() > FixedBaseCache.getMemoryBudget());
+
+    assertTrue(FixedBaseCache.isRegistered(modulus, first));
+    assertEquals(first.modPow(exponent, modulus), FixedBaseCache.modPow(first, exponent, modulus));
+  }
+
+  @Test
+  public void testNegativeBaseUsesTheTableOfItsResidue() {
+    final BigInt base = randomBase().negate();
+    FixedBaseCache.register(modulus, base);
+    assertTrue(FixedBaseCache.isRegistered(modulus, base));
+    assertTrue(FixedBaseCache.isRegistered(modulus, base.mod(modulus)));
+
+    final BigInt exponent = bigIntFactory.valueOf(new BigInteger(MODULUS_BITS, random));
+    assertEquals(base.modPow(exponent, modulus), FixedBaseCache.modPow(base, exponent, modulus));
+    assertEquals(1, FixedBaseCache.getNumberOfTables());
+  }
+
+  @Test
+  public void testTableOverBudgetIsNotBuilt() {
+    final BigInt base = randomBase();
+    FixedBaseCache.register(modulus, base);
+    FixedBaseCache.setMemoryBudget(1024);
+    final BigInt exponent = bigIntFactory.valueOf(new BigInteger(MODULUS_BITS, random));
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(base.modPow(exponent, modulus), FixedBaseCache.modPow(base, exponent, modulus));
+    }
+    assertEquals(0, FixedBaseCache.getNumberOfTables());
+    assertEquals(0, FixedBaseCache.getMemoryInUse());
+  }
+
+  @Test
+  public void testRegisteredBasesInASequenceAgreeWithModPow() {
+    final HiddenOrderGroup group = new GroupFactoryImpl().createSRSAGroup(modulus);
+    for (final int count : new int[] {1, 3, 12}) {
+      final HiddenOrderGroupMultOpSequence sequence = group.initializeSequence();
+      BigInteger expected = BigInteger.ONE;
+      int tables = 0;
+      for (int i = 0; i < count; i++) {
+        final BigInt base = randomBase();
+        // every other base is fixed; one exponent is negative and one outgrows the headroom
+        BigInt exponent = bigIntFactory.valueOf(new BigInteger(MODULUS_BITS + 80, random));
+        if (i % 2 == 0) {
+          FixedBaseCache.register(modulus, base);
+          tables++;
+        } else if (i == 3) {
+          exponent = exponent.negate();
+        }
+        if (i == 4) {
+          exponent = bigIntFactory.valueOf(new BigInteger(3 * MODULUS_BITS, random));
+        }
+        sequence.putMultOp(group.valueOfNoCheck(base), exponent);
+        expected =
+            expected.multiply(base.getValue().modPow(exponent.getValue(), modulus.getValue()))
+                .mod(modulus.getValue());
+      }
+      final HiddenOrderGroupElement result = sequence.finalizeSequence();
+      assertEquals(expected, result.toBigInt().getValue());
+      assertEquals(tables, FixedBaseCache.getNumberOfTables());
+      FixedBaseCache.clear();
+    }
+  }
+
+  @Test
+  public void testSequenceOfOnlyRegisteredBases() {
+    final HiddenOrderGroup group = new GroupFactoryImpl().createSRSAGroup(modulus);
+    final HiddenOrderGroupMultOpSequence sequence = group.initializeSequence();
+    BigInteger expected = BigInteger.ONE;
+    for (int i = 0; i < 4; i++) {
+      final BigInt base = randomBase();
+      final BigInt exponent = bigIntFactory.valueOf(new BigInteger(MODULUS_BITS, random));
+      FixedBaseCache.register(modulus, base);
+      sequence.putMultOp(group.valueOfNoCheck(base), exponent);
+      expected =
+          expected.multiply(base.getValue().modPow(exponent.getValue(), modulus.getValue()))
+              .mod(modulus.getValue());
+    }
+    assertEquals(expected, sequence.finalizeSequence().toBigInt().getValue());
+    assertEquals(4, FixedBaseCache.getNumberOfTables());
+  }
+
+  private BigInt randomBase() {
+    return bigIntFactory.valueOf(new BigInteger(MODULUS_BITS - 1, random));
+  }
+
+}
@@ -0,0 +1,121 @@
+//* Licensed Materials - Property of IBM                                     *
+//* com.ibm.zurich.idmx.3_x_x                                                *
+//* (C) Copyright IBM Corp. 2015. All Rights Reserved.                       *
+//* US Government Users Restricted Rights - Use, duplication or              *
+//* disclosure restricted by GSA ADP Schedule Contract with IBM Corp.        *
+//*                                                                          *
+//* The contents of this file are subject to the terms of either the         *
+//* International License Agreement for Identity Mixer Version 1.2 or the    *
+//* Apache License Version 2.0.                                              *
+//*                                                                          *
+//* The license terms can be found in the file LICENSE.txt that is provided  *
+//* together with this software.                                             *
+//*/**/***********************************************************************
+package com.ibm.zurich.idmx.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.ibm.zurich.idmx.interfaces.util.BigInt;
+import com.ibm.zurich.idmx.interfaces.util.BigIntFactory;
+import com.ibm.zurich.idmx.interfaces.util.group.HiddenOrderGroup;
+import com.ibm.zurich.idmx.interfaces.util.group.HiddenOrderGroupElement;
+import com.ibm.zurich.idmx.interfaces.util.group.HiddenOrderGroupMultOpSequence;
+import com.ibm.zurich.idmx.util.bigInt.BigIntFactoryImpl;
+import com.ibm.zurich.idmx.util.group.GroupFactoryImpl;
+import com.ibm.zurich.idmx.util.group.MultiExponentiation;
+import com.ibm.zurich.idmx.util.group.MultiExponentiation.Strategy;
+
+public class MultiExponentiationTest {
+
+  private static final int MODULUS_BITS = 512;
+  private final Random random = new Random(42);
+  private final BigInteger modulus =
+      BigInteger.probablePrime(MODULUS_BITS / 2, random).multiply(
+          BigInteger.probablePrime(MODULUS_BITS / 2, random));
+
+  @Test
+  public void testAllStrategiesAgreeWithNaiveProduct() {
+    for (final int count : new int[] {1, 2, 3, 7, 16, 30, 100}) {
+      final BigInteger[] bases = new BigInteger[count];
+      final BigInteger[] exponents = new BigInteger[count];
+      for (int i = 0; i < count; i++) {
+        bases[i] = randomUnit();
+        exponents[i] = new BigInteger(MODULUS_BITS + 80, random);
+        if (i % 3 == 1) {
+          exponents[i] = exponents[i].negate();
+        } else if (i % 5 == 4) {
+          exponents[i] = BigInteger.ZERO;
+        }
+      }
+      final BigInteger expected = naiveProduct(bases, exponents);
+      for (final Strategy strategy : Strategy.values()) {
+        assertEquals(strategy + " with " + count + " bases", expected,
+            MultiExponentiation.compute(bases, exponents, modulus, strategy));
+      }
+      assertEquals(expected, MultiExponentiation.compute(bases, exponents, modulus, null));
+    }
+  }
+
+  @Test
+  public void testShortAndUnevenExponents() {
+    final BigInteger[] bases = {randomUnit(), randomUnit(), randomUnit(), randomUnit()};
+    final BigInteger[] exponents =
+        {BigInteger.ONE, BigInteger.valueOf(2), new BigInteger(700, random), BigInteger.valueOf(-1)};
+    final BigInteger expected = naiveProduct(bases, exponents);
+    for (final Strategy strategy : Strategy.values()) {
+      assertEquals(expected, MultiExponentiation.compute(bases, exponents, modulus, strategy));
+    }
+  }
+
+  @Test
+  public void testEmptyAndZeroExponents() {
+    final BigInteger[] bases = {randomUnit(), randomUnit()};
+    final BigInteger[] exponents = {BigInteger.ZERO, BigInteger.ZERO};
+    for (final Strategy strategy : Strategy.values()) {
+      assertEquals(BigInteger.ONE,
+          MultiExponentiation.compute(bases, exponents, modulus, strategy));
+      assertEquals(BigInteger.ONE, MultiExponentiation.compute(new BigInteger[0],
+          new BigInteger[0], modulus, strategy));
+    }
+  }
+
+  @Test
+  public void testSRSAGroupSequence() {
+    final BigIntFactory bigIntFactory = new BigIntFactoryImpl();
+    final HiddenOrderGroup group =
+        new GroupFactoryImpl().createSRSAGroup(bigIntFactory.valueOf(modulus));
+
+    final HiddenOrderGroupMultOpSequence sequence = group.initializeSequence();
+    HiddenOrderGroupElement expected = group.neutralElement();
+    for (int i = 0; i < 12; i++) {
+      final HiddenOrderGroupElement base =
+          group.valueOfNoCheck(bigIntFactory.valueOf(randomUnit()));
+      final BigInt exponent = bigIntFactory.valueOf(new BigInteger(MODULUS_BITS + 80, random));
+      sequence.putMultOp(base, exponent);
+      expected = expected.op(base.multOp(exponent));
+    }
+    assertEquals(expected, sequence.finalizeSequence());
+  }
+
+  private BigInteger randomUnit() {
+    BigInteger b;
+    do {
+      b = new BigInteger(MODULUS_BITS - 1, random);
+    } while (!b.gcd(modulus).equals(BigInteger.ONE));
+    return b;
+  }
+
+  private BigInteger naiveProduct(final BigInteger[] bases, final BigInteger[] exponents) {
+    BigInteger result = BigInteger.ONE;
+    for (int i = 0; i < bases.length; i++) {
+      result = result.multiply(bases[i].modPow(exponents[i], modulus)).mod(modulus);
+    }
+    return result;
+  }
+
+}
@@ -15,6 +15,7 @@
 package com.ibm.zurich.idmx.interfaces.cryptoEngine;
 
 import java.net.URI;
+import java.util.Collection;
 import java.util.List;
 
 import com.ibm.zurich.idmx.annotations.Nullable;
@@ -86,6 +87,17 @@ public interface CryptoEngineRevocationAuthority {
   public URI revoke(final URI revocationAuthorityUri, final BigInt revocationHandle)
       throws CryptoEngineException;
 
+  /**
+   * This method revokes all specified revocation handles in a single accumulator update, i.e., with
+   * one new epoch and one revocation log entry, and returns the URI of the latest revocation
+   * information. Handles that have already been revoked are ignored; if no handle is left, null is
+   * returned.
+   * 
+   * @throws CryptoEngineException
+   */
+  public URI revokeBatch(final URI revocationAuthorityUri, final Collection<BigInt> revocationHandles)
+      throws CryptoEngineException;
+
   /**
    * Returns the revocation history.
    * 
@@ -17,7 +17,7 @@ import java.sql.Date;
 import java.time.Instant;
 import java.util.UUID;
 
-@WebFilter(filterName="authFilter", urlPatterns = {"/*"})
+@WebFilter(filterName="authFilter", urlPatterns = {"/*"}, asyncSupported = true)
 public class AuthenticationFilter implements Filter {
 
 	private static final Logger logger = LogManager.getLogger(AuthenticationFilter.class);
@@ -8,6 +8,7 @@ import io.exonym.lib.pojo.SsoChallenge;
 import io.exonym.lib.pojo.SsoConfiguration;
 
 import java.net.URI;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
 public class ExonymAuthenticate extends io.exonym.lib.api.ExonymAuthenticate {
@@ -75,6 +76,11 @@ public class ExonymAuthenticate extends io.exonym.lib.api.ExonymAuthenticate {
         return super.isAuthenticatedWait(sessionId, context, timeout);
     }
 
+    @Override
+    protected CompletableFuture<EndonymToken> awaitAuthentication(String sessionId, URI context, long timeout) {
+        return super.awaitAuthentication(sessionId, context, timeout);
+    }
+
     @Override
     protected void removeSession(String session) {
         super.removeSession(session);
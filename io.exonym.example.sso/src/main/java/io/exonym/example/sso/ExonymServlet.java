@@ -8,6 +8,7 @@ import io.exonym.lib.pojo.SsoChallenge;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
@@ -21,10 +22,12 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 
-@WebServlet("/exonym/*")
+@WebServlet(urlPatterns = "/exonym/*", asyncSupported = true)
 public class ExonymServlet extends HttpServlet {
 
     private final Path PATH_TO_STATIC = Path.of("/var", "www", "html", "tokens");
+
+    private static final long PROBE_TIMEOUT = 30000l;
     
 
     private static final Logger logger = LogManager.getLogger(ExonymServlet.class);
@@ -130,15 +133,53 @@ public class ExonymServlet extends HttpServlet {
         }
     }
 
+    /**
+     * The probe is answered asynchronously: the request thread returns to the
+     * container while the session waits for its token, and the response is written
+     * on a container thread once the authentication completes or times out.
+     */
     private void probeIn(HttpServletRequest req, HttpServletResponse resp) throws Exception {
         ExonymAuthenticate auth = ExonymAuthenticate.getInstance();
         String sessionId = req.getSession().getId();
         URI context = auth.probeForContext(sessionId);
 
         logger.info("Waiting on authentication for " + sessionId);
-        EndonymToken endonym = auth.isAuthenticatedWait(sessionId, context, 30000l);
-        logger.info("Got authentication for " + sessionId);
-        if (endonym.isTimeout()){
+        AsyncContext async = req.startAsync();
+        // the authentication times out first, so that the probe receives TIME_OUT
+        async.setTimeout(PROBE_TIMEOUT + 5000l);
+        auth.awaitAuthentication(sessionId, context, PROBE_TIMEOUT)
+                .whenComplete((endonym, e) -> async.start(() -> {
+                    try {
+                        logger.info("Got authentication for " + sessionId);
+                        probeOut(endonym, e, resp);
+
+                    } catch (UxException ex) {
+                        logger.info("--------------- Received UxException", ex);
+                        JsonObject o = new JsonObject();
+                        o.addProperty("error", "" + ex.getMessage());
+                        write(resp, o);
+
+                    } catch (Exception ex) {
+                        logger.error("Error", ex);
+                        JsonObject o = new JsonObject();
+                        o.addProperty("error", ErrorMessages.FAILED_TO_AUTHORIZE);
+                        write(resp, o);
+
+                    } finally {
+                        async.complete();
+
+                    }
+                }));
+    }
+
+    private void probeOut(EndonymToken endonym, Throwable e, HttpServletResponse resp) throws Exception {
+        if (e instanceof UxException){
+            throw (UxException) e;
+
+        } else if (e!=null){
+            throw new UxException(ErrorMessages.FAILED_TO_AUTHORIZE, e);
+
+        } else if (endonym.isTimeout()){
             throw new UxException(ErrorMessages.TIME_OUT);
 
         } else if (endonym.hasError()){
@@ -150,7 +191,7 @@ public class ExonymServlet extends HttpServlet {
             JsonObject o = new JsonObject();
             o.addProperty("auth", true);
             o.addProperty("endonym", endonym.getEndonym().toString());
-            resp.getWriter().write(o.toString());
+            write(resp, o);
             Files.write(PATH_TO_STATIC.resolve(endonym.computeIndex()),
                     endonym.getCompressedPresentationToken(),
                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.CREATE);
@@ -159,6 +200,16 @@ public class ExonymServlet extends HttpServlet {
         }
     }
 
+    private static void write(HttpServletResponse resp, JsonObject o) {
+        try {
+            resp.getWriter().write(o.toString());
+
+        } catch (IOException e) {
+            logger.error("Failed to write probe response", e);
+
+        }
+    }
+
 
     public static String buildParamsAsString(HttpServletRequest req) throws Exception {
         InputStream inputStream = req.getInputStream();
@@ -7,15 +7,25 @@ package io.exonym.lib.abc.util;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.AnnotationIntrospector;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.module.jaxb.JaxbAnnotationIntrospector;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import eu.abc4trust.xml.*;
+import io.exonym.lib.adapters.PresentationPolicyAlternativesAdapter;
 import io.exonym.lib.exceptions.ErrorMessages;
 import io.exonym.lib.exceptions.UxException;
 import io.exonym.lib.adapters.Base64TypeAdapter;
+import io.exonym.lib.lite.SFTPLogonData;
+import io.exonym.lib.pojo.ConnectKeyContainer;
+import io.exonym.lib.pojo.KeyContainer;
+import io.exonym.lib.pojo.LocalLedgerGroup;
+import io.exonym.lib.pojo.TrustNetwork;
 
 import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.stream.XMLInputFactory;
@@ -26,55 +36,87 @@ import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+/**
+ * JAXB and JSON (de)serialization.
+ *
+ * JAXBContexts are created once per class and kept; marshallers and unmarshallers
+ * are not thread-safe, so each context keeps a small pool of them that callers
+ * borrow for the duration of one call. The Jackson reader and writer are immutable
+ * and shared.
+ *
+ * The set of classes that travel as XML is fixed in KnownContexts. Their
+ * contexts are created when the native image is built (native-image.properties
+ * initializes KnownContexts at build time) and every class in it is registered
+ * for reflection in reflect-config.json. A class outside the set is refused
+ * rather than given a context at run time, where the image has no metadata
+ * for it.
+ */
 public class JaxbHelper {
 
 	public static Gson gson;
 
+	private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>";
+
+	private static final int POOL_SIZE = 8;
+
+	private static final ThreadLocal<XMLInputFactory> xmlInputFactory =
+			ThreadLocal.withInitial(XMLInputFactory::newInstance);
+
+	private static final ObjectWriter jsonWriter;
+
+	private static final ObjectReader jsonReader;
+
 	static {
 		GsonBuilder builder = new GsonBuilder();
 		builder.registerTypeHierarchyAdapter(byte[].class, new Base64TypeAdapter());
 		gson = builder.setPrettyPrinting().create();
 
+		ObjectMapper writer = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+		AnnotationIntrospector introspection = new JaxbAnnotationIntrospector(writer.getTypeFactory());
+		writer.setAnnotationIntrospector(introspection);
+		jsonWriter = writer.writer();
+
+		ObjectMapper reader = new ObjectMapper();
+		reader.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+		jsonReader = reader.reader();
+
 	}
 
 	public static String serializeToXml(Object o, Class<?> clazz) throws Exception{
 
 //		System.setProperty("javax.xml.bind.context.factory", "org.eclipse.persistence.jaxb.JAXBContextFactory");
 
-		JAXBContext context = JAXBContext.newInstance(clazz);
-
-		Marshaller m = context.createMarshaller();
-		m.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
-		m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-		m.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
-		m.setProperty("com.sun.xml.bind.namespacePrefixMapper", new AbcNamespace());
-		m.setProperty("com.sun.xml.bind.xmlHeaders", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+		JaxbPool pool = pool(clazz);
+		Marshaller m = pool.borrowMarshaller();
 		ByteArrayOutputStream bos = new ByteArrayOutputStream();
 		m.marshal(o, bos);
+		pool.release(m);
 		String xml = bos.toString();
-		if (xml.startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>")){
+		if (xml.startsWith(XML_HEADER)){
 			return xml;
 
 		} else {
-			return "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" + bos.toString();
+			return XML_HEADER + xml;
 
 		}
 	}
 
 	public static XMLStreamReader serializeToXmlStream(Object o, Class<?> clazz) throws Exception{
 		String s = serializeToXml(o, clazz);
-		Reader reader = new StringReader(s);
-		XMLInputFactory f = XMLInputFactory.newInstance();
-		return f.createXMLStreamReader(reader);
+		return xmlToXmlStream(s);
 		
 	}
 	
 	public static XMLStreamReader xmlToXmlStream(String xmlString) throws Exception{
 		Reader reader = new StringReader(xmlString);
-		XMLInputFactory f = XMLInputFactory.newInstance();
-		return f.createXMLStreamReader(reader);
+		return xmlInputFactory.get().createXMLStreamReader(reader);
 		
 	}
 
@@ -91,15 +133,12 @@ public class JaxbHelper {
 	
 	@SuppressWarnings("unchecked")
 	public static <T> T xmlToClass(XMLStreamReader stream, Class<T> clazz) throws Exception{
-		try {
-			JAXBContext context = JAXBContext.newInstance(clazz);
-			Unmarshaller u = context.createUnmarshaller();
-			return (T) u.unmarshal(stream);
-			
-		} catch (Exception e) {
-			throw e; 
-			
-		}
+		JaxbPool pool = pool(clazz);
+		Unmarshaller u = pool.borrowUnmarshaller();
+		T result = (T) u.unmarshal(stream);
+		pool.release(u);
+		return result;
+
 	}
 	
 	public static <T> T xmlFileToClass(Path file, Class<T> clazz) throws Exception{
@@ -112,17 +151,12 @@ public class JaxbHelper {
 		if (o==null){
 			throw new NullPointerException();
 		}
-		ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
-		AnnotationIntrospector introspection = new JaxbAnnotationIntrospector(mapper.getTypeFactory());
-		mapper.setAnnotationIntrospector(introspection);
-		return mapper.writeValueAsString(o);
+		return jsonWriter.writeValueAsString(o);
 
 	}
 
 	public static <T> T jsonToClass(String json, Class<T> clazz) throws Exception{
-		ObjectMapper mapper = new ObjectMapper();
-		mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-		return mapper.readValue(json, clazz);
+		return jsonReader.forType(clazz).readValue(json);
 
 	}
 
@@ -136,6 +170,113 @@ public class JaxbHelper {
 
 		}
 	}
-	
 
+	private static JaxbPool pool(Class<?> clazz) throws JAXBException {
+		JaxbPool pool = KnownContexts.POOLS.get(clazz);
+		if (pool!=null){
+			return pool;
+
+		}
+		JAXBException failed = KnownContexts.FAILED.get(clazz);
+		if (failed!=null){
+			throw new JAXBException("No JAXB context for " + clazz.getName(), failed);
+
+		} else {
+			throw new JAXBException(clazz.getName() + " is not one of the XML classes in JaxbHelper.KnownContexts");
+
+		}
+	}
+
+	/**
+	 * The contexts of the IDMX objects that XmlHelper recognises and of the
+	 * Exonym objects that are kept as XML.
+	 *
+	 * Each context is created on its own, so a class that JAXB rejects is logged
+	 * and refused on use while the others keep working.
+	 */
+	private static final class KnownContexts {
+
+		private static final Logger logger = Logger.getLogger(KnownContexts.class.getName());
+
+		private static final Class<?>[] CLASSES = {
+				CredentialSpecification.class, IssuerParameters.class,
+				RevocationAuthorityParameters.class, PresentationPolicy.class,
+				SystemParameters.class, RevocationInformation.class,
+				RevocationHistory.class, InspectorPublicKey.class,
+				IssuancePolicy.class, PresentationToken.class,
+				TrustNetwork.class, KeyContainer.class, ConnectKeyContainer.class,
+				LocalLedgerGroup.class, SFTPLogonData.class,
+				PresentationPolicyAlternativesAdapter.class
+		};
+
+		private static final Map<Class<?>, JaxbPool> POOLS;
+
+		private static final Map<Class<?>, JAXBException> FAILED;
+
+		static {
+			HashMap<Class<?>, JaxbPool> pools = new HashMap<>();
+			HashMap<Class<?>, JAXBException> failed = new HashMap<>();
+			for (Class<?> clazz : CLASSES){
+				try {
+					pools.put(clazz, new JaxbPool(JAXBContext.newInstance(clazz)));
+
+				} catch (JAXBException e) {
+					logger.log(Level.SEVERE, "Could not create the JAXB context for " + clazz.getName(), e);
+					failed.put(clazz, e);
+
+				}
+			}
+			POOLS = Collections.unmodifiableMap(pools);
+			FAILED = Collections.unmodifiableMap(failed);
+
+		}
+	}
+
+	/**
+	 * A context with the marshallers and unmarshallers that are free for reuse.
+	 * Instances that fail mid-call are not returned, and the pool drops instances
+	 * beyond POOL_SIZE rather than blocking.
+	 */
+	private static final class JaxbPool {
+
+		private final JAXBContext context;
+		private final ArrayBlockingQueue<Marshaller> marshallers = new ArrayBlockingQueue<>(POOL_SIZE);
+		private final ArrayBlockingQueue<Unmarshaller> unmarshallers = new ArrayBlockingQueue<>(POOL_SIZE);
+
+		private JaxbPool(JAXBContext context) {
+			this.context = context;
+
+		}
+
+		private Marshaller borrowMarshaller() throws JAXBException {
+			Marshaller m = marshallers.poll();
+			if (m==null){
+				m = context.createMarshaller();
+				m.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+				m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+				m.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+				m.setProperty("com.sun.xml.bind.namespacePrefixMapper", new AbcNamespace());
+				m.setProperty("com.sun.xml.bind.xmlHeaders", XML_HEADER);
+
+			}
+			return m;
+
+		}
+
+		private Unmarshaller borrowUnmarshaller() throws JAXBException {
+			Unmarshaller u = unmarshallers.poll();
+			return (u==null ? context.createUnmarshaller() : u);
+
+		}
+
+		private void release(Marshaller m) {
+			marshallers.offer(m);
+
+		}
+
+		private void release(Unmarshaller u) {
+			unmarshallers.offer(u);
+
+		}
+	}
 }
@@ -52,21 +52,34 @@ public abstract class AbstractBaseActor {
 	protected final AbstractIdContainer container;
 	protected ExternalResourceContainer externalResource = null;
 	protected static ExonymComponent INJECTOR = DaggerExonymComponent.create();
+	protected final ExonymComponent injector;
+
 	protected AbstractBaseActor(AbstractIdContainer container) {
+		this(container, INJECTOR);
+
+	}
+
+	/**
+	 * @param injector the component the actor's key manager and crypto engines
+	 * are provided by.  Actors built from the shared INJECTOR share them; an
+	 * actor given its own component has its own.
+	 */
+	protected AbstractBaseActor(AbstractIdContainer container, ExonymComponent injector) {
 
 		this.container=container;
+		this.injector=injector;
 		// Utils
-		bigIntFactory = INJECTOR.provideBigIntFactory();
-		groupFactory = INJECTOR.provideGroupFactory();
-		randomGeneration = INJECTOR.provideRandomGeneration();
+		bigIntFactory = injector.provideBigIntFactory();
+		groupFactory = injector.provideGroupFactory();
+		randomGeneration = injector.provideRandomGeneration();
 		// General
-		keyManager = INJECTOR.providesKeyManager();
-		zkDirector = INJECTOR.providesZkDirector();
-		cryptoEngineVerifier = INJECTOR.providesCryptoEngineVerifierAbc();
+		keyManager = injector.providesKeyManager();
+		zkDirector = injector.providesZkDirector();
+		cryptoEngineVerifier = injector.providesCryptoEngineVerifierAbc();
 		externalResource = initialzeExternalResourceContainer();
 		ClSignatureBuildingBlock cl = null;
 		try {
-			cl = INJECTOR.provideBuildingBlockFactory().getBuildingBlockByClass(ClSignatureBuildingBlock.class);
+			cl = injector.provideBuildingBlockFactory().getBuildingBlockByClass(ClSignatureBuildingBlock.class);
 
 		} catch (ConfigurationException e) {
 			logger.info("Catastrophic failure - failed to load the CL building block");
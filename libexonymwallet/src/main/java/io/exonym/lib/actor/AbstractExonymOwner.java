@@ -23,9 +23,11 @@ import eu.abc4trust.cryptoEngine.user.CryptoEngineUser;
 import eu.abc4trust.keyManager.KeyManagerException;
 import eu.abc4trust.returnTypes.IssuMsgOrCredDesc;
 import eu.abc4trust.xml.*;
+import io.exonym.idmx.dagger.ExonymComponent;
 import io.exonym.idmx.managers.KeyManagerExonym;
 import io.exonym.lib.exceptions.*;
 import io.exonym.lib.helpers.UIDHelper;
+import io.exonym.lib.abc.util.FileType;
 import io.exonym.lib.abc.util.UidType;
 import io.exonym.lib.helpers.BuildPresentationTokenDescription;
 import io.exonym.lib.helpers.CredentialWrapper;
@@ -80,6 +82,12 @@ public abstract class AbstractExonymOwner extends AbstractBaseActor {
 	
 	private boolean open = false;
 
+	// Credentials listed when the container was opened that have not yet been
+	// decrypted, by issuer parameters UID.  See loadCredentials().
+	private final HashMap<URI, String> unloadedCredentials = new HashMap<>();
+	private Cipher containerDec;
+	private Cipher containerEnc;
+
 
 	/**
 	 * This must be extended as final in the package where it will be used. 
@@ -87,25 +95,30 @@ public abstract class AbstractExonymOwner extends AbstractBaseActor {
 	 * @param container
 	 */
 	protected AbstractExonymOwner(AbstractIdContainer container) {
-		super(container);
-		cryptoEngineUser = INJECTOR.provideCryptoEngineUser();
-		credentialManagerUser = INJECTOR.providesCredentialManagerUser();
+		this(container, INJECTOR);
+
+	}
+
+	protected AbstractExonymOwner(AbstractIdContainer container, ExonymComponent injector) {
+		super(container, injector);
+		cryptoEngineUser = injector.provideCryptoEngineUser();
+		credentialManagerUser = injector.providesCredentialManagerUser();
 
 	    // Prover
-	    keyGenerationOrchestration = INJECTOR.providesKeyGenerationOrchestration();
-	    cryptoEngineProver = INJECTOR.providesCryptoEngineProver();
-	    presentationOrchestrationProver = INJECTOR.providesPresentationOrchestrationProver();
-	    cryptoEngineRevocationAuthority = INJECTOR.providesCryptoEngineRevocationAuthority();
+	    keyGenerationOrchestration = injector.providesKeyGenerationOrchestration();
+	    cryptoEngineProver = injector.providesCryptoEngineProver();
+	    presentationOrchestrationProver = injector.providesPresentationOrchestrationProver();
+	    cryptoEngineRevocationAuthority = injector.providesCryptoEngineRevocationAuthority();
 
 	    // Verifier
-	    cryptoEngineVerifier = INJECTOR.providesCryptoEngineVerifier();
-	    presentationOrchestrationVerifier = INJECTOR.providesPresentationOrchestrationVerifier();
+	    cryptoEngineVerifier = injector.providesCryptoEngineVerifier();
+	    presentationOrchestrationVerifier = injector.providesPresentationOrchestrationVerifier();
 
-		director = INJECTOR.providesZkDirector();
+		director = injector.providesZkDirector();
 	    
 	    // Pseudonyms
 		try {
-			BuildingBlockFactory bbf = INJECTOR.provideBuildingBlockFactory();
+			BuildingBlockFactory bbf = injector.provideBuildingBlockFactory();
 			pseudonymBB = bbf.getBuildingBlockByClass(StandardPseudonymBuildingBlock.class);
 			scopeExclusivePseudonymBB = bbf.getBuildingBlockByClass(ScopeExclusivePseudonymBuildingBlock.class);
 
@@ -169,9 +182,18 @@ public abstract class AbstractExonymOwner extends AbstractBaseActor {
 
 	}
 	
+	/**
+	 * Loads the issuer parameters and secrets in the container and lists the
+	 * credentials it holds.  Credentials are decrypted, and their
+	 * non-revocation evidence brought up to date, only when a proof or an
+	 * issuance selects them.
+	 */
 	protected synchronized void openContainer(Cipher dec, Cipher enc){
 		try {
 			if (!open){
+				long start = System.currentTimeMillis();
+				this.containerDec = dec;
+				this.containerEnc = enc;
 				initSystemParameters();
 				int params = 0, creds = 0; 
 				ArrayList<String> issuerParams = container.getIssuerParameterList();
@@ -187,31 +209,45 @@ public abstract class AbstractExonymOwner extends AbstractBaseActor {
 					logger.fine(resource);;
 					
 				}
-				for (String resource: credentials){
-					Object credentialOrSecret = container.openResource(resource, dec);
-					if (credentialOrSecret instanceof Credential){
-						Credential c = (Credential)credentialOrSecret;
-						this.addCredentialToIdmx(c, enc);
-						logger.fine("Adding " + c.getCredentialDescription().getCredentialUID());
-						creds++; 
+				// Revocable credentials are rewritten with fresh evidence;
+				// write the container once rather than once per credential.
+				container.begin();
+				try {
+					for (String resource: credentials){
+						if (FileType.isCredential(resource) && deferCredential(resource)){
+							creds++;
+							continue;
+
+						}
+						Object credentialOrSecret = container.openResource(resource, dec);
+						if (credentialOrSecret instanceof Credential){
+							Credential c = (Credential)credentialOrSecret;
+							this.addCredentialToIdmx(c, enc);
+							logger.fine("Adding " + c.getCredentialDescription().getCredentialUID());
+							creds++; 
 						
-					} else if (credentialOrSecret instanceof Secret){
-						this.credentialManagerUser.storeSecret(container.getUsername(), (Secret)credentialOrSecret);
-						logger.fine("Adding secret");
+						} else if (credentialOrSecret instanceof Secret){
+							this.credentialManagerUser.storeSecret(container.getUsername(), (Secret)credentialOrSecret);
+							logger.fine("Adding secret");
 
-					} else if (credentialOrSecret instanceof KeyContainer){
-						logger.fine("Key Containers not used here.");
+						} else if (credentialOrSecret instanceof KeyContainer){
+							logger.fine("Key Containers not used here.");
 
-					} else if (credentialOrSecret instanceof SFTPLogonData){
-						logger.fine("SFTPCredentials not used here.");
+						} else if (credentialOrSecret instanceof SFTPLogonData){
+							logger.fine("SFTPCredentials not used here.");
 
-					} else {
-						throw new RuntimeException("Unhandled object type " + credentialOrSecret);
+						} else {
+							throw new RuntimeException("Unhandled object type " + credentialOrSecret);
 						
+						}
 					}
+				} finally {
+					container.commit();
+
 				}
 				this.open=true; 
-				logger.fine("Opened " + params +  " issuer parameters and " + creds + " credentials for container" + this.container.getUsername()); //*/
+				logger.fine("Opened " + params +  " issuer parameters and " + creds + " credentials for container" + this.container.getUsername()
+						+ " in " + (System.currentTimeMillis() - start) + "ms"); //*/
 			
 			}
 		} catch (Exception e) {
@@ -220,6 +256,83 @@ public abstract class AbstractExonymOwner extends AbstractBaseActor {
 		}
 	}
 	
+	/**
+	 * Lists a credential by the issuer parameters in its file name, without
+	 * decrypting it.
+	 *
+	 * @return false if the file name does not identify the issuer, in which
+	 * case the credential must be loaded now.
+	 */
+	private boolean deferCredential(String fileName) {
+		try {
+			UIDHelper helper = new UIDHelper(UIDHelper.fileNameToUid(fileName));
+			URI issuerUid = helper.getIssuerParameters();
+			if (issuerUid==null){
+				return false;
+
+			}
+			unloadedCredentials.put(issuerUid, fileName);
+			// The credential UID is not known until it is decrypted
+			addOwned(new OwnedCredential(helper.getCredentialSpec(), null, issuerUid));
+			return true;
+
+		} catch (Exception e) {
+			logger.fine("Loading " + fileName + " when the container is opened " + e.getMessage());
+			return false;
+
+		}
+	}
+
+	/**
+	 * Decrypts the credentials selected by a token description, if they were
+	 * not loaded when the container was opened.
+	 */
+	private void loadCredentials(PresentationTokenDescription ptd) throws Exception {
+		if (ptd!=null && !unloadedCredentials.isEmpty()){
+			ArrayList<URI> issuers = new ArrayList<>();
+			for (CredentialInToken cit : ptd.getCredential()){
+				issuers.add(cit.getIssuerParametersUID());
+
+			}
+			loadCredentials(issuers);
+
+		}
+	}
+
+	/**
+	 * Decrypts the listed credentials that have not been loaded, adds them to
+	 * the credential manager and updates their non-revocation evidence.
+	 */
+	protected synchronized void loadCredentials(Collection<URI> issuerUids) throws Exception {
+		if (unloadedCredentials.isEmpty()){
+			return;
+
+		}
+		long start = System.currentTimeMillis();
+		int loaded = 0;
+		container.begin();
+		try {
+			for (URI issuerUid : issuerUids){
+				String fileName = unloadedCredentials.get(issuerUid);
+				if (fileName!=null){
+					Credential c = container.openResource(fileName, containerDec);
+					this.addCredentialToIdmx(c, containerEnc);
+					unloadedCredentials.remove(issuerUid);
+					loaded++;
+
+				}
+			}
+		} finally {
+			container.commit();
+
+		}
+		if (loaded > 0){
+			logger.fine("Loaded " + loaded + " credentials for container " + container.getUsername()
+					+ " in " + (System.currentTimeMillis() - start) + "ms");
+
+		}
+	}
+
 	protected synchronized void setupContainerSecret(Cipher enc, Cipher dec) throws Exception{
 		try {
 			try {
@@ -460,7 +573,15 @@ public abstract class AbstractExonymOwner extends AbstractBaseActor {
 
 	}
 
-	private Credential credentialSelector(List<URI> possibilities) throws UxException, CredentialManagerException {
+	private Credential credentialSelector(List<URI> possibilities) throws Exception {
+		ArrayList<URI> issuers = new ArrayList<>();
+		for (OwnedCredential owned : ownedCredentials){
+			if (possibilities.contains(owned.getCredentialSpecificationUid())){
+				issuers.add(owned.getIssuerUid());
+
+			}
+		}
+		loadCredentials(issuers);
 		List<URI> available = new ArrayList<>();
 		for (URI possibility : possibilities){
 			if (this.specToCredentialUriMap.get(possibility)!=null){
@@ -508,21 +629,34 @@ public abstract class AbstractExonymOwner extends AbstractBaseActor {
 			
 		}
 		Credential cred = credentialManagerUser.getCredential(container.getUsername(), cd.getCredentialUID());
-		this.addCredentialToIdmx(cred, enc);
-		addOwned(cred);
+		container.begin();
+		try {
+			this.addCredentialToIdmx(cred, enc);
+			addOwned(cred);
+
+			// URI credUri = URI.create(cred.getCredentialDescription().getIssuerParametersUID().toString()+"c"); 
+			new CredentialWrapper(cred, CredentialWrapper.DECODE_ATTRIBUTES);
+			container.saveLocalResource(cred,  false, enc);
+			new CredentialWrapper(cred, CredentialWrapper.ENCODE_ATTRIBUTES);
+
+		} finally {
+			container.commit();
 
-		// URI credUri = URI.create(cred.getCredentialDescription().getIssuerParametersUID().toString()+"c"); 
-		new CredentialWrapper(cred, CredentialWrapper.DECODE_ATTRIBUTES);
-		container.saveLocalResource(cred,  false, enc);
-		new CredentialWrapper(cred, CredentialWrapper.ENCODE_ATTRIBUTES);
+		}
 		
 	}
 
 	private void addOwned(Credential cred) {
-		OwnedCredential oc = new OwnedCredential(cred.getCredentialDescription().getCredentialSpecificationUID(),
-				cred.getCredentialDescription().getCredentialUID(), cred.getCredentialDescription().getIssuerParametersUID());
-		ownedCredentials.add(oc);
+		addOwned(new OwnedCredential(cred.getCredentialDescription().getCredentialSpecificationUID(),
+				cred.getCredentialDescription().getCredentialUID(), cred.getCredentialDescription().getIssuerParametersUID()));
+
+	}
 
+	private void addOwned(OwnedCredential oc) {
+		if (!ownedCredentials.contains(oc)){
+			ownedCredentials.add(oc);
+
+		}
 	}
 
 	/**
@@ -552,7 +686,9 @@ public abstract class AbstractExonymOwner extends AbstractBaseActor {
 				return null;
 				
 			} else {
-				return bptd.getPresentationTokenDescription();
+				PresentationTokenDescription ptd = bptd.getPresentationTokenDescription();
+				loadCredentials(ptd);
+				return ptd;
 				
 			}
 		} catch (UxException e) {
@@ -586,7 +722,9 @@ public abstract class AbstractExonymOwner extends AbstractBaseActor {
 		if (bptd!=null){
 			try {
 				logger.warning("No inspector selection implemented");
-				return this.bptd.selectTokens(credentials, null);
+				PresentationTokenDescription ptd = this.bptd.selectTokens(credentials, null);
+				loadCredentials(ptd);
+				return ptd;
 				
 			} catch (UxException e) {
 				throw e;
@@ -627,6 +765,7 @@ public abstract class AbstractExonymOwner extends AbstractBaseActor {
 	protected PresentationToken proveClaim(PresentationTokenDescription token, 
 			PresentationPolicyAlternatives ppa) throws Exception {
 		
+		loadCredentials(token);
 		ArrayList<URI> pseudonymUris = resolvePseudonyms((ArrayList<PseudonymInToken>) 
 				token.getPseudonym());
 		
@@ -743,7 +882,72 @@ public abstract class AbstractExonymOwner extends AbstractBaseActor {
 	 */
 	protected boolean verifyClaim(PresentationPolicyAlternatives ppa, PresentationToken token) throws Exception {
 		checkPolicySatisfied(ppa, token);
-		
+		loadTokenMaterials(token);
+		boolean result = cryptoEngineVerifier.verifyToken(token, ppa.getVerifierParameters());
+		if (result){
+			return result;
+			
+		} else {
+			throw new PolicyNotSatisfiedException();
+			
+		} 
+	}
+
+	/**
+	 * Verifies each claim, recording the outcome on the claim rather than
+	 * throwing.  As in verifyClaim(), a claim's policy is checked before any
+	 * materials are loaded for it; the materials of each group of claims that
+	 * satisfy their policies are resolved once.
+	 *
+	 * @return the claims
+	 */
+	protected List<ClaimVerification> verifyClaims(List<ClaimVerification> claims) {
+		for (List<ClaimVerification> group : ClaimVerification.group(claims).values()){
+			ArrayList<ClaimVerification> satisfied = new ArrayList<>();
+			for (ClaimVerification claim : group){
+				try {
+					checkPolicySatisfied(claim.getPolicy(), claim.getToken());
+					satisfied.add(claim);
+
+				} catch (Exception e) {
+					claim.failed(e);
+
+				}
+			}
+			if (satisfied.isEmpty()){
+				continue;
+
+			}
+			loadTokenMaterials(satisfied.get(0).getToken());
+			for (ClaimVerification claim : satisfied){
+				try {
+					if (cryptoEngineVerifier.verifyToken(claim.getToken(),
+							claim.getPolicy().getVerifierParameters())){
+						claim.verified();
+
+					} else {
+						claim.failed(new PolicyNotSatisfiedException());
+
+					}
+				} catch (Exception e) {
+					claim.failed(e);
+
+				}
+			}
+		}
+		return claims;
+
+	}
+
+	/**
+	 * Loads the credential specifications, issuer parameters, revocation
+	 * parameters and inspector keys named in the token that are not loaded.
+	 */
+	private void loadTokenMaterials(PresentationToken token) {
+		if (token==null || token.getPresentationTokenDescription()==null){
+			return;
+
+		}
 		List<CredentialInToken> credentialUids = token.getPresentationTokenDescription().getCredential();
 		for (CredentialInToken cit : credentialUids){
 			try {
@@ -767,14 +971,6 @@ public abstract class AbstractExonymOwner extends AbstractBaseActor {
 				// Do nothing
 			}
 		}
-		boolean result = cryptoEngineVerifier.verifyToken(token, ppa.getVerifierParameters());
-		if (result){
-			return result;
-			
-		} else {
-			throw new PolicyNotSatisfiedException();
-			
-		} 
 	}
 
 	protected void checkPolicySatisfied(PresentationPolicyAlternatives ppa, PresentationToken token) throws Exception {
@@ -0,0 +1,107 @@
+package io.exonym.lib.actor;
+
+import eu.abc4trust.xml.AttributeInToken;
+import eu.abc4trust.xml.CredentialInToken;
+import eu.abc4trust.xml.PresentationPolicyAlternatives;
+import eu.abc4trust.xml.PresentationToken;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * A token to verify against a policy, and the outcome once it has been
+ * verified in a batch.
+ *
+ * Tokens are grouped by the materials their credentials name: credential
+ * specification, issuer parameters, revocation information and inspector
+ * keys.  The tokens of a group are verified with the same keys, which are
+ * resolved once for the group.
+ */
+public final class ClaimVerification {
+
+	private final PresentationPolicyAlternatives policy;
+	private final PresentationToken token;
+	private volatile boolean verified = false;
+	private volatile Exception error = null;
+
+	public ClaimVerification(PresentationPolicyAlternatives policy, PresentationToken token) {
+		this.policy = policy;
+		this.token = token;
+
+	}
+
+	public PresentationPolicyAlternatives getPolicy() {
+		return policy;
+	}
+
+	public PresentationToken getToken() {
+		return token;
+	}
+
+	public boolean isVerified() {
+		return verified;
+	}
+
+	/**
+	 * @return why the token was not verified, or null if it was verified or
+	 * has not been verified yet.
+	 */
+	public Exception getError() {
+		return error;
+	}
+
+	public void verified() {
+		this.verified = true;
+		this.error = null;
+
+	}
+
+	public void failed(Exception e) {
+		this.verified = false;
+		this.error = e;
+
+	}
+
+	/**
+	 * The materials the token's credentials name, in a canonical order.
+	 */
+	public static String groupOf(PresentationToken token) {
+		if (token==null || token.getPresentationTokenDescription()==null){
+			return "";
+
+		}
+		ArrayList<String> credentials = new ArrayList<>();
+		for (CredentialInToken cit : token.getPresentationTokenDescription().getCredential()){
+			ArrayList<String> inspectors = new ArrayList<>();
+			for (AttributeInToken ait : cit.getDisclosedAttribute()){
+				if (ait.getInspectorPublicKeyUID()!=null){
+					inspectors.add(ait.getInspectorPublicKeyUID().toString());
+
+				}
+			}
+			Collections.sort(inspectors);
+			credentials.add(cit.getCredentialSpecUID() + "|" + cit.getIssuerParametersUID()
+					+ "|" + cit.getRevocationInformationUID() + "|" + String.join(",", inspectors));
+
+		}
+		Collections.sort(credentials);
+		return String.join(";", credentials);
+
+	}
+
+	/**
+	 * @return the claims by group, groups and claims in the order they first
+	 * appear.
+	 */
+	public static LinkedHashMap<String, List<ClaimVerification>> group(List<ClaimVerification> claims) {
+		LinkedHashMap<String, List<ClaimVerification>> groups = new LinkedHashMap<>();
+		for (ClaimVerification claim : claims){
+			groups.computeIfAbsent(groupOf(claim.getToken()), k -> new ArrayList<>()).add(claim);
+
+		}
+		return groups;
+
+	}
+}
@@ -0,0 +1,178 @@
+package io.exonym.lib.actor;
+
+import io.exonym.lib.pojo.XKey;
+import io.exonym.lib.standard.AsymStoreKey;
+import io.exonym.lib.standard.CryptoUtils;
+
+import java.net.URI;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Logger;
+
+/**
+ * Verifies the SHA256withRSA signatures over a node's materials.
+ *
+ * The signatures of a node are verified in parallel on a bounded pool, each
+ * thread reusing its Signature instance.  Content that has been verified
+ * under a public key is remembered by the digest of the key and the digest of
+ * the signed bytes, so checking it again costs a hash.  This memo is held in
+ * memory and is the only record of verified signatures; a node that is opened
+ * again checks its materials against it.
+ */
+public final class MaterialSignatures {
+
+	private final static Logger logger = Logger.getLogger(MaterialSignatures.class.getName());
+
+	public static final int POOL_SIZE = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+	public static final int MEMO_SIZE = 4096;
+
+	private static final ExecutorService pool = Executors.newFixedThreadPool(POOL_SIZE, r -> {
+		Thread t = new Thread(r, "MaterialSignatures");
+		t.setDaemon(true);
+		return t;
+
+	});
+
+	private static final ThreadLocal<Signature> sha256WithRsa = ThreadLocal.withInitial(() -> {
+		try {
+			return Signature.getInstance("SHA256withRSA");
+
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+
+		}
+	});
+
+	private static final Map<String, Boolean> memo = Collections.synchronizedMap(
+			new LinkedHashMap<String, Boolean>(256, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+					return size() > MEMO_SIZE;
+
+				}
+			});
+
+	private MaterialSignatures() {}
+
+	/**
+	 * The bytes that were signed: the UTF-8 of the file without tabs, line
+	 * feeds, spaces or double quotes.  The same as stripStringToSign, in one
+	 * pass over the bytes; none of the removed characters can occur inside a
+	 * multi-byte UTF-8 sequence.
+	 */
+	public static byte[] stripToSign(byte[] utf8) {
+		byte[] result = new byte[utf8.length];
+		int n = 0;
+		for (byte b : utf8){
+			if (b!='\t' && b!='\n' && b!=' ' && b!='"'){
+				result[n++] = b;
+
+			}
+		}
+		return n==utf8.length ? result : Arrays.copyOf(result, n);
+
+	}
+
+	/**
+	 * @throws Exception naming the first material, in iteration order, whose
+	 * signature is invalid.
+	 */
+	public static void verifyAll(AsymStoreKey key, Map<XKey, byte[]> signatures) throws Exception {
+		PublicKey publicKey = key.getPublicKey();
+		String keyDigest = CryptoUtils.computeSha256HashAsHex(publicKey.getEncoded());
+		LinkedHashMap<XKey, String> unverified = new LinkedHashMap<>();
+		for (XKey sig : signatures.keySet()){
+			String digest = digest(keyDigest, signatures.get(sig));
+			if (memo.containsKey(digest)){
+				logger.fine("Already verified " + sig.getKeyUid());
+
+			} else {
+				unverified.put(sig, digest);
+
+			}
+		}
+		if (unverified.isEmpty()){
+			return;
+
+		}
+		LinkedHashMap<XKey, Future<Boolean>> checks = new LinkedHashMap<>();
+		for (XKey sig : unverified.keySet()){
+			byte[] data = signatures.get(sig);
+			if (unverified.size()==1){
+				checks.put(sig, CompletableFuture.completedFuture(verify(publicKey, data, sig.getSignature())));
+
+			} else {
+				checks.put(sig, pool.submit(() -> verify(publicKey, data, sig.getSignature())));
+
+			}
+		}
+		for (XKey sig : checks.keySet()){
+			URI uid = sig.getKeyUid();
+			boolean valid;
+			try {
+				valid = checks.get(sig).get();
+
+			} catch (ExecutionException e) {
+				valid = false;
+
+			}
+			if (!valid){
+				for (Future<Boolean> check : checks.values()){
+					check.cancel(false);
+
+				}
+				throw new Exception("Signature was invalid for UID " + uid);
+
+			}
+			memo.put(unverified.get(sig), Boolean.TRUE);
+			logger.fine("Signature Verified for " + uid);
+
+		}
+	}
+
+	/**
+	 * Verifies one signature on the calling thread, unless the content has
+	 * been verified under the key before.
+	 */
+	public static boolean verify(AsymStoreKey key, byte[] data, byte[] signature) {
+		PublicKey publicKey = key.getPublicKey();
+		String digest = digest(CryptoUtils.computeSha256HashAsHex(publicKey.getEncoded()), data);
+		if (memo.containsKey(digest)){
+			return true;
+
+		}
+		if (verify(publicKey, data, signature)){
+			memo.put(digest, Boolean.TRUE);
+			return true;
+
+		}
+		return false;
+
+	}
+
+	public static void clearMemo() {
+		memo.clear();
+
+	}
+
+	private static String digest(String keyDigest, byte[] data) {
+		return keyDigest + ":" + CryptoUtils.computeSha256HashAsHex(data);
+
+	}
+
+	private static boolean verify(PublicKey publicKey, byte[] data, byte[] signature) {
+		try {
+			Signature verifier = sha256WithRsa.get();
+			verifier.initVerify(publicKey);
+			verifier.update(data);
+			return verifier.verify(signature);
+
+		} catch (Exception e) {
+			logger.fine("Malformed signature " + e.getMessage());
+			return false;
+
+		}
+	}
+}
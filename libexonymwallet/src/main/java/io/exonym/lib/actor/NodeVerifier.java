@@ -11,13 +11,15 @@ import io.exonym.lib.exceptions.UxException;
 import io.exonym.lib.pojo.*;
 import io.exonym.lib.standard.AsymStoreKey;
 import io.exonym.lib.api.RulebookVerifier;
+import io.exonym.lib.api.SingleFlight;
 import io.exonym.lib.helpers.Timing;
+import io.exonym.lib.lite.MaterialFetcher;
+import io.exonym.lib.standard.CryptoUtils;
 import io.exonym.lib.standard.Const;
 import io.exonym.lib.standard.WhiteList;
 import org.apache.commons.codec.binary.Base64;
 
 import java.io.FileNotFoundException;
-import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URL;
 import java.util.*;
@@ -28,6 +30,10 @@ import java.util.logging.Logger;
 public class NodeVerifier {
 
 	private final static Logger logger = Logger.getLogger(NodeVerifier.class.getName());
+
+	private static final VerifiedNodeCache<NodeVerifier> verified = new VerifiedNodeCache<>(VerifiedNodeCache.DEFAULT_TTL_MS);
+	private static final SingleFlight opening = new SingleFlight(0, 0);
+
 	private KeyContainer rawKeys;
 	private KeyContainerWrapper keys;
 
@@ -55,6 +61,7 @@ public class NodeVerifier {
 	private final boolean amILead;
 
 	private AsymStoreKey publicKey;
+	private String signaturesHash = null;
 
 
 	/**
@@ -66,24 +73,82 @@ public class NodeVerifier {
 	 * @throws Exception
 	 */
 	public static NodeVerifier openNode(URI known, boolean isTargetLead, boolean amILead) throws Exception {
-		return new NodeVerifier(known, isTargetLead, amILead);
+		return openNode(known, isTargetLead, amILead, MaterialFetcher.getInstance());
 
 	}
 
-	private NodeVerifier(URI node, boolean isTargetLead, boolean amILead) throws Exception {
-		this.amILead =amILead;
+	/**
+	 * If the fetcher has an HttpCache, unchanged materials are served from it.
+	 * Signatures over content that was verified before are not verified
+	 * again; see MaterialSignatures.
+	 *
+	 * A node verified in this process is not opened again while its snapshot
+	 * is younger than the TTL and its signatures.xml is unchanged, and
+	 * concurrent opens of the same node share one verification.
+	 */
+	public static NodeVerifier openNode(URI known, boolean isTargetLead, boolean amILead,
+										MaterialFetcher fetcher) throws Exception {
+		checkLeadUrl(known, isTargetLead);
+		URI node = trainAtFolder(known);
+		String key = node + (amILead ? "#lead" : "");
+		NodeVerifier snapshot = verified.get(key, fetcher);
+		if (snapshot!=null){
+			logger.fine("Verified snapshot of " + node);
+			return snapshot;
+
+		}
+		return opening.load(key, () -> {
+			NodeVerifier result = new NodeVerifier(known, isTargetLead, amILead, fetcher);
+			verified.put(key, result,
+					result.getTargetTrustNetwork().getNodeInformation().getNodeUid(),
+					new URL(node + "/" + Const.SIGNATURES_XML), result.signaturesHash);
+			return result;
+
+		});
+	}
+
+	/**
+	 * Drops the verified snapshots of the node, so that it is opened and
+	 * verified again.
+	 */
+	public static void invalidate(URI nodeUid) {
+		verified.invalidate(nodeUid);
+
+	}
+
+	public static void clearVerified() {
+		verified.clear();
+
+	}
+
+	/**
+	 * Opens the materials published in a folder, such as a file: URL, against
+	 * the signatures given rather than the folder's signatures.xml.  The
+	 * result is not kept as a verified snapshot.
+	 */
+	public static NodeVerifier openLocal(URL folder, KeyContainer keys, boolean amISource) throws Exception {
+		return new NodeVerifier(folder, keys, amISource);
 
+	}
+
+	private static void checkLeadUrl(URI node, boolean isTargetLead) throws UxException {
 		if (isTargetLead){
 			if (!node.toString().contains(Const.LEAD)){
 				throw new UxException("URL must be a Lead-URL " + node);
 
 			}
 		}
+	}
+
+	private NodeVerifier(URI node, boolean isTargetLead, boolean amILead, MaterialFetcher fetcher) throws Exception {
+		this.amILead =amILead;
+
+		checkLeadUrl(node, isTargetLead);
 		this.nodeUrl = trainAtFolder(node);
 		String[] parts = this.nodeUrl.toString().split("/");
 		networkName = parts[parts.length-2];
 
-		byteContent = XmlHelper.openXmlBytesAtUrl(this.nodeUrl);
+		byteContent = XmlHelper.openXmlBytesAtUrl(this.nodeUrl, fetcher);
 		signatureBytes = computeBytesThatWereSigned(byteContent);
 		contents = XmlHelper.deserializeOpenXml(byteContent);
 		// this.ownTrustNetwork = openMyTrustNetwork();
@@ -93,12 +158,10 @@ public class NodeVerifier {
 	}
 
 	private ConcurrentHashMap<String, byte[]> computeBytesThatWereSigned(
-			ConcurrentHashMap<String, byte[]> byteContent) throws UnsupportedEncodingException {
+			ConcurrentHashMap<String, byte[]> byteContent) {
 		ConcurrentHashMap<String, byte[]> result = new ConcurrentHashMap<>();
 		for (String key : byteContent.keySet()){
-			String s = new String(byteContent.get(key), "UTF8");
-			String t = NodeVerifier.stripStringToSign(s);
-			result.put(key, t.getBytes());
+			result.put(key, MaterialSignatures.stripToSign(byteContent.get(key)));
 
 		}
 		return result;
@@ -171,13 +234,25 @@ public class NodeVerifier {
 			publicKey.assembleKey(x.getPublicKey());
 
 			// Verify Signature on Public Key
-			verifySignature(x.getPublicKey(), publicKey, x.getSignature());
+			if (x.getSignature()==null){
+				throw new UxException("Signature was null");
+
+			}
+			if (!MaterialSignatures.verify(publicKey, x.getPublicKey(), x.getSignature())){
+				throw new UxException("Public Key Signature Verification Failed - the XNode is invalid");
+
+			}
 			verifyMaterialSignatures(keys.getKeyRingUids());
 
 			updateObjects();
 			verifyChecksum(keys.getKeyRingUids());
 
 			verifyPublicKey(this.targetTrustNetwork.getNodeInformation().getNodeUid());
+			byte[] signaturesXml = byteContent.get("signatures.xml");
+			if (signaturesXml!=null){
+				signaturesHash = CryptoUtils.computeSha256HashAsHex(signaturesXml);
+
+			}
 			byteContent.clear();
 			contents.clear();
 
@@ -284,14 +359,12 @@ public class NodeVerifier {
 
 	private void verifyMaterialSignatures(Set<URI> keyRingUids) throws Exception {
 		HashMap<XKey, byte[]> signatures = new HashMap<>();
-
 		for (URI uid : keyRingUids){
 			if (!uid.equals(KeyContainerWrapper.TN_ROOT_KEY) &&
 					!uid.equals(KeyContainerWrapper.SIG_CHECKSUM)) {
 				XKey sig = keys.getKey(uid);
 				String fn = IdContainer.uidToXmlFileName(uid);
-				byte[] b = signatureBytes.get(fn);
-				signatures.put(sig, b);
+				signatures.put(sig, signatureBytes.get(fn));
 
 			}
 		}
@@ -306,8 +379,6 @@ public class NodeVerifier {
 		}
 		for (XKey sig : signatures.keySet()){
 			URI uid = sig.getKeyUid();
-			logger.info("Verifying Signature of Resource " + uid);
-
 			if (uid==null){
 				throw new Exception("KeyUID was null");
 
@@ -316,25 +387,27 @@ public class NodeVerifier {
 
 			}
 			byte[] baf = signatures.get(sig);
-			if (baf==null || baf==null){
+			if (baf==null){
 				throw new Exception("Null raw data for file " + uid);
 
 			}
-			if (!verifySignature(baf, key, sig.getSignature())){
-				throw new Exception("Signature was invalid for UID " + uid);
+		}
+		logger.info("Verifying " + signatures.size() + " signatures");
+		MaterialSignatures.verifyAll(key, signatures);
 
-			} else {
-				logger.info("Signature Verified for " + uid);
+	}
+
+	public static String stripStringToSign(String xml){
+		StringBuilder result = new StringBuilder(xml.length());
+		for (int i = 0; i < xml.length(); i++){
+			char c = xml.charAt(i);
+			if (c!='\t' && c!='\n' && c!=' ' && c!='"'){
+				result.append(c);
 
 			}
 		}
-	}
+		return result.toString();
 
-	public static String stripStringToSign(String xml){
-		return xml.replaceAll("\t", "")
-				.replaceAll("\n", "")
-				.replaceAll(" ", "")
-				.replaceAll("\"", "");
 	}
 
 	public static boolean verifySignature(byte[] data, AsymStoreKey key, byte[] signature) throws Exception {
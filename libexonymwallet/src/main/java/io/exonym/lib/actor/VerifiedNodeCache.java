@@ -0,0 +1,115 @@
+package io.exonym.lib.actor;
+
+import io.exonym.lib.lite.MaterialFetcher;
+import io.exonym.lib.standard.CryptoUtils;
+
+import java.net.URI;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Nodes that have been opened and verified, kept so that the code paths that
+ * open the same node within a short time share one verification.
+ *
+ * A snapshot is served only while it is younger than the TTL and the node
+ * still publishes the signatures.xml it was verified against; the
+ * signatures.xml is fetched again on every hit, which is answered from the
+ * HttpCache when the fetcher has one.  Any change to a signed file changes its
+ * signature and so the signatures.xml.  A notification from the node drops its
+ * snapshots.
+ */
+public class VerifiedNodeCache<T> {
+
+	private final static Logger logger = Logger.getLogger(VerifiedNodeCache.class.getName());
+
+	public static final long DEFAULT_TTL_MS = 10 * 60 * 1000;
+
+	private final long ttlMs;
+	private final ConcurrentHashMap<String, Snapshot<T>> snapshots = new ConcurrentHashMap<>();
+
+	public VerifiedNodeCache(long ttlMs) {
+		this.ttlMs = ttlMs;
+
+	}
+
+	/**
+	 * @return the snapshot, or null if there is none, it has expired, or the
+	 * node's signatures.xml has changed or could not be fetched.
+	 */
+	public T get(String key, MaterialFetcher fetcher) {
+		Snapshot<T> snapshot = snapshots.get(key);
+		if (snapshot==null){
+			return null;
+
+		}
+		if (System.currentTimeMillis() - snapshot.created > ttlMs){
+			snapshots.remove(key, snapshot);
+			logger.fine("Expired " + key);
+			return null;
+
+		}
+		try {
+			byte[] signatures = fetcher.read(snapshot.signaturesUrl);
+			if (snapshot.signaturesHash.equals(CryptoUtils.computeSha256HashAsHex(signatures))){
+				return snapshot.value;
+
+			}
+			logger.info("The signatures have changed at " + snapshot.signaturesUrl);
+
+		} catch (Exception e) {
+			logger.info("Could not revalidate " + snapshot.signaturesUrl + " " + e.getMessage());
+
+		}
+		snapshots.remove(key, snapshot);
+		return null;
+
+	}
+
+	/**
+	 * @param nodeUid the node the snapshot was taken of, so that it can be
+	 * dropped when the node notifies.
+	 * @param signaturesHash the SHA-256 of the signatures.xml that was verified.
+	 */
+	public void put(String key, T value, URI nodeUid, URL signaturesUrl, String signaturesHash) {
+		snapshots.put(key, new Snapshot<>(value, nodeUid, signaturesUrl, signaturesHash));
+
+	}
+
+	/**
+	 * Drops every snapshot of the node.
+	 */
+	public void invalidate(URI nodeUid) {
+		if (nodeUid!=null){
+			snapshots.values().removeIf(s -> nodeUid.equals(s.nodeUid));
+
+		}
+	}
+
+	public void clear() {
+		snapshots.clear();
+
+	}
+
+	public int size() {
+		return snapshots.size();
+
+	}
+
+	private static class Snapshot<T> {
+
+		private final T value;
+		private final URI nodeUid;
+		private final URL signaturesUrl;
+		private final String signaturesHash;
+		private final long created = System.currentTimeMillis();
+
+		private Snapshot(T value, URI nodeUid, URL signaturesUrl, String signaturesHash) {
+			this.value = value;
+			this.nodeUid = nodeUid;
+			this.signaturesUrl = signaturesUrl;
+			this.signaturesHash = signaturesHash;
+
+		}
+	}
+}
@@ -50,6 +50,8 @@ public abstract class AbstractIdContainer {
 	protected ArrayList<String> inspectorList = new ArrayList<>();
 	protected ArrayList<String> revocationAuthList = new ArrayList<>();
 
+	private int batchDepth = 0;
+	private boolean batchDirty = false;
 
 	public AbstractIdContainer(String username) throws Exception {
 		if (username==null){
@@ -69,6 +71,74 @@ public abstract class AbstractIdContainer {
 		return username;
 
 	}
+
+	/**
+	 * Starts a batch.  Until the matching commit(), changes are made to the
+	 * container in memory and written together when the outermost batch is
+	 * committed.  Batches nest, and a change made by any thread while a batch
+	 * is open is written with it.
+	 *
+	 * Always commit in a finally block:
+	 * <pre>
+	 *     container.begin();
+	 *     try {
+	 *         ...
+	 *     } finally {
+	 *         container.commit();
+	 *     }
+	 * </pre>
+	 */
+	public synchronized void begin() {
+		batchDepth++;
+
+	}
+
+	/**
+	 * Ends a batch and, if it is the outermost batch and anything changed,
+	 * writes the container.
+	 */
+	public synchronized void commit() throws Exception {
+		if (batchDepth==0){
+			throw new HubException("commit() called without begin() on container " + username);
+
+		}
+		batchDepth--;
+		if (batchDepth==0 && batchDirty){
+			commitBatch();
+			batchDirty = false;
+
+		}
+	}
+
+	public synchronized boolean isBatching() {
+		return batchDepth > 0;
+
+	}
+
+	/**
+	 * Called by an implementation before it writes a change.
+	 *
+	 * @return true if a batch is open, in which case the write must be
+	 * left to commitBatch().
+	 */
+	protected synchronized boolean deferCommit() {
+		if (batchDepth > 0){
+			batchDirty = true;
+			return true;
+
+		}
+		return false;
+
+	}
+
+	/**
+	 * Writes the changes deferred while a batch was open.  Implementations
+	 * that write changes must override this.
+	 */
+	protected void commitBatch() throws Exception {
+		logger.fine("Nothing to commit for " + username);
+
+	}
 	
 	@SuppressWarnings("unchecked")
 	public synchronized <T> T openResource(URI uri) throws Exception{
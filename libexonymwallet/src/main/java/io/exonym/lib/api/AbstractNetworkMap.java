@@ -6,8 +6,10 @@ import io.exonym.lib.actor.TrustNetworkWrapper;
 import io.exonym.lib.exceptions.ErrorMessages;
 import io.exonym.lib.exceptions.HubException;
 import io.exonym.lib.exceptions.UxException;
+import io.exonym.lib.helpers.Timing;
 import io.exonym.lib.helpers.UIDHelper;
 import io.exonym.lib.helpers.UrlHelper;
+import io.exonym.lib.lite.MaterialFetcher;
 import io.exonym.lib.pojo.*;
 
 import java.io.File;
@@ -17,8 +19,17 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -29,6 +40,7 @@ public abstract class AbstractNetworkMap {
 
     private Path rootPath = null;
     private final CacheContainer cache;
+    public static final int DEFAULT_SPAWN_PARALLELISM = 8;
     public static final String LEAD_URL = "https://t1.trust.cyber30.io/leads.xml";
     // "https://trust.exonym.io/leads-local.xml";
 
@@ -100,27 +112,235 @@ public abstract class AbstractNetworkMap {
         }
     }
 
+    /**
+     * Spawns the map with DEFAULT_SPAWN_PARALLELISM threads.  Leads that fail are
+     * logged and left out of the map; the spawn fails only if no lead could be added.
+     */
     public void spawn() throws Exception {
+        NetworkMapSpawnReport report = spawn(DEFAULT_SPAWN_PARALLELISM);
+        if (report.getSpawned()==0 && !report.getFailures().isEmpty()){
+            Exception e = report.getFailures().values().iterator().next();
+            throw new HubException("No lead could be added to the network map " + report, e);
+
+        }
+    }
+
+    /**
+     * Fetches and verifies the leads on up to parallelism threads.  Each lead is
+     * written by the calling thread as soon as it has been verified, so neither
+     * writeVerifiedLead() nor the cache is called concurrently.  A lead that
+     * cannot be fetched, verified or written is reported and does not stop the others.
+     */
+    public NetworkMapSpawnReport spawn(int parallelism) throws Exception {
+        long t0 = Timing.currentTime();
         cleanupExisting();
         TrustNetworkWrapper tnw = new TrustNetworkWrapper(openLeadSet());
-        Collection<NetworkParticipant> allLeads = tnw.getAllParticipants();
-        for (NetworkParticipant lead : allLeads){
-            buildMapForLead(lead);
+        ArrayList<NetworkParticipant> allLeads = new ArrayList<>(tnw.getAllParticipants());
+        NetworkMapSpawnReport report = new NetworkMapSpawnReport(allLeads.size());
+
+        verifyConcurrently(allLeads, parallelism, verified -> writeLead(verified, report));
+        report.setDuration(Timing.hasBeenMs(t0));
+        logger.info("Spawned network map " + report);
+        return report;
+
+    }
+
+    public NetworkMapChangeSet refresh() throws Exception {
+        return refresh(DEFAULT_SPAWN_PARALLELISM);
+
+    }
+
+    /**
+     * Brings the map up to date without rebuilding it.  Every listed lead is
+     * opened and its moderators are compared with the stored ones, because a
+     * lead's entry in the lead set need not change when only its moderators
+     * do; for a lead that has not changed, the fetcher and the remembered
+     * signatures make this cheap.  Leads and moderators that are new, or whose
+     * timestamp or public key changed, are written; leads that are no longer
+     * listed are removed with their moderators.  The materials of the changed
+     * leads are cached once the changes have been applied.
+     *
+     * @return the changes, which have been applied with applyChanges().
+     */
+    public NetworkMapChangeSet refresh(int parallelism) throws Exception {
+        long t0 = Timing.currentTime();
+        TrustNetworkWrapper tnw = new TrustNetworkWrapper(openLeadSet());
+        HashMap<URI, NetworkMapItemLead> stored = new HashMap<>();
+        for (NetworkMapItemLead nmis : listLeads()){
+            stored.put(nmis.getLeadUID(), nmis);
+
+        }
+        NetworkMapChangeSet changes = new NetworkMapChangeSet();
+        ArrayList<NetworkParticipant> listed = new ArrayList<>(tnw.getAllParticipants());
+        HashSet<URI> listedLeads = new HashSet<>();
+        for (NetworkParticipant lead : listed){
+            listedLeads.add(lead.getNodeUid());
+
+        }
+        for (NetworkMapItemLead current : stored.values()){
+            if (!listedLeads.contains(current.getLeadUID())){
+                changes.removeLead(current.getLeadUID(), current.getModeratorsForLead());
+
+            }
+        }
+        ArrayList<Object> materials = new ArrayList<>();
+        verifyConcurrently(listed, parallelism,
+                verified -> diffLead(verified, stored.get(verified.getLead().getNodeUid()), changes, materials));
+
+        if (!changes.isEmpty()){
+            applyChanges(changes);
+
+        }
+        for (Object material : materials){
+            try {
+                cache.store(material);
+
+            } catch (Exception e) {
+                logger.warning("Failed to cache material " + e.getMessage());
+
+            }
+        }
+        changes.setDuration(Timing.hasBeenMs(t0));
+        logger.info("Refreshed network map " + changes);
+        return changes;
+
+    }
+
+    private void diffLead(VerifiedLead verified, NetworkMapItemLead current,
+                          NetworkMapChangeSet changes, List<Object> materials) {
+        URI leadUid = verified.getLead().getNodeUid();
+        try {
+            if (verified.error!=null){
+                throw verified.error;
+
+            }
+            boolean changed = hasChanged(current, verified.nmis);
+            HashSet<URI> currentMods = new HashSet<>();
+            if (current!=null && current.getModeratorsForLead()!=null){
+                currentMods.addAll(current.getModeratorsForLead());
+
+            }
+            for (NetworkMapItemModerator nmia : verified.modsForLead){
+                if (!currentMods.remove(nmia.getNodeUID())
+                        || hasChanged(storedItem(nmia.getNodeUID()), nmia)){
+                    changes.putModerator(nmia);
+                    changed = true;
+
+                }
+            }
+            for (URI removed : currentMods){
+                changes.removeModerator(removed);
+                changed = true;
+
+            }
+            if (changed){
+                changes.putLead(verified.nmis);
+                materials.addAll(verified.getMaterials());
+
+            } else {
+                changes.unchanged();
+
+            }
+        } catch (Exception e) {
+            logger.warning("Failed to refresh lead " + leadUid + " " + e.getMessage());
+            changes.failed(leadUid, e);
+
+        }
+    }
+
+    private NetworkMapItem storedItem(URI uid) {
+        try {
+            return nmiForNode(uid);
+
+        } catch (Exception e) {
+            return null;
+
+        }
+    }
+
+    private static boolean hasChanged(NetworkMapItem current, NetworkMapItem listed) {
+        return current==null
+                || !Objects.equals(current.getLastUpdated(), listed.getLastUpdated())
+                || !Arrays.equals(current.getPublicKeyB64(), listed.getPublicKeyB64());
+    }
+
+    private void verifyConcurrently(List<NetworkParticipant> leads, int parallelism,
+                                    Consumer<VerifiedLead> onVerified) throws Exception {
+        if (leads.isEmpty()){
+            return;
+
+        }
+        int threads = Math.max(1, Math.min(parallelism, leads.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "network-map-spawn");
+            t.setDaemon(true);
+            return t;
+
+        });
+        try {
+            CompletionService<VerifiedLead> completion = new ExecutorCompletionService<>(executor);
+            for (NetworkParticipant lead : leads){
+                completion.submit(() -> buildMapForLead(lead));
+
+            }
+            for (int i = 0; i < leads.size(); i++){
+                onVerified.accept(completion.take().get());
+
+            }
+        } finally {
+            executor.shutdownNow();
 
         }
     }
 
-    private void buildMapForLead(NetworkParticipant lead) throws Exception {
-        NetworkMapItemLead nmis = new NetworkMapItemLead();
-        buildBasisNMI(nmis, lead);
-        nmis.setLeadUID(lead.getNodeUid());
-        ArrayList<URI> modListForLead = new ArrayList<>();
-        ArrayList<NetworkMapItemModerator> modsForLead = verifyLead(modListForLead, lead);
-        nmis.setModeratorsForLead(modListForLead);
-        writeVerifiedLead(lead.getNodeUid(), nmis, modsForLead);
+    private VerifiedLead buildMapForLead(NetworkParticipant lead) {
+        try {
+            VerifiedLead verified = verifyLead(lead);
+            NetworkMapItemLead nmis = new NetworkMapItemLead();
+            buildBasisNMI(nmis, lead);
+            nmis.setLeadUID(lead.getNodeUid());
+
+            TrustNetworkWrapper tnw = new TrustNetworkWrapper(verified.getTrustNetwork());
+            ArrayList<URI> modListForLead = new ArrayList<>();
+            ArrayList<NetworkMapItemModerator> modsForLead = new ArrayList<>();
+            for (NetworkParticipant mod : tnw.getAllParticipants()){
+                modListForLead.add(mod.getNodeUid());
+                modsForLead.add(buildModNMIA(lead.getNodeUid(), mod));
+
+            }
+            nmis.setModeratorsForLead(modListForLead);
+            verified.nmis = nmis;
+            verified.modsForLead = modsForLead;
+            return verified;
+
+        } catch (Exception e) {
+            VerifiedLead failed = new VerifiedLead(lead, null, Collections.emptyList());
+            failed.error = e;
+            return failed;
 
+        }
     }
 
+    private void writeLead(VerifiedLead verified, NetworkMapSpawnReport report) {
+        URI leadUid = verified.getLead().getNodeUid();
+        try {
+            if (verified.error!=null){
+                throw verified.error;
+
+            }
+            for (Object material : verified.getMaterials()){
+                cache.store(material);
+
+            }
+            writeVerifiedLead(leadUid, verified.nmis, verified.modsForLead);
+            report.spawned(verified.modsForLead.size());
+
+        } catch (Exception e) {
+            logger.warning("Failed to add lead " + leadUid + " " + e.getMessage());
+            report.failed(leadUid, e);
+
+        }
+    }
 
     public String toNmiFilename(URI moderator) {
         return moderator.toString()
@@ -139,27 +359,35 @@ public abstract class AbstractNetworkMap {
 
     public abstract boolean networkMapExists() throws Exception;
 
+    /**
+     * @return the lead NMIs that are stored, or an empty list if there is no map.
+     */
+    protected abstract List<NetworkMapItemLead> listLeads() throws Exception;
+
+    /**
+     * Write and remove the items of the change set.  If it fails, the map is
+     * left as it was before the change, as far as the store can undo what was
+     * done.  Readers of the store while the change is applied may see part of
+     * it; the map's own lookups see it once it is complete.
+     */
+    protected abstract void applyChanges(NetworkMapChangeSet changes) throws Exception;
+
     protected void cleanupExisting() {
     }
 
-    private ArrayList<NetworkMapItemModerator> verifyLead(ArrayList<URI> modListForLead, NetworkParticipant lead) throws Exception {
+    /**
+     * Opens the lead's node and verifies its signatures.  Called concurrently
+     * for different leads.
+     *
+     * @return the lead's trust network and the materials to cache.
+     */
+    protected VerifiedLead verifyLead(NetworkParticipant lead) throws Exception {
         NodeVerifier verifier = openNodeVerifier(lead.getStaticNodeUrl0(), true);
-
-        Rulebook rulebook = verifier.getRulebook();
-        cache.store(rulebook);
-        cache.store(verifier.getPresentationPolicy());
-        cache.store(verifier.getCredentialSpecification());
-
-        TrustNetworkWrapper tnw = new TrustNetworkWrapper(verifier.getTargetTrustNetwork());
-        Collection<NetworkParticipant> allMods = tnw.getAllParticipants();
-        ArrayList<NetworkMapItemModerator> modsForLead = new ArrayList<>();
-        for (NetworkParticipant mod : allMods){
-            URI leadUid = lead.getNodeUid();
-            modListForLead.add(mod.getNodeUid());
-            modsForLead.add(buildModNMIA(leadUid, mod));
-
-        }
-        return modsForLead;
+        ArrayList<Object> materials = new ArrayList<>();
+        materials.add(verifier.getRulebook());
+        materials.add(verifier.getPresentationPolicy());
+        materials.add(verifier.getCredentialSpecification());
+        return new VerifiedLead(lead, verifier.getTargetTrustNetwork(), materials);
 
     }
 
@@ -197,10 +425,23 @@ public abstract class AbstractNetworkMap {
         }
     }
 
-    private TrustNetwork openLeadSet() throws Exception {
+    /**
+     * @return the fetcher for the lead list and the nodes' materials.  It
+     * keeps nothing unless the implementation provides an HttpCache.
+     */
+    public MaterialFetcher getFetcher() {
+        return MaterialFetcher.getInstance();
+
+    }
+
+    protected TrustNetwork openLeadSet() throws Exception {
         try {
             String leads = LEAD_URL;
-            byte[] s = UrlHelper.readXml(new URL(leads));
+            byte[] s = getFetcher().read(new URL(leads));
+            if (!UrlHelper.isXml(s)){
+                throw new SecurityException("Expected XML at " + leads);
+
+            }
             return JaxbHelper.xmlToClass(s, TrustNetwork.class);
 
         } catch (Exception e) {
@@ -391,4 +632,38 @@ public abstract class AbstractNetworkMap {
     public CacheContainer getCache() {
         return cache;
     }
+
+    /**
+     * A lead whose node has been verified, with its moderators and the
+     * materials to be cached when the lead is written.
+     */
+    protected static class VerifiedLead {
+
+        private final NetworkParticipant lead;
+        private final TrustNetwork trustNetwork;
+        private final List<Object> materials;
+
+        private NetworkMapItemLead nmis;
+        private ArrayList<NetworkMapItemModerator> modsForLead;
+        private Exception error;
+
+        public VerifiedLead(NetworkParticipant lead, TrustNetwork trustNetwork, List<Object> materials) {
+            this.lead = lead;
+            this.trustNetwork = trustNetwork;
+            this.materials = materials;
+
+        }
+
+        public NetworkParticipant getLead() {
+            return lead;
+        }
+
+        public TrustNetwork getTrustNetwork() {
+            return trustNetwork;
+        }
+
+        public List<Object> getMaterials() {
+            return materials;
+        }
+    }
 }
@@ -0,0 +1,212 @@
+package io.exonym.lib.api;
+
+import io.exonym.lib.helpers.Timing;
+import io.exonym.lib.pojo.EndonymToken;
+import io.exonym.lib.pojo.ExonymChallenge;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Everything ExonymAuthenticate knows about one session: the challenge that is
+ * in flight, the endonym being verified, the last error and the contexts the
+ * session has authenticated for.
+ *
+ * Requests that wait for the token of the challenge register a Waiter; they
+ * are completed by the thread that processed the token.
+ */
+public class AuthSession {
+
+    private final String sessionId;
+
+    private String challenge;
+    private ExonymChallenge request;
+    private URI domain;
+    private long issued = 0;
+    private long t0 = 0;
+
+    private EndonymToken endonym;
+    private EndonymToken error;
+
+    private final ConcurrentHashMap<URI, EndonymToken> authenticated = new ConcurrentHashMap<>();
+
+    private final ArrayList<Waiter> waiters = new ArrayList<>();
+
+    private volatile long lastAccess = Timing.currentTime();
+
+    public AuthSession(String sessionId) {
+        this.sessionId = sessionId;
+
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    protected synchronized void setChallenge(String challenge, ExonymChallenge request) {
+        this.challenge = challenge;
+        this.request = request;
+        this.domain = request.getDomain();
+        this.issued = Timing.currentTime();
+        this.t0 = 0;
+
+    }
+
+    public synchronized String getChallenge() {
+        return challenge;
+    }
+
+    /**
+     * @return the challenge if it has been issued and not yet probed, otherwise null.
+     */
+    protected synchronized String probe() {
+        if (challenge!=null && t0==0){
+            t0 = Timing.currentTime();
+            return challenge;
+
+        } else {
+            return null;
+
+        }
+    }
+
+    /**
+     * @return the authentication request, which can be taken only once.
+     */
+    protected synchronized ExonymChallenge takeRequest() {
+        ExonymChallenge r = this.request;
+        this.request = null;
+        return r;
+
+    }
+
+    public synchronized URI getDomain() {
+        return domain;
+    }
+
+    /**
+     * The time the challenge was probed for, or issued if it has not been probed.
+     * Zero if there is no challenge.
+     */
+    public synchronized long getChallengeTime() {
+        if (challenge==null){
+            return 0;
+
+        }
+        return (t0==0 ? issued : t0);
+
+    }
+
+    /**
+     * Forgets the challenge in flight; the authenticated contexts are kept.
+     */
+    protected synchronized String clearChallenge() {
+        String c = this.challenge;
+        this.challenge = null;
+        this.request = null;
+        this.domain = null;
+        this.issued = 0;
+        this.t0 = 0;
+        return c;
+
+    }
+
+    protected synchronized void setEndonym(EndonymToken endonym) {
+        this.endonym = endonym;
+    }
+
+    protected synchronized EndonymToken getEndonym() {
+        return endonym;
+    }
+
+    protected synchronized EndonymToken takeEndonym() {
+        EndonymToken e = this.endonym;
+        this.endonym = null;
+        return e;
+
+    }
+
+    protected synchronized void setError(EndonymToken error) {
+        this.error = error;
+    }
+
+    protected synchronized EndonymToken takeError() {
+        EndonymToken e = this.error;
+        this.error = null;
+        return e;
+
+    }
+
+    public ConcurrentHashMap<URI, EndonymToken> getAuthenticated() {
+        return authenticated;
+    }
+
+    protected synchronized void addWaiter(Waiter waiter) {
+        waiters.add(waiter);
+
+    }
+
+    protected synchronized void removeWaiter(Waiter waiter) {
+        waiters.remove(waiter);
+
+    }
+
+    /**
+     * @return the waiters registered so far, which are removed from the session.
+     */
+    protected synchronized List<Waiter> takeWaiters() {
+        ArrayList<Waiter> result = new ArrayList<>(waiters);
+        waiters.clear();
+        return result;
+
+    }
+
+    /**
+     * @return true if nothing is in flight and nothing has been authenticated.
+     */
+    public synchronized boolean isEmpty() {
+        return challenge==null && endonym==null && error==null
+                && authenticated.isEmpty() && waiters.isEmpty();
+
+    }
+
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    public void touch() {
+        this.lastAccess = Timing.currentTime();
+
+    }
+
+    @Override
+    public String toString() {
+        return "AuthSession[" + sessionId + "]";
+    }
+
+    /**
+     * A request waiting for the session to be authenticated for a context.
+     */
+    protected static class Waiter {
+
+        private final URI context;
+        private final CompletableFuture<EndonymToken> future;
+
+        protected Waiter(URI context, CompletableFuture<EndonymToken> future) {
+            this.context = context;
+            this.future = future;
+
+        }
+
+        protected URI getContext() {
+            return context;
+        }
+
+        protected CompletableFuture<EndonymToken> getFuture() {
+            return future;
+        }
+    }
+}
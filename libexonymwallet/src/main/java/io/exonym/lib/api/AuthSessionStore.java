@@ -0,0 +1,47 @@
+package io.exonym.lib.api;
+
+/**
+ * Holds the AuthSessions of an ExonymAuthenticate.
+ *
+ * AuthSessionStoreInMemory is the default; a clustered relying party can
+ * provide a store that is shared between its nodes. Sessions returned by a
+ * store are live objects: ExonymAuthenticate changes them in place and calls
+ * save() afterwards so that a remote store can write them back.
+ */
+public interface AuthSessionStore {
+
+    /**
+     * @return the session, created if it does not exist.
+     */
+    AuthSession open(String sessionId);
+
+    /**
+     * @return the session or null if it does not exist or has expired.
+     */
+    AuthSession get(String sessionId);
+
+    /**
+     * @return the session that was probed for the challenge, or null.
+     */
+    AuthSession forChallenge(String challenge);
+
+    /**
+     * Makes the session findable by its probed challenge.
+     */
+    void bindChallenge(String challenge, AuthSession session);
+
+    void save(AuthSession session);
+
+    void remove(String sessionId);
+
+    /**
+     * Drops challenges that have been in flight for longer than challengeTimeout
+     * and sessions that have expired or are left empty.
+     *
+     * @return the number of challenges and sessions that expired.
+     */
+    int expire(long challengeTimeout);
+
+    AuthSessionStoreMetrics getMetrics();
+
+}
@@ -0,0 +1,183 @@
+package io.exonym.lib.api;
+
+import io.exonym.lib.helpers.Timing;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Bounded, expiring AuthSessionStore for a single relying party.
+ *
+ * Sessions are kept in access order; when there are more than maxSessions the
+ * least recently used one is evicted. Sessions that have not been touched for
+ * sessionTtl, and sessions whose challenge has expired without anything being
+ * authenticated, are dropped by expire().
+ */
+public class AuthSessionStoreInMemory implements AuthSessionStore {
+
+    private final static Logger logger = Logger.getLogger(AuthSessionStoreInMemory.class.getName());
+
+    public static final int DEFAULT_MAX_SESSIONS = 100000;
+    public static final long DEFAULT_SESSION_TTL = 30 * 60 * 1000;
+
+    private final int maxSessions;
+    private final long sessionTtl;
+
+    private final LinkedHashMap<String, AuthSession> sessions;
+    private final ConcurrentHashMap<String, String> challengeToSessionId = new ConcurrentHashMap<>();
+
+    private final AtomicLong expiredChallenges = new AtomicLong();
+    private final AtomicLong expiredSessions = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public AuthSessionStoreInMemory() {
+        this(DEFAULT_MAX_SESSIONS, DEFAULT_SESSION_TTL);
+
+    }
+
+    public AuthSessionStoreInMemory(int maxSessions, long sessionTtl) {
+        if (maxSessions < 1){
+            throw new IllegalArgumentException("maxSessions must be positive " + maxSessions);
+
+        }
+        this.maxSessions = maxSessions;
+        this.sessionTtl = sessionTtl;
+        this.sessions = new LinkedHashMap<String, AuthSession>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, AuthSession> eldest) {
+                if (size() > AuthSessionStoreInMemory.this.maxSessions){
+                    evictions.incrementAndGet();
+                    unbind(eldest.getValue());
+                    return true;
+
+                }
+                return false;
+
+            }
+        };
+    }
+
+    @Override
+    public synchronized AuthSession open(String sessionId) {
+        AuthSession session = sessions.get(sessionId);
+        if (session==null){
+            session = new AuthSession(sessionId);
+            sessions.put(sessionId, session);
+
+        }
+        session.touch();
+        return session;
+
+    }
+
+    @Override
+    public synchronized AuthSession get(String sessionId) {
+        AuthSession session = sessions.get(sessionId);
+        if (session!=null){
+            hits.incrementAndGet();
+            session.touch();
+
+        } else {
+            misses.incrementAndGet();
+
+        }
+        return session;
+
+    }
+
+    @Override
+    public synchronized AuthSession forChallenge(String challenge) {
+        String sessionId = (challenge==null ? null : challengeToSessionId.get(challenge));
+        AuthSession session = (sessionId==null ? null : sessions.get(sessionId));
+        if (session!=null && challenge.equals(session.getChallenge())){
+            hits.incrementAndGet();
+            session.touch();
+            return session;
+
+        } else {
+            if (sessionId!=null){
+                challengeToSessionId.remove(challenge);
+
+            }
+            misses.incrementAndGet();
+            return null;
+
+        }
+    }
+
+    @Override
+    public void bindChallenge(String challenge, AuthSession session) {
+        challengeToSessionId.put(challenge, session.getSessionId());
+
+    }
+
+    @Override
+    public void save(AuthSession session) {
+        // sessions are held by reference
+
+    }
+
+    @Override
+    public synchronized void remove(String sessionId) {
+        AuthSession session = sessions.remove(sessionId);
+        if (session!=null){
+            unbind(session);
+
+        }
+    }
+
+    @Override
+    public synchronized int expire(long challengeTimeout) {
+        int expired = 0;
+        Iterator<AuthSession> sessionIterator = sessions.values().iterator();
+        while (sessionIterator.hasNext()){
+            AuthSession session = sessionIterator.next();
+            long challengeTime = session.getChallengeTime();
+            if (challengeTime!=0 && Timing.hasBeen(challengeTime, challengeTimeout)){
+                String c = session.clearChallenge();
+                challengeToSessionId.remove(c);
+                expiredChallenges.incrementAndGet();
+                expired++;
+
+            }
+            long lastAccess = session.getLastAccess();
+            if (Timing.hasBeen(lastAccess, sessionTtl)
+                    || (session.isEmpty() && Timing.hasBeen(lastAccess, challengeTimeout))){
+                unbind(session);
+                sessionIterator.remove();
+                expiredSessions.incrementAndGet();
+                expired++;
+
+            }
+        }
+        // challenges of sessions that were replaced or evicted
+        challengeToSessionId.values().removeIf(sessionId -> !sessions.containsKey(sessionId));
+        if (expired > 0){
+            logger.info("Expired " + expired + " " + getMetrics());
+
+        }
+        return expired;
+
+    }
+
+    @Override
+    public synchronized AuthSessionStoreMetrics getMetrics() {
+        return new AuthSessionStoreMetrics(sessions.size(), expiredChallenges.get(),
+                expiredSessions.get(), evictions.get(), hits.get(), misses.get());
+
+    }
+
+    private void unbind(AuthSession session) {
+        String c = session.getChallenge();
+        if (c!=null){
+            challengeToSessionId.remove(c);
+
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.exonym.lib.api;
+
+public class AuthSessionStoreMetrics {
+
+    private final int liveSessions;
+    private final long expiredChallenges;
+    private final long expiredSessions;
+    private final long evictions;
+    private final long hits;
+    private final long misses;
+
+    public AuthSessionStoreMetrics(int liveSessions, long expiredChallenges, long expiredSessions,
+                                   long evictions, long hits, long misses) {
+        this.liveSessions = liveSessions;
+        this.expiredChallenges = expiredChallenges;
+        this.expiredSessions = expiredSessions;
+        this.evictions = evictions;
+        this.hits = hits;
+        this.misses = misses;
+
+    }
+
+    public int getLiveSessions() {
+        return liveSessions;
+    }
+
+    public long getExpiredChallenges() {
+        return expiredChallenges;
+    }
+
+    public long getExpiredSessions() {
+        return expiredSessions;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return (lookups==0 ? 0 : (double) hits / lookups);
+
+    }
+
+    @Override
+    public String toString() {
+        return "live=" + liveSessions
+                + " expiredChallenges=" + expiredChallenges
+                + " expiredSessions=" + expiredSessions
+                + " evictions=" + evictions
+                + " hitRate=" + String.format("%.3f", getHitRate());
+    }
+}
@@ -9,28 +9,24 @@ import java.nio.file.Path;
 
 public class Cache implements CacheContainer {
 
-    private IdContainerJSON x;
+    private IdContainerJsonLog x;
     private final Path path;
+    private final ObjectCache objects = new ObjectCache();
 
     public Cache(Path path) throws Exception {
         this.path = path;
         try {
-            x = new IdContainerJSON(path, "cache", true);
+            x = new IdContainerJsonLog(path, "cache", true);
 
         } catch (Exception e) {
-            x = new IdContainerJSON(path, "cache", false);
+            x = new IdContainerJsonLog(path, "cache", false);
 
         }
     }
 
     public <T> T open(URI material) throws Exception {
-        try {
-            return x.openResource(material);
-
-        } catch (FileNotFoundException e) {
-            return null;
+        return open(ObjectCache.fileNameOf(material));
 
-        }
     }
 
     public <T> T open(String filename) throws Exception {
@@ -44,7 +40,13 @@ public class Cache implements CacheContainer {
 
                 }
             }
-            return x.openResource(filename);
+            T t = objects.get(filename);
+            if (t==null){
+                t = x.openResource(filename);
+                objects.put(filename, t);
+
+            }
+            return t;
 
         } catch (FileNotFoundException e) {
             return null;
@@ -54,12 +56,20 @@ public class Cache implements CacheContainer {
 
     public void store(Object material) throws Exception {
         x.saveLocalResource(material, true);
+        objects.invalidate(material);
+
+    }
+
+    @Override
+    public void invalidate(Object material) throws Exception {
+        objects.invalidate(material);
 
     }
 
     public void clear() throws Exception {
+        objects.clear();
         x.delete();
-        x = new IdContainerJSON(this.path, "cache", true);
+        x = new IdContainerJsonLog(this.path, "cache", true);
 
     }
 
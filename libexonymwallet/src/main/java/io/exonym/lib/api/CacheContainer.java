@@ -7,7 +7,16 @@ public interface CacheContainer {
     public <T> T open(URI material) throws Exception;
     public <T> T open(String filename) throws Exception;
 
+    /**
+     * Saves the material and drops any deserialized copy of what it replaces.
+     */
     public void store(Object material) throws Exception;
+
+    /**
+     * Drops the deserialized copy of the material, so that the next open()
+     * reads it from the container.
+     */
+    public void invalidate(Object material) throws Exception;
     public void clear() throws Exception;
 
     public AbstractIdContainer getContainer() throws Exception;
@@ -7,6 +7,7 @@ public class CacheInMemory implements CacheContainer {
     private static CacheInMemory instance;
 
     private IdContainerJsonMemory x;
+    private final ObjectCache objects = new ObjectCache();
     
     static {
         try {
@@ -27,22 +28,38 @@ public class CacheInMemory implements CacheContainer {
 
     @Override
     public <T> T open(URI material) throws Exception {
-        return x.openResource(material);
+        return open(ObjectCache.fileNameOf(material));
     }
 
     @Override
     public <T> T open(String filename) throws Exception {
-        return x.openResource(filename);
+        T t = objects.get(filename);
+        if (t==null){
+            t = x.openResource(filename);
+            objects.put(filename, t);
+
+        }
+        return t;
     }
 
     @Override
     public void store(Object material) throws Exception {
         x.saveLocalResource(material, true);
+        objects.invalidate(material);
+    }
+
+    @Override
+    public void invalidate(Object material) throws Exception {
+        objects.invalidate(material);
     }
 
     @Override
     public void clear() throws Exception {
+        objects.clear();
+    }
 
+    public ObjectCache getObjects() {
+        return objects;
     }
 
     @Override
@@ -10,7 +10,7 @@ import io.exonym.lib.helpers.UIDHelper;
 import io.exonym.lib.lite.ModelCommandProcessor;
 import io.exonym.lib.lite.Msg;
 import io.exonym.lib.pojo.*;
-import io.exonym.lib.wallet.ExonymOwner;
+import io.exonym.lib.wallet.VerifierPool;
 import org.apache.commons.codec.binary.Base64;
 
 import java.net.URI;
@@ -18,44 +18,43 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 public class ExonymAuthenticate extends ModelCommandProcessor {
 
     private final static Logger logger = Logger.getLogger(ExonymAuthenticate.class.getName());
     
-    private ConcurrentHashMap<String, ExonymChallenge> challengeToAuthenticationRequest = new ConcurrentHashMap<>();
-    private ConcurrentHashMap<String, URI> challengeToDomainContext = new ConcurrentHashMap<>();
-    private ConcurrentHashMap<String, String> challengeToSessionId = new ConcurrentHashMap<>();
-    private ConcurrentHashMap<String, Long> challengeToT0 = new ConcurrentHashMap<>();
-    private ConcurrentHashMap<String, String> sessionIdToChallenge = new ConcurrentHashMap<>();
-    private ConcurrentHashMap<String, EndonymToken> sessionIdToEndonym = new ConcurrentHashMap<>();
-    private ConcurrentHashMap<String, EndonymToken> sessionIdToErrors = new ConcurrentHashMap<>();
-    private ConcurrentHashMap<String, ConcurrentHashMap<URI, EndonymToken>> authSessionIdToEndonym = new ConcurrentHashMap<>();
+    // Lock order: a thread that holds an AuthSession must not call into the store
+    // or complete a waiter.
+    private final AuthSessionStore sessions;
 
     protected void challenge(SsoChallenge challenge, String sessionId){
         String c = challenge.getChallenge();
         logger.info("Setup challenge " + c);
-        challengeToAuthenticationRequest.put(c, challenge);
-        sessionIdToChallenge.put(sessionId, c);
-        challengeToDomainContext.put(challenge.getChallenge(), challenge.getDomain());
-        logger.info("Putting challenge and domain=" + challengeToDomainContext);
+        AuthSession session = sessions.open(sessionId);
+        session.setChallenge(c, challenge);
+        sessions.save(session);
+        logger.info("Putting challenge and domain=" + challenge.getDomain());
 
     }
 
     protected void removeSession(String session){
-        this.authSessionIdToEndonym.remove(session);
+        this.sessions.remove(session);
 
     }
 
     protected URI probeForContext(String sessionId) throws UxException {
-        String challenge = sessionIdToChallenge.remove(sessionId);
+        AuthSession session = sessions.get(sessionId);
+        String challenge = (session==null ? null : session.probe());
         if (challenge!=null){
-            challengeToSessionId.put(challenge, sessionId);
-            challengeToT0.put(challenge, Timing.currentTime());
-            URI domain = challengeToDomainContext.get(challenge);
-            logger.info("(getting) challengeToDomainContext=" + challengeToDomainContext);
+            sessions.bindChallenge(challenge, session);
+            sessions.save(session);
+            URI domain = session.getDomain();
+            logger.info("(getting) domain=" + domain);
             return domain;
 
         } else {
@@ -65,42 +64,38 @@ public class ExonymAuthenticate extends ModelCommandProcessor {
 
     protected void authenticate(String token) throws UxException, HubException {
         long t0 = Timing.currentTime();
-        String sessionId = null;
+        AuthSession session = null;
         try {
             if (token != null) {
                 PresentationToken pt = Parser.parsePresentationTokenFromXml(token);
                 String message = extractMessage(pt);
                 String challenge = extractValueFromJson(message, "c");
-                sessionId = challengeToSessionId.get(challenge);
+                session = sessions.forChallenge(challenge);
 
-                logger.info("Retrieved Challenge for session=" + sessionId + " challenge=" + challenge);
-                authenticateToken(pt, challenge);
+                logger.info("Retrieved Challenge for session=" + session + " challenge=" + challenge);
+                URI context = authenticateToken(pt, challenge, session);
                 logger.info("Authenticated token successfully");
 
-                synchronized (sessionId) {
-                    logger.info("Adding authorised session " + sessionId);
-                    addAuthorizedSession(sessionId, challenge);
-                    sessionId.notifyAll();
-                    logger.info("Authentication Duration = " + Timing.hasBeenMs(t0));
+                completeAuthentication(session, context);
+                logger.info("Authentication Duration = " + Timing.hasBeenMs(t0));
 
-                }
             } else {
                 throw new NullPointerException("No Token Provided");
 
             }
         } catch (PolicyNotSatisfiedException e) {
-            if (sessionId!=null){
-                completeRequest(sessionId, e);
+            if (session!=null){
+                completeRequest(session, e);
 
             }
             throw new UxException(ErrorMessages.FAILED_TO_AUTHORIZE, e);
 
         } catch (Exception e) {
-            if (sessionId==null){
+            if (session==null){
                 throw new HubException(ErrorMessages.SERVER_SIDE_PROGRAMMING_ERROR, e);
 
             } else {
-                completeRequest(sessionId, e);
+                completeRequest(session, e);
 
             }
         }
@@ -119,43 +114,101 @@ public class ExonymAuthenticate extends ModelCommandProcessor {
     }
 
 
-    private void completeRequest(String sessionId, Exception e) {
-        synchronized (sessionId){
-            EndonymToken nym = sessionIdToEndonym.remove(sessionId);
+    void completeAuthentication(AuthSession session, URI context) {
+        List<AuthSession.Waiter> waiters;
+        synchronized (session){
+            logger.info("Adding authorised session " + session.getSessionId());
+            addAuthorizedSession(session, context);
+            waiters = session.takeWaiters();
+
+        }
+        sessions.save(session);
+        for (AuthSession.Waiter waiter : waiters){
+            EndonymToken endonym = session.getAuthenticated().get(waiter.getContext());
+            if (endonym!=null){
+                waiter.getFuture().complete(endonym);
+
+            } else {
+                waiter.getFuture().completeExceptionally(
+                        new UxException(ErrorMessages.FAILED_TO_AUTHORIZE));
+
+            }
+        }
+    }
+
+    void completeRequest(AuthSession session, Exception e) {
+        EndonymToken nym;
+        List<AuthSession.Waiter> waiters;
+        synchronized (session){
+            nym = session.takeEndonym();
+            if (nym==null){
+                nym = new EndonymToken();
+
+            }
             nym.setError(e.getMessage());
-            sessionIdToErrors.put(sessionId, nym);
-            sessionId.notifyAll();
+            waiters = session.takeWaiters();
+            if (waiters.isEmpty()){
+                // the probe has not arrived yet
+                session.setError(nym);
+
+            }
+        }
+        sessions.save(session);
+        for (AuthSession.Waiter waiter : waiters){
+            waiter.getFuture().complete(nym);
 
         }
     }
 
-    protected EndonymToken isAuthenticatedWait(String sessionId, URI context, long timeout) throws UxException {
-        synchronized (sessionId){
-            try {
-                boolean alreadyAuth = isAuthenticatedQuiet(sessionId, context);
-                if (alreadyAuth){
-                    return isAuthenticated(sessionId, context);
+    /**
+     * Completes once the token for the session's probed challenge has been processed:
+     * with the endonym for the context, with a token that carries the error, or with
+     * a timeout token after timeout ms. No thread is held while waiting.
+     */
+    protected CompletableFuture<EndonymToken> awaitAuthentication(String sessionId, URI context, long timeout) {
+        AuthSession session = sessions.open(sessionId);
+        CompletableFuture<EndonymToken> future = new CompletableFuture<>();
+        synchronized (session){
+            EndonymToken endonym = session.getAuthenticated().get(context);
+            if (endonym!=null){
+                return CompletableFuture.completedFuture(endonym);
 
-                } else {
-                    long t0 = Timing.currentTime();
-                    logger.info("Waiting for authentication " + sessionId + " timeout=" + timeout);
-                    sessionId.wait(timeout);
+            }
+            EndonymToken error = session.takeError();
+            if (error!=null){
+                return CompletableFuture.completedFuture(error);
+
+            }
+            AuthSession.Waiter waiter = new AuthSession.Waiter(context, future);
+            session.addWaiter(waiter);
+            future.whenComplete((result, e) -> session.removeWaiter(waiter));
 
-                    if (Timing.hasBeen(t0, timeout)){
-                        EndonymToken result = new EndonymToken();
-                        result.setTimeout(true);
-                        return result;
+        }
+        logger.info("Waiting for authentication " + sessionId + " timeout=" + timeout);
+        EndonymToken timedOut = new EndonymToken();
+        timedOut.setTimeout(true);
+        return future.completeOnTimeout(timedOut, timeout, TimeUnit.MILLISECONDS);
 
-                    } else {
-                        logger.info("Trying auth after notification " + sessionId);
-                        return this.isAuthenticated(sessionId, context);
+    }
 
-                    }
-                }
-            } catch (InterruptedException e) {
-                return this.isAuthenticated(sessionId, context);
+    /**
+     * Blocks the calling thread until awaitAuthentication() completes.
+     */
+    protected EndonymToken isAuthenticatedWait(String sessionId, URI context, long timeout) throws UxException {
+        try {
+            return awaitAuthentication(sessionId, context, timeout).get();
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UxException){
+                throw (UxException) e.getCause();
+
+            } else {
+                throw new UxException(ErrorMessages.FAILED_TO_AUTHORIZE, e.getCause());
 
             }
+        } catch (InterruptedException e) {
+            return isAuthenticated(sessionId, context);
+
         }
     }
 
@@ -168,15 +221,27 @@ public class ExonymAuthenticate extends ModelCommandProcessor {
      *
      */
     protected EndonymToken isAuthenticated(String sessionId, URI context) throws UxException {
-        ConcurrentHashMap<URI, EndonymToken> contextToEndonym = authSessionIdToEndonym.get(sessionId);
-        if (contextToEndonym!=null) {
+        AuthSession session = sessions.get(sessionId);
+        if (session!=null){
+            return isAuthenticated(session, context);
+
+        } else {
+            logger.info("No session " + sessionId);
+            throw new UxException(ErrorMessages.FAILED_TO_AUTHORIZE);
+
+        }
+    }
+
+    private EndonymToken isAuthenticated(AuthSession session, URI context) throws UxException {
+        ConcurrentHashMap<URI, EndonymToken> contextToEndonym = session.getAuthenticated();
+        if (!contextToEndonym.isEmpty()) {
             logger.info("contextToEndonym " + contextToEndonym + " context=" + context);
             EndonymToken endonym = contextToEndonym.get(context);
             if (endonym != null) {
                 return endonym;
 
             } else {
-                EndonymToken token = sessionIdToErrors.remove(sessionId);
+                EndonymToken token = session.takeError();
                 if (token!=null){
                     return token;
 
@@ -205,23 +270,14 @@ public class ExonymAuthenticate extends ModelCommandProcessor {
     }
 
 
-    private void addAuthorizedSession(String sessionId, String challenge) {
-        logger.info("(z) challengeToDomainContext=" + challengeToDomainContext);
-        ConcurrentHashMap<URI, EndonymToken> contexts = authSessionIdToEndonym.get(sessionId);
-        URI context = challengeToDomainContext.get(challenge);
-
-        if (contexts==null){
-            contexts = new ConcurrentHashMap<>();
-            authSessionIdToEndonym.put(sessionId, contexts);
-            logger.info("created map for session " + contexts);
-
-
-        }
-        EndonymToken nym = sessionIdToEndonym.remove(sessionId);
+    private void addAuthorizedSession(AuthSession session, URI context) {
+        ConcurrentHashMap<URI, EndonymToken> contexts = session.getAuthenticated();
+        EndonymToken nym = session.takeEndonym();
         contexts.put(context, nym);
+        // the challenge has been answered
+        session.clearChallenge();
 
         logger.info("context= " + context + " nym=" + nym + " onto=" + contexts);
-        logger.info("authSessionIdToEndonym= " + authSessionIdToEndonym);
 
     }
 
@@ -238,31 +294,28 @@ public class ExonymAuthenticate extends ModelCommandProcessor {
 
 
 
-    private String authenticateToken(PresentationToken pt, String challenge) throws Exception {
+    private URI authenticateToken(PresentationToken pt, String challenge, AuthSession session) throws Exception {
 
-        String sessionId = challengeToSessionId.get(challenge);
-        ExonymChallenge c = challengeToAuthenticationRequest.remove(challenge);
+        ExonymChallenge c = (session==null ? null : session.takeRequest());
 
-        logger.info("challenge/sessionId at authenticate (no value should be null)="
-                + challenge + " " + sessionId + " " + c);
+        logger.info("challenge/session at authenticate (no value should be null)="
+                + challenge + " " + session + " " + c);
 
-        PresentationPolicyAlternatives ppa = verifyOfferingAndBuildPolicy(c, sessionId, pt);
+        PresentationPolicyAlternatives ppa = verifyOfferingAndBuildPolicy(c, session, pt);
         logger.info("Pps computed");
-        ExonymOwner owner = ExonymOwner.verifierOnly();
-        logger.info("Verifier Only");
-        owner.verifyClaim(ppa, pt);
+        VerifierPool.getInstance().verifyClaim(ppa, pt);
         logger.info("Verified Claim");
-        return challenge;
+        return c.getDomain();
 
     }
 
     private PresentationPolicyAlternatives verifyOfferingAndBuildPolicy(ExonymChallenge c,
-                                     String sessionId, PresentationToken pt) throws Exception {
+                                     AuthSession session, PresentationToken pt) throws Exception {
         if (c instanceof SsoChallenge){
-            return juxtaposeTokenAndSsoChallenge((SsoChallenge)c, sessionId, pt);
+            return juxtaposeTokenAndSsoChallenge((SsoChallenge)c, session, pt);
 
         } else if (c instanceof DelegateRequest) {
-            return juxtaposeTokenAndDelegateChallenge((DelegateRequest) c, sessionId, pt);
+            return juxtaposeTokenAndDelegateChallenge((DelegateRequest) c, session, pt);
 
         } else if (c==null){
             throw new UxException(ErrorMessages.UNEXPECTED_TOKEN_FOR_THIS_NODE_OR_AUTH_TIMEOUT);
@@ -274,8 +327,8 @@ public class ExonymAuthenticate extends ModelCommandProcessor {
     }
 
     private PresentationPolicyAlternatives juxtaposeTokenAndSsoChallenge(SsoChallenge c,
-                          String sessionId, PresentationToken pt) throws Exception {
-        PresentationPolicy policy = checkPseudonym(sessionId, c, pt);
+                          AuthSession session, PresentationToken pt) throws Exception {
+        PresentationPolicy policy = checkPseudonym(session, c, pt);
         PresentationTokenDescription ptd = pt.getPresentationTokenDescription();
 
         String challengeIn = Base64.encodeBase64String(ptd.getMessage().getNonce());
@@ -287,7 +340,7 @@ public class ExonymAuthenticate extends ModelCommandProcessor {
             HashMap<String, CredentialInToken> rulebookIdToCredentialMap = checkSybil(policy, ptd);
 
             if (!c.getHonestUnder().isEmpty()){
-                checkRulebooks(sessionId, c, rulebookIdToCredentialMap);
+                checkRulebooks(session, c, rulebookIdToCredentialMap);
 
             }
         }
@@ -296,7 +349,7 @@ public class ExonymAuthenticate extends ModelCommandProcessor {
         return ppa;
     }
 
-    private void checkRulebooks(String sessionId, SsoChallenge c,
+    private void checkRulebooks(AuthSession session, SsoChallenge c,
                                 HashMap<String, CredentialInToken> rcMap) throws Exception {
 
         HashMap<String, RulebookAuth> requests = c.getHonestUnder();
@@ -319,7 +372,7 @@ public class ExonymAuthenticate extends ModelCommandProcessor {
                 throw new UxException(ErrorMessages.BLACKLISTED_LEAD);
 
             }
-            EndonymToken et = sessionIdToEndonym.get(sessionId);
+            EndonymToken et = session.getEndonym();
             if (et!=null){
                 et.setModeratorUid(modUid);
             } else {
@@ -328,7 +381,7 @@ public class ExonymAuthenticate extends ModelCommandProcessor {
         }
     }
 
-    private PresentationPolicy checkPseudonym(String sessionId, ExonymChallenge c,
+    private PresentationPolicy checkPseudonym(AuthSession session, ExonymChallenge c,
                                               PresentationToken pt) throws HubException, UxException {
         String domain = c.getDomain().toString();
         PresentationTokenDescription ptd = pt.getPresentationTokenDescription();
@@ -347,9 +400,8 @@ public class ExonymAuthenticate extends ModelCommandProcessor {
 
                     URI endonym = EndonymToken.endonymForm(nym.getScope(), nym.getPseudonymValue());
 
-                    logger.info("sessionIdToEndonym=" + sessionIdToEndonym);
                     EndonymToken et = EndonymToken.build(endonym, pt);
-                    this.sessionIdToEndonym.put(sessionId, et);
+                    session.setEndonym(et);
                     hasExclusive = true;
 
                 }
@@ -411,13 +463,27 @@ public class ExonymAuthenticate extends ModelCommandProcessor {
     }
 
     private PresentationPolicyAlternatives juxtaposeTokenAndDelegateChallenge(
-            DelegateRequest c, String cb64, PresentationToken pt) {
+            DelegateRequest c, AuthSession session, PresentationToken pt) {
         return null;
     }
 
 
     protected ExonymAuthenticate(){
+        this(new AuthSessionStoreInMemory());
+
+    }
+
+    /**
+     * @param sessions a shared store for clustered deployments.
+     */
+    protected ExonymAuthenticate(AuthSessionStore sessions){
         super(1,"ExonymAuthenticate", 120000);
+        this.sessions = sessions;
+
+    }
+
+    protected AuthSessionStoreMetrics sessionMetrics(){
+        return sessions.getMetrics();
 
     }
 
@@ -428,25 +494,8 @@ public class ExonymAuthenticate extends ModelCommandProcessor {
 
     @Override
     protected void periodOfInactivityProcesses() {
-        ArrayList<String> cleanup = new ArrayList<>();
+        sessions.expire(this.challengeTimeout());
 
-        for (String challenge : challengeToT0.keySet()){
-            long t0 = challengeToT0.get(challenge);
-            if (Timing.hasBeen(t0, this.challengeTimeout())){
-                cleanup.add(challenge);
-
-            }
-        }
-        for (String c : cleanup){
-            logger.info("Cleaning up " + c);
-            challengeToT0.remove(c);
-            String sessionId = challengeToSessionId.remove(c);
-            challengeToAuthenticationRequest.remove(c);
-            challengeToDomainContext.remove(c);
-//            sessionIdToChallenge.remove(sessionId);
-//            sessionIdToEndonym.remove(sessionId);
-
-        }
     }
 
     @Override
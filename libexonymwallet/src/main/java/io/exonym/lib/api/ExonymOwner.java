@@ -13,6 +13,7 @@ import io.exonym.lib.standard.PassStore;
 
 import javax.crypto.Cipher;
 import java.net.URI;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 
@@ -138,6 +139,11 @@ public class ExonymOwner extends AbstractExonymOwner {
         super.addCredentialToIdmx(credential, enc);
     }
 
+    @Override
+    protected synchronized void loadCredentials(Collection<URI> issuerUids) throws Exception {
+        super.loadCredentials(issuerUids);
+    }
+
     /**
      * Called in each step of an issuance process that
      * will result in obtaining a credential. <p>
@@ -103,6 +103,10 @@ public class IdContainerJSON extends AbstractIdContainer {
 
 	}
 
+	public Path getFile() {
+		return file;
+	}
+
 	private Path generatePathToFile() {
 		return Paths.get(testFolder.toAbsolutePath() + "/" + getUsername() + ".json");
 	}
@@ -181,6 +185,11 @@ public class IdContainerJSON extends AbstractIdContainer {
 	}
 	
 	protected void commitSchema() throws Exception {
+		if (deferCommit()){
+			updateLists();
+			return;
+
+		}
 		String json = JaxbHelper.serializeToJson(schema, IdContainerSchema.class);
 		BufferedWriter writer = Files.newBufferedWriter(this.file);
 		writer.write(json);
@@ -189,6 +198,12 @@ public class IdContainerJSON extends AbstractIdContainer {
 
 	}
 
+	@Override
+	protected void commitBatch() throws Exception {
+		commitSchema();
+
+	}
+
 	// TODO
 	@SuppressWarnings("unchecked")
 	public void updateLists() {
@@ -402,6 +417,11 @@ public class IdContainerJSON extends AbstractIdContainer {
 	}	
 	
 	protected HashMap<String, String> computeLocation(URI location) throws Exception {
+		return computeLocation(schema, location);
+
+	}
+
+	protected HashMap<String, String> computeLocation(IdContainerSchema schema, URI location) throws Exception {
 		if (location.equals(LOCAL_LEDGER)){
 			return schema.getLocalLedger();
 			
@@ -438,7 +458,7 @@ public class IdContainerJSON extends AbstractIdContainer {
 		}
 	}	
 
-	private void put(String b64, String name, HashMap<String, String> map, boolean overwrite) throws UxException {
+	protected void put(String b64, String name, HashMap<String, String> map, boolean overwrite) throws UxException {
 		if (overwrite){
 			map.put(name, b64);
 			
@@ -0,0 +1,301 @@
+package io.exonym.lib.api;
+
+import com.google.gson.JsonObject;
+import io.exonym.lib.abc.util.JaxbHelper;
+import io.exonym.lib.pojo.IdContainerSchema;
+import org.apache.commons.codec.binary.Base64;
+
+import javax.crypto.Cipher;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * An IdContainerJSON that appends each write to a log beside the container
+ * file instead of rewriting the whole container.
+ *
+ * The container file is the snapshot and has the same format as IdContainerJSON,
+ * so an existing container is opened without migration and a compacted
+ * container can be opened by IdContainerJSON again.  Each record in the log
+ * is one line of JSON and is forced to disk before save() returns.  Records
+ * are replayed over the snapshot on open; replaying a record twice has no
+ * effect, so a crash at any point of compaction loses nothing.  A torn last
+ * record is discarded.
+ *
+ * The log is compacted into the snapshot when it is opened, when it grows
+ * larger than the snapshot, and when a resource is deleted.  Records saved
+ * during a batch are appended and forced together when it is committed.
+ */
+public class IdContainerJsonLog extends IdContainerJSON {
+
+	public static final long COMPACT_MIN_BYTES = 1024 * 1024;
+
+	private static final String LOCATION = "l";
+	private static final String NAME = "n";
+	private static final String VALUE = "v";
+
+	private final ArrayList<byte[]> pending = new ArrayList<>();
+	private boolean compactPending = false;
+
+	public IdContainerJsonLog(Path path, String username) throws Exception {
+		super(path, username);
+
+	}
+
+	public IdContainerJsonLog(Path path, String username, boolean create) throws Exception {
+		super(path, username, create);
+
+	}
+
+	/**
+	 * Called by the IdContainerJSON constructors, so it must not use fields of
+	 * this class.
+	 */
+	@Override
+	protected IdContainerSchema init(boolean create) throws Exception {
+		IdContainerSchema schema = super.init(create);
+		Path log = getLog();
+		if (Files.exists(log)){
+			int records = replay(schema, log);
+			logger.info("Replayed " + records + " records for " + getUsername());
+			writeSnapshot(schema);
+			Files.delete(log);
+			syncDirectory(log.getParent());
+
+		}
+		return schema;
+
+	}
+
+	@Override
+	protected synchronized void save(String xml, URI location, String name, boolean overwrite) throws Exception {
+		String b64 = Base64.encodeBase64String(xml.getBytes());
+		putAndAppend(b64, location, name, overwrite);
+
+	}
+
+	@Override
+	protected synchronized void saveEncrypted(String xml, URI location, String name, boolean overwrite, Cipher store) throws Exception {
+		String b64 = Base64.encodeBase64String(store.doFinal(xml.getBytes()));
+		putAndAppend(b64, location, name, overwrite);
+
+	}
+
+	/**
+	 * The schema is only changed if the record reaches the log, so a failed
+	 * append leaves the container as it is on disk.
+	 */
+	private void putAndAppend(String b64, URI location, String name, boolean overwrite) throws Exception {
+		HashMap<String, String> map = computeLocation(location);
+		String previous = map.get(name);
+		put(b64, name, map, overwrite);
+		try {
+			append(location, name, b64);
+
+		} catch (Exception e) {
+			if (previous==null){
+				map.remove(name);
+
+			} else {
+				map.put(name, previous);
+
+			}
+			throw e;
+
+		}
+		if (!deferCommit()){
+			written();
+
+		}
+	}
+
+	/**
+	 * Deletions change the schema in place, so they are written by compacting.
+	 */
+	@Override
+	protected synchronized void commitSchema() throws Exception {
+		if (deferCommit()){
+			compactPending = true;
+			updateLists();
+
+		} else {
+			compact();
+
+		}
+	}
+
+	@Override
+	protected synchronized void commitBatch() throws Exception {
+		if (compactPending){
+			compact();
+
+		} else if (!pending.isEmpty()){
+			write(pending);
+			written();
+
+		}
+		pending.clear();
+		compactPending = false;
+
+	}
+
+	/**
+	 * Writes the schema to a temporary file, renames it over the container file
+	 * and deletes the log.
+	 */
+	public synchronized void compact() throws Exception {
+		writeSnapshot(getSchema());
+		Path log = getLog();
+		if (Files.deleteIfExists(log)){
+			syncDirectory(log.getParent());
+
+		}
+		updateLists();
+
+	}
+
+	@Override
+	public synchronized void delete() throws Exception {
+		Files.deleteIfExists(getLog());
+		super.delete();
+
+	}
+
+	protected Path getLog() {
+		Path file = getFile();
+		return file.resolveSibling(getUsername() + ".log");
+
+	}
+
+	private void append(URI location, String name, String b64) throws Exception {
+		JsonObject record = new JsonObject();
+		record.addProperty(LOCATION, location.toString());
+		record.addProperty(NAME, name);
+		record.addProperty(VALUE, b64);
+		byte[] line = (JaxbHelper.gson.toJson(record) + "\n").getBytes(StandardCharsets.UTF_8);
+		if (deferCommit()){
+			pending.add(line);
+
+		} else {
+			ArrayList<byte[]> lines = new ArrayList<>(1);
+			lines.add(line);
+			write(lines);
+
+		}
+	}
+
+	private void write(ArrayList<byte[]> lines) throws Exception {
+		Path log = getLog();
+		boolean created = !Files.exists(log);
+		try (FileChannel channel = FileChannel.open(log, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.APPEND)){
+			for (byte[] line : lines){
+				ByteBuffer buffer = ByteBuffer.wrap(line);
+				while (buffer.hasRemaining()){
+					channel.write(buffer);
+
+				}
+			}
+			channel.force(true);
+
+		}
+		if (created){
+			syncDirectory(log.getParent());
+
+		}
+	}
+
+	/**
+	 * Called once records are in the log and in the schema, so that a
+	 * compaction includes them.
+	 */
+	private void written() throws Exception {
+		updateLists();
+		if (Files.size(getLog()) > Math.max(COMPACT_MIN_BYTES, Files.size(getFile()))){
+			compact();
+
+		}
+	}
+
+	private int replay(IdContainerSchema schema, Path log) throws Exception {
+		int records = 0;
+		try (BufferedReader reader = Files.newBufferedReader(log, StandardCharsets.UTF_8)){
+			String line;
+			while ((line = reader.readLine())!=null){
+				if (line.isEmpty()){
+					continue;
+
+				}
+				JsonObject record;
+				try {
+					record = JaxbHelper.gson.fromJson(line, JsonObject.class);
+
+				} catch (Exception e) {
+					logger.warning("Discarding torn record in " + log);
+					break;
+
+				}
+				if (record==null || !record.has(LOCATION) || !record.has(NAME)){
+					logger.warning("Discarding torn record in " + log);
+					break;
+
+				}
+				// the schema is not assigned until init() returns
+				HashMap<String, String> map = computeLocation(schema, URI.create(record.get(LOCATION).getAsString()));
+				String name = record.get(NAME).getAsString();
+				if (record.has(VALUE) && !record.get(VALUE).isJsonNull()){
+					map.put(name, record.get(VALUE).getAsString());
+
+				} else {
+					map.remove(name);
+
+				}
+				records++;
+
+			}
+		}
+		return records;
+
+	}
+
+	private void writeSnapshot(IdContainerSchema schema) throws Exception {
+		Path file = getFile();
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		byte[] json = JaxbHelper.serializeToJson(schema, IdContainerSchema.class)
+				.getBytes(StandardCharsets.UTF_8);
+
+		try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+			ByteBuffer buffer = ByteBuffer.wrap(json);
+			while (buffer.hasRemaining()){
+				channel.write(buffer);
+
+			}
+			channel.force(true);
+
+		}
+		Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		syncDirectory(file.getParent());
+
+	}
+
+	/**
+	 * Makes a rename or a new file durable.  Not every platform can open a
+	 * directory, in which case the rename is left to the file system.
+	 */
+	private static void syncDirectory(Path dir) {
+		try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)){
+			channel.force(true);
+
+		} catch (IOException e) {
+			// not supported on this platform
+
+		}
+	}
+}
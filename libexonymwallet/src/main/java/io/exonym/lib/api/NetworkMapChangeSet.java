@@ -0,0 +1,115 @@
+package io.exonym.lib.api;
+
+import io.exonym.lib.pojo.NetworkMapItemLead;
+import io.exonym.lib.pojo.NetworkMapItemModerator;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The difference between the stored network map and the leads that were
+ * fetched by AbstractNetworkMap.refresh(int).
+ *
+ * Leads and moderators to be written replace any stored item with the same
+ * UID.  Removing a lead also lists its moderators as removed.  Leads that could
+ * not be verified are reported as failures and their stored items are kept.
+ */
+public class NetworkMapChangeSet {
+
+    private final LinkedHashMap<URI, NetworkMapItemLead> leads = new LinkedHashMap<>();
+    private final LinkedHashMap<URI, NetworkMapItemModerator> moderators = new LinkedHashMap<>();
+    private final LinkedHashSet<URI> removedLeads = new LinkedHashSet<>();
+    private final LinkedHashSet<URI> removedModerators = new LinkedHashSet<>();
+    private final LinkedHashMap<URI, Exception> failures = new LinkedHashMap<>();
+    private int unchanged = 0;
+    private long duration = 0;
+
+    protected void putLead(NetworkMapItemLead nmis) {
+        this.leads.put(nmis.getLeadUID(), nmis);
+
+    }
+
+    protected void putModerator(NetworkMapItemModerator nmia) {
+        this.moderators.put(nmia.getNodeUID(), nmia);
+
+    }
+
+    protected void removeLead(URI leadUid, Collection<URI> moderatorsForLead) {
+        this.removedLeads.add(leadUid);
+        if (moderatorsForLead!=null){
+            this.removedModerators.addAll(moderatorsForLead);
+
+        }
+    }
+
+    protected void removeModerator(URI modUid) {
+        this.removedModerators.add(modUid);
+
+    }
+
+    protected void failed(URI leadUid, Exception e) {
+        this.failures.put(leadUid, e);
+
+    }
+
+    protected void unchanged() {
+        this.unchanged++;
+
+    }
+
+    protected void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    public Map<URI, NetworkMapItemLead> getLeads() {
+        return Collections.unmodifiableMap(leads);
+    }
+
+    public Map<URI, NetworkMapItemModerator> getModerators() {
+        return Collections.unmodifiableMap(moderators);
+    }
+
+    public Set<URI> getRemovedLeads() {
+        return Collections.unmodifiableSet(removedLeads);
+    }
+
+    public Set<URI> getRemovedModerators() {
+        return Collections.unmodifiableSet(removedModerators);
+    }
+
+    public Map<URI, Exception> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return true if there is nothing to write or remove.
+     */
+    public boolean isEmpty() {
+        return leads.isEmpty() && moderators.isEmpty()
+                && removedLeads.isEmpty() && removedModerators.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "leads=" + leads.keySet()
+                + " moderators=" + moderators.size()
+                + " removedLeads=" + removedLeads
+                + " removedModerators=" + removedModerators.size()
+                + " unchanged=" + unchanged
+                + " failed=" + failures.keySet()
+                + " duration=" + duration + "ms";
+    }
+}
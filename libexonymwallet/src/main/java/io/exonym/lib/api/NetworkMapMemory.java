@@ -15,6 +15,7 @@ import java.net.URI;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
@@ -25,26 +26,54 @@ public class NetworkMapMemory extends AbstractNetworkMap {
     
     private final static Logger logger = Logger.getLogger(NetworkMapMemory.class.getName());
     
-    private final HashSet<String> rulebookIds = new HashSet<>();
-    private final ConcurrentHashMap<URI, NetworkMapItemLead> leadMap = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<URI, NetworkMapItemModerator> modMap = new ConcurrentHashMap<>();
+    // replaced as a whole by applyChanges()
+    private volatile Items items = new Items();
 
     private NetworkMapMemory() throws Exception {
         this.spawn();
     }
 
     @Override
-    protected void writeVerifiedLead(URI leadUid, NetworkMapItemLead nmis,
+    protected synchronized void writeVerifiedLead(URI leadUid, NetworkMapItemLead nmis,
                                      ArrayList<NetworkMapItemModerator> modForLead) throws Exception {
+        Items items = this.items;
         URI rulebookId = UIDHelper.computeRulebookIdFromLeadUid(leadUid);
-        rulebookIds.add(rulebookId.toString());
-        leadMap.put(nmis.getLeadUID(), nmis);
+        items.rulebookIds.add(rulebookId.toString());
+        items.leadMap.put(nmis.getLeadUID(), nmis);
         for (NetworkMapItemModerator nmia : modForLead){
-            modMap.put(nmia.getNodeUID(), nmia);
+            items.modMap.put(nmia.getNodeUID(), nmia);
 
         }
     }
 
+    @Override
+    protected List<NetworkMapItemLead> listLeads() {
+        return new ArrayList<>(items.leadMap.values());
+
+    }
+
+    @Override
+    protected synchronized void applyChanges(NetworkMapChangeSet changes) {
+        Items next = new Items(this.items);
+        for (URI lead : changes.getRemovedLeads()){
+            next.leadMap.remove(lead);
+
+        }
+        for (URI mod : changes.getRemovedModerators()){
+            next.modMap.remove(mod);
+
+        }
+        next.modMap.putAll(changes.getModerators());
+        next.leadMap.putAll(changes.getLeads());
+        next.rulebookIds.clear();
+        for (URI lead : next.leadMap.keySet()){
+            next.rulebookIds.add(UIDHelper.computeRulebookIdFromLeadUid(lead).toString());
+
+        }
+        this.items = next;
+
+    }
+
     @Override
     public NetworkMapItemLead nmiForSybilLead() throws Exception {
         return super.nmiForSybilLead();
@@ -64,7 +93,7 @@ public class NetworkMapMemory extends AbstractNetworkMap {
     public NetworkMapItem nmiForNode(URI uid) throws Exception {
         logger.info("Searching for: " + uid);
         if (WhiteList.isModeratorUid(uid)){
-            NetworkMapItem item = modMap.get(uid);
+            NetworkMapItem item = items.modMap.get(uid);
             if (item==null){
                 throw new HubException(ErrorMessages.MODERATOR_NOT_FOUND_ON_NETWORK_MAP + ":" + uid);
 
@@ -73,7 +102,7 @@ public class NetworkMapMemory extends AbstractNetworkMap {
 
             }
         } else if (WhiteList.isLeadUid(uid)){
-            NetworkMapItem item = leadMap.get(uid);
+            NetworkMapItem item = items.leadMap.get(uid);
             if (item==null){
                 throw new HubException(ErrorMessages.MODERATOR_NOT_FOUND_ON_NETWORK_MAP + ":" + uid);
 
@@ -131,4 +160,25 @@ public class NetworkMapMemory extends AbstractNetworkMap {
         return instance;
     }
 
+    private static class Items {
+
+        private final HashSet<String> rulebookIds;
+        private final ConcurrentHashMap<URI, NetworkMapItemLead> leadMap;
+        private final ConcurrentHashMap<URI, NetworkMapItemModerator> modMap;
+
+        private Items() {
+            this.rulebookIds = new HashSet<>();
+            this.leadMap = new ConcurrentHashMap<>();
+            this.modMap = new ConcurrentHashMap<>();
+
+        }
+
+        private Items(Items current) {
+            this.rulebookIds = new HashSet<>(current.rulebookIds);
+            this.leadMap = new ConcurrentHashMap<>(current.leadMap);
+            this.modMap = new ConcurrentHashMap<>(current.modMap);
+
+        }
+    }
+
 }
@@ -0,0 +1,72 @@
+package io.exonym.lib.api;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The outcome of AbstractNetworkMap.spawn(int): the leads that were written and
+ * the leads that could not be fetched, verified or written, with the reason.
+ */
+public class NetworkMapSpawnReport {
+
+    private final int leads;
+    private int spawned = 0;
+    private int moderators = 0;
+    private final LinkedHashMap<URI, Exception> failures = new LinkedHashMap<>();
+    private long duration = 0;
+
+    protected NetworkMapSpawnReport(int leads) {
+        this.leads = leads;
+
+    }
+
+    protected void spawned(int moderatorsForLead) {
+        this.spawned++;
+        this.moderators += moderatorsForLead;
+
+    }
+
+    protected void failed(URI leadUid, Exception e) {
+        this.failures.put(leadUid, e);
+
+    }
+
+    protected void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    public int getLeads() {
+        return leads;
+    }
+
+    public int getSpawned() {
+        return spawned;
+    }
+
+    public int getModerators() {
+        return moderators;
+    }
+
+    public Map<URI, Exception> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public boolean isComplete() {
+        return failures.isEmpty() && spawned==leads;
+    }
+
+    @Override
+    public String toString() {
+        return "leads=" + leads
+                + " spawned=" + spawned
+                + " moderators=" + moderators
+                + " failed=" + failures.keySet()
+                + " duration=" + duration + "ms";
+    }
+}
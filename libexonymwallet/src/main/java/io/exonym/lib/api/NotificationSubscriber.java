@@ -132,6 +132,8 @@ public class NotificationSubscriber {
                 String type = notify.getType();
                 if (type!=null) {
                     if (type.equals(ExoNotify.TYPE_MOD) || type.equals(ExoNotify.TYPE_LEAD)) {
+                        // the node has published new materials
+                        NodeVerifier.invalidate(notify.getNodeUid());
                         AsymStoreKey key = keys.getKey(notify.getNodeUid());
                         if (type.equals(ExoNotify.TYPE_MOD)) {
                             updateRai(notify, key);
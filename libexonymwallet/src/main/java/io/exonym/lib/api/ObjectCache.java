@@ -0,0 +1,214 @@
+package io.exonym.lib.api;
+
+import eu.abc4trust.xml.*;
+import io.exonym.lib.abc.util.JaxbHelper;
+import io.exonym.lib.pojo.Rulebook;
+import io.exonym.lib.standard.WhiteList;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Holds the objects that a CacheContainer has already deserialized and
+ * validated, keyed by file name, so that opening the same material again is a
+ * lookup rather than a parse.
+ *
+ * The least recently used object is dropped when there are more than
+ * maxObjects.  Objects are shared between callers and must not be modified,
+ * except for rulebooks, which callers trim before showing them: a rulebook is
+ * copied when it is put and when it is got, so that a change made by one
+ * caller is not seen by the next.
+ */
+public class ObjectCache {
+
+    private final static Logger logger = Logger.getLogger(ObjectCache.class.getName());
+
+    public static final int DEFAULT_MAX_OBJECTS = 1024;
+
+    private final int maxObjects;
+    private final LinkedHashMap<String, Object> objects;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ObjectCache() {
+        this(DEFAULT_MAX_OBJECTS);
+
+    }
+
+    public ObjectCache(int maxObjects) {
+        if (maxObjects < 1){
+            throw new IllegalArgumentException("maxObjects must be positive " + maxObjects);
+
+        }
+        this.maxObjects = maxObjects;
+        this.objects = new LinkedHashMap<String, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                if (size() > ObjectCache.this.maxObjects){
+                    evictions.incrementAndGet();
+                    return true;
+
+                }
+                return false;
+
+            }
+        };
+    }
+
+    /**
+     * @return the object or null if it is not held.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String fileName) {
+        Object o;
+        synchronized (this){
+            o = objects.get(fileName);
+
+        }
+        Object result = (o==null ? null : copyIfChanged(o));
+        if (result!=null){
+            hits.incrementAndGet();
+
+        } else {
+            misses.incrementAndGet();
+
+        }
+        return (T) result;
+
+    }
+
+    public void put(String fileName, Object material) {
+        if (fileName!=null && material!=null){
+            Object copy = copyIfChanged(material);
+            if (copy!=null){
+                synchronized (this){
+                    objects.put(fileName, copy);
+
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a copy of the types that callers change, through the JSON form
+     * they are kept in, and the object itself otherwise; null if the copy
+     * fails, so that the object is read again rather than shared.
+     */
+    private static Object copyIfChanged(Object o) {
+        if (o instanceof Rulebook){
+            try {
+                return JaxbHelper.jsonToClass(JaxbHelper.serializeToJson(o, Rulebook.class), Rulebook.class);
+
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Could not copy rulebook " + ((Rulebook) o).getRulebookId(), e);
+                return null;
+
+            }
+        }
+        return o;
+
+    }
+
+    public synchronized void invalidate(String fileName) {
+        objects.remove(fileName);
+
+    }
+
+    /**
+     * Drops the object that material replaces.  If the file name of the
+     * material cannot be determined, every object is dropped.
+     */
+    public void invalidate(Object material) throws Exception {
+        String fileName = fileNameOf(material);
+        if (fileName!=null){
+            invalidate(fileName);
+
+        } else {
+            logger.fine("Clearing objects for " + material);
+            clear();
+
+        }
+    }
+
+    public synchronized void clear() {
+        objects.clear();
+
+    }
+
+    public synchronized int size() {
+        return objects.size();
+
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * @return the file name that AbstractIdContainer.openResource(URI) opens.
+     */
+    public static String fileNameOf(URI uid) throws Exception {
+        if (WhiteList.isRulebookUid(uid)){
+            return AbstractIdContainer.uidToFileName(uid) + ".json";
+
+        } else {
+            return AbstractIdContainer.uidToXmlFileName(uid);
+
+        }
+    }
+
+    /**
+     * @return the file name that AbstractIdContainer.saveLocalResource() writes
+     * material to, or null for types that are not kept in a cache.
+     */
+    public static String fileNameOf(Object material) throws Exception {
+        if (material instanceof IssuerParameters){
+            return AbstractIdContainer.uidToXmlFileName(((IssuerParameters) material).getParametersUID());
+
+        } else if (material instanceof InspectorPublicKey){
+            return AbstractIdContainer.uidToXmlFileName(((InspectorPublicKey) material).getPublicKeyUID());
+
+        } else if (material instanceof RevocationAuthorityParameters){
+            return AbstractIdContainer.uidToXmlFileName(((RevocationAuthorityParameters) material).getParametersUID());
+
+        } else if (material instanceof RevocationInformation){
+            return AbstractIdContainer.uidToFileName(
+                    ((RevocationInformation) material).getRevocationAuthorityParametersUID()) + "i.xml";
+
+        } else if (material instanceof CredentialSpecification){
+            return AbstractIdContainer.uidToXmlFileName(((CredentialSpecification) material).getSpecificationUID());
+
+        } else if (material instanceof PresentationPolicy){
+            return AbstractIdContainer.uidToXmlFileName(((PresentationPolicy) material).getPolicyUID());
+
+        } else if (material instanceof Rulebook){
+            return AbstractIdContainer.uidToFileName(((Rulebook) material).getRulebookId()) + ".json";
+
+        } else {
+            return null;
+
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "objects=" + size()
+                + " hits=" + hits.get()
+                + " misses=" + misses.get()
+                + " evictions=" + evictions.get();
+    }
+}
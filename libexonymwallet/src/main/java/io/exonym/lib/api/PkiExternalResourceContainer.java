@@ -15,11 +15,21 @@ import java.net.URI;
 import java.net.URL;
 import java.util.logging.Logger;
 
+/**
+ * Opens the public materials of the trust network from the cache, or from
+ * the node that publishes them.
+ *
+ * A node is opened and verified by one caller at a time; concurrent callers
+ * for materials of the same node wait for that verification, while other
+ * nodes are verified in parallel.  A node that fails is not asked again until
+ * its backoff has passed.
+ */
 public final class PkiExternalResourceContainer extends ExternalResourceContainer {
 	private final static Logger logger = Logger.getLogger(PkiExternalResourceContainer.class.getName());
 	private static PkiExternalResourceContainer instance = null;
-	private CacheContainer cache = null;
-	private AbstractNetworkMap networkMap;
+	private volatile CacheContainer cache = null;
+	private volatile AbstractNetworkMap networkMap;
+	private final SingleFlight nodes = new SingleFlight();
 
 	static {
 		if (instance==null){
@@ -39,11 +49,11 @@ public final class PkiExternalResourceContainer extends ExternalResourceContaine
 
 	}
 
-	public synchronized <T> T openResource(String fileName) throws Exception {
+	public <T> T openResource(String fileName) throws Exception {
 		return openResource(fileName, false);
 	}
 
-	public synchronized <T> T openResource(String fileName, boolean overrideCache) throws Exception {
+	public <T> T openResource(String fileName, boolean overrideCache) throws Exception {
 		if (fileName == null) {
 			throw new NullPointerException("File Name");
 
@@ -85,27 +95,34 @@ public final class PkiExternalResourceContainer extends ExternalResourceContaine
 
 	private <T> T verifySource(String fileName) throws Exception {
 		if (FileType.isCredentialSpecification(fileName)){
-			if (Rulebook.isSybilMain(fileName)){
-				RulebookVerifier verifier = new RulebookVerifier(new URL(Rulebook.SYBIL_URL_MAIN));
-				return (T) BuildCredentialSpecification.buildSybilCredentialSpecification(verifier);
-
-			} else if (Rulebook.isSybilTest(fileName)){
-				RulebookVerifier verifier = new RulebookVerifier(new URL(Rulebook.SYBIL_URL_TEST));
-				return (T) BuildCredentialSpecification.buildSybilCredentialSpecification(verifier);
-
-			} else {
-				return (T) new BuildCredentialSpecification(
-						UIDHelper.fileNameToUid(fileName), true)
-						.getCredentialSpecification();
-			}
+			return (T) nodes.load(fileName, () -> {
+				if (Rulebook.isSybilMain(fileName)){
+					RulebookVerifier verifier = new RulebookVerifier(new URL(Rulebook.SYBIL_URL_MAIN));
+					return BuildCredentialSpecification.buildSybilCredentialSpecification(verifier);
+
+				} else if (Rulebook.isSybilTest(fileName)){
+					RulebookVerifier verifier = new RulebookVerifier(new URL(Rulebook.SYBIL_URL_TEST));
+					return BuildCredentialSpecification.buildSybilCredentialSpecification(verifier);
+
+				} else {
+					return new BuildCredentialSpecification(
+							UIDHelper.fileNameToUid(fileName), true)
+							.getCredentialSpecification();
+				}
+			});
 		} else {
 			URI sourceUID = UIDHelper.computeLeadUidFromModUid(UIDHelper.fileNameToUid(fileName));
-			NetworkMapItem nmi = getNetworkMap().nmiForNode(sourceUID);
-			NodeVerifier sourceVerifier = NodeVerifier.openNode(nmi.getStaticURL0(), true, false);
-			CacheContainer cache = this.getCache();
-			cache.store(sourceVerifier.getPresentationPolicy());
-			cache.store(sourceVerifier.getCredentialSpecification());
-			cache.store(sourceVerifier.getRulebook());
+			NodeVerifier sourceVerifier = nodes.load(sourceUID.toString(), () -> {
+				NetworkMapItem nmi = getNetworkMap().nmiForNode(sourceUID);
+				NodeVerifier verifier = NodeVerifier.openNode(nmi.getStaticURL0(), true, false,
+						getNetworkMap().getFetcher());
+				CacheContainer cache = this.getCache();
+				cache.store(verifier.getPresentationPolicy());
+				cache.store(verifier.getCredentialSpecification());
+				cache.store(verifier.getRulebook());
+				return verifier;
+
+			});
 			if (FileType.isPresentationPolicy(fileName)) {
 				return (T) sourceVerifier.getPresentationPolicy();
 			} else if (FileType.isRulebook(fileName)){
@@ -136,18 +153,23 @@ public final class PkiExternalResourceContainer extends ExternalResourceContaine
 	private <T> T verifyAdvocate(String fileName) throws Exception {
 		URI searchingFor = UIDHelper.fileNameToUid(fileName);
 		URI advocateUID = UIDHelper.computeModUidFromMaterialUID(searchingFor);
-		NetworkMapItem nmi = getNetworkMap().nmiForNode(advocateUID);
-		NodeVerifier advocateVerifier = NodeVerifier.openNode(nmi.getStaticURL0(), false, false);
-
-		CacheContainer cache = this.getCache();
-		TrustNetworkWrapper tnw = new TrustNetworkWrapper(advocateVerifier.getTargetTrustNetwork());
-		URI issuerUID = tnw.getMostRecentIssuerParameters();
-		UIDHelper helper = new UIDHelper(issuerUID);
-		cache.store(advocateVerifier.getIssuerParameters(helper.getIssuerParametersFileName()));
-		cache.store(advocateVerifier.getInspectorPublicKey());
-		cache.store(advocateVerifier.getRevocationAuthorityParameters(helper.getRevocationAuthorityFileName()));
-		cache.store(advocateVerifier.getRevocationInformation(helper.getRevocationInformationFileName()));
-		return cache.open(fileName);
+		nodes.load(advocateUID.toString(), () -> {
+			NetworkMapItem nmi = getNetworkMap().nmiForNode(advocateUID);
+			NodeVerifier advocateVerifier = NodeVerifier.openNode(nmi.getStaticURL0(), false, false,
+					getNetworkMap().getFetcher());
+
+			CacheContainer cache = this.getCache();
+			TrustNetworkWrapper tnw = new TrustNetworkWrapper(advocateVerifier.getTargetTrustNetwork());
+			URI issuerUID = tnw.getMostRecentIssuerParameters();
+			UIDHelper helper = new UIDHelper(issuerUID);
+			cache.store(advocateVerifier.getIssuerParameters(helper.getIssuerParametersFileName()));
+			cache.store(advocateVerifier.getInspectorPublicKey());
+			cache.store(advocateVerifier.getRevocationAuthorityParameters(helper.getRevocationAuthorityFileName()));
+			cache.store(advocateVerifier.getRevocationInformation(helper.getRevocationInformationFileName()));
+			return advocateVerifier;
+
+		});
+		return this.getCache().open(fileName);
 
 	}
 
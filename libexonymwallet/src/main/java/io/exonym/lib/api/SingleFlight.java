@@ -0,0 +1,132 @@
+package io.exonym.lib.api;
+
+import io.exonym.lib.exceptions.ErrorMessages;
+import io.exonym.lib.exceptions.UxException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Logger;
+
+/**
+ * Loads by key so that concurrent callers asking for the same key share one
+ * load, while loads for different keys run at the same time.
+ *
+ * A key whose load failed is not loaded again until its backoff has passed;
+ * callers during the backoff fail with NODE_BACKING_OFF.  The backoff doubles
+ * with each consecutive failure up to the maximum and is cleared by a
+ * successful load.
+ */
+public final class SingleFlight {
+	private final static Logger logger = Logger.getLogger(SingleFlight.class.getName());
+
+	public static final long DEFAULT_BACKOFF_MS = 5 * 1000;
+	public static final long DEFAULT_MAX_BACKOFF_MS = 5 * 60 * 1000;
+
+	public interface Load<T> {
+		T load() throws Exception;
+	}
+
+	private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, Failure> failures = new ConcurrentHashMap<>();
+	private final long backoffMs;
+	private final long maxBackoffMs;
+
+	public SingleFlight() {
+		this(DEFAULT_BACKOFF_MS, DEFAULT_MAX_BACKOFF_MS);
+
+	}
+
+	public SingleFlight(long backoffMs, long maxBackoffMs) {
+		this.backoffMs = backoffMs;
+		this.maxBackoffMs = maxBackoffMs;
+
+	}
+
+	/**
+	 * Runs the load, or waits for the load of the same key that is already
+	 * running and returns its result.
+	 *
+	 * @throws UxException NODE_BACKING_OFF if the key failed recently.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T load(String key, Load<T> load) throws Exception {
+		Failure failure = failures.get(key);
+		if (failure!=null && failure.until > System.currentTimeMillis()){
+			throw new UxException(ErrorMessages.NODE_BACKING_OFF, failure.cause, key);
+
+		}
+		CompletableFuture<Object> mine = new CompletableFuture<>();
+		CompletableFuture<Object> flight = inFlight.putIfAbsent(key, mine);
+		if (flight==null){
+			try {
+				T t = load.load();
+				failures.remove(key);
+				mine.complete(t);
+				return t;
+
+			} catch (Exception e) {
+				failed(key, e);
+				mine.completeExceptionally(e);
+				throw e;
+
+			} catch (Throwable e) {
+				mine.completeExceptionally(e);
+				throw e;
+
+			} finally {
+				inFlight.remove(key, mine);
+
+			}
+		}
+		try {
+			return (T) flight.get();
+
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception){
+				throw (Exception) cause;
+
+			}
+			throw e;
+
+		}
+	}
+
+	public boolean isBackingOff(String key) {
+		Failure failure = failures.get(key);
+		return failure!=null && failure.until > System.currentTimeMillis();
+
+	}
+
+	public void clear() {
+		failures.clear();
+
+	}
+
+	private void failed(String key, Exception cause) {
+		Failure failure = failures.compute(key, (k, previous) -> {
+			int count = previous==null ? 1 : previous.count + 1;
+			long backoff = Math.min(maxBackoffMs, backoffMs << Math.min(count - 1, 20));
+			return new Failure(count, System.currentTimeMillis() + backoff, cause);
+
+		});
+		logger.info("Failed to load " + key + " (" + failure.count
+				+ " in a row); backing off until " + failure.until);
+
+	}
+
+	private static class Failure {
+
+		private final int count;
+		private final long until;
+		private final Exception cause;
+
+		private Failure(int count, long until, Exception cause) {
+			this.count = count;
+			this.until = until;
+			this.cause = cause;
+
+		}
+	}
+}
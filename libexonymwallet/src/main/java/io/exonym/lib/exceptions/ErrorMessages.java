@@ -407,4 +407,16 @@ public class ErrorMessages {
      */
     public static final String SCREEN_NAME_IN_USE = "SCREEN_NAME_IN_USE";
 
+    /**
+     * The wallet session handle is unknown, closed, or was evicted after
+     * being idle or to keep within the memory cap.  Open a new session.
+     */
+    public static final String SESSION_NOT_FOUND = "SESSION_NOT_FOUND";
+
+    /**
+     * The node failed to load or verify a short time ago and is not asked
+     * again until its backoff has passed.
+     */
+    public static final String NODE_BACKING_OFF = "NODE_BACKING_OFF";
+
 }
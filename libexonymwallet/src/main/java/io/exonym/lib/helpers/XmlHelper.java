@@ -6,9 +6,11 @@ import io.exonym.lib.abc.util.FileType;
 import io.exonym.lib.abc.util.JaxbHelper;
 import io.exonym.lib.exceptions.HubException;
 import io.exonym.lib.exceptions.UxException;
+import io.exonym.lib.lite.MaterialFetcher;
 import io.exonym.lib.pojo.*;
 import io.exonym.lib.standard.Const;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 
@@ -16,11 +18,13 @@ import javax.xml.bind.JAXBElement;
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.logging.Logger;
 
 public class XmlHelper {
@@ -148,8 +152,18 @@ public class XmlHelper {
 	}
 
 
-	// TODO Tidy up
 	public static ConcurrentHashMap<String, byte[]> openXmlBytesAtUrl(URI nodeUrl) throws Exception {
+		return openXmlBytesAtUrl(nodeUrl, MaterialFetcher.getInstance());
+
+	}
+
+	/**
+	 * The description and the signatures are fetched together, then every
+	 * signed file at once.  If a signed file cannot be read, the node's
+	 * transfer.xml is taken in its place and no further files are read.
+	 */
+	// TODO Tidy up
+	public static ConcurrentHashMap<String, byte[]> openXmlBytesAtUrl(URI nodeUrl, MaterialFetcher fetcher) throws Exception {
 		String root = nodeUrl.toString();
 		String descUrl = null;
 		String filename = "/rulebook.json";
@@ -166,15 +180,23 @@ public class XmlHelper {
 				descUrl = root.replaceAll("/" + Const.MODERATOR, filename);
 			}
 		}
-		byte[] desc = UrlHelper.read(new URL(descUrl));
-
 		URL url = new URL(root + "/" + Const.SIGNATURES_XML);
+		CompletableFuture<byte[]> descFetch = fetcher.fetch(new URL(descUrl));
+		CompletableFuture<byte[]> signaturesFetch = fetcher.fetch(url);
+		byte[] desc;
+		try {
+			desc = MaterialFetcher.await(descFetch);
 
+		} catch (Exception e) {
+			signaturesFetch.cancel(true);
+			throw e;
+
+		}
 		ConcurrentHashMap<String, byte[]> result = new ConcurrentHashMap<>();
 		result.put("description", desc);
 		KeyContainerWrapper kcPublic = null;
 		try {
-			byte[] signaturesXml = UrlHelper.read(url);
+			byte[] signaturesXml = MaterialFetcher.await(signaturesFetch);
 			String xmlString = new String(signaturesXml, StandardCharsets.UTF_8);
 			kcPublic = new KeyContainerWrapper(JaxbHelper.xmlToClass(xmlString, KeyContainer.class));
 			result.put("signatures.xml", xmlString.getBytes(StandardCharsets.UTF_8));
@@ -192,36 +214,42 @@ public class XmlHelper {
 				urlToFileName.put(new URL(root + "/" + fileName), fileName);
 			}
 		}
-
-		for (URL xmlUrl : urlToFileName.keySet()) {
-			byte[] content;
-			boolean isTransfer = false;
-			try {
-				content = UrlHelper.read(xmlUrl);
-			} catch (Exception e) {
-				content = fileDidNotExist(nodeUrl, xmlUrl, urlToFileName);
-				isTransfer = true;
-			}
-			if (UrlHelper.isXml(content)) {
-				result.put(urlToFileName.get(xmlUrl), content);
-				if (isTransfer) {
-					break;
+		LinkedHashMap<URL, CompletableFuture<byte[]>> fetches = fetcher.fetchAll(urlToFileName.keySet());
+		try {
+			for (URL xmlUrl : fetches.keySet()) {
+				byte[] content;
+				boolean isTransfer = false;
+				try {
+					content = MaterialFetcher.await(fetches.get(xmlUrl));
+				} catch (IOException e) {
+					content = fileDidNotExist(nodeUrl, xmlUrl, urlToFileName, fetcher);
+					isTransfer = true;
+				}
+				if (UrlHelper.isXml(content)) {
+					result.put(urlToFileName.get(xmlUrl), content);
+					if (isTransfer) {
+						break;
+					}
+				} else {
+					throw new SecurityException("The file " + urlToFileName.get(xmlUrl) + " was malformed");
 				}
-			} else {
-				throw new SecurityException("The file " + urlToFileName.get(xmlUrl) + " was malformed");
 			}
+		} finally {
+			MaterialFetcher.cancelAll(fetches.values());
+
 		}
 		return result;
 	}
 
 	
 	
-	private static byte[] fileDidNotExist(URI sourceUrl, URL xmlUrl, HashMap<URL, String> urlToFileName) throws MalformedURLException {
+	private static byte[] fileDidNotExist(URI sourceUrl, URL xmlUrl, HashMap<URL, String> urlToFileName,
+										  MaterialFetcher fetcher) throws MalformedURLException, InterruptedException {
 		URL transferUrl = new URL(sourceUrl.toString() + "/transfer.xml");
 		try {
-			return UrlHelper.read(transferUrl);
+			return MaterialFetcher.await(fetcher.fetch(transferUrl));
 			
-		} catch (Exception e) {
+		} catch (IOException e) {
 			throw new SecurityException("The file " + urlToFileName.get(xmlUrl) + " was deleted without authorization - Node Invalid");
 			
 		}
@@ -36,8 +36,15 @@ public abstract class AbstractExonymInspector extends AbstractBaseActor {
 		    											URI.create("idemix"), uid, friendlyDescription);
 		    InspectorPublicKey pk = keyPair.publicKey;
 		    SecretKey sk = keyPair.secretKey;
-		    container.saveLocalResource(pk);
-		    container.saveLocalResource(sk, store.getEncrypt());
+		    container.begin();
+		    try {
+		    	container.saveLocalResource(pk);
+		    	container.saveLocalResource(sk, store.getEncrypt());
+
+		    } finally {
+		    	container.commit();
+
+		    }
 		    
 		} catch (Exception e) {
 			logger.throwing("AbstractExonymInspector.class", "generateInspectorMaterials()", e);
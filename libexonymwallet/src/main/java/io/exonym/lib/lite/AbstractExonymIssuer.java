@@ -271,7 +271,14 @@ public abstract class AbstractExonymIssuer extends AbstractBaseActor {
 				logger.fine("" + att.getAttributeUID());
 
 			}
-			organizeLocalData(im.getContext(), itap, attList, enc);
+			container.begin();
+			try {
+				organizeLocalData(im.getContext(), itap, attList, enc);
+
+			} finally {
+				container.commit();
+
+			}
 			return result;
 			
 		} else {
@@ -419,21 +426,27 @@ public abstract class AbstractExonymIssuer extends AbstractBaseActor {
 					.setSameKeyBindingAs(URI.create("nym"));
 				
 			}
-			container.saveLocalResource(ipsk.issuerParameters);
-			container.saveLocalResource(ipsk.issuerSecretKey, enc);
-			
+			container.begin();
 			try {
-				container.saveLocalResource(bip.getIssuancePolicy());
+				container.saveLocalResource(ipsk.issuerParameters);
+				container.saveLocalResource(ipsk.issuerSecretKey, enc);
 				
-			} catch (Exception e) {
-				logger.fine("File already existed " + e.getMessage());
+				try {
+					container.saveLocalResource(bip.getIssuancePolicy());
+					
+				} catch (Exception e) {
+					logger.fine("File already existed " + e.getMessage());
 
-			}
-			try {
-				container.saveLocalResource(spec);
-				
-			} catch (Exception e) {
-				logger.fine("File already existed " + e.getMessage());
+				}
+				try {
+					container.saveLocalResource(spec);
+					
+				} catch (Exception e) {
+					logger.fine("File already existed " + e.getMessage());
+
+				}
+			} finally {
+				container.commit();
 
 			}
 		} catch (Exception e) {
@@ -502,9 +515,16 @@ public abstract class AbstractExonymIssuer extends AbstractBaseActor {
 			cal.add(2, 6);
 			ri.setExpires(cal);
 	        
-	        container.saveLocalResource(rap);
-	        container.saveLocalResource(key, enc);
-	        container.saveLocalResource(ri);
+	        container.begin();
+	        try {
+	        	container.saveLocalResource(rap);
+	        	container.saveLocalResource(key, enc);
+	        	container.saveLocalResource(ri);
+
+	        } finally {
+	        	container.commit();
+
+	        }
 	        return rap.getParametersUID();
 	        
 	    } catch (Exception e){
@@ -535,6 +555,40 @@ public abstract class AbstractExonymIssuer extends AbstractBaseActor {
 		
 	}
 
+	/**
+	 * Revoke a set of issued credentials with a single accumulator update.
+	 * 
+	 * All handles are removed in one epoch, so holders of the remaining
+	 * credentials update their witnesses once.  Handles that have already
+	 * been revoked are skipped.
+	 * 
+	 * @param raUid
+	 * @param handles
+	 * @return the latest revocation information, or null if every handle 
+	 * had already been revoked
+	 * @throws Exception
+	 */
+	protected RevocationInformation revokeCredentials(URI raUid, Collection<BigInteger> handles, Cipher dec) throws Exception{
+		BigIntFactoryImpl bif = new BigIntFactoryImpl();
+		ArrayList<BigInt> handles0 = new ArrayList<>(handles.size());
+		for (BigInteger handle : handles){
+			handles0.add(bif.valueOf(handle));
+			
+		}
+		URI revocationInfo = this.cryptoEngineRaIdmx.revokeBatch(raUid, handles0);
+		if (revocationInfo==null){
+			logger.info("All " + handles.size() + " handles had already been revoked");
+			return null;
+			
+		}
+		RevocationInformation ri = this.keyManager.getRevocationInformation(raUid, revocationInfo);
+		container.saveLocalResource(ri, true);
+
+		logger.info("" + revocationInfo + " (" + handles.size() + " handles)");
+		return ri;
+		
+	}
+
 
 	
 	/**
@@ -111,6 +111,10 @@ public class Http {
         }
     }
 
+    OkHttpClient getClient() {
+        return client;
+    }
+
     public void newContext() {
         // Replace the current client with a new one that has a fresh CookieJar
         OkHttpClient.Builder builder = client.newBuilder();
@@ -0,0 +1,168 @@
+package io.exonym.lib.lite;
+
+import io.exonym.lib.standard.CryptoUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.*;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Bodies fetched from the trust network, kept on disk with the ETag and
+ * Last-Modified they were served with, so that {@link MaterialFetcher} can
+ * revalidate them with a conditional GET and serve a 304 from local bytes.
+ *
+ * Responses without either validator are not kept.  An entry whose body no
+ * longer matches the hash recorded beside it is ignored.
+ *
+ * One instance is shared per directory.
+ */
+public class HttpCache {
+
+    private static final Logger logger = Logger.getLogger(HttpCache.class.getName());
+
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "last-modified";
+    private static final String SHA256 = "sha256";
+    private static final String URL = "url";
+
+    private static final ConcurrentHashMap<Path, HttpCache> open = new ConcurrentHashMap<>();
+
+    public static HttpCache open(Path dir) throws IOException {
+        Path key = dir.toAbsolutePath().normalize();
+        HttpCache cache = open.get(key);
+        if (cache==null){
+            HttpCache created = new HttpCache(key);
+            cache = open.putIfAbsent(key, created);
+            if (cache==null){
+                cache = created;
+
+            }
+        }
+        return cache;
+
+    }
+
+    public static class Entry {
+
+        private final String etag;
+        private final String lastModified;
+        private final byte[] body;
+
+        private Entry(String etag, String lastModified, byte[] body) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.body = body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+
+    private final Path dir;
+
+    HttpCache(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+
+    }
+
+    /**
+     * @return the entry for the URL, or null if there is none or it is damaged.
+     */
+    public Entry lookup(URL url) {
+        String name = nameFor(url);
+        Path meta = dir.resolve(name + ".meta");
+        Path body = dir.resolve(name + ".body");
+        if (!Files.exists(meta) || !Files.exists(body)){
+            return null;
+
+        }
+        try {
+            Properties p = new Properties();
+            try (InputStream in = Files.newInputStream(meta)){
+                p.load(in);
+
+            }
+            byte[] bytes = Files.readAllBytes(body);
+            if (!url.toString().equals(p.getProperty(URL)) ||
+                    !CryptoUtils.computeSha256HashAsHex(bytes).equals(p.getProperty(SHA256))){
+                logger.info("Ignoring a damaged entry for " + url);
+                return null;
+
+            }
+            return new Entry(p.getProperty(ETAG), p.getProperty(LAST_MODIFIED), bytes);
+
+        } catch (IOException e) {
+            logger.fine("Could not read the entry for " + url + " " + e.getMessage());
+            return null;
+
+        }
+    }
+
+    /**
+     * Keeps the body if it was served with a validator, and otherwise forgets
+     * the URL.
+     */
+    public void store(URL url, String etag, String lastModified, byte[] bytes) throws IOException {
+        String name = nameFor(url);
+        Path meta = dir.resolve(name + ".meta");
+        Path body = dir.resolve(name + ".body");
+        if (etag==null && lastModified==null){
+            Files.deleteIfExists(meta);
+            Files.deleteIfExists(body);
+            return;
+
+        }
+        Properties p = new Properties();
+        p.setProperty(URL, url.toString());
+        p.setProperty(SHA256, CryptoUtils.computeSha256HashAsHex(bytes));
+        if (etag!=null){
+            p.setProperty(ETAG, etag);
+
+        }
+        if (lastModified!=null){
+            p.setProperty(LAST_MODIFIED, lastModified);
+
+        }
+        Path tmpBody = Files.createTempFile(dir, name, ".tmp");
+        Path tmpMeta = Files.createTempFile(dir, name, ".tmp");
+        try {
+            Files.write(tmpBody, bytes);
+            try (OutputStream out = Files.newOutputStream(tmpMeta)){
+                p.store(out, null);
+
+            }
+            Files.move(tmpBody, body, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(tmpMeta, meta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } finally {
+            Files.deleteIfExists(tmpBody);
+            Files.deleteIfExists(tmpMeta);
+
+        }
+    }
+
+    public Path getDirectory() {
+        return dir;
+
+    }
+
+    private static String nameFor(URL url) {
+        return CryptoUtils.computeSha256HashAsHex(url.toString());
+
+    }
+}
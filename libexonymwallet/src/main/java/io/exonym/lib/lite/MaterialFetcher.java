@@ -0,0 +1,187 @@
+package io.exonym.lib.lite;
+
+import okhttp3.*;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.concurrent.*;
+import java.util.logging.Logger;
+
+/**
+ * Fetches the files published by a node concurrently over the connection
+ * pool of the okhttp client in {@link Http}.
+ *
+ * At most {@code concurrency} requests are made to one host at a time, and
+ * each request fails if it has not completed within the timeout.  Cookies
+ * are neither sent nor kept.
+ *
+ * A fetcher with an {@link HttpCache} revalidates the bodies it has kept with
+ * If-None-Match and If-Modified-Since, and answers a 304 with the kept bytes.
+ */
+public class MaterialFetcher {
+
+    private static final Logger logger = Logger.getLogger(MaterialFetcher.class.getName());
+
+    public static final int DEFAULT_CONCURRENCY = 6;
+    public static final long DEFAULT_TIMEOUT_MS = 10 * 1000;
+
+    private static final MaterialFetcher instance = new MaterialFetcher(
+            new Http(), DEFAULT_CONCURRENCY, DEFAULT_TIMEOUT_MS);
+
+    public static MaterialFetcher getInstance() {
+        return instance;
+    }
+
+    private final OkHttpClient client;
+    private final HttpCache cache;
+
+    public MaterialFetcher(Http http, int concurrency, long timeoutMs) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+                    Thread t = new Thread(r, "MaterialFetcher");
+                    t.setDaemon(true);
+                    return t;
+                });
+        Dispatcher dispatcher = new Dispatcher(executor);
+        dispatcher.setMaxRequestsPerHost(concurrency);
+        dispatcher.setMaxRequests(Math.max(dispatcher.getMaxRequests(), concurrency));
+
+        this.client = http.getClient().newBuilder()
+                .dispatcher(dispatcher)
+                .cookieJar(CookieJar.NO_COOKIES)
+                .connectTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .readTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .callTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .build();
+        this.cache = null;
+    }
+
+    private MaterialFetcher(OkHttpClient client, HttpCache cache) {
+        this.client = client;
+        this.cache = cache;
+    }
+
+    /**
+     * @return a fetcher that shares this fetcher's client and keeps what it
+     * fetches in the cache.
+     */
+    public MaterialFetcher withCache(HttpCache cache) {
+        return new MaterialFetcher(client, cache);
+    }
+
+    /**
+     * @return null if this fetcher keeps nothing.
+     */
+    public HttpCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Starts the request.  Cancelling the future cancels the request.
+     *
+     * @return completes with the body, or with an IOException if the request
+     * failed, timed out or did not return 2xx.
+     */
+    public CompletableFuture<byte[]> fetch(URL url) {
+        logger.fine("Fetching " + url);
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        HttpCache.Entry kept = cache==null ? null : cache.lookup(url);
+        Request.Builder request = new Request.Builder().url(url).get();
+        if (kept!=null) {
+            if (kept.getEtag()!=null) {
+                request.header("If-None-Match", kept.getEtag());
+            }
+            if (kept.getLastModified()!=null) {
+                request.header("If-Modified-Since", kept.getLastModified());
+            }
+        }
+        Call call = client.newCall(request.build());
+        result.whenComplete((bytes, e) -> {
+            if (result.isCancelled()) {
+                call.cancel();
+            }
+        });
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (response.code()==304 && kept!=null) {
+                        logger.fine("Not modified " + url);
+                        result.complete(kept.getBody());
+                        return;
+                    }
+                    if (!response.isSuccessful()) {
+                        throw new IOException("Unexpected code " + response.code() + " from " + url);
+                    }
+                    byte[] body = response.body().bytes();
+                    if (cache!=null) {
+                        try {
+                            cache.store(url, response.header("ETag"), response.header("Last-Modified"), body);
+
+                        } catch (IOException e) {
+                            logger.fine("Could not keep " + url + " " + e.getMessage());
+
+                        }
+                    }
+                    result.complete(body);
+
+                } catch (IOException e) {
+                    result.completeExceptionally(e);
+
+                }
+            }
+        });
+        return result;
+    }
+
+    public byte[] read(URL url) throws IOException, InterruptedException {
+        return await(fetch(url));
+    }
+
+    /**
+     * Starts a request for each URL.
+     *
+     * @return the futures in the order of the URLs.
+     */
+    public LinkedHashMap<URL, CompletableFuture<byte[]>> fetchAll(Collection<URL> urls) {
+        LinkedHashMap<URL, CompletableFuture<byte[]>> result = new LinkedHashMap<>();
+        for (URL url : urls) {
+            result.put(url, fetch(url));
+        }
+        return result;
+    }
+
+    /**
+     * Waits for the fetch.
+     *
+     * @throws IOException if the fetch failed.
+     */
+    public static byte[] await(CompletableFuture<byte[]> fetch) throws IOException, InterruptedException {
+        try {
+            return fetch.get();
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+
+        } catch (CancellationException e) {
+            throw new IOException("Cancelled", e);
+
+        }
+    }
+
+    public static void cancelAll(Collection<CompletableFuture<byte[]>> fetches) {
+        for (CompletableFuture<byte[]> fetch : fetches) {
+            fetch.cancel(true);
+        }
+    }
+}
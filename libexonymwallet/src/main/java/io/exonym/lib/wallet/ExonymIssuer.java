@@ -13,6 +13,7 @@ import io.exonym.lib.pojo.ExternalResourceContainer;
 import javax.crypto.Cipher;
 import java.math.BigInteger;
 import java.net.URI;
+import java.util.Collection;
 
 public class ExonymIssuer extends AbstractExonymIssuer {
 
@@ -60,6 +61,11 @@ public class ExonymIssuer extends AbstractExonymIssuer {
         return super.revokeCredential(raUid, handle, dec);
     }
 
+    @Override
+    protected RevocationInformation revokeCredentials(URI raUid, Collection<BigInteger> handles, Cipher dec) throws Exception {
+        return super.revokeCredentials(raUid, handles, dec);
+    }
+
     @Override
     protected void openContainer(Cipher dec) throws Exception {
         super.openContainer(dec);
@@ -9,8 +9,10 @@ import com.ibm.zurich.idmx.parameters.system.SystemParametersWrapper;
 import eu.abc4trust.abce.internal.user.credentialManager.CredentialManagerException;
 import eu.abc4trust.keyManager.KeyManagerException;
 import eu.abc4trust.xml.*;
+import io.exonym.idmx.dagger.ExonymComponent;
 import io.exonym.lib.actor.AbstractExonymOwner;
 import io.exonym.lib.actor.CandidateToken;
+import io.exonym.lib.actor.ClaimVerification;
 import io.exonym.lib.api.*;
 import io.exonym.lib.exceptions.UxException;
 import io.exonym.lib.pojo.IdContainerSchema;
@@ -20,8 +22,10 @@ import io.exonym.lib.pojo.ExternalResourceContainer;
 
 import javax.crypto.Cipher;
 import java.net.URI;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.logging.Logger;
 
 public final class ExonymOwner extends AbstractExonymOwner {
@@ -41,6 +45,13 @@ public final class ExonymOwner extends AbstractExonymOwner {
         super(container);
     }
 
+    /**
+     * An owner with its own key manager and crypto engines; see VerifierPool.
+     */
+    ExonymOwner(AbstractIdContainer container, ExonymComponent injector) {
+        super(container, injector);
+    }
+
     @Override
     protected synchronized void authenticate(PassStore store) throws Exception {
         super.authenticate(store);
@@ -142,6 +153,11 @@ public final class ExonymOwner extends AbstractExonymOwner {
         super.addCredentialToIdmx(credential, enc);
     }
 
+    @Override
+    protected synchronized void loadCredentials(Collection<URI> issuerUids) throws Exception {
+        super.loadCredentials(issuerUids);
+    }
+
     @Override
     protected synchronized IssuanceMessage issuanceStep(IssuanceMessageAndBoolean imab, Cipher enc) throws Exception {
         return super.issuanceStep(imab, enc);
@@ -182,6 +198,11 @@ public final class ExonymOwner extends AbstractExonymOwner {
         return super.verifyClaim(ppa, token);
     }
 
+    @Override
+    public List<ClaimVerification> verifyClaims(List<ClaimVerification> claims) {
+        return super.verifyClaims(claims);
+    }
+
     @Override
     protected void checkPolicySatisfied(PresentationPolicyAlternatives ppa, PresentationToken token) throws Exception {
         super.checkPolicySatisfied(ppa, token);
@@ -202,43 +223,61 @@ public final class ExonymOwner extends AbstractExonymOwner {
         super.acceptableIssuers(issuerAlternatives);
     }
 
-    public static ExonymOwner verifierOnly() throws Exception {
+    /**
+     * The verifier shared by callers that verify one token at a time.
+     * Concurrent verification should borrow from the VerifierPool.
+     */
+    public static synchronized ExonymOwner verifierOnly() throws Exception {
         if (VERIFIER==null){
-            PkiExternalResourceContainer pki = PkiExternalResourceContainer.getInstance();
-            NetworkMapMemory networkMap = NetworkMapMemory.getInstance();
-            CacheInMemory cache = CacheInMemory.getInstance();
-            pki.setNetworkMapAndCache(networkMap, cache);
-
-            ExonymOwner owner = new ExonymOwner(new IdContainerJsonMemory());
-            PassStore store = new PassStore("password", false);
-            owner.openContainer(store);
-            owner.setupContainerSecret(store.getEncrypt(), store.getDecipher());
-            // load sybil in preparation
-
-            NetworkMapItemModerator nmim = null;
-            try {
-                logger.info("Trying sybil-test");
-                nmim = networkMap.nmiForSybilTestNet();
-
-            } catch (Exception e) {
-                logger.info("Trying sybil-main");
-                nmim = networkMap.nmiForSybilMainNet();
-
-            }
-            owner.openResourceIfNotLoaded(
-                    nmim.getLastIssuerUID());
-            VERIFIER=owner;
+            VERIFIER = openVerifier(new ExonymOwner(new IdContainerJsonMemory()));
 
         }
         return VERIFIER;
 
     }
 
+    /**
+     * Opens an empty in-memory container on the owner and loads the Sybil
+     * issuer in preparation.
+     */
+    static ExonymOwner openVerifier(ExonymOwner owner) throws Exception {
+        PkiExternalResourceContainer pki = PkiExternalResourceContainer.getInstance();
+        NetworkMapMemory networkMap = NetworkMapMemory.getInstance();
+        CacheInMemory cache = CacheInMemory.getInstance();
+        pki.setNetworkMapAndCache(networkMap, cache);
+
+        PassStore store = new PassStore("password", false);
+        owner.openContainer(store);
+        owner.setupContainerSecret(store.getEncrypt(), store.getDecipher());
+        // load sybil in preparation
+
+        NetworkMapItemModerator nmim = null;
+        try {
+            logger.info("Trying sybil-test");
+            nmim = networkMap.nmiForSybilTestNet();
+
+        } catch (Exception e) {
+            logger.info("Trying sybil-main");
+            nmim = networkMap.nmiForSybilMainNet();
+
+        }
+        owner.openResourceIfNotLoaded(
+                nmim.getLastIssuerUID());
+        return owner;
+
+    }
+
 
     public static void updateRai(RevocationInformation rai) throws Exception {
         CacheInMemory cache = CacheInMemory.getInstance();
         cache.store(rai);
-        VERIFIER.clearStale();
+        synchronized (ExonymOwner.class){
+            if (VERIFIER!=null){
+                VERIFIER.clearStale();
+
+            }
+        }
+        VerifierPool.clearStaleIfOpen();
 
     }
 
@@ -3,26 +3,37 @@ package io.exonym.lib.wallet;
 import io.exonym.lib.abc.util.JaxbHelper;
 import io.exonym.lib.api.AbstractNetworkMap;
 import io.exonym.lib.api.Cache;
+import io.exonym.lib.exceptions.ErrorMessages;
 import io.exonym.lib.exceptions.UxException;
 import io.exonym.lib.helpers.UIDHelper;
+import io.exonym.lib.pojo.NetworkMapItem;
 import io.exonym.lib.pojo.NetworkMapItemModerator;
 import io.exonym.lib.pojo.NetworkMapItemLead;
 import io.exonym.lib.actor.NodeVerifier;
 import io.exonym.lib.api.CacheContainer;
+import io.exonym.lib.api.NetworkMapChangeSet;
+import io.exonym.lib.lite.HttpCache;
+import io.exonym.lib.lite.MaterialFetcher;
 
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.logging.Logger;
 
 public class NetworkMap extends AbstractNetworkMap {
 
     private final static Logger logger = Logger.getLogger(NetworkMap.class.getName());
+    public static final String HTTP_CACHE = "http-cache";
+
     private final Path root;
+    private final MaterialFetcher fetcher;
+    private final NetworkMapIndex index;
 
     public NetworkMap(Path rootToNetworkMapParent) throws Exception {
         super(rootToNetworkMapParent);
@@ -30,6 +41,19 @@ public class NetworkMap extends AbstractNetworkMap {
             throw new UxException("network map must exist at least one level below the root");
         }
         this.root=rootToNetworkMapParent;
+        this.fetcher = MaterialFetcher.getInstance().withCache(
+                HttpCache.open(rootToNetworkMapParent.getParent().resolve(HTTP_CACHE)));
+        this.index = NetworkMapIndex.of(rootToNetworkMapParent);
+    }
+
+    /**
+     * @return a fetcher that revalidates against the HTTP cache beside the
+     * network map, so that an unchanged lead list or node is not downloaded
+     * again.
+     */
+    @Override
+    public MaterialFetcher getFetcher() {
+        return fetcher;
     }
 
     /**
@@ -65,6 +89,7 @@ public class NetworkMap extends AbstractNetworkMap {
             throw e;
 
         }
+        HashSet<Path> written = new HashSet<>();
         for (NetworkMapItemModerator advocate : modForLead){
             String advocateFileName = toNmiFilename(advocate.getNodeUID());
             Path path = pathLead.resolve(advocateFileName);
@@ -76,6 +101,198 @@ public class NetworkMap extends AbstractNetworkMap {
                 throw e;
 
             }
+            written.add(path);
+
+        }
+        // moderators the lead no longer lists
+        try (DirectoryStream<Path> existing = Files.newDirectoryStream(pathLead, "*.nmi")) {
+            for (Path path : existing){
+                if (!written.contains(path)){
+                    Files.deleteIfExists(path);
+
+                }
+            }
+        }
+        index.putLead(nmis, modForLead);
+    }
+
+    @Override
+    protected List<NetworkMapItemLead> listLeads() throws Exception {
+        return new ArrayList<>(index.leads());
+
+    }
+
+    /**
+     * @return the node from the index, which is read from the map on first
+     * use.  A node that is not indexed is read from its file.
+     */
+    @Override
+    public NetworkMapItem nmiForNode(URI uid) throws Exception {
+        NetworkMapItem item = (uid==null ? null : index.get(uid));
+        return item!=null ? item : super.nmiForNode(uid);
+
+    }
+
+    @Override
+    public NetworkMapItem findNetworkMapItem(URI leadOrMod) throws Exception {
+        NetworkMapItem item = (leadOrMod==null ? null : index.get(leadOrMod));
+        return item!=null ? item : super.findNetworkMapItem(leadOrMod);
+
+    }
+
+    @Override
+    protected List<NetworkMapItem> findModeratorsForLead(String lead) throws Exception {
+        List<NetworkMapItem> mods = index.moderatorsForLead(URI.create(lead));
+        if (mods==null || mods.isEmpty()){
+            throw new UxException(ErrorMessages.MODERATOR_NOT_FOUND_ON_NETWORK_MAP, lead);
+
+        }
+        return mods;
+
+    }
+
+    /**
+     * Every NMI is first written to a temporary file beside its target, so a
+     * failure while writing leaves the map as it was.  The files are then
+     * moved into place, moderators before their leads, and removed nodes are
+     * removed last.
+     *
+     * Whatever is replaced or removed is moved aside to a rollback directory
+     * beside the map first.  If a step fails, the steps that were done are
+     * undone in reverse order, so the map is as it was before the change,
+     * unless undoing fails as well, in which case the index is dropped and
+     * read again from the files.  The change is not isolated: a reader of the
+     * files while it is applied can see part of it.
+     */
+    @Override
+    protected synchronized void applyChanges(NetworkMapChangeSet changes) throws Exception {
+        LinkedHashMap<Path, Path> staged = new LinkedHashMap<>();
+        try {
+            for (NetworkMapItemModerator nmia : changes.getModerators().values()){
+                Path target = pathToLeadPath(nmia.getLeadUID())
+                        .resolve(toNmiFilename(nmia.getNodeUID()));
+                staged.put(stage(target, JaxbHelper.serializeToJson(nmia, NetworkMapItemModerator.class)), target);
+
+            }
+            for (NetworkMapItemLead nmis : changes.getLeads().values()){
+                Path target = pathToLeadPath(nmis.getLeadUID()).getParent()
+                        .resolve(toNmiFilename(nmis.getLeadUID()));
+                staged.put(stage(target, JaxbHelper.serializeToJson(nmis, NetworkMapItemLead.class)), target);
+
+            }
+        } catch (Exception e) {
+            deleteStaged(staged.keySet());
+            throw e;
+
+        }
+        Path rollback = root.resolveSibling(root.getFileName() + ".rollback");
+        if (Files.exists(rollback)){
+            deleteDirectory(rollback.toFile());
+
+        }
+        ArrayDeque<Path> done = new ArrayDeque<>();
+        try {
+            for (Map.Entry<Path, Path> move : staged.entrySet()){
+                Path target = move.getValue();
+                moveAside(target, rollback);
+                done.push(target);
+                Files.move(move.getKey(), target, StandardCopyOption.ATOMIC_MOVE);
+
+            }
+            for (URI mod : changes.getRemovedModerators()){
+                URI leadUid = UIDHelper.computeLeadUidFromModUid(mod);
+                Path target = pathToLeadPath(leadUid).resolve(toNmiFilename(mod));
+                moveAside(target, rollback);
+                done.push(target);
+
+            }
+            for (URI lead : changes.getRemovedLeads()){
+                Path pathLead = pathToLeadPath(lead);
+                Path target = pathLead.getParent().resolve(toNmiFilename(lead));
+                moveAside(target, rollback);
+                done.push(target);
+                moveAside(pathLead, rollback);
+                done.push(pathLead);
+
+            }
+        } catch (Exception e) {
+            try {
+                rollBack(done, rollback);
+
+            } catch (Exception r) {
+                e.addSuppressed(r);
+                // read again from what is on disk
+                index.clear();
+
+            }
+            deleteStaged(staged.keySet());
+            throw e;
+
+        }
+        index.apply(changes);
+        try {
+            if (Files.exists(rollback)){
+                deleteDirectory(rollback.toFile());
+
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to remove " + rollback + " " + e.getMessage());
+
+        }
+    }
+
+    private Path stage(Path target, String json) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (BufferedWriter bw = Files.newBufferedWriter(tmp)) {
+            bw.write(json);
+            bw.flush();
+
+        }
+        return tmp;
+
+    }
+
+    private void deleteStaged(Collection<Path> staged) throws IOException {
+        for (Path tmp : staged){
+            Files.deleteIfExists(tmp);
+
+        }
+    }
+
+    /**
+     * Moves a file or directory of the map, if it exists, to the same place
+     * under the rollback directory.
+     */
+    private void moveAside(Path target, Path rollback) throws IOException {
+        if (Files.exists(target)){
+            Path aside = rollback.resolve(root.relativize(target));
+            Files.createDirectories(aside.getParent());
+            Files.move(target, aside, StandardCopyOption.ATOMIC_MOVE);
+
+        }
+    }
+
+    /**
+     * Undoes the steps, the last first: whatever was written to a target is
+     * removed and what was moved aside is put back.
+     */
+    private void rollBack(ArrayDeque<Path> done, Path rollback) throws IOException {
+        while (!done.isEmpty()){
+            Path target = done.pop();
+            Path aside = rollback.resolve(root.relativize(target));
+            if (Files.isRegularFile(target)){
+                Files.delete(target);
+
+            }
+            if (Files.exists(aside)){
+                Files.move(aside, target, StandardCopyOption.ATOMIC_MOVE);
+
+            }
+        }
+        if (Files.exists(rollback)){
+            deleteDirectory(rollback.toFile());
+
         }
     }
 
@@ -87,7 +304,7 @@ public class NetworkMap extends AbstractNetworkMap {
 
     @Override
     protected NodeVerifier openNodeVerifier(URI staticNodeUrl0, boolean isTargetLead) throws Exception {
-        return NodeVerifier.openNode(staticNodeUrl0, isTargetLead, false);
+        return NodeVerifier.openNode(staticNodeUrl0, isTargetLead, false, fetcher);
     }
 
 
@@ -95,8 +312,13 @@ public class NetworkMap extends AbstractNetworkMap {
     public void delete() throws IOException {
         Path path = defineRootPath();
         File file = path.toFile();
-        deleteDirectory(file);
+        try {
+            deleteDirectory(file);
 
+        } finally {
+            index.clear();
+
+        }
     }
 
     private void deleteDirectory(File file) throws IOException {
@@ -0,0 +1,197 @@
+package io.exonym.lib.wallet;
+
+import io.exonym.lib.abc.util.JaxbHelper;
+import io.exonym.lib.api.NetworkMapChangeSet;
+import io.exonym.lib.pojo.NetworkMapItem;
+import io.exonym.lib.pojo.NetworkMapItemLead;
+import io.exonym.lib.pojo.NetworkMapItemModerator;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The items of a file-based network map held in memory, so that looking a
+ * node up does not read and parse its NMI file.
+ *
+ * There is one index per network map directory, shared by every NetworkMap
+ * opened on it.  It is read from the directory on first use and kept in step
+ * with the writes the NetworkMap makes; readers see a snapshot that is
+ * replaced as a whole on every write.
+ */
+final class NetworkMapIndex {
+
+    private final static Logger logger = Logger.getLogger(NetworkMapIndex.class.getName());
+
+    private static final ConcurrentHashMap<Path, NetworkMapIndex> indexes = new ConcurrentHashMap<>();
+
+    private final Path root;
+
+    // null until first read, and after the map has been deleted
+    private volatile Items items = null;
+
+    static NetworkMapIndex of(Path root) {
+        return indexes.computeIfAbsent(root.toAbsolutePath().normalize(), NetworkMapIndex::new);
+
+    }
+
+    private NetworkMapIndex(Path root) {
+        this.root = root;
+
+    }
+
+    /**
+     * @return the lead or moderator, or null if it is not on the map.
+     */
+    NetworkMapItem get(URI uid) {
+        return items().nodes.get(uid);
+
+    }
+
+    /**
+     * @return the moderators of the lead, or null if the lead is not on the map.
+     */
+    List<NetworkMapItem> moderatorsForLead(URI leadUid) {
+        return items().modsForLead.get(leadUid);
+
+    }
+
+    List<NetworkMapItemLead> leads() {
+        return items().leads;
+
+    }
+
+    synchronized void putLead(NetworkMapItemLead nmis, Collection<NetworkMapItemModerator> mods) {
+        if (items==null){
+            return;
+
+        }
+        HashMap<URI, NetworkMapItem> nodes = new HashMap<>(items.nodes);
+        nodes.put(nmis.getLeadUID(), nmis);
+        // the lead's moderators are replaced as a set
+        nodes.values().removeIf(nmi -> nmi instanceof NetworkMapItemModerator
+                && nmis.getLeadUID().equals(((NetworkMapItemModerator) nmi).getLeadUID()));
+        for (NetworkMapItemModerator nmia : mods){
+            nodes.put(nmia.getNodeUID(), nmia);
+
+        }
+        items = new Items(nodes);
+
+    }
+
+    synchronized void apply(NetworkMapChangeSet changes) {
+        if (items==null){
+            return;
+
+        }
+        HashMap<URI, NetworkMapItem> nodes = new HashMap<>(items.nodes);
+        nodes.putAll(changes.getModerators());
+        nodes.putAll(changes.getLeads());
+        for (URI mod : changes.getRemovedModerators()){
+            nodes.remove(mod);
+
+        }
+        // the lead's directory is deleted with its moderators
+        HashSet<URI> removedLeads = new HashSet<>(changes.getRemovedLeads());
+        nodes.keySet().removeAll(removedLeads);
+        nodes.values().removeIf(nmi -> nmi instanceof NetworkMapItemModerator
+                && removedLeads.contains(((NetworkMapItemModerator) nmi).getLeadUID()));
+        items = new Items(nodes);
+
+    }
+
+    synchronized void clear() {
+        items = null;
+
+    }
+
+    private Items items() {
+        Items current = items;
+        if (current==null){
+            synchronized (this){
+                if (items==null){
+                    items = load();
+
+                }
+                current = items;
+
+            }
+        }
+        return current;
+
+    }
+
+    /**
+     * Leads are at &lt;root&gt;/&lt;rulebook-name&gt;/&lt;rulebook-hash&gt;/&lt;lead&gt;.nmi and
+     * their moderators in the directory beside them named after the lead.
+     */
+    private Items load() {
+        HashMap<URI, NetworkMapItem> nodes = new HashMap<>();
+        if (Files.exists(root)){
+            try (Stream<Path> walk = Files.walk(root, 4)) {
+                List<Path> nmis = walk.filter(Files::isRegularFile)
+                        .filter(path -> path.getFileName().toString().endsWith(".nmi"))
+                        .collect(Collectors.toList());
+                for (Path nmi : nmis){
+                    try {
+                        NetworkMapItem item = root.relativize(nmi).getNameCount()==3
+                                ? JaxbHelper.jsonFileToClass(nmi, NetworkMapItemLead.class)
+                                : JaxbHelper.jsonFileToClass(nmi, NetworkMapItemModerator.class);
+                        nodes.put(item.getNodeUID(), item);
+
+                    } catch (Exception e) {
+                        logger.warning("Left out of the index " + nmi + " " + e.getMessage());
+
+                    }
+                }
+            } catch (Exception e) {
+                logger.warning("Could not index " + root + " " + e.getMessage());
+
+            }
+        }
+        logger.fine("Indexed " + nodes.size() + " nodes at " + root);
+        return new Items(nodes);
+
+    }
+
+    private static class Items {
+
+        private final Map<URI, NetworkMapItem> nodes;
+        private final Map<URI, List<NetworkMapItem>> modsForLead;
+        private final List<NetworkMapItemLead> leads;
+
+        private Items(HashMap<URI, NetworkMapItem> nodes) {
+            HashMap<URI, List<NetworkMapItem>> modsForLead = new HashMap<>();
+            ArrayList<NetworkMapItemLead> leads = new ArrayList<>();
+            for (NetworkMapItem nmi : nodes.values()){
+                if (nmi instanceof NetworkMapItemLead){
+                    leads.add((NetworkMapItemLead) nmi);
+                    modsForLead.putIfAbsent(nmi.getNodeUID(), new ArrayList<>());
+
+                }
+            }
+            for (NetworkMapItem nmi : nodes.values()){
+                if (nmi instanceof NetworkMapItemModerator){
+                    List<NetworkMapItem> mods = modsForLead.get(((NetworkMapItemModerator) nmi).getLeadUID());
+                    if (mods!=null){
+                        mods.add(nmi);
+
+                    }
+                }
+            }
+            for (Map.Entry<URI, List<NetworkMapItem>> e : modsForLead.entrySet()){
+                e.setValue(Collections.unmodifiableList(e.getValue()));
+
+            }
+            this.nodes = Collections.unmodifiableMap(nodes);
+            this.modsForLead = Collections.unmodifiableMap(modsForLead);
+            this.leads = Collections.unmodifiableList(leads);
+
+        }
+    }
+}
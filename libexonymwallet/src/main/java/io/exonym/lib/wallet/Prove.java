@@ -62,6 +62,10 @@ public class Prove {
 
     }
 
+    protected ExonymToolset getToolset() {
+        return exo;
+    }
+
     protected String nonInteractiveProofRequest(String nonInteractiveProofRequestJson) throws Exception {
         NonInteractiveProofRequest request = JaxbHelper.jsonToClass(
                 nonInteractiveProofRequestJson,
@@ -374,6 +378,8 @@ public class Prove {
                 .openNodeVerifier(nmiMod.getStaticURL0(), false);
         ArrayList<String> rais = new ArrayList<>(verified.getAllRevocationInformationFileNames());
         // TODO if we need multiple parameters
+        // The retried proof moves each witness over every event since its
+        // epoch in a single batched update (CryptoEngineProverImpl.updateWitness)
         this.exo.getCache().store(
                 verified.getRevocationInformation(rais.get(0)));
 
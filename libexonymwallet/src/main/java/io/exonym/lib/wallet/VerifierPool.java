@@ -0,0 +1,231 @@
+package io.exonym.lib.wallet;
+
+import eu.abc4trust.xml.PresentationPolicyAlternatives;
+import eu.abc4trust.xml.PresentationToken;
+import io.exonym.idmx.dagger.DaggerExonymComponent;
+import io.exonym.lib.actor.ClaimVerification;
+import io.exonym.lib.api.IdContainerJsonMemory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Verifier owners opened in advance, so that a relying party verifies as many
+ * tokens at once as it has verifiers.
+ *
+ * Each verifier is built from its own component and so has its own key
+ * manager and crypto engines; the materials they are loaded from are shared
+ * through the CacheInMemory and the network map.  A verifier is used by one
+ * caller at a time.  When revocation information is updated every verifier is
+ * marked stale, and clears its revocation information before its next use.
+ */
+public final class VerifierPool {
+
+    private final static Logger logger = Logger.getLogger(VerifierPool.class.getName());
+
+    public static final int DEFAULT_SIZE = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    private static volatile VerifierPool instance;
+
+    public interface Verification<T> {
+        T verify(ExonymOwner verifier) throws Exception;
+    }
+
+    /**
+     * Opens the verifiers and clears them when they are stale.
+     */
+    interface Opener {
+        ExonymOwner open() throws Exception;
+        void clearStale(ExonymOwner verifier) throws Exception;
+    }
+
+    static final Opener VERIFIERS = new Opener() {
+        @Override
+        public ExonymOwner open() throws Exception {
+            return ExonymOwner.openVerifier(
+                    new ExonymOwner(new IdContainerJsonMemory(), DaggerExonymComponent.create()));
+
+        }
+
+        @Override
+        public void clearStale(ExonymOwner verifier) throws Exception {
+            verifier.clearStale();
+
+        }
+    };
+
+    private final Opener opener;
+    private final ArrayBlockingQueue<Verifier> idle;
+    private final ExecutorService workers;
+    private final AtomicLong generation = new AtomicLong();
+    private final int size;
+
+    /**
+     * Opens the pool on first use.  If it cannot be opened the next call tries
+     * again.
+     */
+    public static VerifierPool getInstance() throws Exception {
+        return getInstance(DEFAULT_SIZE, VERIFIERS);
+
+    }
+
+    static VerifierPool getInstance(int size, Opener opener) throws Exception {
+        VerifierPool pool = instance;
+        if (pool==null){
+            synchronized (VerifierPool.class){
+                if (instance==null){
+                    instance = new VerifierPool(size, opener);
+
+                }
+                pool = instance;
+
+            }
+        }
+        return pool;
+
+    }
+
+    /**
+     * Forgets the pool, so that the next getInstance() opens another.
+     */
+    static synchronized void clearInstance() {
+        VerifierPool pool = instance;
+        instance = null;
+        if (pool!=null){
+            pool.workers.shutdown();
+
+        }
+    }
+
+    /**
+     * Marks the verifiers stale if the pool has been opened.
+     */
+    public static void clearStaleIfOpen() {
+        VerifierPool pool = instance;
+        if (pool!=null){
+            pool.clearStale();
+
+        }
+    }
+
+    public VerifierPool(int size) throws Exception {
+        this(size, VERIFIERS);
+
+    }
+
+    VerifierPool(int size, Opener opener) throws Exception {
+        if (size < 1){
+            throw new IllegalArgumentException("size " + size);
+
+        }
+        this.size = size;
+        this.opener = opener;
+        this.idle = new ArrayBlockingQueue<>(size);
+        for (int i = 0; i < size; i++){
+            idle.add(new Verifier(opener.open(), generation.get()));
+
+        }
+        this.workers = Executors.newFixedThreadPool(size, r -> {
+            Thread t = new Thread(r, "VerifierPool");
+            t.setDaemon(true);
+            return t;
+
+        });
+        logger.info("Opened " + size + " verifiers");
+
+    }
+
+    /**
+     * Runs the verification on an idle verifier, waiting for one if they are
+     * all in use.
+     */
+    public <T> T withVerifier(Verification<T> verification) throws Exception {
+        Verifier verifier = idle.take();
+        try {
+            long current = generation.get();
+            if (verifier.generation!=current){
+                opener.clearStale(verifier.owner);
+                verifier.generation = current;
+
+            }
+            return verification.verify(verifier.owner);
+
+        } finally {
+            idle.offer(verifier);
+
+        }
+    }
+
+    public boolean verifyClaim(PresentationPolicyAlternatives ppa, PresentationToken token) throws Exception {
+        return withVerifier(v -> v.verifyClaim(ppa, token));
+
+    }
+
+    /**
+     * Verifies the claims on the verifiers at once, recording the outcome on
+     * each claim.  Each group of claims with the same materials is shared
+     * between the verifiers, which resolve its materials once.
+     *
+     * @return the claims
+     */
+    public List<ClaimVerification> verifyClaims(List<ClaimVerification> claims) throws Exception {
+        ArrayList<List<ClaimVerification>> shares = new ArrayList<>();
+        for (List<ClaimVerification> group : ClaimVerification.group(claims).values()){
+            int share = (group.size() + size - 1) / size;
+            for (int i = 0; i < group.size(); i += share){
+                shares.add(group.subList(i, Math.min(group.size(), i + share)));
+
+            }
+        }
+        ArrayList<Future<?>> running = new ArrayList<>();
+        for (List<ClaimVerification> share : shares){
+            running.add(workers.submit(() -> {
+                try {
+                    withVerifier(v -> v.verifyClaims(share));
+
+                } catch (Exception e) {
+                    for (ClaimVerification claim : share){
+                        claim.failed(e);
+
+                    }
+                }
+            }));
+        }
+        for (Future<?> f : running){
+            f.get();
+
+        }
+        return claims;
+
+    }
+
+    /**
+     * Every verifier clears its revocation information before its next use.
+     */
+    public void clearStale() {
+        generation.incrementAndGet();
+
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static class Verifier {
+
+        private final ExonymOwner owner;
+        private long generation;
+
+        private Verifier(ExonymOwner owner, long generation) {
+            this.owner = owner;
+            this.generation = generation;
+
+        }
+    }
+}
@@ -59,7 +59,7 @@ public class WalletAPI {
             return C30Utils.hasPlayerKeyForGame(alpha, beta, path);
 
         } catch (Exception e) {
-            handleError(e);
+            logError(e);
             return false;
 
         }
@@ -130,6 +130,13 @@ public class WalletAPI {
 
 
     private static CCharPointer handleError(Exception e) {
+        return toCString(logError(e));
+
+    }
+
+    // Entry points that return a status rather than a string log the error
+    // and report failure, without allocating a string nobody will free.
+    private static String logError(Exception e) {
         String info = "";
         if (e instanceof UxException){
             UxException ux = (UxException)e;
@@ -138,7 +145,7 @@ public class WalletAPI {
         }
         String a = ExceptionUtils.getStackTrace(e);
         logger.severe(a);
-        return toCString(a + info);
+        return a + info;
 
     }
 
@@ -416,6 +423,164 @@ public class WalletAPI {
         }
     }
 
+    //
+    // Sessions
+    //
+    // open_session returns a handle to an opened wallet that the session_
+    // variants below use instead of opening the wallet on every call.
+    // Returns 0 if the wallet could not be opened.
+    //
+    @CEntryPoint(name = "open_session")
+    public static long openSession(IsolateThread thread,
+                                   CCharPointer username_,
+                                   CCharPointer passwordAsSha256Hex_,
+                                   CCharPointer path_){
+        try {
+            PassStore passStore = openPassStore(username_, passwordAsSha256Hex_);
+            String path = CTypeConversion.toJavaString(path_);
+            return WalletSessions.getInstance().open(passStore, Path.of(path));
+
+        } catch (Exception e) {
+            logError(e);
+            return 0;
+
+        }
+    }
+
+    @CEntryPoint(name = "close_session")
+    public static int closeSession(IsolateThread thread, long handle){
+        return WalletSessions.getInstance().close(handle) ? 1 : 0;
+
+    }
+
+    @CEntryPoint(name = "session_wallet_report")
+    public static CCharPointer sessionWalletReport(IsolateThread thread, long handle){
+        try {
+            String result = WalletSessions.getInstance().call(handle, Prove::walletReport);
+            return toCString(result);
+
+        } catch (Exception e) {
+            return handleError(e);
+
+        }
+    }
+
+    @CEntryPoint(name = "session_authentication_report")
+    public static CCharPointer sessionAuthSummaryForUniversalLink(IsolateThread thread,
+                                                                  long handle,
+                                                                  CCharPointer request_){
+        try {
+            String request = CTypeConversion.toJavaString(request_);
+            FulfillmentReport result = WalletSessions.getInstance().call(handle,
+                    prove -> prove.authenticationSummaryForULink(request));
+            return toCString(JaxbHelper.gson.toJson(result, FulfillmentReport.class));
+
+        } catch (Exception e) {
+            return handleError(e);
+
+        }
+    }
+
+    @CEntryPoint(name = "session_proof_for_rulebook_sso")
+    public static CCharPointer sessionProofForRulebookSso(IsolateThread thread,
+                                                          long handle,
+                                                          CCharPointer ulinkChallenge_){
+        try {
+            String ulinkChallenge = CTypeConversion.toJavaString(ulinkChallenge_);
+            String result = WalletSessions.getInstance().call(handle,
+                    prove -> prove.proofForRulebookSSO(ulinkChallenge));
+            return toCString(result);
+
+        } catch (Exception e) {
+            return handleError(e);
+
+        }
+    }
+
+    @CEntryPoint(name = "session_proof_for_rulebook_sso_anon")
+    public static CCharPointer sessionProofForRulebookSsoAnon(IsolateThread thread,
+                                                              long handle,
+                                                              CCharPointer ulinkChallenge_){
+        try {
+            String ulinkChallenge = CTypeConversion.toJavaString(ulinkChallenge_);
+            String result = WalletSessions.getInstance().call(handle,
+                    prove -> prove.proofForRulebookSSOAnon(ulinkChallenge));
+            return toCString(result);
+
+        } catch (Exception e) {
+            return handleError(e);
+
+        }
+    }
+
+    @CEntryPoint(name = "session_generate_delegation_request_for_third_party")
+    public static CCharPointer sessionGenerateDelegationRequestForThirdParty(IsolateThread thread,
+                                                                             long handle,
+                                                                             CCharPointer ulinkChallenge_,
+                                                                             CCharPointer name_){
+        try {
+            String ulinkChallenge = CTypeConversion.toJavaString(ulinkChallenge_);
+            String name = CTypeConversion.toJavaString(name_);
+            String result = WalletSessions.getInstance().call(handle,
+                    prove -> prove.generateDelegationRequestForThirdParty(ulinkChallenge, name));
+            return toCString(result);
+
+        } catch (Exception e) {
+            return handleError(e);
+
+        }
+    }
+
+    @CEntryPoint(name = "session_fill_delegation_request")
+    public static CCharPointer sessionFillDelegationRequest(IsolateThread thread,
+                                                            long handle,
+                                                            CCharPointer ulink_){
+        try {
+            String ulink = CTypeConversion.toJavaString(ulink_);
+            String result = WalletSessions.getInstance().call(handle,
+                    prove -> prove.fillDelegationRequest(ulink));
+            return toCString(result);
+
+        } catch (Exception e) {
+            return handleError(e);
+
+        }
+    }
+
+    @CEntryPoint(name = "session_verify_delegation_request")
+    public static CCharPointer sessionVerifyDelegationRequest(IsolateThread thread,
+                                                              long handle,
+                                                              CCharPointer requestLink_,
+                                                              CCharPointer proofLink_){
+        try {
+            String requestLink = CTypeConversion.toJavaString(requestLink_);
+            String proofLink = CTypeConversion.toJavaString(proofLink_);
+            String result = WalletSessions.getInstance().call(handle,
+                    prove -> prove.verifyDelegationRequest(requestLink, proofLink));
+            return toCString(result);
+
+        } catch (Exception e) {
+            return handleError(e);
+
+        }
+    }
+
+    @CEntryPoint(name = "session_non_interactive_proof")
+    public static CCharPointer sessionNonInteractiveProofRequest(IsolateThread thread,
+                                                                 long handle,
+                                                                 CCharPointer nonInteractiveProofRequest_){
+        try {
+            String nonInteractiveProofRequest = CTypeConversion.toJavaString(nonInteractiveProofRequest_);
+            String result = WalletSessions.getInstance().call(handle,
+                    prove -> prove.nonInteractiveProofRequest(nonInteractiveProofRequest));
+            return toCString(result);
+
+        } catch (Exception e) {
+            return handleError(e);
+
+        }
+    }
+
     @CEntryPoint(name = "sftp_put")
     public static CCharPointer sftpPut(IsolateThread thread,
                                         CCharPointer username_,
@@ -619,7 +784,7 @@ public class WalletAPI {
             return 1;
 
         } catch (Exception e) {
-            handleError(e);
+            logError(e);
             return 0;
 
         }
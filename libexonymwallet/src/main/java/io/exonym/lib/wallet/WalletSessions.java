@@ -0,0 +1,297 @@
+package io.exonym.lib.wallet;
+
+import io.exonym.lib.exceptions.ErrorMessages;
+import io.exonym.lib.exceptions.UxException;
+import io.exonym.lib.standard.PassStore;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Opened wallets held between calls to the WalletAPI entry points, so that a
+ * report, a summary and a proof made one after the other open the wallet
+ * once.
+ *
+ * A session is identified by a random handle.  Calls on one session are made
+ * one at a time; calls on different sessions may run on different isolate
+ * threads at once.  A session is closed when it has been idle for longer
+ * than the idle timeout, and the least recently used sessions are closed when
+ * the estimated memory held by all sessions exceeds the cap.  Idle sessions
+ * are found when a session is opened or used.
+ *
+ * If the container is written outside the session, for example by onboarding,
+ * the wallet is opened again on the next call.  A write is recognised by a
+ * change to the modification time or the size of the container file.
+ *
+ * The wallets are opened by an Opener, which is PROVE for the WalletAPI
+ * entry points.
+ */
+public class WalletSessions<W> {
+
+    private final static Logger logger = Logger.getLogger(WalletSessions.class.getName());
+
+    public static final long DEFAULT_IDLE_TIMEOUT_MS = 5 * 60 * 1000;
+    public static final long DEFAULT_MAX_BYTES = Math.min(64L * 1024 * 1024,
+            Runtime.getRuntime().maxMemory() / 4);
+
+    // The key manager, credential manager and crypto engines of an opened
+    // owner, and the objects decoded from each byte of the container.
+    protected static final long SESSION_BASE_BYTES = 4L * 1024 * 1024;
+    protected static final int CONTAINER_EXPANSION = 8;
+
+    public interface Opener<W> {
+
+        /**
+         * Opens the wallet and checks the password.
+         */
+        W open(PassStore store, Path root) throws Exception;
+
+        /**
+         * @return the file the wallet is read from.
+         */
+        Path containerFile(W wallet);
+
+    }
+
+    public interface SessionCall<W, T> {
+        T call(W wallet) throws Exception;
+    }
+
+    public static final Opener<Prove> PROVE = new Opener<Prove>() {
+        @Override
+        public Prove open(PassStore store, Path root) throws Exception {
+            Prove prove = new Prove(store, root);
+            prove.getToolset().getOwner().authenticate(store);
+            return prove;
+
+        }
+
+        @Override
+        public Path containerFile(Prove prove) {
+            return prove.getToolset().getId().getFile();
+
+        }
+    };
+
+    private static WalletSessions<Prove> instance;
+
+    static {
+        instance = new WalletSessions<>(DEFAULT_IDLE_TIMEOUT_MS, DEFAULT_MAX_BYTES,
+                PROVE, System::currentTimeMillis);
+
+    }
+
+    public static WalletSessions<Prove> getInstance() {
+        return instance;
+    }
+
+    private final long idleTimeoutMs;
+    private final long maxBytes;
+    private final Opener<W> opener;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * @param clock the time in milliseconds that idle time is measured in.
+     */
+    protected WalletSessions(long idleTimeoutMs, long maxBytes, Opener<W> opener, LongSupplier clock) {
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxBytes = maxBytes;
+        this.opener = opener;
+        this.clock = clock;
+
+    }
+
+    /**
+     * Opens the wallet and checks the password.
+     *
+     * @return the handle of the session, which is never 0.
+     */
+    public long open(PassStore store, Path root) throws Exception {
+        closeIdle();
+        Session session = new Session(store, root);
+        session.open();
+        makeRoomFor(session.bytes);
+
+        long handle;
+        do {
+            handle = random.nextLong() & Long.MAX_VALUE;
+
+        } while (handle==0 || sessions.putIfAbsent(handle, session)!=null);
+        logger.fine("Opened session for " + store.getUsername() + " (" + sessions.size() + " open)");
+        return handle;
+
+    }
+
+    /**
+     * Runs the call against the opened wallet of the session.
+     *
+     * @throws UxException SESSION_NOT_FOUND if the handle is unknown or the
+     * session was closed.
+     */
+    public <T> T call(long handle, SessionCall<W, T> call) throws Exception {
+        closeIdle();
+        Session session = sessions.get(handle);
+        if (session==null){
+            throw new UxException(ErrorMessages.SESSION_NOT_FOUND);
+
+        }
+        session.lock.lock();
+        try {
+            if (session.wallet==null){
+                throw new UxException(ErrorMessages.SESSION_NOT_FOUND);
+
+            }
+            if (session.isContainerChanged()){
+                logger.info("Container changed outside the session; reopening");
+                session.open();
+
+            }
+            try {
+                return call.call(session.wallet);
+
+            } finally {
+                session.touch();
+
+            }
+        } finally {
+            session.lock.unlock();
+
+        }
+    }
+
+    /**
+     * @return false if the session was not open.
+     */
+    public boolean close(long handle) {
+        Session session = sessions.remove(handle);
+        if (session==null){
+            return false;
+
+        }
+        session.lock.lock();
+        try {
+            session.close();
+            return true;
+
+        } finally {
+            session.lock.unlock();
+
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private void closeIdle() {
+        long now = clock.getAsLong();
+        for (Map.Entry<Long, Session> e : sessions.entrySet()){
+            if (now - e.getValue().lastUsed > idleTimeoutMs){
+                closeIfNotBusy(e.getKey(), e.getValue(), "idle");
+
+            }
+        }
+    }
+
+    private void makeRoomFor(long bytes) {
+        ArrayList<Map.Entry<Long, Session>> open = new ArrayList<>(sessions.entrySet());
+        open.sort(Comparator.comparingLong(e -> e.getValue().lastUsed));
+        long held = 0;
+        for (Map.Entry<Long, Session> e : open){
+            held += e.getValue().bytes;
+
+        }
+        for (Map.Entry<Long, Session> e : open){
+            if (held + bytes <= maxBytes){
+                break;
+
+            }
+            if (closeIfNotBusy(e.getKey(), e.getValue(), "over the memory cap")){
+                held -= e.getValue().bytes;
+
+            }
+        }
+    }
+
+    private boolean closeIfNotBusy(long handle, Session session, String reason) {
+        if (session.lock.tryLock()){
+            try {
+                if (sessions.remove(handle, session)){
+                    session.close();
+                    logger.fine("Closed session " + reason);
+                    return true;
+
+                }
+            } finally {
+                session.lock.unlock();
+
+            }
+        }
+        return false;
+
+    }
+
+    private class Session {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final PassStore store;
+        private final Path root;
+        private W wallet;
+        private Path containerFile;
+        private FileTime containerModified;
+        private long containerSize = -1;
+        private volatile long lastUsed;
+        private volatile long bytes;
+
+        private Session(PassStore store, Path root) {
+            this.store = store;
+            this.root = root;
+
+        }
+
+        private void open() throws Exception {
+            W wallet = opener.open(store, root);
+            this.wallet = wallet;
+            this.containerFile = opener.containerFile(wallet);
+            touch();
+
+        }
+
+        private boolean isContainerChanged() throws Exception {
+            return !Files.getLastModifiedTime(containerFile).equals(containerModified)
+                    || Files.size(containerFile)!=containerSize;
+
+        }
+
+        // Records changes made by the session itself, so that they are not
+        // taken for changes made outside it.
+        private void touch() {
+            this.lastUsed = clock.getAsLong();
+            try {
+                this.containerModified = Files.getLastModifiedTime(containerFile);
+                this.containerSize = Files.size(containerFile);
+                this.bytes = SESSION_BASE_BYTES + CONTAINER_EXPANSION * containerSize;
+
+            } catch (Exception e) {
+                logger.fine("Could not read the container file " + e.getMessage());
+
+            }
+        }
+
+        private void close() {
+            this.wallet = null;
+
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package io.exonym.lib.actor;
+
+import eu.abc4trust.xml.*;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestClaimVerification {
+
+    private static final ObjectFactory of = new ObjectFactory();
+
+    @Test
+    public void tokensNamingTheSameMaterialsShareAGroup() {
+        ArrayList<ClaimVerification> claims = new ArrayList<>();
+        claims.add(claim(token("issuer-a", "ra-a", "ins-1")));
+        claims.add(claim(token("issuer-b", "ra-b", null)));
+        claims.add(claim(token("issuer-a", "ra-a", "ins-1")));
+        claims.add(claim(token("issuer-a", "ra-a", "ins-2")));
+        claims.add(claim(token("issuer-b", "ra-b", null)));
+
+        LinkedHashMap<String, List<ClaimVerification>> groups = ClaimVerification.group(claims);
+        assertEquals(3, groups.size());
+
+        ArrayList<List<ClaimVerification>> inOrder = new ArrayList<>(groups.values());
+        assertEquals(List.of(claims.get(0), claims.get(2)), inOrder.get(0));
+        assertEquals(List.of(claims.get(1), claims.get(4)), inOrder.get(1));
+        assertEquals(List.of(claims.get(3)), inOrder.get(2));
+
+    }
+
+    @Test
+    public void credentialOrderDoesNotChangeTheGroup() {
+        PresentationToken ab = token("issuer-a", "ra-a", null);
+        ab.getPresentationTokenDescription().getCredential().addAll(
+                token("issuer-b", "ra-b", null).getPresentationTokenDescription().getCredential());
+        PresentationToken ba = token("issuer-b", "ra-b", null);
+        ba.getPresentationTokenDescription().getCredential().addAll(
+                token("issuer-a", "ra-a", null).getPresentationTokenDescription().getCredential());
+        assertEquals(ClaimVerification.groupOf(ab), ClaimVerification.groupOf(ba));
+
+    }
+
+    @Test
+    public void outcomeIsRecorded() {
+        ClaimVerification claim = claim(token("issuer-a", "ra-a", null));
+        assertFalse(claim.isVerified());
+        assertNull(claim.getError());
+
+        Exception e = new Exception("invalid");
+        claim.failed(e);
+        assertFalse(claim.isVerified());
+        assertSame(e, claim.getError());
+
+        claim.verified();
+        assertTrue(claim.isVerified());
+        assertNull(claim.getError());
+
+    }
+
+    private static ClaimVerification claim(PresentationToken token) {
+        return new ClaimVerification(of.createPresentationPolicyAlternatives(), token);
+
+    }
+
+    private static PresentationToken token(String issuer, String ra, String inspector) {
+        CredentialInToken cit = of.createCredentialInToken();
+        cit.setCredentialSpecUID(URI.create("urn:rulebook:test:c"));
+        cit.setIssuerParametersUID(URI.create("urn:rulebook:test:" + issuer + ":i"));
+        cit.setRevocationInformationUID(URI.create("urn:rulebook:test:" + ra + ":ra"));
+        if (inspector!=null){
+            AttributeInToken ait = of.createAttributeInToken();
+            ait.setInspectorPublicKeyUID(URI.create("urn:rulebook:test:" + inspector + ":ins"));
+            cit.getDisclosedAttribute().add(ait);
+
+        }
+        PresentationTokenDescription ptd = of.createPresentationTokenDescription();
+        ptd.getCredential().add(cit);
+        PresentationToken token = of.createPresentationToken();
+        token.setPresentationTokenDescription(ptd);
+        return token;
+
+    }
+}
@@ -0,0 +1,125 @@
+package io.exonym.lib.actor;
+
+import io.exonym.lib.pojo.XKey;
+import io.exonym.lib.standard.AsymStoreKey;
+import org.junit.Test;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+import static org.junit.Assert.*;
+
+public class TestMaterialSignatures {
+
+    @Test
+    public void strippedBytesMatchStrippedString() {
+        String[] samples = {
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<ns:A attr=\"x\">\n\t\t<B> 1 2 3 </B>\n</ns:A>",
+                "{\n  \"name\": \"Zo\u00eb \u2713 \u540d\u524d\",\n\t\"n\": 1\r\n}",
+                "",
+                "nothing-to-strip",
+        };
+        for (String s : samples){
+            byte[] expected = NodeVerifier.stripStringToSign(s).getBytes(StandardCharsets.UTF_8);
+            assertTrue(s, Arrays.equals(expected,
+                    MaterialSignatures.stripToSign(s.getBytes(StandardCharsets.UTF_8))));
+
+        }
+    }
+
+    @Test
+    public void signaturesAreVerifiedAndRemembered() throws Exception {
+        MaterialSignatures.clearMemo();
+        AsymStoreKey key = key();
+        LinkedHashMap<XKey, byte[]> signatures = signatures(key, 8);
+        MaterialSignatures.verifyAll(key, signatures);
+
+        // remembered by key and content, so a repeat does not verify
+        for (XKey sig : signatures.keySet()){
+            sig.setSignature(new byte[256]);
+
+        }
+        MaterialSignatures.verifyAll(key, signatures);
+
+    }
+
+    @Test
+    public void singleSignatureSharesTheMemo() throws Exception {
+        MaterialSignatures.clearMemo();
+        AsymStoreKey key = key();
+        LinkedHashMap<XKey, byte[]> signatures = signatures(key, 1);
+        XKey sig = signatures.keySet().iterator().next();
+        byte[] data = signatures.get(sig);
+        assertFalse(MaterialSignatures.verify(key, data, new byte[256]));
+        assertTrue(MaterialSignatures.verify(key, data, sig.getSignature()));
+
+        // verified content is not verified again, by either path
+        assertTrue(MaterialSignatures.verify(key, data, new byte[256]));
+        sig.setSignature(new byte[256]);
+        MaterialSignatures.verifyAll(key, signatures);
+
+    }
+
+    @Test
+    public void invalidSignatureIsNamed() throws Exception {
+        MaterialSignatures.clearMemo();
+        AsymStoreKey key = key();
+        LinkedHashMap<XKey, byte[]> signatures = signatures(key, 8);
+        XKey tampered = signatures.keySet().stream().skip(5).findFirst().get();
+        signatures.put(tampered, "<tampered/>".getBytes(StandardCharsets.UTF_8));
+        try {
+            MaterialSignatures.verifyAll(key, signatures);
+            fail();
+
+        } catch (Exception e){
+            assertTrue(e.getMessage(), e.getMessage().endsWith(tampered.getKeyUid().toString()));
+
+        }
+    }
+
+    @Test
+    public void signatureUnderAnotherKeyIsInvalid() throws Exception {
+        MaterialSignatures.clearMemo();
+        AsymStoreKey key = key();
+        LinkedHashMap<XKey, byte[]> signatures = signatures(key, 1);
+        try {
+            MaterialSignatures.verifyAll(key(), signatures);
+            fail();
+
+        } catch (Exception e){
+            assertTrue(e.getMessage().startsWith("Signature was invalid"));
+
+        }
+    }
+
+    private static AsymStoreKey key() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair pair = generator.generateKeyPair();
+        AsymStoreKey key = AsymStoreKey.blank();
+        key.assembleKey(pair.getPublic());
+        key.assembleKey(pair.getPrivate());
+        return key;
+
+    }
+
+    private static LinkedHashMap<XKey, byte[]> signatures(AsymStoreKey key, int n) {
+        LinkedHashMap<XKey, byte[]> result = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++){
+            byte[] data = MaterialSignatures.stripToSign(("<?xml version=\"1.0\"?>\n<Material n=\""
+                    + i + "\">\n\t<Value>" + "0".repeat(4000) + "</Value>\n</Material>")
+                    .getBytes(StandardCharsets.UTF_8));
+            XKey sig = new XKey();
+            sig.setKeyUid(URI.create("urn:rulebook:test:moderator:material-" + i));
+            sig.setSignature(key.sign(data));
+            result.put(sig, data);
+
+        }
+        return result;
+
+    }
+}
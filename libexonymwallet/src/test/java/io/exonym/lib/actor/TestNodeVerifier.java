@@ -0,0 +1,63 @@
+package io.exonym.lib.actor;
+
+import io.exonym.lib.pojo.IdContainer;
+import io.exonym.lib.wallet.WalletFixture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * Opens a moderator folder published by the fixture from its file: URL.
+ */
+public class TestNodeVerifier {
+
+    private WalletFixture fixture;
+    private WalletFixture.Node node;
+
+    @Before
+    public void before() throws Exception {
+        fixture = new WalletFixture(Files.createTempDirectory("node-verifier"), 1);
+        node = fixture.publishNode();
+        MaterialSignatures.clearMemo();
+
+    }
+
+    @After
+    public void after() throws Exception {
+        fixture.delete();
+
+    }
+
+    @Test
+    public void publishedNodeIsVerified() throws Exception {
+        NodeVerifier verifier = NodeVerifier.openLocal(node.getUrl(), node.getKeys(), false);
+        assertNotNull(verifier.getCredentialSpecification());
+        assertEquals(1, verifier.getIssuerParameterFileNames().size());
+        assertEquals(node.getUrl().toString(),
+                verifier.getTargetTrustNetwork().getNodeInformation().getStaticNodeUrl0().toString());
+
+    }
+
+    @Test
+    public void alteredMaterialIsRejected() throws Exception {
+        URI cs = node.getKeys().getKeyPairs().get(1).getKeyUid();
+        Path file = Path.of(node.getUrl().toURI()).resolve(IdContainer.uidToXmlFileName(cs));
+        String xml = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        Files.write(file, xml.replaceFirst("</", "<!-- altered --></").getBytes(StandardCharsets.UTF_8));
+        try {
+            NodeVerifier.openLocal(node.getUrl(), node.getKeys(), false);
+            fail();
+
+        } catch (Exception e) {
+            // the signature over the specification fails
+
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.exonym.lib.actor;
+
+import com.sun.net.httpserver.HttpServer;
+import io.exonym.lib.lite.Http;
+import io.exonym.lib.lite.MaterialFetcher;
+import io.exonym.lib.standard.CryptoUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Serves snapshots against a local HTTP stand-in publishing a node's
+ * signatures.xml.
+ */
+public class TestVerifiedNodeCache {
+
+    private static final URI NODE_UID = URI.create("urn:rulebook:test:moderator");
+    private static final String KEY = "http://localhost/moderator/";
+
+    private HttpServer server;
+    private URL signaturesUrl;
+    private volatile String signatures = "<?xml version=\"1.0\"?>\n<KeyContainer/>";
+    private final MaterialFetcher fetcher = new MaterialFetcher(new Http(), 4, 5000);
+
+    @Before
+    public void before() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] bytes = signatures.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()){
+                out.write(bytes);
+
+            }
+            exchange.close();
+
+        });
+        server.start();
+        signaturesUrl = new URL("http://localhost:" + server.getAddress().getPort()
+                + "/moderator//signatures.xml");
+
+    }
+
+    @After
+    public void after() {
+        server.stop(0);
+
+    }
+
+    @Test
+    public void unchangedNodeIsServed() {
+        VerifiedNodeCache<String> cache = new VerifiedNodeCache<>(60000);
+        put(cache);
+        assertEquals("verified", cache.get(KEY, fetcher));
+        assertEquals("verified", cache.get(KEY, fetcher));
+
+    }
+
+    @Test
+    public void changedSignaturesInvalidate() {
+        VerifiedNodeCache<String> cache = new VerifiedNodeCache<>(60000);
+        put(cache);
+        signatures = "<?xml version=\"1.0\"?>\n<KeyContainer><KeyPairs/></KeyContainer>";
+        assertNull(cache.get(KEY, fetcher));
+        assertEquals(0, cache.size());
+
+    }
+
+    @Test
+    public void expiredSnapshotIsDropped() throws Exception {
+        VerifiedNodeCache<String> cache = new VerifiedNodeCache<>(50);
+        put(cache);
+        Thread.sleep(100);
+        assertNull(cache.get(KEY, fetcher));
+
+    }
+
+    @Test
+    public void notificationInvalidates() {
+        VerifiedNodeCache<String> cache = new VerifiedNodeCache<>(60000);
+        put(cache);
+        cache.put("other", "other", URI.create("urn:rulebook:test:other"),
+                signaturesUrl, CryptoUtils.computeSha256HashAsHex(signatures));
+        cache.invalidate(NODE_UID);
+        assertNull(cache.get(KEY, fetcher));
+        assertEquals("other", cache.get("other", fetcher));
+
+    }
+
+    @Test
+    public void unreachableNodeIsNotServed() {
+        VerifiedNodeCache<String> cache = new VerifiedNodeCache<>(60000);
+        put(cache);
+        server.stop(0);
+        assertNull(cache.get(KEY, fetcher));
+
+    }
+
+    private void put(VerifiedNodeCache<String> cache) {
+        cache.put(KEY, "verified", NODE_UID, signaturesUrl,
+                CryptoUtils.computeSha256HashAsHex(signatures.getBytes(StandardCharsets.UTF_8)));
+
+    }
+}
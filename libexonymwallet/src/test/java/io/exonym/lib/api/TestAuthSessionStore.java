@@ -0,0 +1,81 @@
+package io.exonym.lib.api;
+
+import io.exonym.lib.pojo.EndonymToken;
+import io.exonym.lib.pojo.ExonymChallenge;
+import org.junit.Test;
+
+import java.net.URI;
+
+import static org.junit.Assert.*;
+
+public class TestAuthSessionStore {
+
+    private static final URI DOMAIN = URI.create("https://sso.example.com");
+
+    @Test
+    public void challengeIsFoundOnlyAfterProbe() {
+        AuthSessionStoreInMemory store = new AuthSessionStoreInMemory();
+        AuthSession session = store.open("s0");
+        session.setChallenge("c0", challenge());
+        assertNull(store.forChallenge("c0"));
+
+        assertEquals("c0", session.probe());
+        assertNull(session.probe());
+        store.bindChallenge("c0", session);
+        assertSame(session, store.forChallenge("c0"));
+        assertEquals(DOMAIN, session.takeRequest().getDomain());
+        assertNull(session.takeRequest());
+
+    }
+
+    @Test
+    public void unansweredChallengesExpire() throws Exception {
+        AuthSessionStoreInMemory store = new AuthSessionStoreInMemory();
+        for (int i = 0; i < 100; i++) {
+            store.open("s" + i).setChallenge("c" + i, challenge());
+
+        }
+        AuthSession authenticated = store.open("authenticated");
+        authenticated.getAuthenticated().put(DOMAIN, new EndonymToken());
+        assertEquals(101, store.getMetrics().getLiveSessions());
+
+        Thread.sleep(20);
+        assertEquals(200, store.expire(10));
+
+        AuthSessionStoreMetrics metrics = store.getMetrics();
+        assertEquals(1, metrics.getLiveSessions());
+        assertEquals(100, metrics.getExpiredChallenges());
+        assertEquals(100, metrics.getExpiredSessions());
+        assertNotNull(store.get("authenticated"));
+        assertNull(store.get("s0"));
+        assertEquals(0.5, store.getMetrics().getHitRate(), 0.0001);
+
+    }
+
+    @Test
+    public void leastRecentlyUsedSessionIsEvicted() {
+        AuthSessionStoreInMemory store = new AuthSessionStoreInMemory(2, AuthSessionStoreInMemory.DEFAULT_SESSION_TTL);
+        store.open("s0");
+        store.open("s1");
+        store.open("s0");
+        store.open("s2");
+        assertNotNull(store.get("s0"));
+        assertNull(store.get("s1"));
+        assertEquals(1, store.getMetrics().getEvictions());
+
+    }
+
+    private static ExonymChallenge challenge() {
+        return new ExonymChallenge() {
+            @Override
+            public String universalLinkPrefix() {
+                return "";
+            }
+
+            @Override
+            public URI getDomain() {
+                return DOMAIN;
+            }
+        };
+    }
+}
@@ -0,0 +1,125 @@
+package io.exonym.lib.api;
+
+import io.exonym.lib.helpers.Timing;
+import io.exonym.lib.pojo.EndonymToken;
+import io.exonym.lib.pojo.SsoChallenge;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 5000 sessions probe concurrently and wait for their tokens. Waiting must not
+ * hold a thread per probe, and every probe must be answered: with its endonym,
+ * with the error of its token, or with a timeout.
+ */
+public class TestAuthenticateLoad {
+
+    private final static Logger logger = Logger.getLogger(TestAuthenticateLoad.class.getName());
+
+    private static final int PROBES = 5000;
+    private static final int CLIENT_THREADS = 16;
+    private static final URI DOMAIN = URI.create("https://sso.example.com");
+
+    @Test
+    public void concurrentProbes() throws Exception {
+        AuthSessionStoreInMemory store = new AuthSessionStoreInMemory();
+        LoadAuthenticate auth = new LoadAuthenticate(store);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENT_THREADS);
+        try {
+            // the last tenth of the probes never receives a token
+            int answered = PROBES - PROBES / 10;
+            int threadsBefore = Thread.activeCount();
+            long t0 = Timing.currentTime();
+
+            List<Future<CompletableFuture<EndonymToken>>> probes = new ArrayList<>();
+            for (int i = 0; i < PROBES; i++) {
+                String sessionId = "session-" + i;
+                String challenge = "challenge-" + i;
+                long timeout = (i < answered ? 60000 : 500);
+                probes.add(clients.submit(() -> {
+                    SsoChallenge c = new SsoChallenge();
+                    c.setChallenge(challenge);
+                    c.setDomain(DOMAIN);
+                    auth.challenge(c, sessionId);
+                    URI context = auth.probeForContext(sessionId);
+                    return auth.awaitAuthentication(sessionId, context, timeout);
+
+                }));
+            }
+            List<CompletableFuture<EndonymToken>> pending = new ArrayList<>();
+            for (Future<CompletableFuture<EndonymToken>> probe : probes) {
+                pending.add(probe.get());
+
+            }
+            logger.info(PROBES + " probes waiting after " + Timing.hasBeenMs(t0) + "ms");
+            assertTrue("Waiting probes hold threads",
+                    Thread.activeCount() - threadsBefore <= CLIENT_THREADS + 4);
+            assertEquals(PROBES, store.getMetrics().getLiveSessions());
+
+            // tokens arrive: every other one fails verification
+            for (int i = 0; i < answered; i++) {
+                AuthSession session = store.forChallenge("challenge-" + i);
+                assertNotNull(session);
+                session.setEndonym(endonym(i));
+                if (i % 2 == 0) {
+                    auth.completeAuthentication(session, DOMAIN);
+
+                } else {
+                    auth.completeRequest(session, new Exception("INVALID_TOKEN"));
+
+                }
+            }
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+            logger.info(PROBES + " probes answered after " + Timing.hasBeenMs(t0) + "ms");
+
+            for (int i = 0; i < PROBES; i++) {
+                EndonymToken result = pending.get(i).get();
+                if (i >= answered) {
+                    assertTrue(result.isTimeout());
+
+                } else if (i % 2 == 0) {
+                    assertEquals(endonym(i).getEndonym(), result.getEndonym());
+                    assertEquals(result, auth.isAuthenticated("session-" + i, DOMAIN));
+
+                } else {
+                    assertEquals("INVALID_TOKEN", result.getError());
+
+                }
+            }
+        } finally {
+            clients.shutdownNow();
+            auth.shutdown();
+
+        }
+    }
+
+    private static EndonymToken endonym(int i) {
+        EndonymToken token = new EndonymToken();
+        token.setEndonym(URI.create("urn:exonym:" + DOMAIN.getHost() + ":" + i));
+        return token;
+
+    }
+
+    private static class LoadAuthenticate extends ExonymAuthenticate {
+
+        private LoadAuthenticate(AuthSessionStore sessions) {
+            super(sessions);
+
+        }
+
+        private void shutdown() throws Exception {
+            close();
+
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io.exonym.lib.api;
+
+import io.exonym.lib.exceptions.HubException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class TestIdContainerBatch {
+
+    private Path root;
+
+    @Before
+    public void before() throws Exception {
+        root = Files.createTempDirectory("container-batch");
+
+    }
+
+    @After
+    public void after() throws Exception {
+        try (Stream<Path> paths = Files.walk(root)){
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+
+        }
+    }
+
+    @Test
+    public void nestedBatchIsWrittenOnOutermostCommit() throws Exception {
+        IdContainerJSON x = new IdContainerJSON(root, "batch", true);
+        x.begin();
+        x.save("<a/>", x.LOCAL_LEDGER, "a.xml", true);
+        x.begin();
+        x.save("<b/>", x.LOCAL_LEDGER, "b.xml", true);
+        x.commit();
+        assertTrue(x.isBatching());
+        assertTrue(x.getLocalLedgerList().contains("b.xml"));
+        assertFalse(stored("batch").contains("a.xml"));
+
+        x.commit();
+        assertFalse(x.isBatching());
+        assertTrue(stored("batch").contains("a.xml"));
+        assertTrue(stored("batch").contains("b.xml"));
+
+    }
+
+    @Test
+    public void batchedLogRecordsAreAppendedOnCommit() throws Exception {
+        IdContainerJsonLog x = new IdContainerJsonLog(root, "batch", true);
+        x.begin();
+        x.save("<a/>", x.LOCAL_LEDGER, "a.xml", true);
+        x.save("<b/>", x.LOCAL_LEDGER, "b.xml", true);
+        assertFalse(Files.exists(x.getLog()));
+
+        x.commit();
+        assertEquals(2, Files.readAllLines(x.getLog()).size());
+        IdContainerJsonLog reopened = new IdContainerJsonLog(root, "batch");
+        assertTrue(reopened.getSchema().getLocalLedger().containsKey("a.xml"));
+        assertTrue(reopened.getSchema().getLocalLedger().containsKey("b.xml"));
+
+    }
+
+    @Test(expected = HubException.class)
+    public void commitWithoutBegin() throws Exception {
+        IdContainerJSON x = new IdContainerJSON(root, "batch", true);
+        x.commit();
+
+    }
+
+    private Set<String> stored(String username) throws Exception {
+        return new IdContainerJSON(root, username).getSchema().getLocalLedger().keySet();
+
+    }
+}
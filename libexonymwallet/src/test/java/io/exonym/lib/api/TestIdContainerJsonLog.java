@@ -0,0 +1,112 @@
+package io.exonym.lib.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class TestIdContainerJsonLog {
+
+    private Path root;
+
+    @Before
+    public void before() throws Exception {
+        root = Files.createTempDirectory("container-log");
+
+    }
+
+    @After
+    public void after() throws Exception {
+        try (Stream<Path> paths = Files.walk(root)){
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+
+        }
+    }
+
+    @Test
+    public void recordsAreReplayedOnOpen() throws Exception {
+        IdContainerJsonLog x = new IdContainerJsonLog(root, "log", true);
+        x.save("<a/>", x.LOCAL_LEDGER, "a.xml", true);
+        x.save("<b/>", x.LOCAL_LEDGER, "b.xml", true);
+        assertTrue(Files.exists(x.getLog()));
+
+        // the snapshot alone does not hold the records
+        IdContainerJSON snapshot = new IdContainerJSON(root, "log");
+        assertFalse(snapshot.getSchema().getLocalLedger().containsKey("a.xml"));
+
+        IdContainerJsonLog reopened = new IdContainerJsonLog(root, "log");
+        assertTrue(reopened.getSchema().getLocalLedger().containsKey("a.xml"));
+        assertTrue(reopened.getSchema().getLocalLedger().containsKey("b.xml"));
+        assertFalse(Files.exists(reopened.getLog()));
+
+        // once replayed, the container can be opened without the log
+        snapshot = new IdContainerJSON(root, "log");
+        assertTrue(snapshot.getSchema().getLocalLedger().containsKey("b.xml"));
+
+    }
+
+    @Test
+    public void tornRecordIsDiscarded() throws Exception {
+        IdContainerJsonLog x = new IdContainerJsonLog(root, "log", true);
+        x.save("<a/>", x.LOCAL_LEDGER, "a.xml", true);
+        Files.write(x.getLog(), "{\"l\":\"urn:rulebook:loc".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        IdContainerJsonLog reopened = new IdContainerJsonLog(root, "log");
+        assertTrue(reopened.getSchema().getLocalLedger().containsKey("a.xml"));
+        assertEquals(1, reopened.getSchema().getLocalLedger().size());
+
+    }
+
+    @Test
+    public void failedAppendLeavesTheSchema() throws Exception {
+        IdContainerJsonLog x = new IdContainerJsonLog(root, "log", true);
+        x.save("<a/>", x.LOCAL_LEDGER, "a.xml", true);
+        x.compact();
+        String a = x.getSchema().getLocalLedger().get("a.xml");
+
+        // the log cannot be opened for writing
+        Files.createDirectory(x.getLog());
+        try {
+            x.save("<b/>", x.LOCAL_LEDGER, "b.xml", true);
+            fail();
+
+        } catch (Exception e) {
+            assertFalse(x.getSchema().getLocalLedger().containsKey("b.xml"));
+
+        }
+        try {
+            x.save("<c/>", x.LOCAL_LEDGER, "a.xml", true);
+            fail();
+
+        } catch (Exception e) {
+            assertEquals(a, x.getSchema().getLocalLedger().get("a.xml"));
+
+        }
+    }
+
+    @Test
+    public void existingContainerIsOpened() throws Exception {
+        IdContainerJSON legacy = new IdContainerJSON(root, "log", true);
+        legacy.save("<a/>", legacy.LOCAL_LEDGER, "a.xml", true);
+
+        IdContainerJsonLog x = new IdContainerJsonLog(root, "log");
+        assertTrue(x.getSchema().getLocalLedger().containsKey("a.xml"));
+        x.save("<b/>", x.LOCAL_LEDGER, "b.xml", true);
+        x.compact();
+        assertFalse(Files.exists(x.getLog()));
+
+        legacy = new IdContainerJSON(root, "log");
+        assertTrue(legacy.getSchema().getLocalLedger().containsKey("a.xml"));
+        assertTrue(legacy.getSchema().getLocalLedger().containsKey("b.xml"));
+
+    }
+}
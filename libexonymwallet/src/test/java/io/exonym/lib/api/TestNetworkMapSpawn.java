@@ -0,0 +1,444 @@
+package io.exonym.lib.api;
+
+import com.sun.net.httpserver.HttpServer;
+import io.exonym.lib.abc.util.JaxbHelper;
+import io.exonym.lib.actor.NodeVerifier;
+import io.exonym.lib.exceptions.ErrorMessages;
+import io.exonym.lib.exceptions.UxException;
+import io.exonym.lib.helpers.UrlHelper;
+import io.exonym.lib.pojo.*;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Spawns and refreshes a network map from a local HTTP stand-in that serves a
+ * few hundred synthetic leads, some of which fail.
+ */
+public class TestNetworkMapSpawn {
+
+    private final static Logger logger = Logger.getLogger(TestNetworkMapSpawn.class.getName());
+
+    private static final int LEADS = 300;
+    private static final int MODS_PER_LEAD = 5;
+    private static final int FAIL_EVERY = 50;
+    private static final long LATENCY = 20;
+
+    // what the stand-in serves; changed by the refresh test
+    private static final Set<Integer> unlisted = ConcurrentHashMap.newKeySet();
+    private static final ConcurrentHashMap<Integer, String> leadUpdated = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, String> modUpdated = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Integer, Integer> modsPerLead = new ConcurrentHashMap<>();
+
+    @Test
+    public void concurrentSpawn() throws Exception {
+        ExecutorService serverThreads = Executors.newFixedThreadPool(32);
+        HttpServer server = startServer(serverThreads);
+        try {
+            String base = "http://localhost:" + server.getAddress().getPort();
+            SyntheticNetworkMap map = new SyntheticNetworkMap(base);
+            Thread caller = Thread.currentThread();
+
+            NetworkMapSpawnReport report = map.spawn(8);
+            logger.info(report.toString());
+
+            int failing = LEADS / FAIL_EVERY;
+            assertEquals(LEADS, report.getLeads());
+            assertEquals(LEADS - failing, report.getSpawned());
+            assertEquals((LEADS - failing) * MODS_PER_LEAD, report.getModerators());
+            assertEquals(failing, report.getFailures().size());
+            for (URI failed : report.getFailures().keySet()){
+                assertEquals(0, leadIndex(failed) % FAIL_EVERY);
+
+            }
+            assertFalse(report.isComplete());
+            assertEquals(LEADS - failing, map.leads.size());
+
+            // verified concurrently, written by the calling thread as they complete
+            assertTrue(map.maxInFlight.get() > 1);
+            assertEquals(Collections.singleton(caller), map.writers);
+            assertTrue(map.verifiedAtFirstWrite < LEADS);
+
+        } finally {
+            server.stop(0);
+            serverThreads.shutdownNow();
+
+        }
+    }
+
+    @Test
+    public void incrementalRefresh() throws Exception {
+        ExecutorService serverThreads = Executors.newFixedThreadPool(32);
+        HttpServer server = startServer(serverThreads);
+        try {
+            String base = "http://localhost:" + server.getAddress().getPort();
+            SyntheticNetworkMap map = new SyntheticNetworkMap(base);
+            map.spawn(8);
+            int failing = LEADS / FAIL_EVERY;
+
+            // nothing has changed: every lead is opened and nothing is written
+            map.verified.set(0);
+            NetworkMapChangeSet changes = map.refresh(8);
+            assertEquals(LEADS, map.verified.get());
+            assertEquals(LEADS - failing, changes.getUnchanged());
+            assertTrue(changes.isEmpty());
+
+            // lead 1 is updated with a new moderator key and one moderator fewer,
+            // lead 2 is no longer listed, lead 3 is updated without a moderator change,
+            // lead 4 has a moderator updated while its own entry stays the same
+            leadUpdated.put(1, "2");
+            modUpdated.put(1 + ":0", "2");
+            modsPerLead.put(1, MODS_PER_LEAD - 1);
+            unlisted.add(2);
+            leadUpdated.put(3, "2");
+            modUpdated.put(4 + ":1", "2");
+
+            RecordingCache cache = (RecordingCache) map.getCache();
+            cache.stored.clear();
+            map.verified.set(0);
+            changes = map.refresh(8);
+            logger.info(changes.toString());
+            assertEquals(LEADS - 1, map.verified.get());
+            assertEquals(LEADS - failing - 4, changes.getUnchanged());
+            assertEquals(new HashSet<>(Arrays.asList(leadUid(1), leadUid(3), leadUid(4))),
+                    changes.getLeads().keySet());
+            assertEquals(new HashSet<>(Arrays.asList(modUid(1, 0), modUid(4, 1))),
+                    changes.getModerators().keySet());
+            assertEquals(Collections.singleton(leadUid(2)), changes.getRemovedLeads());
+            assertTrue(changes.getRemovedModerators().contains(modUid(1, MODS_PER_LEAD - 1)));
+            for (int j = 0; j < MODS_PER_LEAD; j++){
+                assertTrue(changes.getRemovedModerators().contains(modUid(2, j)));
+
+            }
+            assertFalse(map.leads.containsKey(leadUid(2)));
+            assertFalse(map.mods.containsKey(modUid(2, 0)));
+            assertFalse(map.mods.containsKey(modUid(1, MODS_PER_LEAD - 1)));
+            assertEquals("2", map.mods.get(modUid(1, 0)).getLastUpdated());
+            assertEquals(MODS_PER_LEAD - 1, map.leads.get(leadUid(1)).getModeratorsForLead().size());
+            assertEquals("2", map.mods.get(modUid(4, 1)).getLastUpdated());
+            assertEquals("1", map.leads.get(leadUid(4)).getLastUpdated());
+
+            // the materials of the changed leads are cached, after the changes are applied
+            assertEquals(new HashSet<>(Arrays.asList(leadUid(1), leadUid(3), leadUid(4))),
+                    new HashSet<>(cache.stored));
+
+        } finally {
+            unlisted.clear();
+            leadUpdated.clear();
+            modUpdated.clear();
+            modsPerLead.clear();
+            server.stop(0);
+            serverThreads.shutdownNow();
+
+        }
+    }
+
+    @Test
+    public void failedApplyCachesNothing() throws Exception {
+        ExecutorService serverThreads = Executors.newFixedThreadPool(32);
+        HttpServer server = startServer(serverThreads);
+        try {
+            String base = "http://localhost:" + server.getAddress().getPort();
+            SyntheticNetworkMap map = new SyntheticNetworkMap(base);
+            map.spawn(8);
+            RecordingCache cache = (RecordingCache) map.getCache();
+            cache.stored.clear();
+
+            leadUpdated.put(5, "2");
+            map.failApply = true;
+            try {
+                map.refresh(8);
+                fail();
+
+            } catch (Exception e) {
+                assertEquals("Could not apply the changes", e.getMessage());
+
+            }
+            assertTrue(cache.stored.isEmpty());
+            assertEquals("1", map.leads.get(leadUid(5)).getLastUpdated());
+
+            map.failApply = false;
+            NetworkMapChangeSet changes = map.refresh(8);
+            assertEquals(Collections.singleton(leadUid(5)), changes.getLeads().keySet());
+            assertEquals(Collections.singletonList(leadUid(5)), cache.stored);
+            assertEquals("2", map.leads.get(leadUid(5)).getLastUpdated());
+
+        } finally {
+            leadUpdated.clear();
+            server.stop(0);
+            serverThreads.shutdownNow();
+
+        }
+    }
+
+    private static HttpServer startServer(ExecutorService threads) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(threads);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            try {
+                byte[] body;
+                if (path.equals("/leads.xml")){
+                    body = xml(leadSet(exchange.getLocalAddress().getPort()));
+
+                } else {
+                    int lead = Integer.parseInt(path.split("/")[1].replace("lead", ""));
+                    Thread.sleep(LATENCY);
+                    if (lead % FAIL_EVERY == 0){
+                        exchange.sendResponseHeaders(500, -1);
+                        return;
+
+                    }
+                    body = xml(moderatorsForLead(lead));
+
+                }
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()){
+                    out.write(body);
+
+                }
+            } catch (Exception e) {
+                exchange.sendResponseHeaders(404, -1);
+
+            } finally {
+                exchange.close();
+
+            }
+        });
+        server.start();
+        return server;
+
+    }
+
+    private static TrustNetwork leadSet(int port) {
+        TrustNetwork tn = new TrustNetwork();
+        for (int i = 0; i < LEADS; i++){
+            if (!unlisted.contains(i)){
+                NetworkParticipant p = participant(leadUid(i),
+                        URI.create("http://localhost:" + port + "/lead" + i + "/"));
+                p.setLastUpdateTime(leadUpdated.getOrDefault(i, "1"));
+                tn.getParticipants().add(p);
+
+            }
+        }
+        return tn;
+
+    }
+
+    private static TrustNetwork moderatorsForLead(int lead) {
+        TrustNetwork tn = new TrustNetwork();
+        for (int j = 0; j < modsPerLead.getOrDefault(lead, MODS_PER_LEAD); j++){
+            String updated = modUpdated.getOrDefault(lead + ":" + j, "1");
+            NetworkParticipant p = participant(modUid(lead, j), URI.create("http://localhost/mod" + j + "/"));
+            p.getPublicKey().setPublicKey((updated + p.getNodeUid()).getBytes(StandardCharsets.UTF_8));
+            p.setLastUpdateTime(updated);
+            tn.getParticipants().add(p);
+
+        }
+        return tn;
+
+    }
+
+    private static NetworkParticipant participant(URI uid, URI url) {
+        NetworkParticipant p = new NetworkParticipant();
+        XKey key = new XKey();
+        key.setPublicKey(uid.toString().getBytes(StandardCharsets.UTF_8));
+        p.setNodeUid(uid);
+        p.setStaticNodeUrl0(url);
+        p.setPublicKey(key);
+        return p;
+
+    }
+
+    private static URI leadUid(int lead) {
+        return URI.create(Namespace.URN_PREFIX_COLON + "synthetic:lead" + lead + ":" + hash(lead));
+    }
+
+    private static URI modUid(int lead, int mod) {
+        return URI.create(Namespace.URN_PREFIX_COLON + "synthetic:lead" + lead
+                + ":mod" + mod + ":" + hash(lead));
+    }
+
+    private static String hash(int lead) {
+        return String.format("%064x", lead % 3);
+    }
+
+    private static int leadIndex(URI leadUid) {
+        return Integer.parseInt(leadUid.toString().split(":")[3].replace("lead", ""));
+    }
+
+    private static byte[] xml(TrustNetwork tn) throws Exception {
+        return JaxbHelper.serializeToXml(tn, TrustNetwork.class).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the lead set and each lead's moderators from the stand-in instead of
+     * opening signed nodes.
+     */
+    private static class SyntheticNetworkMap extends AbstractNetworkMap {
+
+        private final String base;
+        private final ConcurrentHashMap<URI, NetworkMapItemLead> leads = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<URI, NetworkMapItemModerator> mods = new ConcurrentHashMap<>();
+        private final Set<Thread> writers = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final AtomicInteger verified = new AtomicInteger();
+        private volatile int verifiedAtFirstWrite = -1;
+        private volatile boolean failApply = false;
+
+        private SyntheticNetworkMap(String base) throws Exception {
+            super(null);
+            this.base = base;
+
+        }
+
+        @Override
+        protected TrustNetwork openLeadSet() throws Exception {
+            return JaxbHelper.xmlToClass(UrlHelper.readXml(new URL(base + "/leads.xml")), TrustNetwork.class);
+        }
+
+        @Override
+        protected VerifiedLead verifyLead(NetworkParticipant lead) throws Exception {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                URL url = lead.getStaticNodeUrl0().resolve("network.xml").toURL();
+                TrustNetwork tn = JaxbHelper.xmlToClass(UrlHelper.readXml(url), TrustNetwork.class);
+                return new VerifiedLead(lead, tn, Collections.singletonList(lead.getNodeUid()));
+
+            } finally {
+                inFlight.decrementAndGet();
+                verified.incrementAndGet();
+
+            }
+        }
+
+        @Override
+        protected void writeVerifiedLead(URI leadUid, NetworkMapItemLead nmis,
+                                         ArrayList<NetworkMapItemModerator> modForLead) throws Exception {
+            if (verifiedAtFirstWrite < 0){
+                verifiedAtFirstWrite = verified.get();
+
+            }
+            writers.add(Thread.currentThread());
+            assertEquals(MODS_PER_LEAD, nmis.getModeratorsForLead().size());
+            assertEquals(MODS_PER_LEAD, modForLead.size());
+            leads.put(leadUid, nmis);
+            for (NetworkMapItemModerator nmia : modForLead){
+                mods.put(nmia.getNodeUID(), nmia);
+
+            }
+        }
+
+        @Override
+        protected List<NetworkMapItemLead> listLeads() {
+            return new ArrayList<>(leads.values());
+        }
+
+        @Override
+        protected void applyChanges(NetworkMapChangeSet changes) throws Exception {
+            if (failApply){
+                throw new Exception("Could not apply the changes");
+
+            }
+            leads.keySet().removeAll(changes.getRemovedLeads());
+            mods.keySet().removeAll(changes.getRemovedModerators());
+            mods.putAll(changes.getModerators());
+            leads.putAll(changes.getLeads());
+
+        }
+
+        @Override
+        public NetworkMapItem nmiForNode(URI uid) throws Exception {
+            NetworkMapItem item = (leads.containsKey(uid) ? leads.get(uid) : mods.get(uid));
+            if (item==null){
+                throw new UxException(ErrorMessages.FILE_NOT_FOUND + ":" + uid);
+
+            }
+            return item;
+
+        }
+
+        @Override
+        protected CacheContainer instantiateCache(Path root) throws Exception {
+            return new RecordingCache();
+        }
+
+        @Override
+        protected NodeVerifier openNodeVerifier(URI staticNodeUrl0, boolean isTargetLead) throws Exception {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean networkMapExists() {
+            return !leads.isEmpty();
+        }
+
+        @Override
+        public void delete() {
+            leads.clear();
+            mods.clear();
+        }
+
+        @Override
+        protected Path defineRootPath() {
+            return null;
+        }
+    }
+
+    /**
+     * Records the materials that the map caches, in the order they are stored.
+     */
+    private static class RecordingCache implements CacheContainer {
+
+        private final List<Object> stored = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public <T> T open(URI material) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T open(String filename) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void store(Object material) {
+            stored.add(material);
+        }
+
+        @Override
+        public void invalidate(Object material) {
+        }
+
+        @Override
+        public void clear() {
+            stored.clear();
+        }
+
+        @Override
+        public AbstractIdContainer getContainer() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
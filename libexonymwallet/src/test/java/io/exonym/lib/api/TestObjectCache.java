@@ -0,0 +1,85 @@
+package io.exonym.lib.api;
+
+import io.exonym.lib.pojo.Namespace;
+import io.exonym.lib.pojo.Rulebook;
+import io.exonym.lib.pojo.RulebookItem;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+public class TestObjectCache {
+
+    @Test
+    public void leastRecentlyUsedIsEvicted() {
+        ObjectCache objects = new ObjectCache(2);
+        objects.put("a.xml", "a");
+        objects.put("b.xml", "b");
+        assertEquals("a", objects.get("a.xml"));
+
+        objects.put("c.xml", "c");
+        assertNull(objects.get("b.xml"));
+        assertEquals("a", objects.get("a.xml"));
+        assertEquals("c", objects.get("c.xml"));
+        assertEquals(1, objects.getEvictions());
+        assertEquals(3, objects.getHits());
+        assertEquals(1, objects.getMisses());
+
+    }
+
+    @Test
+    public void storedMaterialInvalidatesItsFile() throws Exception {
+        ObjectCache objects = new ObjectCache();
+        Rulebook rulebook = new Rulebook();
+        rulebook.setRulebookId(Namespace.URN_PREFIX_COLON + "test:" + "0".repeat(64));
+        String fileName = ObjectCache.fileNameOf(rulebook);
+        assertTrue(fileName.endsWith(".json"));
+
+        objects.put(fileName, rulebook);
+        objects.put("other.xml", "other");
+        objects.invalidate(rulebook);
+        assertNull(objects.get(fileName));
+        assertEquals("other", objects.get("other.xml"));
+
+        // material without a known file name clears everything
+        objects.invalidate(new Object());
+        assertEquals(0, objects.size());
+
+    }
+
+    @Test
+    public void changedRulebookIsNotSeenByTheNextCaller() {
+        ObjectCache objects = new ObjectCache();
+        Rulebook rulebook = new Rulebook();
+        rulebook.setRulebookId(Namespace.URN_PREFIX_COLON + "test:" + "0".repeat(64));
+        for (int i = 0; i < 2; i++){
+            RulebookItem item = new RulebookItem();
+            item.setId(rulebook.getRulebookId() + ":" + i);
+            item.setDescription("rule " + i);
+            rulebook.getRules().add(item);
+            rulebook.getRuleExtensions().add(item);
+
+        }
+        objects.put("rulebook.json", rulebook);
+
+        // the rulebook that was put is not the one that is kept
+        rulebook.getRules().clear();
+
+        // trimmed as NetworkMapInspector does before showing it
+        Rulebook first = objects.get("rulebook.json");
+        assertEquals(2, first.getRules().size());
+        first.setPenalties(null);
+        first.setRuleExtensions(new ArrayList<>());
+        first.getRules().get(0).setDescription("changed");
+
+        Rulebook next = objects.get("rulebook.json");
+        assertNotSame(first, next);
+        assertEquals(rulebook.getRulebookId(), next.getRulebookId());
+        assertNotNull(next.getPenalties());
+        assertEquals(2, next.getRuleExtensions().size());
+        assertEquals("rule 0", next.getRules().get(0).getDescription());
+        assertEquals(2, objects.getHits());
+
+    }
+}
@@ -0,0 +1,194 @@
+package io.exonym.lib.api;
+
+import com.sun.net.httpserver.HttpServer;
+import io.exonym.lib.exceptions.ErrorMessages;
+import io.exonym.lib.exceptions.UxException;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Loads nodes from a local HTTP stand-in that delays every response, as a
+ * slow moderator would.
+ */
+public class TestSingleFlight {
+
+    private static final long LATENCY = 300;
+    private static final int CALLERS = 16;
+
+    private final ConcurrentHashMap<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+    @Test
+    public void concurrentCallersShareOneFetch() throws Exception {
+        ExecutorService serverThreads = Executors.newFixedThreadPool(CALLERS);
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        HttpServer server = startServer(serverThreads);
+        try {
+            String base = "http://localhost:" + server.getAddress().getPort();
+            SingleFlight flights = new SingleFlight();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++){
+                results.add(callers.submit(() -> {
+                    start.await();
+                    return flights.load("lead", () -> fetch(base + "/lead"));
+
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results){
+                assertEquals("lead", result.get());
+
+            }
+            assertEquals(1, hits.get("/lead").get());
+
+        } finally {
+            server.stop(0);
+            serverThreads.shutdownNow();
+            callers.shutdownNow();
+
+        }
+    }
+
+    @Test
+    public void differentNodesLoadInParallel() throws Exception {
+        ExecutorService serverThreads = Executors.newFixedThreadPool(CALLERS);
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        HttpServer server = startServer(serverThreads);
+        try {
+            String base = "http://localhost:" + server.getAddress().getPort();
+            SingleFlight flights = new SingleFlight();
+            List<Future<String>> results = new ArrayList<>();
+            long t0 = System.currentTimeMillis();
+            for (int i = 0; i < CALLERS; i++){
+                String node = "/mod-" + i;
+                results.add(callers.submit(() -> flights.load(node, () -> fetch(base + node))));
+
+            }
+            HashSet<String> loaded = new HashSet<>();
+            for (Future<String> result : results){
+                loaded.add(result.get());
+
+            }
+            long elapsed = System.currentTimeMillis() - t0;
+            assertEquals(CALLERS, loaded.size());
+            assertTrue(maxConcurrent.get() > 1);
+            assertTrue("took " + elapsed + "ms", elapsed < CALLERS * LATENCY / 2);
+
+        } finally {
+            server.stop(0);
+            serverThreads.shutdownNow();
+            callers.shutdownNow();
+
+        }
+    }
+
+    @Test
+    public void failingNodeBacksOff() throws Exception {
+        ExecutorService serverThreads = Executors.newFixedThreadPool(4);
+        HttpServer server = startServer(serverThreads);
+        try {
+            String base = "http://localhost:" + server.getAddress().getPort();
+            SingleFlight flights = new SingleFlight(LATENCY, 4 * LATENCY);
+            try {
+                flights.load("failing", () -> fetch(base + "/failing"));
+                fail();
+
+            } catch (IOException e){
+                assertTrue(flights.isBackingOff("failing"));
+
+            }
+            try {
+                flights.load("failing", () -> fetch(base + "/failing"));
+                fail();
+
+            } catch (UxException e){
+                assertEquals(ErrorMessages.NODE_BACKING_OFF, e.getMessage());
+
+            }
+            assertEquals(1, hits.get("/failing").get());
+
+            // other nodes are unaffected
+            assertEquals("lead", flights.load("lead", () -> fetch(base + "/lead")));
+
+            Thread.sleep(LATENCY + 50);
+            assertFalse(flights.isBackingOff("failing"));
+            try {
+                flights.load("failing", () -> fetch(base + "/failing"));
+                fail();
+
+            } catch (IOException e){
+                assertEquals(2, hits.get("/failing").get());
+
+            }
+        } finally {
+            server.stop(0);
+            serverThreads.shutdownNow();
+
+        }
+    }
+
+    private String fetch(String url) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try (InputStream in = connection.getInputStream()){
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+
+        } finally {
+            connection.disconnect();
+
+        }
+    }
+
+    private HttpServer startServer(ExecutorService threads) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            hits.computeIfAbsent(path, k -> new AtomicInteger()).incrementAndGet();
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(LATENCY);
+                if (path.startsWith("/failing")){
+                    exchange.sendResponseHeaders(500, -1);
+                    return;
+
+                }
+                byte[] body = path.substring(1).getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()){
+                    out.write(body);
+
+                }
+            } catch (InterruptedException e){
+                exchange.sendResponseHeaders(503, -1);
+
+            } finally {
+                concurrent.decrementAndGet();
+                exchange.close();
+
+            }
+        });
+        server.setExecutor(threads);
+        server.start();
+        return server;
+
+    }
+}
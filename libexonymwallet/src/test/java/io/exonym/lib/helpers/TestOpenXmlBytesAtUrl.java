@@ -0,0 +1,197 @@
+package io.exonym.lib.helpers;
+
+import com.sun.net.httpserver.HttpServer;
+import io.exonym.lib.abc.util.JaxbHelper;
+import io.exonym.lib.lite.Http;
+import io.exonym.lib.lite.MaterialFetcher;
+import io.exonym.lib.pojo.IdContainer;
+import io.exonym.lib.pojo.KeyContainer;
+import io.exonym.lib.pojo.KeyContainerWrapper;
+import io.exonym.lib.pojo.XKey;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Opens a moderator from a local HTTP stand-in that delays every response.
+ */
+public class TestOpenXmlBytesAtUrl {
+
+    private static final long LATENCY = 300;
+    private static final int MATERIALS = 6;
+    private static final String TRANSFER = "<?xml version=\"1.0\"?>\n<Transfer/>";
+
+    private final Set<String> missing = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private volatile boolean transferPublished = false;
+
+    @Test
+    public void materialsAreFetchedConcurrently() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(16);
+        HttpServer server = startServer(threads);
+        try {
+            long t0 = System.currentTimeMillis();
+            ConcurrentHashMap<String, byte[]> result = XmlHelper.openXmlBytesAtUrl(
+                    node(server), new MaterialFetcher(new Http(), MATERIALS, 5000));
+            long elapsed = System.currentTimeMillis() - t0;
+
+            assertEquals(MATERIALS + 2, result.size());
+            assertNotNull(result.get("description"));
+            assertNotNull(result.get("signatures.xml"));
+            for (int i = 0; i < MATERIALS; i++){
+                assertEquals(material(i), new String(result.get(fileName(i)), StandardCharsets.UTF_8));
+
+            }
+            // two round trips rather than one per file
+            assertTrue("took " + elapsed + "ms", elapsed < (MATERIALS + 2) * LATENCY * 3 / 4);
+
+        } finally {
+            server.stop(0);
+            threads.shutdownNow();
+
+        }
+    }
+
+    @Test
+    public void missingFileIsReplacedByTransfer() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(16);
+        HttpServer server = startServer(threads);
+        try {
+            missing.add(fileName(2));
+            transferPublished = true;
+            ConcurrentHashMap<String, byte[]> result = XmlHelper.openXmlBytesAtUrl(
+                    node(server), new MaterialFetcher(new Http(), MATERIALS, 5000));
+
+            assertEquals(TRANSFER, new String(result.get(fileName(2)), StandardCharsets.UTF_8));
+            assertEquals(1, hits.get("/moderator/transfer.xml").get());
+
+        } finally {
+            server.stop(0);
+            threads.shutdownNow();
+
+        }
+    }
+
+    @Test(expected = SecurityException.class)
+    public void missingFileWithoutTransferIsInvalid() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(16);
+        HttpServer server = startServer(threads);
+        try {
+            missing.add(fileName(4));
+            XmlHelper.openXmlBytesAtUrl(node(server), new MaterialFetcher(new Http(), MATERIALS, 5000));
+
+        } finally {
+            server.stop(0);
+            threads.shutdownNow();
+
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void slowNodeTimesOut() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(16);
+        HttpServer server = startServer(threads);
+        try {
+            XmlHelper.openXmlBytesAtUrl(node(server), new MaterialFetcher(new Http(), MATERIALS, LATENCY / 2));
+
+        } finally {
+            server.stop(0);
+            threads.shutdownNow();
+
+        }
+    }
+
+    private URI node(HttpServer server) {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + "/moderator");
+
+    }
+
+    private static URI keyUid(int i) {
+        return URI.create("urn:rulebook:test:moderator:material-" + i);
+
+    }
+
+    private static String fileName(int i) throws Exception {
+        return IdContainer.uidToXmlFileName(keyUid(i));
+
+    }
+
+    private static String material(int i) {
+        return "<?xml version=\"1.0\"?>\n<Material" + i + "/>";
+
+    }
+
+    private static String signatures() throws Exception {
+        KeyContainer kc = new KeyContainer();
+        ArrayList<XKey> keys = new ArrayList<>();
+        XKey root = new XKey();
+        root.setKeyUid(KeyContainerWrapper.TN_ROOT_KEY);
+        keys.add(root);
+        for (int i = 0; i < MATERIALS; i++){
+            XKey key = new XKey();
+            key.setKeyUid(keyUid(i));
+            keys.add(key);
+
+        }
+        kc.setKeyPairs(keys);
+        return JaxbHelper.serializeToXml(kc, KeyContainer.class);
+
+    }
+
+    private HttpServer startServer(ExecutorService threads) throws Exception {
+        ConcurrentHashMap<String, String> published = new ConcurrentHashMap<>();
+        published.put("/rulebook.json", "{\n}");
+        published.put("/moderator/signatures.xml", signatures());
+        for (int i = 0; i < MATERIALS; i++){
+            published.put("/moderator/" + fileName(i), material(i));
+
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            hits.computeIfAbsent(path, k -> new AtomicInteger()).incrementAndGet();
+            try {
+                Thread.sleep(LATENCY);
+                String body = published.get(path);
+                if (path.equals("/moderator/transfer.xml") && transferPublished){
+                    body = TRANSFER;
+
+                }
+                if (body==null || (path.startsWith("/moderator/")
+                        && missing.contains(path.substring("/moderator/".length())))){
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+
+                }
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()){
+                    out.write(bytes);
+
+                }
+            } catch (InterruptedException | IOException e){
+                exchange.sendResponseHeaders(503, -1);
+
+            } finally {
+                exchange.close();
+
+            }
+        });
+        server.setExecutor(threads);
+        server.start();
+        return server;
+
+    }
+}
@@ -0,0 +1,157 @@
+package io.exonym.lib.lite;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Revalidates against a local HTTP stand-in that honours If-None-Match and
+ * If-Modified-Since.
+ */
+public class TestHttpCache {
+
+    private static final String LAST_MODIFIED = "Tue, 01 Oct 2024 10:00:00 GMT";
+
+    private Path root;
+    private HttpServer server;
+    private String base;
+    private final ConcurrentHashMap<String, String> published = new ConcurrentHashMap<>();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private final AtomicLong bodyBytes = new AtomicLong();
+
+    @Before
+    public void before() throws Exception {
+        root = Files.createTempDirectory("http-cache");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String body = published.get(path);
+            try {
+                if (body==null){
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+
+                }
+                String etag = "\"" + body.hashCode() + "\"";
+                if (path.startsWith("/etag/")){
+                    exchange.getResponseHeaders().add("ETag", etag);
+                    if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))){
+                        notModified.incrementAndGet();
+                        exchange.sendResponseHeaders(304, -1);
+                        return;
+
+                    }
+                } else if (path.startsWith("/modified/")){
+                    exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+                    if (LAST_MODIFIED.equals(exchange.getRequestHeaders().getFirst("If-Modified-Since"))){
+                        notModified.incrementAndGet();
+                        exchange.sendResponseHeaders(304, -1);
+                        return;
+
+                    }
+                }
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                bodyBytes.addAndGet(bytes.length);
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()){
+                    out.write(bytes);
+
+                }
+            } finally {
+                exchange.close();
+
+            }
+        });
+        server.start();
+        base = "http://localhost:" + server.getAddress().getPort();
+
+    }
+
+    @After
+    public void after() throws Exception {
+        server.stop(0);
+        try (Stream<Path> paths = Files.walk(root)){
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+
+        }
+    }
+
+    @Test
+    public void unchangedBodyIsServedFromDisk() throws Exception {
+        published.put("/etag/leads.xml", "<leads/>");
+        MaterialFetcher fetcher = fetcher(new HttpCache(root));
+        URL url = new URL(base + "/etag/leads.xml");
+
+        assertEquals("<leads/>", new String(fetcher.read(url), StandardCharsets.UTF_8));
+        assertEquals(8, bodyBytes.get());
+
+        // a new cache over the same directory, as after a restart
+        fetcher = fetcher(new HttpCache(root));
+        assertEquals("<leads/>", new String(fetcher.read(url), StandardCharsets.UTF_8));
+        assertEquals(1, notModified.get());
+        assertEquals(8, bodyBytes.get());
+
+        published.put("/etag/leads.xml", "<leads><lead/></leads>");
+        assertEquals("<leads><lead/></leads>", new String(fetcher.read(url), StandardCharsets.UTF_8));
+        assertEquals(1, notModified.get());
+
+    }
+
+    @Test
+    public void lastModifiedIsRevalidated() throws Exception {
+        published.put("/modified/signatures.xml", "<sigs/>");
+        MaterialFetcher fetcher = fetcher(new HttpCache(root));
+        URL url = new URL(base + "/modified/signatures.xml");
+        fetcher.read(url);
+        assertEquals("<sigs/>", new String(fetcher.read(url), StandardCharsets.UTF_8));
+        assertEquals(1, notModified.get());
+
+    }
+
+    @Test
+    public void bodyWithoutValidatorIsNotKept() throws Exception {
+        published.put("/plain/ri.xml", "<ri/>");
+        HttpCache cache = new HttpCache(root);
+        URL url = new URL(base + "/plain/ri.xml");
+        fetcher(cache).read(url);
+        assertNull(cache.lookup(url));
+
+    }
+
+    @Test
+    public void damagedBodyIsRefetched() throws Exception {
+        published.put("/etag/ip.xml", "<ip/>");
+        HttpCache cache = new HttpCache(root);
+        URL url = new URL(base + "/etag/ip.xml");
+        fetcher(cache).read(url);
+        try (Stream<Path> bodies = Files.list(root)){
+            Path body = bodies.filter(p -> p.toString().endsWith(".body")).findFirst().get();
+            Files.write(body, "<tampered/>".getBytes(StandardCharsets.UTF_8));
+
+        }
+        assertNull(cache.lookup(url));
+        assertEquals("<ip/>", new String(fetcher(cache).read(url), StandardCharsets.UTF_8));
+        assertEquals(0, notModified.get());
+
+    }
+
+    private static MaterialFetcher fetcher(HttpCache cache) {
+        return new MaterialFetcher(new Http(), 4, 5000).withCache(cache);
+
+    }
+}
@@ -0,0 +1,190 @@
+package io.exonym.lib.wallet;
+
+import io.exonym.lib.api.NetworkMapChangeSet;
+import io.exonym.lib.exceptions.UxException;
+import io.exonym.lib.pojo.NetworkMapItem;
+import io.exonym.lib.pojo.NetworkMapItemLead;
+import io.exonym.lib.pojo.NetworkMapItemModerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Writes a small file-based network map and looks its nodes up through the
+ * index.
+ */
+public class TestNetworkMapIndex {
+
+    private static final String HASH = "2c859cff31d5889ab75027713926056323e6aeebe0fbee6bd126aae12713257c";
+    private static final URI LEAD_A = URI.create("urn:rulebook:index-test:lead-a:" + HASH);
+    private static final URI LEAD_B = URI.create("urn:rulebook:index-test:lead-b:" + HASH);
+
+    private Path parent;
+    private Path root;
+
+    @Before
+    public void before() throws Exception {
+        parent = Files.createTempDirectory("network-map-index");
+        root = parent.resolve("network-map");
+
+    }
+
+    @After
+    public void after() throws Exception {
+        try (Stream<Path> paths = Files.walk(parent)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+
+        }
+    }
+
+    @Test
+    public void writtenNodesAreFound() throws Exception {
+        NetworkMap map = new NetworkMap(root);
+        writeLead(map, LEAD_A, 3);
+        writeLead(map, LEAD_B, 2);
+
+        assertEquals(LEAD_A, map.nmiForNode(LEAD_A).getNodeUID());
+        URI mod = mod(LEAD_A, 1);
+        NetworkMapItem nmia = map.nmiForNode(mod);
+        assertTrue(nmia instanceof NetworkMapItemModerator);
+        assertSame(nmia, map.nmiForNode(mod));
+        assertSame(nmia, map.findNetworkMapItem(mod));
+
+        assertEquals(3, map.findModeratorsForLead(LEAD_A.toString()).size());
+        assertEquals(2, map.findModeratorsForLead(LEAD_B.toString()).size());
+        assertEquals(2, map.listLeads().size());
+
+    }
+
+    @Test
+    public void anotherMapOnTheDirectoryReadsTheFiles() throws Exception {
+        writeLead(new NetworkMap(root), LEAD_A, 3);
+        NetworkMapIndex.of(root).clear();
+
+        NetworkMap map = new NetworkMap(root);
+        assertTrue(map.nmiForNode(LEAD_A) instanceof NetworkMapItemLead);
+        assertTrue(map.nmiForNode(mod(LEAD_A, 2)) instanceof NetworkMapItemModerator);
+        assertEquals(3, map.findModeratorsForLead(LEAD_A.toString()).size());
+
+    }
+
+    @Test
+    public void changesAreApplied() throws Exception {
+        NetworkMap map = new NetworkMap(root);
+        writeLead(map, LEAD_A, 3);
+        writeLead(map, LEAD_B, 2);
+        map.nmiForNode(LEAD_A);
+
+        Changes changes = new Changes();
+        changes.removeModerator(mod(LEAD_A, 0));
+        changes.putModerator(moderator(LEAD_A, 3));
+        changes.removeLead(LEAD_B, List.of(mod(LEAD_B, 0), mod(LEAD_B, 1)));
+        map.applyChanges(changes);
+
+        assertEquals(3, map.findModeratorsForLead(LEAD_A.toString()).size());
+        assertNotNull(map.nmiForNode(mod(LEAD_A, 3)));
+        try {
+            map.findModeratorsForLead(LEAD_B.toString());
+            fail();
+
+        } catch (UxException e) {
+            // removed with its moderators
+
+        }
+        assertEquals(1, map.listLeads().size());
+
+    }
+
+    @Test
+    public void rewrittenLeadDropsTheModeratorItNoLongerLists() throws Exception {
+        NetworkMap map = new NetworkMap(root);
+        writeLead(map, LEAD_A, 3);
+        writeLead(map, LEAD_B, 2);
+        map.nmiForNode(LEAD_A);
+
+        writeLead(map, LEAD_A, 2);
+        assertEquals(2, map.findModeratorsForLead(LEAD_A.toString()).size());
+        assertEquals(2, map.findModeratorsForLead(LEAD_B.toString()).size());
+        try {
+            map.nmiForNode(mod(LEAD_A, 2));
+            fail();
+
+        } catch (Exception e) {
+            // neither indexed nor on disk
+
+        }
+        NetworkMapIndex.of(root).clear();
+        assertEquals(2, new NetworkMap(root).findModeratorsForLead(LEAD_A.toString()).size());
+
+    }
+
+    @Test
+    public void deleteEmptiesTheIndex() throws Exception {
+        NetworkMap map = new NetworkMap(root);
+        writeLead(map, LEAD_A, 1);
+        assertEquals(1, map.listLeads().size());
+        map.delete();
+        assertTrue(map.listLeads().isEmpty());
+
+    }
+
+    private static void writeLead(NetworkMap map, URI leadUid, int mods) throws Exception {
+        NetworkMapItemLead nmis = new NetworkMapItemLead();
+        nmis.setNodeUID(leadUid);
+        nmis.setLeadUID(leadUid);
+        ArrayList<URI> modUids = new ArrayList<>();
+        ArrayList<NetworkMapItemModerator> modsForLead = new ArrayList<>();
+        for (int i = 0; i < mods; i++){
+            NetworkMapItemModerator nmia = moderator(leadUid, i);
+            modUids.add(nmia.getNodeUID());
+            modsForLead.add(nmia);
+
+        }
+        nmis.setModeratorsForLead(modUids);
+        map.writeVerifiedLead(leadUid, nmis, modsForLead);
+
+    }
+
+    private static NetworkMapItemModerator moderator(URI leadUid, int i) {
+        NetworkMapItemModerator nmia = new NetworkMapItemModerator();
+        nmia.setNodeUID(mod(leadUid, i));
+        nmia.setLeadUID(leadUid);
+        return nmia;
+
+    }
+
+    private static URI mod(URI leadUid, int i) {
+        String lead = leadUid.toString();
+        return URI.create(lead.substring(0, lead.lastIndexOf(':')) + ":mod-" + i + ":" + HASH);
+
+    }
+
+    private static class Changes extends NetworkMapChangeSet {
+
+        @Override
+        protected void putModerator(NetworkMapItemModerator nmia) {
+            super.putModerator(nmia);
+        }
+
+        @Override
+        protected void removeLead(URI leadUid, Collection<URI> moderatorsForLead) {
+            super.removeLead(leadUid, moderatorsForLead);
+        }
+
+        @Override
+        protected void removeModerator(URI modUid) {
+            super.removeModerator(modUid);
+        }
+    }
+}
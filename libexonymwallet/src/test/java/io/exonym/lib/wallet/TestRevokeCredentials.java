@@ -0,0 +1,138 @@
+package io.exonym.lib.wallet;
+
+import com.ibm.zurich.idmix.abc4trust.facades.RevocationHistoryFacade;
+import com.ibm.zurich.idmix.abc4trust.facades.RevocationInformationFacade;
+import com.ibm.zurich.idmix.abc4trust.facades.RevocationLogEntryFacade;
+import com.ibm.zurich.idmx.util.bigInt.BigIntFactoryImpl;
+import eu.abc4trust.xml.RevocationInformation;
+import eu.abc4trust.xml.RevocationLogEntry;
+import io.exonym.lib.api.IdContainerJSON;
+import io.exonym.lib.standard.PassStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Batch revocation on a revocation authority set up locally, with its keys
+ * generated on the system parameters in the wallet's resources.
+ */
+public class TestRevokeCredentials {
+
+    private static final URI ISSUER_UID = URI.create("urn:io:exonym:revoke-test:public-id:i");
+
+    private final Random random = new Random(17);
+    private final BigIntFactoryImpl bigIntFactory = new BigIntFactoryImpl();
+
+    private Path root;
+    private ExonymIssuer issuer;
+    private URI raUid;
+    private PassStore store;
+
+    @Before
+    public void before() throws Exception {
+        root = Files.createTempDirectory("revoke-credentials");
+        store = new PassStore("password", false);
+        issuer = new ExonymIssuer(new IdContainerJSON(root, "ra", true));
+        raUid = issuer.setupAsRevocationAuthority(ISSUER_UID, store.getEncrypt());
+
+    }
+
+    @After
+    public void after() throws Exception {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+
+        }
+    }
+
+    @Test
+    public void handlesAreRevokedInOneEpoch() throws Exception {
+        int epoch = latestEpoch(issuer.publicParameterOpener(URI.create(raUid + "i")));
+        int entries = logEntries(issuer.publicParameterOpener(URI.create(raUid + "i")));
+
+        List<BigInteger> handles = handles(4);
+        RevocationInformation ri = issuer.revokeCredentials(raUid, handles, store.getDecipher());
+        assertNotNull(ri);
+        assertEquals(epoch + 1, latestEpoch(ri));
+        assertEquals(entries + 1, logEntries(ri));
+
+        RevocationHistoryFacade history = history(ri);
+        for (BigInteger handle : handles){
+            assertTrue(history.revocationHandleHasBeenRevoked(bigIntFactory.valueOf(handle)));
+
+        }
+    }
+
+    @Test
+    public void revokedHandlesAreSkipped() throws Exception {
+        List<BigInteger> first = handles(2);
+        RevocationInformation ri = issuer.revokeCredentials(raUid, first, store.getDecipher());
+        int epoch = latestEpoch(ri);
+        int entries = logEntries(ri);
+
+        BigInteger fresh = handles(1).get(0);
+        ArrayList<BigInteger> again = new ArrayList<>(first);
+        again.add(fresh);
+        ri = issuer.revokeCredentials(raUid, again, store.getDecipher());
+        assertNotNull(ri);
+        assertEquals(epoch + 1, latestEpoch(ri));
+        assertEquals(entries + 1, logEntries(ri));
+
+        // the newest entry is first, and lists the fresh handle only
+        RevocationLogEntry latest = history(ri).getRevocationLogEntries().get(0);
+        assertEquals(1, new RevocationLogEntryFacade(latest).getRevocableAttribute().size());
+        assertTrue(history(ri).revocationHandleHasBeenRevoked(bigIntFactory.valueOf(fresh)));
+
+    }
+
+    @Test
+    public void nothingIsRevokedWhenEveryHandleWasRevoked() throws Exception {
+        List<BigInteger> handles = handles(3);
+        RevocationInformation ri = issuer.revokeCredentials(raUid, handles, store.getDecipher());
+        int epoch = latestEpoch(ri);
+        int entries = logEntries(ri);
+
+        assertNull(issuer.revokeCredentials(raUid, handles, store.getDecipher()));
+        RevocationInformation current = issuer.publicParameterOpener(URI.create(raUid + "i"));
+        assertEquals(epoch, latestEpoch(current));
+        assertEquals(entries, logEntries(current));
+
+    }
+
+    private List<BigInteger> handles(int count) {
+        ArrayList<BigInteger> handles = new ArrayList<>();
+        for (int i = 0; i < count; i++){
+            handles.add(BigInteger.probablePrime(256, random));
+
+        }
+        return handles;
+
+    }
+
+    private static RevocationHistoryFacade history(RevocationInformation ri) {
+        return new RevocationHistoryFacade(new RevocationInformationFacade(ri).getRevocationHistory());
+
+    }
+
+    private static int latestEpoch(RevocationInformation ri) throws Exception {
+        return history(ri).getLatestEpoch();
+
+    }
+
+    private static int logEntries(RevocationInformation ri) {
+        return history(ri).getRevocationLogEntries().size();
+
+    }
+}
@@ -0,0 +1,161 @@
+package io.exonym.lib.wallet;
+
+import io.exonym.lib.api.IdContainerJsonMemory;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * The pool lending out owners that are not opened as verifiers, so that no
+ * network is needed.
+ */
+public class TestVerifierPool {
+
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final List<ExonymOwner> cleared = Collections.synchronizedList(new ArrayList<>());
+
+    private final VerifierPool.Opener opener = new VerifierPool.Opener() {
+        @Override
+        public ExonymOwner open() throws Exception {
+            if (failures.getAndDecrement() > 0){
+                throw new Exception("Could not open a verifier");
+
+            }
+            opened.incrementAndGet();
+            return new ExonymOwner(new IdContainerJsonMemory());
+
+        }
+
+        @Override
+        public void clearStale(ExonymOwner verifier) {
+            cleared.add(verifier);
+
+        }
+    };
+
+    @After
+    public void after() {
+        VerifierPool.clearInstance();
+
+    }
+
+    @Test
+    public void verifierIsLentAndReturned() throws Exception {
+        VerifierPool pool = new VerifierPool(1, opener);
+        ExonymOwner lent = pool.withVerifier(v -> v);
+        assertSame(lent, pool.withVerifier(v -> v));
+
+        // returned when the verification fails
+        try {
+            pool.withVerifier(v -> {
+                throw new Exception("failed");
+
+            });
+            fail();
+
+        } catch (Exception e) {
+            assertEquals("failed", e.getMessage());
+
+        }
+        CountDownLatch inCall = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ExonymOwner> holding = executor.submit(() -> pool.withVerifier(v -> {
+                inCall.countDown();
+                release.await();
+                return v;
+
+            }));
+            assertTrue(inCall.await(10, TimeUnit.SECONDS));
+
+            // the only verifier is lent, so the next caller waits for it
+            Future<ExonymOwner> waiting = executor.submit(() -> pool.withVerifier(v -> v));
+            try {
+                waiting.get(200, TimeUnit.MILLISECONDS);
+                fail();
+
+            } catch (TimeoutException e) {
+                // waiting
+
+            }
+            release.countDown();
+            assertSame(lent, holding.get(10, TimeUnit.SECONDS));
+            assertSame(lent, waiting.get(10, TimeUnit.SECONDS));
+
+        } finally {
+            executor.shutdownNow();
+
+        }
+        assertEquals(1, opened.get());
+
+    }
+
+    @Test
+    public void staleVerifiersAreClearedOnceEach() throws Exception {
+        VerifierPool pool = new VerifierPool(2, opener);
+        for (int i = 0; i < 4; i++){
+            pool.withVerifier(v -> v);
+
+        }
+        assertTrue(cleared.isEmpty());
+
+        pool.clearStale();
+        HashSet<ExonymOwner> used = new HashSet<>();
+        for (int i = 0; i < 4; i++){
+            used.add(pool.withVerifier(v -> v));
+
+        }
+        assertEquals(2, used.size());
+        assertEquals(2, cleared.size());
+        assertEquals(used, new HashSet<>(cleared));
+
+        // a verifier lent out as the generation changes is cleared on its next use
+        pool.clearStale();
+        ExonymOwner first = pool.withVerifier(v -> {
+            pool.clearStale();
+            return v;
+
+        });
+        assertEquals(3, cleared.size());
+        assertSame(first, cleared.get(2));
+        pool.withVerifier(v -> v);
+        pool.withVerifier(v -> v);
+        assertEquals(5, cleared.size());
+        assertSame(first, cleared.get(4));
+
+    }
+
+    @Test
+    public void getInstanceIsRetriedAfterAFailedOpen() throws Exception {
+        failures.set(1);
+        try {
+            VerifierPool.getInstance(2, opener);
+            fail();
+
+        } catch (Exception e) {
+            assertEquals("Could not open a verifier", e.getMessage());
+
+        }
+        VerifierPool pool = VerifierPool.getInstance(2, opener);
+        assertNotNull(pool);
+        assertEquals(2, pool.size());
+        assertSame(pool, VerifierPool.getInstance(2, opener));
+        assertEquals(2, opened.get());
+
+    }
+}
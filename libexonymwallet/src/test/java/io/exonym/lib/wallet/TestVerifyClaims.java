@@ -0,0 +1,102 @@
+package io.exonym.lib.wallet;
+
+import eu.abc4trust.xml.PresentationPolicyAlternatives;
+import io.exonym.lib.actor.ClaimVerification;
+import io.exonym.lib.exceptions.PolicyNotSatisfiedException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * A burst of tokens for the fixture's issuer, verified at once.
+ */
+public class TestVerifyClaims {
+
+    private WalletFixture fixture;
+    private ExonymOwner verifier;
+    private PresentationPolicyAlternatives ppa;
+
+    @Before
+    public void before() throws Exception {
+        fixture = new WalletFixture(Files.createTempDirectory("verify-claims"), 1);
+        verifier = fixture.openVerifier();
+        ppa = fixture.policy(false);
+
+    }
+
+    @After
+    public void after() throws Exception {
+        fixture.delete();
+
+    }
+
+    @Test
+    public void badTokenFailsAmongGoodOnes() throws Exception {
+        ArrayList<ClaimVerification> claims = new ArrayList<>();
+        // proved for another challenge, so the nonce does not match
+        claims.add(new ClaimVerification(ppa, fixture.prove(fixture.getHolder(), fixture.policy(false))));
+        for (int i = 0; i < 3; i++){
+            claims.add(new ClaimVerification(ppa, fixture.prove(fixture.getHolder(), ppa)));
+
+        }
+        List<ClaimVerification> result = verifier.verifyClaims(claims);
+        assertSame(claims, result);
+
+        assertFalse(claims.get(0).isVerified());
+        assertTrue(claims.get(0).getError() instanceof PolicyNotSatisfiedException);
+        for (int i = 1; i < claims.size(); i++){
+            assertTrue(claims.get(i).isVerified());
+            assertNull(claims.get(i).getError());
+
+        }
+    }
+
+    @Test
+    public void mixedPoliciesInOneBatch() throws Exception {
+        PresentationPolicyAlternatives sso = fixture.policy(true);
+        ArrayList<ClaimVerification> claims = new ArrayList<>();
+        claims.add(new ClaimVerification(sso, fixture.prove(fixture.getHolder(), sso)));
+        claims.add(new ClaimVerification(ppa, fixture.prove(fixture.getHolder(), ppa)));
+        // proved without the domain pseudonym the sso policy asks for
+        claims.add(new ClaimVerification(sso, fixture.prove(fixture.getHolder(), ppa)));
+        claims.add(new ClaimVerification(ppa, fixture.prove(fixture.getHolder(), ppa)));
+        claims.add(new ClaimVerification(sso, fixture.prove(fixture.getHolder(), sso)));
+        verifier.verifyClaims(claims);
+
+        for (int i = 0; i < claims.size(); i++){
+            if (i==2){
+                assertFalse(claims.get(i).isVerified());
+                assertNotNull(claims.get(i).getError());
+
+            } else {
+                assertTrue("claim " + i, claims.get(i).isVerified());
+                assertNull(claims.get(i).getError());
+
+            }
+        }
+    }
+
+    @Test
+    public void groupOfBadTokensFails() throws Exception {
+        ArrayList<ClaimVerification> claims = new ArrayList<>();
+        for (int i = 0; i < 2; i++){
+            claims.add(new ClaimVerification(ppa, fixture.prove(fixture.getHolder(), fixture.policy(false))));
+
+        }
+        verifier.verifyClaims(claims);
+        for (ClaimVerification claim : claims){
+            assertFalse(claim.isVerified());
+            assertTrue(claim.getError() instanceof PolicyNotSatisfiedException);
+
+        }
+        // the verifier goes on to verify a good token
+        assertTrue(verifier.verifyClaim(ppa, fixture.prove(fixture.getHolder(), ppa)));
+
+    }
+}
@@ -0,0 +1,230 @@
+package io.exonym.lib.wallet;
+
+import io.exonym.lib.exceptions.UxException;
+import io.exonym.lib.standard.PassStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Sessions over wallets that are plain files, on a clock the test moves.
+ */
+public class TestWalletSessions {
+
+    private static final long IDLE_MS = 1000;
+
+    private final AtomicLong now = new AtomicLong(1);
+    private final AtomicInteger opened = new AtomicInteger();
+    private PassStore store;
+    private Path root;
+
+    // the wallet is its container file
+    private final WalletSessions.Opener<Path> opener = new WalletSessions.Opener<Path>() {
+        @Override
+        public Path open(PassStore store, Path root) throws Exception {
+            opened.incrementAndGet();
+            Path file = root.resolve("container.json");
+            if (!Files.exists(file)){
+                Files.write(file, new byte[16]);
+
+            }
+            return file;
+
+        }
+
+        @Override
+        public Path containerFile(Path wallet) {
+            return wallet;
+
+        }
+    };
+
+    @Before
+    public void before() throws Exception {
+        root = Files.createTempDirectory("wallet-sessions");
+        store = new PassStore("password", false);
+        store.setUsername("holder");
+
+    }
+
+    @After
+    public void after() throws Exception {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+
+        }
+    }
+
+    @Test
+    public void idleSessionIsClosed() throws Exception {
+        WalletSessions<Path> sessions = sessions(Long.MAX_VALUE);
+        long handle = sessions.open(store, wallet("a"));
+        now.addAndGet(IDLE_MS);
+        assertNotNull(sessions.call(handle, wallet -> wallet));
+
+        now.addAndGet(IDLE_MS + 1);
+        assertNotFound(sessions, handle);
+        assertEquals(0, sessions.size());
+
+    }
+
+    @Test
+    public void leastRecentlyUsedIsClosedOverTheCap() throws Exception {
+        // room for two sessions
+        WalletSessions<Path> sessions = sessions(2 * WalletSessions.SESSION_BASE_BYTES
+                + 2 * WalletSessions.CONTAINER_EXPANSION * 16);
+        long a = sessions.open(store, wallet("a"));
+        now.incrementAndGet();
+        long b = sessions.open(store, wallet("b"));
+        now.incrementAndGet();
+        sessions.call(a, wallet -> wallet);
+        now.incrementAndGet();
+
+        long c = sessions.open(store, wallet("c"));
+        assertEquals(2, sessions.size());
+        assertNotFound(sessions, b);
+        assertNotNull(sessions.call(a, wallet -> wallet));
+        assertNotNull(sessions.call(c, wallet -> wallet));
+
+    }
+
+    @Test
+    public void busySessionIsNotClosed() throws Exception {
+        WalletSessions<Path> sessions = sessions(WalletSessions.SESSION_BASE_BYTES
+                + WalletSessions.CONTAINER_EXPANSION * 16);
+        long handle = sessions.open(store, wallet("a"));
+        CountDownLatch inCall = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Path> busy = executor.submit(() -> sessions.call(handle, wallet -> {
+                inCall.countDown();
+                release.await();
+                return wallet;
+
+            }));
+            assertTrue(inCall.await(10, TimeUnit.SECONDS));
+
+            // idle and over the cap, but in a call
+            now.addAndGet(IDLE_MS + 1);
+            long other = sessions.open(store, wallet("b"));
+            assertEquals(2, sessions.size());
+
+            release.countDown();
+            assertNotNull(busy.get(10, TimeUnit.SECONDS));
+            assertTrue(sessions.close(other));
+
+        } finally {
+            executor.shutdownNow();
+
+        }
+    }
+
+    @Test
+    public void closedHandleIsRejected() throws Exception {
+        WalletSessions<Path> sessions = sessions(Long.MAX_VALUE);
+        long handle = sessions.open(store, wallet("a"));
+        assertTrue(sessions.close(handle));
+        assertFalse(sessions.close(handle));
+        assertNotFound(sessions, handle);
+        assertNotFound(sessions, 0);
+
+    }
+
+    @Test
+    public void callsOnASessionAreMadeOneAtATime() throws Exception {
+        WalletSessions<Path> sessions = sessions(Long.MAX_VALUE);
+        long a = sessions.open(store, wallet("a"));
+        long b = sessions.open(store, wallet("b"));
+        int[] counts = new int[2];
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            ArrayList<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++){
+                final int session = t % 2;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++){
+                        sessions.call(session==0 ? a : b, wallet -> {
+                            int count = counts[session];
+                            Thread.yield();
+                            counts[session] = count + 1;
+                            return wallet;
+
+                        });
+                    }
+                    return null;
+
+                }));
+            }
+            for (Future<?> future : futures){
+                future.get(60, TimeUnit.SECONDS);
+
+            }
+        } finally {
+            executor.shutdownNow();
+
+        }
+        assertEquals(4000, counts[0]);
+        assertEquals(4000, counts[1]);
+        assertEquals(2, opened.get());
+
+    }
+
+    @Test
+    public void containerWrittenOutsideIsReopened() throws Exception {
+        WalletSessions<Path> sessions = sessions(Long.MAX_VALUE);
+        long handle = sessions.open(store, wallet("a"));
+        Path file = wallet("a").resolve("container.json");
+        sessions.call(handle, wallet -> wallet);
+        assertEquals(1, opened.get());
+
+        // the same modification time, but not the same size
+        FileTime modified = Files.getLastModifiedTime(file);
+        Files.write(file, new byte[8], StandardOpenOption.APPEND);
+        Files.setLastModifiedTime(file, modified);
+        sessions.call(handle, wallet -> wallet);
+        assertEquals(2, opened.get());
+
+        sessions.call(handle, wallet -> wallet);
+        assertEquals(2, opened.get());
+
+    }
+
+    private WalletSessions<Path> sessions(long maxBytes) {
+        return new WalletSessions<>(IDLE_MS, maxBytes, opener, now::get);
+
+    }
+
+    private Path wallet(String name) throws Exception {
+        return Files.createDirectories(root.resolve(name));
+
+    }
+
+    private static void assertNotFound(WalletSessions<Path> sessions, long handle) throws Exception {
+        try {
+            sessions.call(handle, wallet -> wallet);
+            fail();
+
+        } catch (UxException e) {
+            // closed
+
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package io.exonym.lib.wallet;
+
+import eu.abc4trust.xml.*;
+import io.exonym.idmx.dagger.DaggerExonymComponent;
+import io.exonym.lib.abc.util.JaxbHelper;
+import io.exonym.lib.actor.MaterialSignatures;
+import io.exonym.lib.actor.VerifiedClaim;
+import io.exonym.lib.api.IdContainerJSON;
+import io.exonym.lib.api.IdContainerJsonMemory;
+import io.exonym.lib.helpers.BuildCredentialSpecification;
+import io.exonym.lib.helpers.BuildPresentationPolicy;
+import io.exonym.lib.pojo.*;
+import io.exonym.lib.standard.AsymStoreKey;
+import io.exonym.lib.standard.Const;
+import io.exonym.lib.standard.PassStore;
+
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Issuers, a holder with a credential from each, and a verifier, set up
+ * offline in a directory from the system parameters in the wallet's
+ * resources, as GraalVMProbeMain does.
+ *
+ * It is in the wallet's package so that it can drive the protocol steps of
+ * the actors, which are not public.  It is shipped in the test jar for the
+ * benchmarks.
+ */
+public class WalletFixture {
+
+    public static final String DOMAIN = "https://relying-party.example.com";
+    private static final String ROOT_ALIAS = "urn:io:exonym";
+    private static final String HOLDER = "holder";
+    private static final String NODE_PREFIX = Namespace.URN_PREFIX_COLON + "fixture:";
+
+    private final Path root;
+    private final PassStore store = new PassStore("password", false);
+    private final ArrayList<Issuer> issuers = new ArrayList<>();
+    private final ExonymOwner holder;
+    private int created = 0;
+
+    /**
+     * @param credentials the number of issuers, each with its own credential
+     * specification, that issue the holder a credential.  Policies ask for
+     * the first.
+     */
+    public WalletFixture(Path root, int credentials) throws Exception {
+        this.root = root;
+        for (int i = 0; i < credentials; i++){
+            issuers.add(new Issuer("issuer-" + i, URI.create(Namespace.URN_PREFIX_COLON + "fixture-" + i + ":c")));
+
+        }
+        this.holder = newOwner(HOLDER);
+        for (Issuer issuer : issuers){
+            issueTo(issuer, holder);
+
+        }
+    }
+
+    public ExonymOwner getHolder() {
+        return holder;
+    }
+
+    /**
+     * @return an owner with a new container, that trusts the issuers.
+     */
+    public ExonymOwner newOwner(String name) throws Exception {
+        IdContainerJSON x = new IdContainerJSON(root, name, true);
+        ExonymOwner owner = new ExonymOwner(x);
+        owner.openContainer(store);
+        owner.setupContainerSecret(store.getEncrypt(), store.getDecipher());
+        for (Issuer issuer : issuers){
+            owner.addCredentialSpecification(issuer.cs);
+            owner.addIssuerParameters(issuer.container.openResource(issuer.iUid));
+
+        }
+        return owner;
+
+    }
+
+    /**
+     * @return an owner with a new container, named uniquely.
+     */
+    public ExonymOwner newOwner() throws Exception {
+        return newOwner("owner-" + (created++));
+
+    }
+
+    /**
+     * Opens the holder's container again, as a wallet does at the start of
+     * every call.
+     */
+    public ExonymOwner openHolder() throws Exception {
+        ExonymOwner owner = new ExonymOwner(new IdContainerJSON(root, HOLDER, false));
+        owner.openContainer(store);
+        return owner;
+
+    }
+
+    /**
+     * The issuance round trip: issueInit, the owner's first step, issueStep
+     * and the owner's last step, for the first issuer's credential.
+     */
+    public void issueTo(ExonymOwner owner) throws Exception {
+        issueTo(issuers.get(0), owner);
+
+    }
+
+    private void issueTo(Issuer issuer, ExonymOwner owner) throws Exception {
+        VerifiedClaim claim = new VerifiedClaim(issuer.cs);
+        IssuancePolicy ip = issuer.issuer.publicParameterOpener(issuer.ipUid);
+        IssuanceMessageAndBoolean imab = issuer.issuer.issueInit(claim, ip, store.getEncrypt(),
+                URI.create("urn:fixture:context"));
+        IssuanceMessage im = owner.issuanceStep(imab, store.getEncrypt());
+        imab = issuer.issuer.issueStep(im, store.getEncrypt());
+        owner.issuanceStep(imab, store.getEncrypt());
+        if (!imab.isLastMessage()){
+            throw new IllegalStateException("Issuance did not complete in two steps");
+
+        }
+    }
+
+    /**
+     * Generates the keys of an issuer and its revocation authority.
+     */
+    public void generateIssuerKeys() throws Exception {
+        new Issuer("keys-" + (created++), URI.create(Namespace.URN_PREFIX_COLON + "fixture-keys-" + created + ":c"));
+
+    }
+
+    /**
+     * @param sso adds the pseudonym exclusive to the relying party's domain
+     * that a rulebook SSO challenge asks for.
+     */
+    public PresentationPolicyAlternatives policy(boolean sso) throws Exception {
+        Issuer issuer = issuers.get(0);
+        BuildPresentationPolicy bpp = new BuildPresentationPolicy(
+                URI.create("urn:io:exonym:fixture:pp"), issuer.cs);
+        bpp.addPseudonym(ROOT_ALIAS, false, ROOT_ALIAS);
+        if (sso){
+            bpp.addPseudonym(DOMAIN, true, ROOT_ALIAS + ":sso");
+
+        }
+        bpp.makeInteractive();
+        return bpp.getPolicyAlternatives(issuer.issuer.getVerifierParameters());
+
+    }
+
+    public PresentationToken prove(ExonymOwner owner, PresentationPolicyAlternatives ppa) throws Exception {
+        PresentationTokenDescription ptd = owner.canProveClaimFromPolicy(ppa);
+        return owner.proveClaim(ptd, ppa);
+
+    }
+
+    /**
+     * @return a verifier with the first issuer's public parameters loaded.
+     */
+    public TokenVerifier newVerifier() throws Exception {
+        Issuer issuer = issuers.get(0);
+        TokenVerifier verifier = new TokenVerifier(new IdContainerJSON(root, "verifier-" + (created++), true));
+        verifier.loadCredentialSpecification(issuer.cs);
+        verifier.loadRevocationAuthorityParameters(
+                (RevocationAuthorityParameters) issuer.container.openResource(issuer.raUid));
+        verifier.loadRevocationInformation(
+                (RevocationInformation) issuer.container.openResource(issuer.raiUid));
+        verifier.loadIssuerParameters(
+                (IssuerParameters) issuer.container.openResource(issuer.iUid));
+        return verifier;
+
+    }
+
+    /**
+     * Publishes the first issuer's materials and a trust network in a new
+     * moderator folder, signed as a moderator signs them, to be opened with
+     * NodeVerifier.openLocal().
+     */
+    public Node publishNode() throws Exception {
+        Issuer issuer = issuers.get(0);
+        Path folder = Files.createDirectories(root.resolve("node-" + (created++)).resolve(Const.MODERATOR));
+        URL url = new URL(folder.toUri().toString().replaceAll("/$", ""));
+
+        NodeInformation info = new NodeInformation();
+        info.setNodeName("fixture");
+        info.setNodeUid(URI.create(NODE_PREFIX + "moderator"));
+        info.setStaticNodeUrl0(URI.create(url.toString()));
+        TrustNetwork tn = new TrustNetwork();
+        tn.setNodeInformation(info);
+
+        LinkedHashMap<URI, String> materials = new LinkedHashMap<>();
+        materials.put(URI.create(NODE_PREFIX + "c"), IdContainerJSON.convertObjectToXml(issuer.cs));
+        materials.put(URI.create(NODE_PREFIX + "i"), IdContainerJSON.convertObjectToXml(
+                issuer.container.openResource(issuer.iUid)));
+        materials.put(URI.create(NODE_PREFIX + "rap"), IdContainerJSON.convertObjectToXml(
+                issuer.container.openResource(issuer.raUid)));
+        materials.put(URI.create(NODE_PREFIX + "rai"), IdContainerJSON.convertObjectToXml(
+                issuer.container.openResource(issuer.raiUid)));
+        materials.put(URI.create(NODE_PREFIX + "tn"), JaxbHelper.serializeToXml(tn, TrustNetwork.class));
+
+        AsymStoreKey key = new AsymStoreKey();
+        ArrayList<XKey> signatures = new ArrayList<>();
+        XKey rootKey = new XKey();
+        rootKey.setKeyUid(KeyContainerWrapper.TN_ROOT_KEY);
+        rootKey.setPublicKey(key.getPublicKey().getEncoded());
+        rootKey.setSignature(key.sign(rootKey.getPublicKey()));
+        signatures.add(rootKey);
+        for (Map.Entry<URI, String> material : materials.entrySet()){
+            byte[] bytes = material.getValue().getBytes(StandardCharsets.UTF_8);
+            Files.write(folder.resolve(IdContainer.uidToXmlFileName(material.getKey())), bytes);
+            XKey signature = new XKey();
+            signature.setKeyUid(material.getKey());
+            signature.setSignature(key.sign(MaterialSignatures.stripToSign(bytes)));
+            signatures.add(signature);
+
+        }
+        // the folder and the materials in it, as NodeVerifier checks them
+        ArrayList<URI> uids = new ArrayList<>(materials.keySet());
+        Collections.sort(uids);
+        String check = url.toString();
+        for (URI uid : uids){
+            check += uid;
+
+        }
+        XKey checksum = new XKey();
+        checksum.setKeyUid(KeyContainerWrapper.SIG_CHECKSUM);
+        checksum.setSignature(key.sign(check.replaceAll("/", "").getBytes()));
+        signatures.add(checksum);
+
+        KeyContainer keys = new KeyContainer();
+        keys.setKeyPairs(signatures);
+        return new Node(url, keys);
+
+    }
+
+    /**
+     * Opens a verifier as VerifierPool does, with its own key manager and
+     * crypto engines, and with the first issuer's public parameters in its
+     * container in place of the network.
+     */
+    public ExonymOwner openVerifier() throws Exception {
+        Issuer issuer = issuers.get(0);
+        IdContainerJsonMemory x = new IdContainerJsonMemory();
+        x.saveLocalResource(issuer.cs);
+        x.saveLocalResource(issuer.container.openResource(issuer.iUid));
+        x.saveLocalResource(issuer.container.openResource(issuer.raUid));
+        x.saveLocalResource(issuer.container.openResource(issuer.raiUid));
+        ExonymOwner owner = new ExonymOwner(x, DaggerExonymComponent.create());
+        owner.openContainer(store);
+        owner.setupContainerSecret(store.getEncrypt(), store.getDecipher());
+        return owner;
+
+    }
+
+    /**
+     * @return a pool of verifiers opened with openVerifier().
+     */
+    public VerifierPool newVerifierPool(int size) throws Exception {
+        return new VerifierPool(size, new VerifierPool.Opener() {
+            @Override
+            public ExonymOwner open() throws Exception {
+                return openVerifier();
+
+            }
+
+            @Override
+            public void clearStale(ExonymOwner verifier) throws Exception {
+                verifier.clearStale();
+
+            }
+        });
+    }
+
+    public void delete() throws Exception {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+
+        }
+    }
+
+    /**
+     * A published moderator folder and the signatures over its materials.
+     */
+    public static class Node {
+
+        private final URL url;
+        private final KeyContainer keys;
+
+        private Node(URL url, KeyContainer keys) {
+            this.url = url;
+            this.keys = keys;
+        }
+
+        public URL getUrl() {
+            return url;
+        }
+
+        public KeyContainer getKeys() {
+            return keys;
+        }
+    }
+
+    private class Issuer {
+
+        private final IdContainerJSON container;
+        private final ExonymIssuer issuer;
+        private final CredentialSpecification cs;
+        private final URI iUid;
+        private final URI raUid;
+        private final URI raiUid;
+        private final URI ipUid;
+
+        private Issuer(String name, URI csUid) throws Exception {
+            String prefix = csUid.toString().substring(0, csUid.toString().length() - 1);
+            this.container = new IdContainerJSON(root, name, true);
+            this.issuer = new ExonymIssuer(container);
+            this.cs = new BuildCredentialSpecification(csUid, true).getCredentialSpecification();
+            this.iUid = URI.create(prefix + "public-id:i");
+            this.ipUid = URI.create(prefix + "public-id:ip");
+            issuer.addCredentialSpecification(cs);
+            this.raUid = issuer.setupAsRevocationAuthority(iUid, store.getEncrypt());
+            this.raiUid = URI.create(raUid + "i");
+            issuer.setupAsCredentialIssuer(csUid, iUid, raUid, store.getEncrypt());
+
+        }
+    }
+}